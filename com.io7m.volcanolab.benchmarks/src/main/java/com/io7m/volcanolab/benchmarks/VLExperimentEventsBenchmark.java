@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentAbstract;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+
+/**
+ * <p>The cost of the event that an experiment publishes on every rendered
+ * frame, for varying numbers of subscribers.</p>
+ *
+ * <p>The experiment is a stand-in that renders nothing, so the benchmark
+ * measures only the frame entry point and the event delivery.</p>
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend =
+  "--add-modules=jdk.incubator.vector,jdk.incubator.foreign")
+public class VLExperimentEventsBenchmark
+{
+  @Param({"0", "1", "4"})
+  public int subscribers;
+
+  private EventExperiment experiment;
+  private Context context;
+  private ByteBuffer output;
+  private CompositeDisposable subscriptions;
+  private long received;
+
+  /**
+   * The cost of the event that an experiment publishes on every frame.
+   */
+
+  public VLExperimentEventsBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the experiment and subscribe to it.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.experiment = new EventExperiment();
+    this.context = new Context();
+    this.output = ByteBuffer.allocateDirect(4);
+    this.subscriptions = new CompositeDisposable();
+
+    for (var index = 0; index < this.subscribers; ++index) {
+      this.subscriptions.add(
+        this.experiment.events().subscribe(this::onEvent));
+    }
+  }
+
+  /**
+   * Unsubscribe from the experiment.
+   */
+
+  @TearDown
+  public void tearDown()
+  {
+    this.subscriptions.dispose();
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    ++this.received;
+  }
+
+  /**
+   * Render one frame, publishing one event.
+   *
+   * @return The number of events received so far
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public long renderFrame()
+    throws Exception
+  {
+    this.experiment.render(this.context, this.output);
+    return this.received;
+  }
+
+  private static final class Context implements ExperimentContextType
+  {
+    Context()
+    {
+
+    }
+
+    @Override
+    public VulkanPhysicalDeviceType physicalDevice()
+    {
+      return null;
+    }
+
+    @Override
+    public int width()
+    {
+      return 1;
+    }
+
+    @Override
+    public int height()
+    {
+      return 1;
+    }
+  }
+
+  private static final class EventExperiment extends ExperimentAbstract
+  {
+    private double progress;
+
+    EventExperiment()
+    {
+      super(
+        LoggerFactory.getLogger(EventExperiment.class),
+        "Benchmark Events");
+    }
+
+    @Override
+    protected void closeActual()
+    {
+
+    }
+
+    @Override
+    protected void startActual(
+      final ExperimentContextType context)
+    {
+
+    }
+
+    @Override
+    protected void onSizeChangedActual(
+      final ExperimentContextType context)
+    {
+
+    }
+
+    @Override
+    protected void renderActual(
+      final ExperimentContextType context,
+      final ByteBuffer output)
+    {
+      this.progress = (this.progress + 0.001) % 1.0;
+      this.eventLifecycle(RUNNING, this.progress, "");
+    }
+  }
+}
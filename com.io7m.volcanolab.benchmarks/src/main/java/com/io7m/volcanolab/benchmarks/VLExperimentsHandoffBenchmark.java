@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.volcanolab.gui.internal.VLExperiments;
+import com.io7m.volcanolab.gui.internal.VLExperimentsServiceType;
+import com.io7m.volcanolab.preferences.api.VLPreferences;
+import com.io7m.volcanolab.preferences.api.VLPreferencesServiceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.volcanolab.preferences.api.VLPreferencesDebuggingEnabled.DEBUGGING_DISABLED;
+
+/**
+ * <p>The latency of handing a command to the render thread and receiving
+ * its result.</p>
+ *
+ * <p>No device is selected, so the render thread never renders, and the
+ * command selects an experiment that does not exist, so the command itself
+ * does nothing. What remains is the cost of the queue, the polling loop,
+ * and the completion of the future.</p>
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend =
+  "--add-modules=jdk.incubator.vector,jdk.incubator.foreign")
+public class VLExperimentsHandoffBenchmark
+{
+  private VLExperimentsServiceType experiments;
+
+  /**
+   * The latency of handing a command to the render thread.
+   */
+
+  public VLExperimentsHandoffBenchmark()
+  {
+
+  }
+
+  /**
+   * Start the render thread.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.experiments = VLExperiments.create(new Preferences());
+  }
+
+  /**
+   * Stop the render thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown
+  public void tearDown()
+    throws Exception
+  {
+    this.experiments.close();
+  }
+
+  /**
+   * Submit a command and wait for it to complete.
+   *
+   * @return The command result
+   */
+
+  @Benchmark
+  public Void roundTrip()
+  {
+    return this.experiments.setExperiment("").join();
+  }
+
+  private static final class Preferences implements VLPreferencesServiceType
+  {
+    private final VLPreferences preferences;
+
+    Preferences()
+    {
+      this.preferences =
+        new VLPreferences(DEBUGGING_DISABLED, Optional.empty());
+    }
+
+    @Override
+    public VLPreferences preferences()
+    {
+      return this.preferences;
+    }
+
+    @Override
+    public void save(
+      final VLPreferences newPreferences)
+    {
+
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.gui.internal.VLImageBuffers;
+import javafx.scene.image.PixelBuffer;
+import jdk.incubator.foreign.ResourceScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * The cost of allocating and initializing the image that the user interface
+ * displays, as paid each time the experiment view is resized.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend =
+  "--add-modules=jdk.incubator.vector,jdk.incubator.foreign")
+public class VLImageBufferBenchmark
+{
+  @Param({"640x480", "1920x1080", "3840x2160"})
+  public String resolution;
+
+  private int width;
+  private int height;
+
+  /**
+   * The cost of allocating and initializing the displayed image.
+   */
+
+  public VLImageBufferBenchmark()
+  {
+
+  }
+
+  /**
+   * Parse the resolution.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var parts = this.resolution.split("x");
+    this.width = Integer.parseInt(parts[0]);
+    this.height = Integer.parseInt(parts[1]);
+  }
+
+  /**
+   * Allocate, clear, and wrap a frame, and then release it.
+   *
+   * @return The pixel buffer
+   */
+
+  @Benchmark
+  public PixelBuffer<ByteBuffer> initialize()
+  {
+    try (var scope = ResourceScope.newSharedScope()) {
+      final var frame =
+        ExperimentFrame.allocate(scope, this.width, this.height, BGRA8_PRE);
+      return VLImageBuffers.initialize(frame);
+    }
+  }
+}
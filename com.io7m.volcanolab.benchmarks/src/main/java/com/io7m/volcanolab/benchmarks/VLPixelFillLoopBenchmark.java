@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-byte {@code put} loop that the fill kernel replaced, kept as a
+ * baseline for {@link VLPixelKernelsBenchmark#fill()}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VLPixelFillLoopBenchmark
+{
+  @Param({"640x480", "1920x1080", "3840x2160"})
+  public String resolution;
+
+  private ByteBuffer target;
+
+  /**
+   * The per-byte fill loop.
+   */
+
+  public VLPixelFillLoopBenchmark()
+  {
+
+  }
+
+  /**
+   * Allocate the frame.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var parts = this.resolution.split("x");
+    final var width = Integer.parseInt(parts[0]);
+    final var height = Integer.parseInt(parts[1]);
+    this.target = ByteBuffer.allocateDirect(width * height * 4);
+  }
+
+  /**
+   * Fill a frame with opaque black, one byte at a time.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer fill()
+  {
+    for (var index = 0; index < this.target.capacity(); index += 4) {
+      this.target.put(index, (byte) 0x00);
+      this.target.put(index + 1, (byte) 0x00);
+      this.target.put(index + 2, (byte) 0x00);
+      this.target.put(index + 3, (byte) 0xff);
+    }
+    return this.target;
+  }
+}
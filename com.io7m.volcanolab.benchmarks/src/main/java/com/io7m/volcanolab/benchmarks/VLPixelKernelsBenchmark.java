@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the pixel kernels over whole frames.
+ *
+ * @see VLPixelFillLoopBenchmark
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VLPixelKernelsBenchmark
+{
+  @Param({"scalar", "vector"})
+  public String kernelName;
+
+  @Param({"640x480", "1920x1080", "3840x2160"})
+  public String resolution;
+
+  private VLPixelKernelsType kernels;
+  private ByteBuffer source;
+  private ByteBuffer target;
+  private int pixelCount;
+  private int width;
+  private int height;
+
+  /**
+   * Throughput of the pixel kernels over whole frames.
+   */
+
+  public VLPixelKernelsBenchmark()
+  {
+
+  }
+
+  /**
+   * Allocate frames and select kernels.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var parts = this.resolution.split("x");
+    this.width = Integer.parseInt(parts[0]);
+    this.height = Integer.parseInt(parts[1]);
+    this.pixelCount = this.width * this.height;
+
+    this.kernels = switch (this.kernelName) {
+      case "vector" -> VLPixelKernels.vector()
+        .orElseThrow(() -> new IllegalStateException(
+          "jdk.incubator.vector is not available"));
+      case "scalar" -> VLPixelKernels.scalar();
+      default -> throw new IllegalArgumentException(this.kernelName);
+    };
+
+    this.source = ByteBuffer.allocateDirect(this.pixelCount * 4);
+    this.target = ByteBuffer.allocateDirect(this.pixelCount * 4);
+    for (var index = 0; index < this.source.capacity(); ++index) {
+      this.source.put(index, (byte) (index * 31));
+    }
+  }
+
+  /**
+   * Fill a frame with opaque black.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer fill()
+  {
+    this.kernels.fill(this.target, 0, this.pixelCount, 0xff000000);
+    return this.target;
+  }
+
+  /**
+   * Convert a frame from RGBA to BGRA.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer swizzleRB()
+  {
+    this.kernels.swizzleRB(
+      this.source, 0, this.target, 0, this.pixelCount);
+    return this.target;
+  }
+
+  /**
+   * Premultiply a frame in place.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer premultiply()
+  {
+    this.kernels.premultiply(this.target, 0, this.pixelCount);
+    return this.target;
+  }
+
+  /**
+   * Make a frame opaque.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer clearAlpha()
+  {
+    this.kernels.clearAlpha(this.target, 0, this.pixelCount, 0xff);
+    return this.target;
+  }
+
+  /**
+   * Copy the left half of a frame into a tightly packed target.
+   *
+   * @return The target frame
+   */
+
+  @Benchmark
+  public ByteBuffer blit()
+  {
+    final var halfWidth = this.width / 2;
+    this.kernels.blit(
+      this.source,
+      0,
+      this.width * 4,
+      this.target,
+      0,
+      halfWidth * 4,
+      halfWidth,
+      this.height
+    );
+    return this.target;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentPixelFormat;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameCopy;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Throughput of the copy from a read back image into an output frame, as
+ * performed at the end of each frame by the experiments that render on the
+ * GPU.</p>
+ *
+ * <p>The mapped device memory is stood in for by native memory of the same
+ * size, so the benchmark measures only the host side of the copy.</p>
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend =
+  "--add-modules=jdk.incubator.vector,jdk.incubator.foreign")
+public class VLReadbackCopyBenchmark
+{
+  @Param({"640x480", "1920x1080", "3840x2160"})
+  public String resolution;
+
+  @Param({"BGRA8_PRE", "RGBA8"})
+  public String format;
+
+  @Param({"true", "false"})
+  public boolean opaque;
+
+  private VLPixelKernelsType kernels;
+  private ResourceScope scope;
+  private MemorySegment source;
+  private ExperimentFrame target;
+
+  /**
+   * Throughput of the copy from a read back image into an output frame.
+   */
+
+  public VLReadbackCopyBenchmark()
+  {
+
+  }
+
+  /**
+   * Allocate the source image and the output frame.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var parts = this.resolution.split("x");
+    final var width = Integer.parseInt(parts[0]);
+    final var height = Integer.parseInt(parts[1]);
+
+    this.kernels = VLPixelKernels.best();
+    this.scope = ResourceScope.newSharedScope();
+    this.source =
+      MemorySegment.allocateNative((long) width * height * 4L, this.scope);
+    this.target =
+      ExperimentFrame.allocate(
+        this.scope,
+        width,
+        height,
+        ExperimentPixelFormat.valueOf(this.format)
+      );
+
+    final var bytes = this.source.asByteBuffer();
+    for (var index = 0; index < bytes.capacity(); ++index) {
+      bytes.put(index, (byte) (index * 31));
+    }
+  }
+
+  /**
+   * Release the source image and the output frame.
+   */
+
+  @TearDown
+  public void tearDown()
+  {
+    this.scope.close();
+  }
+
+  /**
+   * Copy one read back image into the output frame.
+   *
+   * @return The output frame
+   */
+
+  @Benchmark
+  public ExperimentFrame copy()
+  {
+    ExperimentFrameCopy.copyFromRGBA8(
+      this.kernels, this.source, this.target, this.opaque);
+    return this.target;
+  }
+}
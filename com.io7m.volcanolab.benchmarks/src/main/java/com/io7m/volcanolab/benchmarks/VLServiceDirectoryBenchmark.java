@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.benchmarks;
+
+import com.io7m.volcanolab.services.api.VLServiceDirectory;
+import com.io7m.volcanolab.services.api.VLServiceException;
+import com.io7m.volcanolab.services.api.VLServiceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of looking up services in a service directory, both from a single
+ * thread and from several threads at once.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class VLServiceDirectoryBenchmark
+{
+  private static final int PLUGIN_COUNT = 8;
+
+  private VLServiceDirectory services;
+
+  /**
+   * The cost of looking up services in a service directory.
+   */
+
+  public VLServiceDirectoryBenchmark()
+  {
+
+  }
+
+  /**
+   * Populate the directory with a single service and a set of plugins.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.services = new VLServiceDirectory();
+    this.services.register(SingleType.class, new Single());
+    for (var index = 0; index < PLUGIN_COUNT; ++index) {
+      this.services.register(PluginType.class, new Plugin());
+    }
+  }
+
+  /**
+   * Look up a service that may not exist.
+   *
+   * @return The service
+   */
+
+  @Benchmark
+  public Optional<SingleType> optionalService()
+  {
+    return this.services.optionalService(SingleType.class);
+  }
+
+  /**
+   * Look up a service that must exist.
+   *
+   * @return The service
+   *
+   * @throws VLServiceException On errors
+   */
+
+  @Benchmark
+  public SingleType requireService()
+    throws VLServiceException
+  {
+    return this.services.requireService(SingleType.class);
+  }
+
+  /**
+   * Look up every registered implementation of a service.
+   *
+   * @return The services
+   *
+   * @throws VLServiceException On errors
+   */
+
+  @Benchmark
+  public List<? extends PluginType> optionalServices()
+    throws VLServiceException
+  {
+    return this.services.optionalServices(PluginType.class);
+  }
+
+  /**
+   * Look up a service that must exist from several threads at once.
+   *
+   * @return The service
+   *
+   * @throws VLServiceException On errors
+   */
+
+  @Benchmark
+  @Threads(4)
+  public SingleType requireServiceContended()
+    throws VLServiceException
+  {
+    return this.services.requireService(SingleType.class);
+  }
+
+  /**
+   * A service of which there is one implementation.
+   */
+
+  public interface SingleType extends VLServiceType
+  {
+
+  }
+
+  /**
+   * A service of which there are many implementations.
+   */
+
+  public interface PluginType extends VLServiceType
+  {
+
+  }
+
+  private static final class Single implements SingleType
+  {
+    Single()
+    {
+
+    }
+  }
+
+  private static final class Plugin implements PluginType
+  {
+    Plugin()
+    {
+
+    }
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * <p>An output frame: a region of memory holding {@code height} rows of
+ * {@code width} pixels, with rows {@code stride} bytes apart.</p>
+ *
+ * <p>Frames are not limited to 2GiB, and the memory may be native memory
+ * owned by a resource scope, or a view of mapped device memory.</p>
+ *
+ * @param memory The frame memory
+ * @param width  The width in pixels
+ * @param height The height in pixels
+ * @param stride The distance in bytes between the start of each row
+ * @param format The pixel format
+ */
+
+public record ExperimentFrame(
+  MemorySegment memory,
+  int width,
+  int height,
+  long stride,
+  ExperimentPixelFormat format)
+{
+  private static final long ALIGNMENT = 64L;
+
+  /**
+   * <p>An output frame: a region of memory holding {@code height} rows of
+   * {@code width} pixels, with rows {@code stride} bytes apart.</p>
+   *
+   * @param memory The frame memory
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   * @param stride The distance in bytes between the start of each row
+   * @param format The pixel format
+   */
+
+  public ExperimentFrame
+  {
+    Objects.requireNonNull(memory, "memory");
+    Objects.requireNonNull(format, "format");
+
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Frame size %dx%d must be positive",
+          Integer.valueOf(width),
+          Integer.valueOf(height))
+      );
+    }
+
+    final var rowBytes = (long) width * (long) format.bytesPerPixel();
+    if (stride < rowBytes) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Stride %d must be at least %d",
+          Long.valueOf(stride),
+          Long.valueOf(rowBytes))
+      );
+    }
+
+    final var required = (stride * (long) (height - 1)) + rowBytes;
+    if (memory.byteSize() < required) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Frame of %dx%d (stride %d) requires %d bytes, but the memory is %d bytes",
+          Integer.valueOf(width),
+          Integer.valueOf(height),
+          Long.valueOf(stride),
+          Long.valueOf(required),
+          Long.valueOf(memory.byteSize()))
+      );
+    }
+  }
+
+  /**
+   * Allocate a tightly packed frame in native memory. The memory is freed
+   * when {@code scope} is closed. Experiments are free to write to frames
+   * from multiple threads, so frames passed to experiments should be
+   * allocated in shared scopes.
+   *
+   * @param scope  The resource scope that owns the memory
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   * @param format The pixel format
+   *
+   * @return A new frame
+   */
+
+  public static ExperimentFrame allocate(
+    final ResourceScope scope,
+    final int width,
+    final int height,
+    final ExperimentPixelFormat format)
+  {
+    Objects.requireNonNull(scope, "scope");
+    Objects.requireNonNull(format, "format");
+
+    final var stride = (long) width * (long) format.bytesPerPixel();
+    final var memory =
+      MemorySegment.allocateNative(
+        Math.max(1L, stride * (long) height),
+        ALIGNMENT,
+        scope
+      );
+    return new ExperimentFrame(memory, width, height, stride, format);
+  }
+
+  /**
+   * Wrap a tightly packed direct or heap byte buffer without copying.
+   *
+   * @param buffer The buffer
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   * @param format The pixel format
+   *
+   * @return A frame backed by {@code buffer}
+   */
+
+  public static ExperimentFrame ofByteBuffer(
+    final ByteBuffer buffer,
+    final int width,
+    final int height,
+    final ExperimentPixelFormat format)
+  {
+    Objects.requireNonNull(format, "format");
+    return new ExperimentFrame(
+      MemorySegment.ofByteBuffer(buffer),
+      width,
+      height,
+      (long) width * (long) format.bytesPerPixel(),
+      format
+    );
+  }
+
+  /**
+   * @return The number of bytes occupied by the pixels of one row
+   */
+
+  public long rowBytes()
+  {
+    return (long) this.width * (long) this.format.bytesPerPixel();
+  }
+
+  /**
+   * @param y The row
+   *
+   * @return The byte offset of the start of row {@code y}
+   */
+
+  public long rowOffset(
+    final int y)
+  {
+    Objects.checkIndex(y, this.height);
+    return (long) y * this.stride;
+  }
+
+  /**
+   * @param y The row
+   *
+   * @return A slice of the memory covering the pixels of row {@code y}
+   */
+
+  public MemorySegment row(
+    final int y)
+  {
+    return this.memory.asSlice(this.rowOffset(y), this.rowBytes());
+  }
+
+  /**
+   * @return {@code true} if there is no padding between rows
+   */
+
+  public boolean isTightlyPacked()
+  {
+    return this.stride == this.rowBytes();
+  }
+
+  /**
+   * @return The number of bytes spanned by the frame, including row padding
+   */
+
+  public long byteSize()
+  {
+    return (this.stride * (long) (this.height - 1)) + this.rowBytes();
+  }
+
+  /**
+   * View the frame as a byte buffer, for code that has not moved to memory
+   * segments.
+   *
+   * @return A byte buffer view of the frame memory
+   *
+   * @throws UnsupportedOperationException If the frame is larger than a byte
+   *                                       buffer can address
+   */
+
+  public ByteBuffer asByteBuffer()
+  {
+    final var size = this.byteSize();
+    if (size > (long) Integer.MAX_VALUE) {
+      throw new UnsupportedOperationException(
+        String.format(
+          "A frame of %d bytes cannot be viewed as a ByteBuffer",
+          Long.valueOf(size))
+      );
+    }
+    return this.memory.asSlice(0L, size).asByteBuffer();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+/**
+ * The rectangular region of a frame that changed during a render.
+ *
+ * @param x      The x coordinate of the top-left pixel
+ * @param y      The y coordinate of the top-left pixel
+ * @param width  The width in pixels
+ * @param height The height in pixels
+ */
+
+public record ExperimentFrameDamage(
+  int x,
+  int y,
+  int width,
+  int height)
+{
+  /**
+   * No pixels changed.
+   */
+
+  public static final ExperimentFrameDamage NONE =
+    new ExperimentFrameDamage(0, 0, 0, 0);
+
+  /**
+   * The rectangular region of a frame that changed during a render.
+   *
+   * @param x      The x coordinate of the top-left pixel
+   * @param y      The y coordinate of the top-left pixel
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   */
+
+  public ExperimentFrameDamage
+  {
+    if (x < 0 || y < 0 || width < 0 || height < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Damage %dx%d at %d,%d must be non-negative",
+          Integer.valueOf(width),
+          Integer.valueOf(height),
+          Integer.valueOf(x),
+          Integer.valueOf(y))
+      );
+    }
+  }
+
+  /**
+   * @param frame The frame
+   *
+   * @return Damage covering the whole of {@code frame}
+   */
+
+  public static ExperimentFrameDamage all(
+    final ExperimentFrame frame)
+  {
+    return new ExperimentFrameDamage(0, 0, frame.width(), frame.height());
+  }
+
+  /**
+   * @return {@code true} if no pixels changed
+   */
+
+  public boolean isEmpty()
+  {
+    return this.width == 0 || this.height == 0;
+  }
+
+  /**
+   * Clip the damage to the bounds of a frame.
+   *
+   * @param frame The frame
+   *
+   * @return The part of the damage that lies inside {@code frame}
+   */
+
+  public ExperimentFrameDamage clip(
+    final ExperimentFrame frame)
+  {
+    final var x0 = Math.min(this.x, frame.width());
+    final var y0 = Math.min(this.y, frame.height());
+    final var x1 = (int) Math.min((long) this.x + this.width, frame.width());
+    final var y1 = (int) Math.min((long) this.y + this.height, frame.height());
+    if (x1 <= x0 || y1 <= y0) {
+      return NONE;
+    }
+    return new ExperimentFrameDamage(x0, y0, x1 - x0, y1 - y0);
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.volcanolab.experiment.api;
+
+/**
+ * The device memory an experiment has allocated from one memory heap.
+ *
+ * @param heap   The index of the heap on the physical device
+ * @param usage  The number of bytes the experiment has allocated
+ * @param budget The number of bytes the experiment can expect to allocate
+ *               from the heap before allocations start to fail or degrade
+ */
+
+public record ExperimentMemoryHeap(
+  int heap,
+  long usage,
+  long budget)
+{
+  /**
+   * The device memory an experiment has allocated from one memory heap.
+   *
+   * @param heap   The index of the heap on the physical device
+   * @param usage  The number of bytes the experiment has allocated
+   * @param budget The number of bytes the experiment can expect to
+   *               allocate from the heap before allocations start to fail
+   *               or degrade
+   */
+
+  public ExperimentMemoryHeap
+  {
+    if (heap < 0) {
+      throw new IllegalArgumentException(
+        String.format("Heap index %d must be >= 0", Integer.valueOf(heap)));
+    }
+  }
+}
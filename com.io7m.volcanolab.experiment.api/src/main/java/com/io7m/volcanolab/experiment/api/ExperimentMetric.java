@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A numeric measurement published by an experiment, such as a throughput
+ * or an amount of memory in use.
+ *
+ * @param name        The metric name, such as {@code pixels_per_second}
+ * @param description A human-readable description of the metric
+ * @param value       The current value
+ */
+
+public record ExperimentMetric(
+  String name,
+  String description,
+  double value)
+{
+  /**
+   * The conventional name of the metric holding the number of bytes of
+   * device memory an experiment has allocated.
+   */
+
+  public static final String DEVICE_MEMORY_BYTES = "device_memory_bytes";
+
+  private static final Pattern VALID_NAME =
+    Pattern.compile("[a-z_][a-z0-9_]*");
+
+  /**
+   * A numeric measurement published by an experiment.
+   *
+   * @param name        The metric name, such as {@code pixels_per_second}
+   * @param description A human-readable description of the metric
+   * @param value       The current value
+   */
+
+  public ExperimentMetric
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(description, "description");
+
+    if (!VALID_NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Metric name '%s' must match %s",
+          name,
+          VALID_NAME.pattern())
+      );
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.volcanolab.experiment.api;
+
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+import java.util.TreeMap;
+
+/**
+ * Functions to find the names of experiment providers.
+ */
+
+public final class ExperimentNames
+{
+  private ExperimentNames()
+  {
+
+  }
+
+  /**
+   * Find the name of the experiment the given provider type creates.
+   *
+   * @param type The provider type
+   *
+   * @return The experiment name
+   *
+   * @throws IllegalArgumentException If the type has no
+   *                                  {@link ExperimentName} annotation
+   */
+
+  public static String nameOf(
+    final Class<?> type)
+  {
+    Objects.requireNonNull(type, "type");
+
+    final var annotation = type.getAnnotation(ExperimentName.class);
+    if (annotation == null) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Experiment provider %s has no @%s annotation",
+          type.getName(),
+          ExperimentName.class.getSimpleName())
+      );
+    }
+    return annotation.value();
+  }
+
+  /**
+   * Index the providers of the given service loader by experiment name.
+   * The name is read from the {@link ExperimentName} annotation of each
+   * provider type, so no experiment is instantiated.
+   *
+   * @param loader The service loader
+   *
+   * @return The providers, sorted by name
+   *
+   * @throws IllegalArgumentException If a provider type is not annotated
+   * @throws IllegalStateException    If two providers have the same name
+   */
+
+  public static TreeMap<String, Provider<ExperimentType>> index(
+    final ServiceLoader<ExperimentType> loader)
+  {
+    Objects.requireNonNull(loader, "loader");
+
+    final var experiments =
+      new TreeMap<String, Provider<ExperimentType>>();
+
+    for (final var provider : loader.stream().toList()) {
+      final var type = provider.type();
+      final var existing = experiments.put(nameOf(type), provider);
+      if (existing != null) {
+        throw new IllegalStateException(
+          String.format(
+            "Experiment providers %s and %s have the same name '%s'",
+            existing.type().getName(),
+            type.getName(),
+            nameOf(type))
+        );
+      }
+    }
+    return experiments;
+  }
+}
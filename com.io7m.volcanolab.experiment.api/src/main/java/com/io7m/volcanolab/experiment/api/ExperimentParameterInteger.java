@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An integer workload parameter.
+ */
+
+public final class ExperimentParameterInteger
+  implements ExperimentParameterType
+{
+  private final String name;
+  private final String description;
+  private final long minimum;
+  private final long maximum;
+  private final long defaultValue;
+  private final AtomicLong value;
+
+  private ExperimentParameterInteger(
+    final String inName,
+    final String inDescription,
+    final long inMinimum,
+    final long inMaximum,
+    final long inDefaultValue)
+  {
+    this.name = Objects.requireNonNull(inName, "name");
+    this.description = Objects.requireNonNull(inDescription, "description");
+    this.minimum = inMinimum;
+    this.maximum = inMaximum;
+    this.defaultValue = inDefaultValue;
+    this.value = new AtomicLong(inDefaultValue);
+  }
+
+  /**
+   * Create an integer parameter.
+   *
+   * @param name         The name
+   * @param description  The description
+   * @param minimum      The minimum value, inclusive
+   * @param maximum      The maximum value, inclusive
+   * @param defaultValue The default value
+   *
+   * @return A parameter holding its default value
+   */
+
+  public static ExperimentParameterInteger create(
+    final String name,
+    final String description,
+    final long minimum,
+    final long maximum,
+    final long defaultValue)
+  {
+    if (defaultValue < minimum || defaultValue > maximum) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Default %d for parameter %s must be in the range [%d, %d]",
+          Long.valueOf(defaultValue),
+          name,
+          Long.valueOf(minimum),
+          Long.valueOf(maximum))
+      );
+    }
+
+    return new ExperimentParameterInteger(
+      name, description, minimum, maximum, defaultValue);
+  }
+
+  /**
+   * @return The current value
+   */
+
+  public long get()
+  {
+    return this.value.get();
+  }
+
+  /**
+   * Set the value of the parameter.
+   *
+   * @param newValue The new value
+   *
+   * @throws IllegalArgumentException If the value is out of range
+   */
+
+  public void set(
+    final long newValue)
+  {
+    if (newValue < this.minimum || newValue > this.maximum) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Value %d for parameter %s must be in the range [%d, %d]",
+          Long.valueOf(newValue),
+          this.name,
+          Long.valueOf(this.minimum),
+          Long.valueOf(this.maximum))
+      );
+    }
+    this.value.set(newValue);
+  }
+
+  @Override
+  public String name()
+  {
+    return this.name;
+  }
+
+  @Override
+  public String description()
+  {
+    return this.description;
+  }
+
+  @Override
+  public double minimum()
+  {
+    return (double) this.minimum;
+  }
+
+  @Override
+  public double maximum()
+  {
+    return (double) this.maximum;
+  }
+
+  @Override
+  public double defaultValue()
+  {
+    return (double) this.defaultValue;
+  }
+
+  @Override
+  public double numericValue()
+  {
+    return (double) this.get();
+  }
+
+  @Override
+  public void setNumeric(
+    final double newValue)
+  {
+    if (!Double.isFinite(newValue)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Value %f for parameter %s must be finite",
+          Double.valueOf(newValue),
+          this.name)
+      );
+    }
+    this.set(Math.round(newValue));
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[ExperimentParameterInteger %s %d [%d, %d]]",
+      this.name,
+      Long.valueOf(this.get()),
+      Long.valueOf(this.minimum),
+      Long.valueOf(this.maximum));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A real-valued workload parameter.
+ */
+
+public final class ExperimentParameterReal
+  implements ExperimentParameterType
+{
+  private final String name;
+  private final String description;
+  private final double minimum;
+  private final double maximum;
+  private final double defaultValue;
+
+  /*
+   * The value is held as the raw bits of a double so that it can be
+   * published with a single atomic store.
+   */
+
+  private final AtomicLong bits;
+
+  private ExperimentParameterReal(
+    final String inName,
+    final String inDescription,
+    final double inMinimum,
+    final double inMaximum,
+    final double inDefaultValue)
+  {
+    this.name = Objects.requireNonNull(inName, "name");
+    this.description = Objects.requireNonNull(inDescription, "description");
+    this.minimum = inMinimum;
+    this.maximum = inMaximum;
+    this.defaultValue = inDefaultValue;
+    this.bits = new AtomicLong(Double.doubleToRawLongBits(inDefaultValue));
+  }
+
+  /**
+   * Create a real-valued parameter.
+   *
+   * @param name         The name
+   * @param description  The description
+   * @param minimum      The minimum value, inclusive
+   * @param maximum      The maximum value, inclusive
+   * @param defaultValue The default value
+   *
+   * @return A parameter holding its default value
+   */
+
+  public static ExperimentParameterReal create(
+    final String name,
+    final String description,
+    final double minimum,
+    final double maximum,
+    final double defaultValue)
+  {
+    if (!(defaultValue >= minimum && defaultValue <= maximum)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Default %f for parameter %s must be in the range [%f, %f]",
+          Double.valueOf(defaultValue),
+          name,
+          Double.valueOf(minimum),
+          Double.valueOf(maximum))
+      );
+    }
+
+    return new ExperimentParameterReal(
+      name, description, minimum, maximum, defaultValue);
+  }
+
+  /**
+   * @return The current value
+   */
+
+  public double get()
+  {
+    return Double.longBitsToDouble(this.bits.get());
+  }
+
+  /**
+   * Set the value of the parameter.
+   *
+   * @param newValue The new value
+   *
+   * @throws IllegalArgumentException If the value is out of range
+   */
+
+  public void set(
+    final double newValue)
+  {
+    if (!(newValue >= this.minimum && newValue <= this.maximum)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Value %f for parameter %s must be in the range [%f, %f]",
+          Double.valueOf(newValue),
+          this.name,
+          Double.valueOf(this.minimum),
+          Double.valueOf(this.maximum))
+      );
+    }
+    this.bits.set(Double.doubleToRawLongBits(newValue));
+  }
+
+  @Override
+  public String name()
+  {
+    return this.name;
+  }
+
+  @Override
+  public String description()
+  {
+    return this.description;
+  }
+
+  @Override
+  public double minimum()
+  {
+    return this.minimum;
+  }
+
+  @Override
+  public double maximum()
+  {
+    return this.maximum;
+  }
+
+  @Override
+  public double defaultValue()
+  {
+    return this.defaultValue;
+  }
+
+  @Override
+  public double numericValue()
+  {
+    return this.get();
+  }
+
+  @Override
+  public void setNumeric(
+    final double newValue)
+  {
+    this.set(newValue);
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[ExperimentParameterReal %s %f [%f, %f]]",
+      this.name,
+      Double.valueOf(this.get()),
+      Double.valueOf(this.minimum),
+      Double.valueOf(this.maximum));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+/**
+ * <p>A numeric workload parameter declared by an experiment, such as an
+ * object count or a texture size.</p>
+ *
+ * <p>Each parameter holds its current value in a lock-free slot: the host
+ * may write a new value from any thread at any time, and the experiment
+ * reads the slot on its render thread at the start of each frame and
+ * reconfigures itself if the value has changed. Reads are a single volatile
+ * load, and so are cheap enough to perform every frame.</p>
+ */
+
+public sealed interface ExperimentParameterType
+  permits ExperimentParameterInteger, ExperimentParameterReal
+{
+  /**
+   * @return The name of the parameter, unique within an experiment
+   */
+
+  String name();
+
+  /**
+   * @return A human-readable description of the parameter
+   */
+
+  String description();
+
+  /**
+   * @return The minimum value, inclusive
+   */
+
+  double minimum();
+
+  /**
+   * @return The maximum value, inclusive
+   */
+
+  double maximum();
+
+  /**
+   * @return The value the parameter has when the experiment is created
+   */
+
+  double defaultValue();
+
+  /**
+   * @return The current value
+   */
+
+  double numericValue();
+
+  /**
+   * Set the value of the parameter. Integer parameters round the value to
+   * the nearest integer.
+   *
+   * @param value The new value
+   *
+   * @throws IllegalArgumentException If the value is outside the range
+   *                                  {@code [minimum(), maximum()]}
+   */
+
+  void setNumeric(double value);
+
+  /**
+   * Restore the default value.
+   */
+
+  default void reset()
+  {
+    this.setNumeric(this.defaultValue());
+  }
+}
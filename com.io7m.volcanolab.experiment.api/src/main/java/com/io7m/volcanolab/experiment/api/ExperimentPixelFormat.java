@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiment.api;
+
+/**
+ * The format of pixels in an output frame.
+ */
+
+public enum ExperimentPixelFormat
+{
+  /**
+   * Four bytes per pixel in the order {@code B, G, R, A}, with color
+   * channels premultiplied by alpha. This is the format used by the GUI.
+   */
+
+  BGRA8_PRE(4),
+
+  /**
+   * Four bytes per pixel in the order {@code R, G, B, A}, not premultiplied.
+   */
+
+  RGBA8(4);
+
+  private final int bytesPerPixel;
+
+  ExperimentPixelFormat(
+    final int inBytesPerPixel)
+  {
+    this.bytesPerPixel = inBytesPerPixel;
+  }
+
+  /**
+   * @return The size of a single pixel in bytes
+   */
+
+  public int bytesPerPixel()
+  {
+    return this.bytesPerPixel;
+  }
+}
@@ -19,6 +19,8 @@ package com.io7m.volcanolab.experiment.api;
 import io.reactivex.rxjava3.core.Observable;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
 
 public interface ExperimentType extends AutoCloseable
 {
@@ -26,6 +28,59 @@ public interface ExperimentType extends AutoCloseable
 
   Observable<ExperimentEventType> events();
 
+  /**
+   * The workload parameters the experiment declares. The host may write
+   * new values into the parameters from any thread; the experiment applies
+   * them at the start of the next frame.
+   *
+   * @return The parameters, in a stable order
+   */
+
+  default List<ExperimentParameterType> parameters()
+  {
+    return List.of();
+  }
+
+  /**
+   * The measurements the experiment currently publishes. The host samples
+   * the metrics on the render thread, between frames.
+   *
+   * @return The metrics, in a stable order
+   */
+
+  default List<ExperimentMetric> metrics()
+  {
+    return List.of();
+  }
+
+  /**
+   * The device memory the experiment currently holds, per memory heap. The
+   * host samples the heaps on the render thread, between frames.
+   *
+   * @return The heaps, in heap index order
+   */
+
+  default List<ExperimentMemoryHeap> memoryHeaps()
+  {
+    return List.of();
+  }
+
+  /**
+   * The region of the output written by the most recent render. Experiments
+   * that know which pixels they changed should report it here, and report
+   * {@link ExperimentFrameDamage#NONE} if a render left the output
+   * untouched; the host then uploads only the damaged region to the
+   * display. Experiments that do not track damage return nothing, and the
+   * host detects changes itself.
+   *
+   * @return The damage caused by the most recent render, if known
+   */
+
+  default Optional<ExperimentFrameDamage> damage()
+  {
+    return Optional.empty();
+  }
+
   void start(
     ExperimentContextType context)
     throws Exception;
@@ -38,4 +93,30 @@ public interface ExperimentType extends AutoCloseable
     ExperimentContextType context,
     ByteBuffer output)
     throws Exception;
+
+  /**
+   * Render a frame into {@code output}. Experiments that have not been
+   * written against frames are given a byte buffer view of the frame, and
+   * so can only render into tightly packed frames no larger than 2GiB.
+   *
+   * @param context The context
+   * @param output  The output frame
+   *
+   * @throws Exception On errors
+   */
+
+  default void render(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    if (!output.isTightlyPacked()) {
+      throw new UnsupportedOperationException(
+        String.format(
+          "Experiment %s cannot render into frames with padded rows",
+          this.name())
+      );
+    }
+    this.render(context, output.asByteBuffer());
+  }
 }
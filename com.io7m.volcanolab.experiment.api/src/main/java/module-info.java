@@ -25,6 +25,7 @@ module com.io7m.volcanolab.experiment.api
 
   requires transitive com.io7m.jcoronado.api;
   requires transitive io.reactivex.rxjava3;
+  requires transitive jdk.incubator.foreign;
 
   exports com.io7m.volcanolab.experiment.api;
 }
@@ -23,23 +23,34 @@ import com.io7m.volcanolab.experiment.api.ExperimentContextType;
 import com.io7m.volcanolab.experiment.api.ExperimentError;
 import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
 import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
 import com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus;
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
 import com.io7m.volcanolab.experiment.api.ExperimentType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 import io.reactivex.rxjava3.subjects.Subject;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STOPPED;
+import static com.io7m.volcanolab.experiment.api.ExperimentMetric.DEVICE_MEMORY_BYTES;
 
 public abstract class ExperimentAbstract implements ExperimentType
 {
   private final Logger logger;
   private final String name;
   private final Subject<ExperimentEventType> events;
+  private final ConcurrentSkipListMap<String, ExperimentMetric> metrics;
+  private volatile Optional<ExperimentAllocator> allocator;
   private boolean failed;
   private CloseableCollectionType<ClosingResourceFailedException> resources;
 
@@ -55,6 +66,10 @@ public abstract class ExperimentAbstract implements ExperimentType
       PublishSubject.create();
     this.resources =
       CloseableCollection.create();
+    this.metrics =
+      new ConcurrentSkipListMap<>();
+    this.allocator =
+      Optional.empty();
 
     this.failed = false;
   }
@@ -80,6 +95,71 @@ public abstract class ExperimentAbstract implements ExperimentType
 
   protected abstract void closeActual();
 
+  /**
+   * Publish the current value of a metric.
+   *
+   * @param metricName  The metric name
+   * @param description The metric description
+   * @param value       The value
+   */
+
+  protected final void metric(
+    final String metricName,
+    final String description,
+    final double value)
+  {
+    this.metrics.put(
+      metricName,
+      new ExperimentMetric(metricName, description, value));
+  }
+
+  /*
+   * Every experiment publishes the device memory allocated through its
+   * tracked allocator, so that hosts can budget suspended experiments by
+   * what they actually hold. Experiments that allocate no device memory
+   * report zero.
+   */
+
+  @Override
+  public final List<ExperimentMetric> metrics()
+  {
+    final var bytes =
+      this.allocator.map(ExperimentAllocator::usedBytes)
+        .orElse(Long.valueOf(0L));
+
+    final var current = new TreeMap<>(this.metrics);
+    current.put(
+      DEVICE_MEMORY_BYTES,
+      new ExperimentMetric(
+        DEVICE_MEMORY_BYTES,
+        "The device memory allocated by the experiment, in bytes.",
+        bytes.doubleValue())
+    );
+    return List.copyOf(current.values());
+  }
+
+  /**
+   * Account the device memory allocated through the given allocator to this
+   * experiment.
+   *
+   * @param inAllocator The allocator
+   */
+
+  protected final void trackMemory(
+    final ExperimentAllocator inAllocator)
+  {
+    this.allocator =
+      Optional.of(Objects.requireNonNull(inAllocator, "allocator"));
+  }
+
+  @Override
+  public final List<ExperimentMemoryHeap> memoryHeaps()
+  {
+    return this.allocator
+      .map(ExperimentAllocator::heaps)
+      .orElse(List.of());
+  }
+
   protected final void eventLifecycle(
     final ExperimentLifecycleStatus status,
     final double progress,
@@ -183,6 +263,54 @@ public abstract class ExperimentAbstract implements ExperimentType
     ByteBuffer output)
     throws Exception;
 
+  @Override
+  public final void render(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(output, "output");
+
+    if (this.failed) {
+      return;
+    }
+
+    try {
+      this.renderFrameActual(context, output);
+    } catch (final Exception e) {
+      this.failed = true;
+      this.event(new ExperimentError(e));
+      throw e;
+    }
+  }
+
+  /**
+   * Render into a frame. The default implementation passes a byte buffer
+   * view of the frame to {@link #renderActual(ExperimentContextType, ByteBuffer)},
+   * and so only supports tightly packed frames.
+   *
+   * @param context The context
+   * @param output  The output frame
+   *
+   * @throws Exception On errors
+   */
+
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    if (!output.isTightlyPacked()) {
+      throw new UnsupportedOperationException(
+        String.format(
+          "Experiment %s cannot render into frames with padded rows",
+          this.name)
+      );
+    }
+    this.renderActual(context, output.asByteBuffer());
+  }
+
   protected final CloseableCollectionType<?> resources()
   {
     return this.resources;
@@ -0,0 +1,751 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanBufferCopy;
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanDescriptorBufferInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolSize;
+import com.io7m.jcoronado.api.VulkanDescriptorSetAllocateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutBinding;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent3D;
+import com.io7m.jcoronado.api.VulkanImageBlit;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageLayout;
+import com.io7m.jcoronado.api.VulkanImageMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanImageSubresourceLayers;
+import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanOffset3D;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanWriteDescriptorSet;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentBarChart;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_SHADER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_SHADER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER;
+import static com.io7m.jcoronado.api.VulkanFilter.VK_FILTER_NEAREST;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageAspectFlag.VK_IMAGE_ASPECT_COLOR_BIT;
+import static com.io7m.jcoronado.api.VulkanImageKind.VK_IMAGE_TYPE_2D;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_UNDEFINED;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_COMPUTE;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * <p>An experiment that measures device memory bandwidth.</p>
+ *
+ * <p>For each of a sweep of transfer sizes, the experiment times repeated
+ * buffer copies, image blits, and compute shader copies between device-local
+ * resources. One measurement is taken per frame so that progress can be
+ * observed; once all measurements are complete, the results are shown as a
+ * bar chart, grouped by size.</p>
+ */
+
+@ExperimentName(ExperimentBandwidth.NAME)
+public final class ExperimentBandwidth extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Bandwidth";
+
+  /**
+   * The transfer sizes measured by default.
+   */
+
+  public static final List<Long> DEFAULT_SIZES =
+    List.of(
+      Long.valueOf(64L * 1024L),
+      Long.valueOf(1024L * 1024L),
+      Long.valueOf(4L * 1024L * 1024L),
+      Long.valueOf(16L * 1024L * 1024L),
+      Long.valueOf(64L * 1024L * 1024L)
+    );
+
+  /*
+   * Each measurement repeats the transfer until roughly this many bytes have
+   * been moved, within the iteration bounds below.
+   */
+
+  private static final long TARGET_BYTES = 256L * 1024L * 1024L;
+  private static final int ITERATIONS_MIN = 4;
+  private static final int ITERATIONS_MAX = 256;
+
+  private static final int WORKGROUP_SIZE = 256;
+  private static final int WORKGROUP_COUNT_MAX = 65535;
+  private static final int COMPUTE_ELEMENT_SIZE = 16;
+
+  private final VLPixelKernelsType kernels;
+  private final List<Long> sizes;
+  private final List<Measurement> plan;
+  private final List<ExperimentBandwidthResult> results;
+  private final ByteBuffer pushConstants;
+  private VulkanLogicalDeviceType device;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private VulkanBufferType bufferSource;
+  private VulkanBufferType bufferTarget;
+  private VulkanImageType imageSource;
+  private VulkanImageType imageTarget;
+  private VulkanPipelineLayoutType computeLayout;
+  private VulkanPipelineType computePipeline;
+  private VulkanDescriptorSetType computeDescriptors;
+  private VulkanImageSubresourceLayers imageLayers;
+  private int planIndex;
+
+  public ExperimentBandwidth()
+  {
+    this(DEFAULT_SIZES);
+  }
+
+  /**
+   * An experiment that measures device memory bandwidth.
+   *
+   * @param inSizes The transfer sizes in bytes; each must be a positive
+   *                multiple of 16
+   */
+
+  public ExperimentBandwidth(
+    final List<Long> inSizes)
+  {
+    super(LoggerFactory.getLogger(ExperimentBandwidth.class), NAME);
+
+    this.sizes = List.copyOf(Objects.requireNonNull(inSizes, "sizes"));
+    if (this.sizes.isEmpty()) {
+      throw new IllegalArgumentException("At least one size is required");
+    }
+
+    for (final var size : this.sizes) {
+      final var value = size.longValue();
+      if (value <= 0L || value % COMPUTE_ELEMENT_SIZE != 0L) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Size %d must be a positive multiple of %d",
+            Long.valueOf(value),
+            Integer.valueOf(COMPUTE_ELEMENT_SIZE))
+        );
+      }
+    }
+
+    final var measurements = new ArrayList<Measurement>();
+    for (final var size : this.sizes) {
+      for (final var kind : ExperimentBandwidthKind.values()) {
+        measurements.add(new Measurement(kind, size.longValue()));
+      }
+    }
+
+    this.plan = List.copyOf(measurements);
+    this.results = new ArrayList<>(this.plan.size());
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(8)
+        .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentBandwidthResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every measurement has been taken
+   */
+
+  public boolean isComplete()
+  {
+    return this.planIndex == this.plan.size();
+  }
+
+  private static int imageSideFor(
+    final long size)
+  {
+    var side = 1;
+    while ((long) (side * 2) * (long) (side * 2) * 4L <= size) {
+      side *= 2;
+    }
+    return side;
+  }
+
+  private static int iterationsFor(
+    final long size)
+  {
+    final var iterations = (TARGET_BYTES + size - 1L) / size;
+    return (int) Math.max(
+      ITERATIONS_MIN,
+      Math.min(ITERATIONS_MAX, iterations));
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+
+    this.results.clear();
+    this.planIndex = 0;
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        this.resources(),
+        context.physicalDevice(),
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.runner =
+      ExperimentCommandRunner.create(this.resources(), experimentDevice);
+    this.timer =
+      ExperimentGPUTimer.create(this.resources(), experimentDevice, 2);
+
+    this.createBuffers(experimentDevice.allocator());
+    this.createImages(experimentDevice.allocator());
+    this.createCompute();
+
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      this.timer.isSupported()
+        ? "Timing with GPU timestamps"
+        : "GPU timestamps unsupported; timing on the CPU"
+    );
+  }
+
+  private void createBuffers(
+    final ExperimentAllocator allocator)
+    throws VulkanException
+  {
+    final var largest =
+      this.sizes.stream()
+        .mapToLong(Long::longValue)
+        .max()
+        .orElseThrow();
+
+    this.bufferSource = this.createBuffer(allocator, largest);
+    this.bufferTarget = this.createBuffer(allocator, largest);
+  }
+
+  private VulkanBufferType createBuffer(
+    final ExperimentAllocator allocator,
+    final long size)
+    throws VulkanException
+  {
+    final var allocation =
+      allocator.createBuffer(
+        this.resources(),
+        deviceLocal(),
+        VulkanBufferCreateInfo.builder()
+          .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+          .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_DST_BIT)
+          .addUsageFlags(VK_BUFFER_USAGE_STORAGE_BUFFER_BIT)
+          .setSize(size)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .build()
+      );
+    return allocation.result();
+  }
+
+  private static VMAAllocationCreateInfo deviceLocal()
+  {
+    return VMAAllocationCreateInfo.builder()
+      .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+      .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+      .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+      .setMemoryTypeBits(0L)
+      .build();
+  }
+
+  private void createImages(
+    final ExperimentAllocator allocator)
+    throws VulkanException
+  {
+    final var side =
+      this.sizes.stream()
+        .mapToInt(size -> imageSideFor(size.longValue()))
+        .max()
+        .orElseThrow();
+
+    this.imageSource = this.createImage(allocator, side);
+    this.imageTarget = this.createImage(allocator, side);
+
+    this.imageLayers =
+      VulkanImageSubresourceLayers.builder()
+        .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+        .setLayerCount(1)
+        .setBaseArrayLayer(0)
+        .setMipLevel(0)
+        .build();
+
+    /*
+     * The images are moved into their transfer layouts once, and stay there.
+     * Their contents are irrelevant.
+     */
+
+    this.runner.runAndWait(commands -> {
+      commands.pipelineBarrier(
+        Set.of(VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT),
+        Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+        Set.of(),
+        List.of(),
+        List.of(),
+        List.of(
+          this.layoutBarrier(
+            this.imageSource, VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL),
+          this.layoutBarrier(
+            this.imageTarget, VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL)
+        )
+      );
+    });
+  }
+
+  private VulkanImageMemoryBarrier layoutBarrier(
+    final VulkanImageType image,
+    final VulkanImageLayout layout)
+  {
+    return VulkanImageMemoryBarrier.builder()
+      .addDstAccessMask(VK_ACCESS_TRANSFER_READ_BIT)
+      .addDstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+      .setOldLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+      .setNewLayout(layout)
+      .setSrcQueueFamilyIndex(-1)
+      .setDstQueueFamilyIndex(-1)
+      .setImage(image)
+      .setSubresourceRange(
+        VulkanImageSubresourceRange.builder()
+          .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+          .setBaseArrayLayer(0)
+          .setBaseMipLevel(0)
+          .setLayerCount(1)
+          .setLevelCount(1)
+          .build())
+      .build();
+  }
+
+  private VulkanImageType createImage(
+    final ExperimentAllocator allocator,
+    final int side)
+    throws VulkanException
+  {
+    final var allocation =
+      allocator.createImage(
+        this.resources(),
+        deviceLocal(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_SRC_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_DST_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(side, side, 1))
+          .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(VK_IMAGE_TILING_OPTIMAL)
+          .build()
+      );
+    return allocation.result();
+  }
+
+  private void createCompute()
+    throws VulkanException
+  {
+    final var resources = this.resources();
+
+    final var setLayout =
+      resources.add(
+        this.device.createDescriptorSetLayout(
+          VulkanDescriptorSetLayoutCreateInfo.builder()
+            .addBindings(storageBinding(0))
+            .addBindings(storageBinding(1))
+            .build())
+      );
+
+    this.computeLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addSetLayouts(setLayout)
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(
+                Set.of(VK_SHADER_STAGE_COMPUTE_BIT), 0, 8))
+            .build())
+      );
+
+    this.computePipeline =
+      ExperimentPipelines.createCompute(
+        resources,
+        this.device,
+        this.computeLayout,
+        ExperimentShaders.createModule(
+          resources, this.device, "bandwidth_copy.comp")
+      );
+
+    final var pool =
+      resources.add(
+        this.device.createDescriptorPool(
+          VulkanDescriptorPoolCreateInfo.builder()
+            .setMaxSets(1)
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, 2))
+            .build())
+      );
+
+    this.computeDescriptors =
+      this.device.allocateDescriptorSets(
+        VulkanDescriptorSetAllocateInfo.builder()
+          .setDescriptorPool(pool)
+          .addSetLayouts(setLayout)
+          .build()
+      ).get(0);
+
+    this.device.updateDescriptorSets(
+      List.of(
+        this.storageWrite(0, this.bufferSource),
+        this.storageWrite(1, this.bufferTarget)
+      ),
+      List.of()
+    );
+  }
+
+  private static VulkanDescriptorSetLayoutBinding storageBinding(
+    final int binding)
+  {
+    return VulkanDescriptorSetLayoutBinding.builder()
+      .setBinding(binding)
+      .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+      .setDescriptorCount(1)
+      .addStageFlags(VK_SHADER_STAGE_COMPUTE_BIT)
+      .build();
+  }
+
+  private VulkanWriteDescriptorSet storageWrite(
+    final int binding,
+    final VulkanBufferType buffer)
+  {
+    return VulkanWriteDescriptorSet.builder()
+      .setDestinationSet(this.computeDescriptors)
+      .setDestinationBinding(binding)
+      .setDestinationArrayElement(0)
+      .setDescriptorCount(1)
+      .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+      .addBuffers(VulkanDescriptorBufferInfo.of(buffer, 0L, buffer.size()))
+      .build();
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+  {
+
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    if (this.planIndex < this.plan.size()) {
+      final var result = this.measure(this.plan.get(this.planIndex));
+      this.results.add(result);
+      ++this.planIndex;
+
+      final var progress =
+        (double) this.planIndex / (double) this.plan.size();
+
+      this.eventLifecycle(LOADING, progress, result.describe());
+      if (this.isComplete()) {
+        this.eventLifecycle(RUNNING, 1.0, this.summary());
+      }
+    }
+
+    final var bars =
+      this.results.stream()
+        .map(r -> new ExperimentBarChart.Bar(
+          r.gigabytesPerSecond(),
+          r.kind().color()))
+        .collect(Collectors.toList());
+
+    ExperimentBarChart.draw(
+      this.kernels,
+      output,
+      bars,
+      ExperimentBandwidthKind.values().length
+    );
+  }
+
+  private String summary()
+  {
+    return this.results.stream()
+      .map(ExperimentBandwidthResult::describe)
+      .collect(Collectors.joining("; "));
+  }
+
+  private ExperimentBandwidthResult measure(
+    final Measurement measurement)
+    throws VulkanException
+  {
+    final var iterations = iterationsFor(measurement.size);
+    final long bytes;
+    final ExperimentCommandRunner.RecorderType recorder;
+
+    switch (measurement.kind) {
+      case BUFFER_COPY -> {
+        bytes = measurement.size;
+        recorder = commands -> {
+          for (var index = 0; index < iterations; ++index) {
+            transferBarrier(commands);
+            commands.copyBuffer(
+              this.bufferSource,
+              this.bufferTarget,
+              List.of(VulkanBufferCopy.of(0L, 0L, bytes))
+            );
+          }
+        };
+      }
+      case IMAGE_BLIT -> {
+        final var side = imageSideFor(measurement.size);
+        bytes = (long) side * (long) side * 4L;
+        final var blit =
+          VulkanImageBlit.of(
+            this.imageLayers,
+            VulkanOffset3D.of(0, 0, 0),
+            VulkanOffset3D.of(side, side, 1),
+            this.imageLayers,
+            VulkanOffset3D.of(0, 0, 0),
+            VulkanOffset3D.of(side, side, 1)
+          );
+        recorder = commands -> {
+          for (var index = 0; index < iterations; ++index) {
+            transferBarrier(commands);
+            commands.blitImage(
+              this.imageSource,
+              VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL,
+              this.imageTarget,
+              VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+              List.of(blit),
+              VK_FILTER_NEAREST
+            );
+          }
+        };
+      }
+      case COMPUTE_COPY -> {
+        bytes = measurement.size;
+        recorder = commands -> this.recordComputeCopies(
+          commands, bytes, iterations);
+      }
+      default -> throw new IllegalStateException();
+    }
+
+    final var cpuTime =
+      this.runner.runAndWait(commands -> {
+        this.timer.reset(commands);
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+        recorder.record(commands);
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+      });
+
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+    return new ExperimentBandwidthResult(
+      measurement.kind,
+      bytes,
+      iterations,
+      gpuTime.orElse(cpuTime),
+      gpuTime.isPresent()
+    );
+  }
+
+  private void recordComputeCopies(
+    final VulkanCommandBufferType commands,
+    final long bytes,
+    final int iterations)
+    throws VulkanException
+  {
+    /*
+     * Each invocation copies one 16 byte element. Dispatches wider than the
+     * guaranteed minimum workgroup count limit are folded into rows.
+     */
+
+    final var elements = bytes / COMPUTE_ELEMENT_SIZE;
+    final var groups = (elements + WORKGROUP_SIZE - 1L) / WORKGROUP_SIZE;
+    final var groupsX = (int) Math.min(groups, WORKGROUP_COUNT_MAX);
+    final var groupsY = (int) ((groups + groupsX - 1L) / groupsX);
+
+    this.pushConstants.putInt(0, (int) elements);
+    this.pushConstants.putInt(4, groupsX * WORKGROUP_SIZE);
+
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_COMPUTE, this.computePipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_COMPUTE,
+      this.computeLayout,
+      0,
+      List.of(this.computeDescriptors),
+      List.of()
+    );
+    commands.pushConstants(
+      this.computeLayout,
+      Set.of(VK_SHADER_STAGE_COMPUTE_BIT),
+      0,
+      8,
+      this.pushConstants
+    );
+
+    for (var index = 0; index < iterations; ++index) {
+      commands.pipelineBarrier(
+        Set.of(VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT),
+        Set.of(VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT),
+        Set.of(),
+        List.of(
+          VulkanMemoryBarrier.builder()
+            .addSrcAccessMask(VK_ACCESS_SHADER_WRITE_BIT)
+            .addDstAccessMask(VK_ACCESS_SHADER_READ_BIT)
+            .addDstAccessMask(VK_ACCESS_SHADER_WRITE_BIT)
+            .build()
+        ),
+        List.of(),
+        List.of()
+      );
+      commands.dispatch(groupsX, groupsY, 1);
+    }
+  }
+
+  /*
+   * Consecutive iterations write the same target, so each is ordered after
+   * the previous one; otherwise the driver would be free to overlap them.
+   */
+
+  private static void transferBarrier(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(
+        VulkanMemoryBarrier.builder()
+          .addSrcAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+          .addDstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+          .build()
+      ),
+      List.of(),
+      List.of()
+    );
+  }
+
+  private record Measurement(
+    ExperimentBandwidthKind kind,
+    long size)
+  {
+
+  }
+}
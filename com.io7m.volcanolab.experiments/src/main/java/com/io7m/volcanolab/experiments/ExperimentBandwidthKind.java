@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The kinds of transfer measured by the bandwidth experiment.
+ */
+
+public enum ExperimentBandwidthKind
+{
+  /**
+   * A {@code vkCmdCopyBuffer} between two device-local buffers.
+   */
+
+  BUFFER_COPY("Buffer copy", 0xff3c8cdc),
+
+  /**
+   * A {@code vkCmdBlitImage} between two device-local RGBA8 images of the
+   * same size.
+   */
+
+  IMAGE_BLIT("Image blit", 0xffdc8c3c),
+
+  /**
+   * A compute shader that reads one device-local storage buffer and writes
+   * another.
+   */
+
+  COMPUTE_COPY("Compute copy", 0xff50b450);
+
+  private final String label;
+  private final int color;
+
+  ExperimentBandwidthKind(
+    final String inLabel,
+    final int inColor)
+  {
+    this.label = inLabel;
+    this.color = inColor;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+
+  /**
+   * @return The color used for this kind in charts, as {@code 0xAARRGGBB}
+   */
+
+  public int color()
+  {
+    return this.color;
+  }
+}
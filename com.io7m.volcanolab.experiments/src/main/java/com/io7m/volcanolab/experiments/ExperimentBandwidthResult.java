@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of a single bandwidth measurement.
+ *
+ * @param kind        The kind of transfer
+ * @param bytes       The number of bytes copied by one iteration
+ * @param iterations  The number of iterations
+ * @param nanoseconds The total time taken by all iterations
+ * @param gpuTimed    {@code true} if the time was measured with GPU
+ *                    timestamps, {@code false} if it was measured on the CPU
+ */
+
+public record ExperimentBandwidthResult(
+  ExperimentBandwidthKind kind,
+  long bytes,
+  int iterations,
+  long nanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of a single bandwidth measurement.
+   *
+   * @param kind        The kind of transfer
+   * @param bytes       The number of bytes copied by one iteration
+   * @param iterations  The number of iterations
+   * @param nanoseconds The total time taken by all iterations
+   * @param gpuTimed    {@code true} if the time was measured with GPU
+   *                    timestamps, {@code false} if it was measured on the CPU
+   */
+
+  public ExperimentBandwidthResult
+  {
+    Objects.requireNonNull(kind, "kind");
+  }
+
+  /**
+   * @return The copy rate in gigabytes (10^9 bytes) per second
+   */
+
+  public double gigabytesPerSecond()
+  {
+    if (this.nanoseconds <= 0L) {
+      return 0.0;
+    }
+    return ((double) this.bytes * (double) this.iterations)
+           / (double) this.nanoseconds;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s %s: %.2f GB/s (%s)",
+      this.kind.label(),
+      formatSize(this.bytes),
+      Double.valueOf(this.gigabytesPerSecond()),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+
+  private static String formatSize(
+    final long size)
+  {
+    if (size >= 1024L * 1024L) {
+      return String.format("%d MiB", Long.valueOf(size / (1024L * 1024L)));
+    }
+    return String.format("%d KiB", Long.valueOf(size / 1024L));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The ways in which the descriptor binding experiment binds materials.
+ */
+
+public enum ExperimentBindingMode
+{
+  /**
+   * Each material has a descriptor set of its own, holding its texture and
+   * its parameters, and the set is bound before each draw.
+   */
+
+  PER_DRAW_SETS("Per-draw descriptor sets"),
+
+  /**
+   * A single descriptor set holds an array of every texture and a buffer of
+   * every material's parameters. It is bound once, and each draw selects a
+   * material with a push constant.
+   */
+
+  DESCRIPTOR_INDEXING("Descriptor indexing");
+
+  private final String label;
+
+  ExperimentBindingMode(
+    final String inLabel)
+  {
+    this.label = inLabel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of measuring a single binding mode.
+ *
+ * @param mode           The binding mode
+ * @param materials      The number of materials, and so draws, per frame
+ * @param textures       The number of distinct textures used by the
+ *                       materials
+ * @param frames         The number of frames measured
+ * @param cpuNanoseconds The mean time per frame spent recording commands
+ * @param gpuNanoseconds The mean time per frame spent executing commands
+ * @param gpuTimed       {@code true} if execution was timed with GPU
+ *                       timestamps, {@code false} if it was timed on the CPU
+ */
+
+public record ExperimentBindingResult(
+  ExperimentBindingMode mode,
+  int materials,
+  int textures,
+  int frames,
+  long cpuNanoseconds,
+  long gpuNanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of measuring a single binding mode.
+   *
+   * @param mode           The binding mode
+   * @param materials      The number of materials, and so draws, per frame
+   * @param textures       The number of distinct textures used by the
+   *                       materials
+   * @param frames         The number of frames measured
+   * @param cpuNanoseconds The mean time per frame spent recording commands
+   * @param gpuNanoseconds The mean time per frame spent executing commands
+   * @param gpuTimed       {@code true} if execution was timed with GPU
+   *                       timestamps, {@code false} if it was timed on the
+   *                       CPU
+   */
+
+  public ExperimentBindingResult
+  {
+    Objects.requireNonNull(mode, "mode");
+  }
+
+  /**
+   * @return The mean CPU recording time per draw, in nanoseconds
+   */
+
+  public double cpuNanosecondsPerDraw()
+  {
+    return (double) this.cpuNanoseconds / (double) this.materials;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s, %d materials: CPU %.3f ms (%.1f ns/draw), GPU %.3f ms (%s)",
+      this.mode.label(),
+      Integer.valueOf(this.materials),
+      Double.valueOf((double) this.cpuNanoseconds / 1_000_000.0),
+      Double.valueOf(this.cpuNanosecondsPerDraw()),
+      Double.valueOf((double) this.gpuNanoseconds / 1_000_000.0),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+}
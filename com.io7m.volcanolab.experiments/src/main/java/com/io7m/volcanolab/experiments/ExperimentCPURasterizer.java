@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterReal;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentRasterizer;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+
+/**
+ * <p>An experiment that rasterizes triangles entirely on the CPU, rendering
+ * tiles of the output in parallel on a fork/join pool. The experiment does
+ * not use the physical device.</p>
+ *
+ * <p>The number of triangles and the speed at which they rotate can be
+ * changed while the experiment is running with
+ * {@link #setTriangleCount(int)} and {@link #setRotationSpeed(double)}.</p>
+ */
+
+@ExperimentName(ExperimentCPURasterizer.NAME)
+public final class ExperimentCPURasterizer extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "CPU Rasterizer";
+
+  /**
+   * The default number of triangles.
+   */
+
+  public static final int DEFAULT_TRIANGLES = 5_000;
+
+  /**
+   * The maximum number of triangles.
+   */
+
+  public static final int MAXIMUM_TRIANGLES = 1_000_000;
+
+  /**
+   * The default rotation speed, in radians per frame.
+   */
+
+  public static final double DEFAULT_ROTATION_SPEED = 0.01;
+
+  private static final long SEED = 0x564c4c4cL;
+
+  private final ExperimentParameterInteger requestedTriangles;
+  private final ExperimentParameterReal requestedSpeed;
+  private final int parallelism;
+  private ForkJoinPool pool;
+  private ExperimentRasterizer rasterizer;
+  private int triangles;
+  private double speed;
+  private long frame;
+
+  /*
+   * The rotation angle is computed from the number of frames rendered since
+   * the speed last changed, rather than accumulated per frame, so that the
+   * output at the default speed does not depend on rounding error.
+   */
+
+  private long speedFrame;
+  private double speedAngle;
+
+  public ExperimentCPURasterizer()
+  {
+    this(DEFAULT_TRIANGLES, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create an experiment.
+   *
+   * @param inTriangles   The number of triangles
+   * @param inParallelism The number of threads used to render tiles
+   */
+
+  public ExperimentCPURasterizer(
+    final int inTriangles,
+    final int inParallelism)
+  {
+    super(LoggerFactory.getLogger(ExperimentCPURasterizer.class), NAME);
+
+    if (inTriangles < 1 || inTriangles > MAXIMUM_TRIANGLES) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Triangle count %d must be in the range [1, %d]",
+          Integer.valueOf(inTriangles),
+          Integer.valueOf(MAXIMUM_TRIANGLES))
+      );
+    }
+    if (inParallelism < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Parallelism %d must be >= 1",
+          Integer.valueOf(inParallelism)));
+    }
+
+    this.triangles = inTriangles;
+    this.parallelism = inParallelism;
+    this.speed = DEFAULT_ROTATION_SPEED;
+    this.requestedTriangles =
+      ExperimentParameterInteger.create(
+        "triangles",
+        "The number of triangles rasterized per frame",
+        1L,
+        MAXIMUM_TRIANGLES,
+        inTriangles
+      );
+    this.requestedSpeed =
+      ExperimentParameterReal.create(
+        "rotationSpeed",
+        "The speed at which triangles rotate, in radians per frame",
+        0.0,
+        Math.PI,
+        DEFAULT_ROTATION_SPEED
+      );
+  }
+
+  /**
+   * Set the number of triangles rasterized per frame. The change takes
+   * effect at the start of the next frame. This method may be called from
+   * any thread.
+   *
+   * @param count The number of triangles
+   */
+
+  public void setTriangleCount(
+    final int count)
+  {
+    this.requestedTriangles.set(count);
+  }
+
+  /**
+   * Set the speed at which triangles rotate. The change takes effect at the
+   * start of the next frame. This method may be called from any thread.
+   *
+   * @param radians The speed, in radians per frame
+   */
+
+  public void setRotationSpeed(
+    final double radians)
+  {
+    this.requestedSpeed.set(radians);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedTriangles, this.requestedSpeed);
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    final var poolNow = this.pool;
+    if (poolNow != null) {
+      poolNow.shutdown();
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    this.pool =
+      new ForkJoinPool(
+        this.parallelism,
+        ExperimentCPURasterizer::createWorker,
+        null,
+        false);
+    this.rasterizer =
+      new ExperimentRasterizer(this.pool, this.triangles, SEED);
+    this.frame = 0L;
+    this.speedFrame = 0L;
+    this.speedAngle = 0.0;
+
+    this.eventLifecycle(
+      LOADING,
+      1.0,
+      String.format(
+        "%d triangles, %dx%d tiles, %d threads",
+        Integer.valueOf(this.triangles),
+        Integer.valueOf(ExperimentRasterizer.TILE_SIZE),
+        Integer.valueOf(ExperimentRasterizer.TILE_SIZE),
+        Integer.valueOf(this.parallelism))
+    );
+    this.eventLifecycle(STARTED, 1.0, "");
+    this.eventLifecycle(RUNNING, 1.0, "");
+  }
+
+  private static ForkJoinWorkerThread createWorker(
+    final ForkJoinPool pool)
+  {
+    final var thread =
+      ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName(
+      String.format(
+        "com.io7m.volcanolab.rasterizer[%d]",
+        Long.valueOf(thread.getId()))
+    );
+    return thread;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+  {
+
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+  {
+    final var requestedCount = (int) this.requestedTriangles.get();
+    if (requestedCount != this.triangles) {
+      this.triangles = requestedCount;
+      this.rasterizer =
+        new ExperimentRasterizer(this.pool, requestedCount, SEED);
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        String.format(
+          "Triangle count changed to %d",
+          Integer.valueOf(requestedCount))
+      );
+    }
+
+    final var requestedSpeedNow = this.requestedSpeed.get();
+    if (requestedSpeedNow != this.speed) {
+      this.speedAngle = this.angle();
+      this.speedFrame = this.frame;
+      this.speed = requestedSpeedNow;
+    }
+
+    this.rasterizer.render(
+      this.angle(),
+      context.width(),
+      context.height(),
+      output
+    );
+    ++this.frame;
+  }
+
+  private double angle()
+  {
+    final var frames = (double) (this.frame - this.speedFrame);
+    return this.speedAngle + frames * this.speed;
+  }
+}
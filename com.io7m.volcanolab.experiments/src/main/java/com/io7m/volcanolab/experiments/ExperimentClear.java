@@ -25,21 +25,18 @@ import com.io7m.jcoronado.api.VulkanClearRectangle;
 import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
 import com.io7m.jcoronado.api.VulkanCommandBufferType;
 import com.io7m.jcoronado.api.VulkanCommandPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanCommandPoolType;
 import com.io7m.jcoronado.api.VulkanComponentMappingType;
 import com.io7m.jcoronado.api.VulkanException;
 import com.io7m.jcoronado.api.VulkanExtent2D;
 import com.io7m.jcoronado.api.VulkanExtent3D;
-import com.io7m.jcoronado.api.VulkanFenceCreateInfo;
-import com.io7m.jcoronado.api.VulkanFenceType;
 import com.io7m.jcoronado.api.VulkanFramebufferCreateInfo;
-import com.io7m.jcoronado.api.VulkanImageAspectFlag;
 import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageMemoryBarrier;
 import com.io7m.jcoronado.api.VulkanImageSubresourceLayers;
 import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
 import com.io7m.jcoronado.api.VulkanImageViewCreateInfo;
 import com.io7m.jcoronado.api.VulkanImageViewKind;
-import com.io7m.jcoronado.api.VulkanLogicalDeviceCreateInfo;
-import com.io7m.jcoronado.api.VulkanLogicalDeviceQueueCreateInfo;
 import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
 import com.io7m.jcoronado.api.VulkanMappedMemoryType;
 import com.io7m.jcoronado.api.VulkanOffset2D;
@@ -48,23 +45,41 @@ import com.io7m.jcoronado.api.VulkanQueueType;
 import com.io7m.jcoronado.api.VulkanRectangle2D;
 import com.io7m.jcoronado.api.VulkanRenderPassBeginInfo;
 import com.io7m.jcoronado.api.VulkanRenderPassCreateInfo;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanSemaphoreCreateInfo;
+import com.io7m.jcoronado.api.VulkanSemaphoreType;
 import com.io7m.jcoronado.api.VulkanSubmitInfo;
 import com.io7m.jcoronado.api.VulkanSubpassDescription;
-import com.io7m.jcoronado.lwjgl.VMALWJGLAllocatorProvider;
 import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
-import com.io7m.jcoronado.vma.VMAAllocatorCreateInfo;
-import com.io7m.jcoronado.vma.VMAAllocatorType;
+import com.io7m.jcoronado.vma.VMAAllocationInfo;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameCopy;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameSyncType;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameSyncs;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.foreign.MemorySegment;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_COLOR_ATTACHMENT_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_READ_BIT;
 import static com.io7m.jcoronado.api.VulkanAttachmentLoadOp.VK_ATTACHMENT_LOAD_OP_CLEAR;
 import static com.io7m.jcoronado.api.VulkanAttachmentLoadOp.VK_ATTACHMENT_LOAD_OP_DONT_CARE;
 import static com.io7m.jcoronado.api.VulkanAttachmentStoreOp.VK_ATTACHMENT_STORE_OP_DONT_CARE;
@@ -81,40 +96,119 @@ import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
 import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT;
 import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_SRC_BIT;
 import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
-import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT;
 import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
-import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_GRAPHICS_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_COLOR_ATTACHMENT_OUTPUT_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
 import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
 import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
 import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
 import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
 import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
-import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_TO_CPU;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode.READBACK_ON_GRAPHICS_QUEUE;
+import static com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode.READBACK_ON_TRANSFER_QUEUE;
 
+@ExperimentName(ExperimentClear.NAME)
 public final class ExperimentClear extends ExperimentAbstract
 {
+  /**
+   * The name of the experiment when images are read back on the graphics
+   * queue.
+   */
+
+  public static final String NAME = "Clear";
+
+  /**
+   * The name of the experiment when images are read back on a dedicated
+   * transfer queue.
+   */
+
+  public static final String NAME_TRANSFER_QUEUE = "Clear (Transfer Queue)";
+
+  private final ExperimentReadbackQueueMode requestedQueueMode;
+  private final VLPixelKernelsType kernels;
   private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private ExperimentDevice experimentDevice;
   private VulkanLogicalDeviceType device;
-  private VMAAllocatorType vmaAllocator;
+  private ExperimentAllocator vmaAllocator;
   private VulkanQueueType queue;
-  private VulkanCommandBufferType commandBuffer;
-  private VulkanMappedMemoryType mappedFramebuffer;
-  private VulkanFenceType renderFence;
+  private Optional<VulkanQueueType> transferQueue;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private List<FrameSlot> frameSlots;
+  private int frameSlotIndex;
+  private ExperimentFrameSyncType frameSync;
 
   public ExperimentClear()
   {
-    super(LoggerFactory.getLogger(ExperimentClear.class), "Clear");
+    this(READBACK_ON_GRAPHICS_QUEUE);
+  }
+
+  public ExperimentClear(
+    final ExperimentReadbackQueueMode inQueueMode)
+  {
+    super(
+      LoggerFactory.getLogger(ExperimentClear.class),
+      nameFor(Objects.requireNonNull(inQueueMode, "queueMode"))
+    );
+
+    this.requestedQueueMode = inQueueMode;
+    this.kernels = VLPixelKernels.best();
+    this.transferQueue = Optional.empty();
+    this.frameSlots = List.of();
+  }
+
+  private static String nameFor(
+    final ExperimentReadbackQueueMode mode)
+  {
+    return switch (mode) {
+      case READBACK_ON_GRAPHICS_QUEUE -> NAME;
+      case READBACK_ON_TRANSFER_QUEUE -> NAME_TRANSFER_QUEUE;
+    };
+  }
+
+  /**
+   * @return The frame synchronization primitive in use
+   */
+
+  public String frameSyncKind()
+  {
+    return this.frameSync.kind();
+  }
+
+  /**
+   * @return The total time spent waiting for frames, in nanoseconds
+   */
+
+  public long frameSyncWaitTimeNanoseconds()
+  {
+    return this.frameSync.waitTimeNanoseconds();
+  }
+
+  /**
+   * @return The queue mode actually in use
+   */
+
+  public ExperimentReadbackQueueMode queueMode()
+  {
+    if (this.transferQueue.isPresent()) {
+      return READBACK_ON_TRANSFER_QUEUE;
+    }
+    return READBACK_ON_GRAPHICS_QUEUE;
   }
 
   @Override
   protected void closeActual()
   {
     try {
-      this.device.waitIdle();
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
     } catch (final VulkanException e) {
       // Nothing we can do about it
     }
@@ -131,49 +225,51 @@ public final class ExperimentClear extends ExperimentAbstract
     final var physicalDevice =
       context.physicalDevice();
 
-    final var queue =
-      physicalDevice.queueFamilyFindWithFlags(VK_QUEUE_GRAPHICS_BIT)
-        .orElseThrow();
-
-    final var deviceInfoBuilder =
-      VulkanLogicalDeviceCreateInfo.builder();
+    this.experimentDevice =
+      ExperimentDevice.create(
+        this.resources(),
+        physicalDevice,
+        new ExperimentDeviceConfiguration(
+          this.requestedQueueMode == READBACK_ON_TRANSFER_QUEUE,
+          true,
+          false,
+          false)
+      );
 
-    deviceInfoBuilder.addQueueCreateInfos(
-      VulkanLogicalDeviceQueueCreateInfo.builder()
-        .setQueueCount(1)
-        .setQueueFamilyIndex(queue.queueFamilyIndex())
-        .setQueuePriorities(1.0f)
-        .build()
-    );
+    this.trackMemory(this.experimentDevice.allocator());
 
-    final var resources =
-      this.resources();
+    this.device = this.experimentDevice.device();
+    this.queue = this.experimentDevice.graphicsQueue();
+    this.transferQueue = this.experimentDevice.transferQueue();
+    this.vmaAllocator = this.experimentDevice.allocator();
 
-    this.device =
-      resources.add(
-        physicalDevice.createLogicalDevice(deviceInfoBuilder.build())
+    if (this.requestedQueueMode != this.queueMode()) {
+      this.eventLifecycle(
+        LOADING,
+        0.25,
+        "No transfer-only queue family; reading back on the graphics queue"
       );
+    }
 
-    this.queue =
-      this.device.queues()
-        .stream()
-        .findFirst()
-        .orElseThrow();
-
-    final var vmaAllocators =
-      VMALWJGLAllocatorProvider.create();
-
-    this.vmaAllocator =
-      resources.add(
-        vmaAllocators.createAllocator(
-          VMAAllocatorCreateInfo.builder()
-            .setFrameInUseCount(1)
-            .setLogicalDevice(this.device)
-            .build()
-        )
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
       );
 
+    this.eventLifecycle(
+      LOADING,
+      0.5,
+      "Readback: " + this.readbackStrategy.describe()
+    );
+
     this.reconfigureForSize(context.width(), context.height());
+    this.eventLifecycle(
+      LOADING,
+      0.75,
+      "Frame synchronization: " + this.frameSync.kind()
+    );
     this.eventLifecycle(LOADING, 1.0, "");
     this.eventLifecycle(STARTED, 1.0, "");
     this.eventLifecycle(RUNNING, 1.0, "");
@@ -187,16 +283,102 @@ public final class ExperimentClear extends ExperimentAbstract
     this.frameResources = CloseableCollection.create();
     this.resources().add(this.frameResources);
 
+    final var colorAttachmentDescription =
+      VulkanAttachmentDescription.builder()
+        .setFinalLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setFormat(VK_FORMAT_A8B8G8R8_UNORM_PACK32)
+        .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+        .setLoadOp(VK_ATTACHMENT_LOAD_OP_CLEAR)
+        .setSamples(VK_SAMPLE_COUNT_1_BIT)
+        .setStencilLoadOp(VK_ATTACHMENT_LOAD_OP_DONT_CARE)
+        .setStencilStoreOp(VK_ATTACHMENT_STORE_OP_DONT_CARE)
+        .setStoreOp(VK_ATTACHMENT_STORE_OP_STORE)
+        .build();
+
+    final var colorReference =
+      VulkanAttachmentReference.of(0, VK_IMAGE_LAYOUT_COLOR_ATTACHMENT_OPTIMAL);
+
+    final var subPass =
+      VulkanSubpassDescription.builder()
+        .setPipelineBindPoint(VK_PIPELINE_BIND_POINT_GRAPHICS)
+        .addColorAttachments(colorReference)
+        .build();
+
+    final var renderPassCreateInfo =
+      VulkanRenderPassCreateInfo.builder()
+        .addSubpasses(subPass)
+        .addAttachments(colorAttachmentDescription)
+        .build();
+
+    final var renderPass =
+      this.frameResources.add(
+        this.device.createRenderPass(renderPassCreateInfo));
+
+    final var commandPool =
+      this.frameResources.add(
+        this.device.createCommandPool(
+          VulkanCommandPoolCreateInfo.builder()
+            .setQueueFamilyIndex(this.queue.queueFamilyIndex())
+            .build())
+      );
+
+    final Optional<VulkanCommandPoolType> transferCommandPool;
+    if (this.transferQueue.isPresent()) {
+      transferCommandPool = Optional.of(
+        this.frameResources.add(
+          this.device.createCommandPool(
+            VulkanCommandPoolCreateInfo.builder()
+              .setQueueFamilyIndex(this.transferQueue.get().queueFamilyIndex())
+              .build())
+        ));
+    } else {
+      transferCommandPool = Optional.empty();
+    }
+
+    /*
+     * With a transfer queue, two frames are kept in flight: one being
+     * rendered on the graphics queue and one being copied out on the
+     * transfer queue.
+     */
+
+    final var slotCount = this.transferQueue.isPresent() ? 2 : 1;
+    final var slots = new ArrayList<FrameSlot>(slotCount);
+    for (var index = 0; index < slotCount; ++index) {
+      slots.add(
+        this.createFrameSlot(
+          width,
+          height,
+          renderPass,
+          commandPool,
+          transferCommandPool)
+      );
+    }
+
+    this.frameSlots = List.copyOf(slots);
+    this.frameSlotIndex = 0;
+    this.frameSync =
+      ExperimentFrameSyncs.create(
+        this.frameResources,
+        this.experimentDevice,
+        slotCount
+      );
+  }
+
+  private FrameSlot createFrameSlot(
+    final int width,
+    final int height,
+    final VulkanRenderPassType renderPass,
+    final VulkanCommandPoolType commandPool,
+    final Optional<VulkanCommandPoolType> transferCommandPool)
+    throws VulkanException
+  {
     final var imageSizeBytes =
       ((long) width * 4L) * (long) height;
 
     final var outputBufferAllocation =
       this.vmaAllocator.createBuffer(
-        VMAAllocationCreateInfo.builder()
-          .setUsage(VMA_MEMORY_USAGE_GPU_TO_CPU)
-          .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)
-          .setMemoryTypeBits(0L)
-          .build(),
+        this.frameResources,
+        ExperimentReadbackProbe.allocationCreateInfo(this.readbackStrategy),
         VulkanBufferCreateInfo.builder()
           .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_DST_BIT)
           .setSize(imageSizeBytes)
@@ -204,12 +386,10 @@ public final class ExperimentClear extends ExperimentAbstract
           .build()
       );
 
-    this.frameResources.add(outputBufferAllocation.result());
-
     final var outputBufferAllocationInfo =
       outputBufferAllocation.allocation().info();
 
-    this.mappedFramebuffer =
+    final var mappedFramebuffer =
       this.frameResources.add(
         this.device.mapMemory(
           outputBufferAllocationInfo.deviceMemory().orElseThrow(),
@@ -220,6 +400,7 @@ public final class ExperimentClear extends ExperimentAbstract
 
     final var framebufferImageAllocation =
       this.vmaAllocator.createImage(
+        this.frameResources,
         VMAAllocationCreateInfo.builder()
           .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
           .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
@@ -241,8 +422,6 @@ public final class ExperimentClear extends ExperimentAbstract
           .build()
       );
 
-    this.frameResources.add(framebufferImageAllocation.result());
-
     final var imageSubresourceRange =
       VulkanImageSubresourceRange.builder()
         .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
@@ -266,51 +445,7 @@ public final class ExperimentClear extends ExperimentAbstract
         this.device.createImageView(framebufferImageViewCreateInfo)
       );
 
-    final var colorAttachmentDescription =
-      VulkanAttachmentDescription.builder()
-        .setFinalLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
-        .setFormat(VK_FORMAT_A8B8G8R8_UNORM_PACK32)
-        .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
-        .setLoadOp(VK_ATTACHMENT_LOAD_OP_CLEAR)
-        .setSamples(VK_SAMPLE_COUNT_1_BIT)
-        .setStencilLoadOp(VK_ATTACHMENT_LOAD_OP_DONT_CARE)
-        .setStencilStoreOp(VK_ATTACHMENT_STORE_OP_DONT_CARE)
-        .setStoreOp(VK_ATTACHMENT_STORE_OP_STORE)
-        .build();
-
-    final var colorReference =
-      VulkanAttachmentReference.of(0, VK_IMAGE_LAYOUT_COLOR_ATTACHMENT_OPTIMAL);
-
-    final var subPass =
-      VulkanSubpassDescription.builder()
-        .setPipelineBindPoint(VK_PIPELINE_BIND_POINT_GRAPHICS)
-        .addColorAttachments(colorReference)
-        .build();
-
-    final var renderPassCreateInfo =
-      VulkanRenderPassCreateInfo.builder()
-        .addSubpasses(subPass)
-        .addAttachments(colorAttachmentDescription)
-        .build();
-
-    final var renderPass =
-      this.frameResources.add(
-        this.device.createRenderPass(renderPassCreateInfo));
-
-    final var commandPool =
-      this.frameResources.add(
-        this.device.createCommandPool(
-          VulkanCommandPoolCreateInfo.builder()
-            .setQueueFamilyIndex(this.queue.queueFamilyIndex())
-            .build())
-      );
-
-    this.renderFence =
-      this.frameResources.add(
-        this.device.createFence(VulkanFenceCreateInfo.builder().build())
-      );
-
-    this.commandBuffer =
+    final var commandBuffer =
       this.frameResources.add(
         this.device.createCommandBuffer(
           commandPool, VK_COMMAND_BUFFER_LEVEL_PRIMARY)
@@ -366,12 +501,12 @@ public final class ExperimentClear extends ExperimentAbstract
         .setImageSubresource(copyLayers)
         .build();
 
-    this.commandBuffer.beginCommandBuffer();
-    this.commandBuffer.beginRenderPass(
+    commandBuffer.beginCommandBuffer();
+    commandBuffer.beginRenderPass(
       renderPassBeginInfo,
       VK_SUBPASS_CONTENTS_INLINE);
 
-    this.commandBuffer.clearAttachments(
+    commandBuffer.clearAttachments(
       VulkanClearAttachment.builder()
         .setColorAttachment(0)
         .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
@@ -386,14 +521,106 @@ public final class ExperimentClear extends ExperimentAbstract
         1
       ));
 
-    this.commandBuffer.endRenderPass();
-    this.commandBuffer.copyImageToBuffer(
+    commandBuffer.endRenderPass();
+
+    if (transferCommandPool.isEmpty()) {
+      commandBuffer.copyImageToBuffer(
+        framebufferImageView.image(),
+        VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL,
+        outputBufferAllocation.result(),
+        List.of(bufferImageCopy)
+      );
+      commandBuffer.endCommandBuffer();
+
+      return new FrameSlot(
+        commandBuffer,
+        Optional.empty(),
+        Optional.empty(),
+        outputBufferAllocationInfo,
+        mappedFramebuffer
+      );
+    }
+
+    /*
+     * Release the image from the graphics queue family, and acquire it on
+     * the transfer queue family. The render pass leaves the image in the
+     * transfer source layout, so the layout doesn't change. The image is
+     * never transferred back: the render pass begins with an undefined
+     * layout, so its previous contents (and owner) are irrelevant.
+     */
+
+    final var graphicsFamily =
+      this.queue.queueFamilyIndex();
+    final var transferFamily =
+      this.transferQueue.orElseThrow().queueFamilyIndex();
+
+    final var releaseBarrier =
+      VulkanImageMemoryBarrier.builder()
+        .addSrcAccessMask(VK_ACCESS_COLOR_ATTACHMENT_WRITE_BIT)
+        .setOldLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setNewLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setSrcQueueFamilyIndex(graphicsFamily)
+        .setDstQueueFamilyIndex(transferFamily)
+        .setImage(framebufferImageAllocation.result())
+        .setSubresourceRange(imageSubresourceRange)
+        .build();
+
+    commandBuffer.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_COLOR_ATTACHMENT_OUTPUT_BIT),
+      Set.of(VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(releaseBarrier)
+    );
+    commandBuffer.endCommandBuffer();
+
+    final var acquireBarrier =
+      VulkanImageMemoryBarrier.builder()
+        .addDstAccessMask(VK_ACCESS_TRANSFER_READ_BIT)
+        .setOldLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setNewLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setSrcQueueFamilyIndex(graphicsFamily)
+        .setDstQueueFamilyIndex(transferFamily)
+        .setImage(framebufferImageAllocation.result())
+        .setSubresourceRange(imageSubresourceRange)
+        .build();
+
+    final var transferCommandBuffer =
+      this.frameResources.add(
+        this.device.createCommandBuffer(
+          transferCommandPool.get(), VK_COMMAND_BUFFER_LEVEL_PRIMARY)
+      );
+
+    transferCommandBuffer.beginCommandBuffer();
+    transferCommandBuffer.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(acquireBarrier)
+    );
+    transferCommandBuffer.copyImageToBuffer(
       framebufferImageView.image(),
       VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL,
       outputBufferAllocation.result(),
       List.of(bufferImageCopy)
     );
-    this.commandBuffer.endCommandBuffer();
+    transferCommandBuffer.endCommandBuffer();
+
+    final var renderFinished =
+      this.frameResources.add(
+        this.device.createSemaphore(VulkanSemaphoreCreateInfo.builder().build())
+      );
+
+    return new FrameSlot(
+      commandBuffer,
+      Optional.of(transferCommandBuffer),
+      Optional.of(renderFinished),
+      outputBufferAllocationInfo,
+      mappedFramebuffer
+    );
   }
 
   @Override
@@ -412,20 +639,144 @@ public final class ExperimentClear extends ExperimentAbstract
     final ByteBuffer output)
     throws Exception
   {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    if (this.transferQueue.isEmpty()) {
+      final var slot = this.frameSlots.get(0);
+      this.submitFrameSlot(slot);
+      this.readFrameSlot(slot, output);
+      return;
+    }
+
+    final var current =
+      this.frameSlots.get(this.frameSlotIndex);
+    final var previous =
+      this.frameSlots.get(this.frameSlotIndex ^ 1);
+
+    /*
+     * The first frame after a reconfiguration primes the pipeline: the
+     * current frame is read back synchronously, and the other slot is
+     * submitted so that it is in flight when the next frame begins.
+     * Thereafter, each frame submits the current slot and reads back the
+     * slot submitted by the previous frame.
+     */
+
+    if (!previous.pending) {
+      this.submitFrameSlot(current);
+      this.readFrameSlot(current, output);
+      this.submitFrameSlot(previous);
+      return;
+    }
+
+    this.submitFrameSlot(current);
+    this.readFrameSlot(previous, output);
+    this.frameSlotIndex ^= 1;
+  }
+
+  private void submitFrameSlot(
+    final FrameSlot slot)
+    throws VulkanException
+  {
+    slot.frame = this.frameSync.frameBegin();
+
+    if (slot.transferCommands.isEmpty()) {
+      this.frameSync.frameSubmit(
+        this.queue,
+        slot.frame,
+        VulkanSubmitInfo.builder()
+          .addCommandBuffers(slot.graphicsCommands)
+          .build()
+      );
+      slot.pending = true;
+      return;
+    }
+
+    final var renderFinished = slot.renderFinished.orElseThrow();
     this.queue.submit(List.of(
       VulkanSubmitInfo.builder()
-        .addCommandBuffers(this.commandBuffer)
+        .addCommandBuffers(slot.graphicsCommands)
+        .addSignalSemaphores(renderFinished)
         .build()
-    ), Optional.of(this.renderFence));
+    ), Optional.empty());
 
-    this.device.waitForFence(this.renderFence, 1_000_000_000L);
-    this.device.resetFences(List.of(this.renderFence));
+    this.frameSync.frameSubmit(
+      this.transferQueue.orElseThrow(),
+      slot.frame,
+      VulkanSubmitInfo.builder()
+        .addCommandBuffers(slot.transferCommands.get())
+        .addWaitSemaphores(renderFinished)
+        .addWaitDstStageMasks(VK_PIPELINE_STAGE_TRANSFER_BIT)
+        .build()
+    );
+    slot.pending = true;
+  }
 
-    final var source = this.mappedFramebuffer.asByteBuffer();
-    source.position(0);
-    output.position(0);
-    output.put(source);
-    output.position(0);
+  private void readFrameSlot(
+    final FrameSlot slot,
+    final ExperimentFrame output)
+    throws VulkanException
+  {
+    this.frameSync.waitFor(slot.frame);
+    slot.pending = false;
+
+    ExperimentReadbackProbe.invalidate(
+      this.device,
+      this.readbackStrategy,
+      slot.readbackInfo
+    );
+
+    /*
+     * Both clear colors are opaque, so swizzling alone produces
+     * premultiplied output.
+     */
+
+    ExperimentFrameCopy.copyFromRGBA8(
+      this.kernels,
+      slot.readbackSegment,
+      output,
+      true
+    );
   }
-}
 
+  private static final class FrameSlot
+  {
+    private final VulkanCommandBufferType graphicsCommands;
+    private final Optional<VulkanCommandBufferType> transferCommands;
+    private final Optional<VulkanSemaphoreType> renderFinished;
+    private final VMAAllocationInfo readbackInfo;
+    private final MemorySegment readbackSegment;
+    private boolean pending;
+    private long frame;
+
+    FrameSlot(
+      final VulkanCommandBufferType inGraphicsCommands,
+      final Optional<VulkanCommandBufferType> inTransferCommands,
+      final Optional<VulkanSemaphoreType> inRenderFinished,
+      final VMAAllocationInfo inReadbackInfo,
+      final VulkanMappedMemoryType inReadback)
+    {
+      this.graphicsCommands = inGraphicsCommands;
+      this.transferCommands = inTransferCommands;
+      this.renderFinished = inRenderFinished;
+      this.readbackInfo = inReadbackInfo;
+      this.readbackSegment =
+        MemorySegment.ofByteBuffer(inReadback.asByteBuffer());
+      this.pending = false;
+      this.frame = 0L;
+    }
+  }
+}
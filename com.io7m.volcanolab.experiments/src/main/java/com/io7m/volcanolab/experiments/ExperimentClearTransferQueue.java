@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentFrameDamage;
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import io.reactivex.rxjava3.core.Observable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode.READBACK_ON_TRANSFER_QUEUE;
+
+/**
+ * The {@link ExperimentClear} experiment, reading images back on a
+ * dedicated transfer queue.
+ */
+
+@ExperimentName(ExperimentClear.NAME_TRANSFER_QUEUE)
+public final class ExperimentClearTransferQueue implements ExperimentType
+{
+  private final ExperimentClear delegate;
+
+  /*
+   * The experiment is delegated to rather than returned from a static
+   * provider() method, so that this class can also be listed in
+   * META-INF/services: on the class path, the service loader only accepts
+   * public subtypes with a no-argument constructor.
+   */
+
+  /**
+   * Create an experiment.
+   */
+
+  public ExperimentClearTransferQueue()
+  {
+    this.delegate = new ExperimentClear(READBACK_ON_TRANSFER_QUEUE);
+  }
+
+  /**
+   * @return The underlying experiment
+   */
+
+  public ExperimentClear experiment()
+  {
+    return this.delegate;
+  }
+
+  @Override
+  public String name()
+  {
+    return this.delegate.name();
+  }
+
+  @Override
+  public Observable<ExperimentEventType> events()
+  {
+    return this.delegate.events();
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return this.delegate.parameters();
+  }
+
+  @Override
+  public List<ExperimentMetric> metrics()
+  {
+    return this.delegate.metrics();
+  }
+
+  @Override
+  public List<ExperimentMemoryHeap> memoryHeaps()
+  {
+    return this.delegate.memoryHeaps();
+  }
+
+  @Override
+  public Optional<ExperimentFrameDamage> damage()
+  {
+    return this.delegate.damage();
+  }
+
+  @Override
+  public void start(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.delegate.start(context);
+  }
+
+  @Override
+  public void onSizeChanged(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.delegate.onSizeChanged(context);
+  }
+
+  @Override
+  public void render(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.delegate.render(context, output);
+  }
+
+  @Override
+  public void render(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    this.delegate.render(context, output);
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    this.delegate.close();
+  }
+}
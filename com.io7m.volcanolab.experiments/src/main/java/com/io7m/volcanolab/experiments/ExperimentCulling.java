@@ -0,0 +1,897 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanBufferCopy;
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanBufferUsageFlag;
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanDescriptorBufferInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolSize;
+import com.io7m.jcoronado.api.VulkanDescriptorSetAllocateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutBinding;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jcoronado.api.VulkanShaderStageFlag;
+import com.io7m.jcoronado.api.VulkanWriteDescriptorSet;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_HOST_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_INDIRECT_COMMAND_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_SHADER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_PRIMARY;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_COMPUTE;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_DRAW_INDIRECT_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_HOST_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentCullingMode.CPU_DRAWS;
+import static com.io7m.volcanolab.experiments.ExperimentCullingMode.GPU_INDIRECT;
+
+/**
+ * <p>An experiment that compares CPU-driven and GPU-driven rendering of a
+ * large scene.</p>
+ *
+ * <p>The scene consists of many small triangles scattered over an area
+ * larger than the view, which pans slowly so that the set of visible
+ * objects changes every frame. In the first mode, objects are culled on the
+ * CPU and each visible object is drawn with its own draw call. In the
+ * second, a compute shader culls the objects and writes one indirect draw
+ * command per object, and the scene is drawn with multi-draw indirect. The
+ * visible object count, the CPU recording time, and the GPU execution time
+ * are reported for each mode.</p>
+ *
+ * <p>The object count is the experiment's workload, and can be changed
+ * while the experiment is running with {@link #setObjectCount(int)}; both
+ * modes are then measured again.</p>
+ */
+
+@ExperimentName(ExperimentCulling.NAME)
+public final class ExperimentCulling extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "GPU Culling";
+
+  /**
+   * The number of objects used by default.
+   */
+
+  public static final int DEFAULT_OBJECTS = 131_072;
+
+  /**
+   * The maximum number of objects. Storage for this many objects is
+   * allocated up front, so that the object count can be changed without
+   * reallocating.
+   */
+
+  public static final int MAXIMUM_OBJECTS = 1 << 20;
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+  private static final int OBJECT_SIZE = 16;
+  private static final int WORKGROUP_SIZE = 64;
+
+  /*
+   * maxDrawIndirectCount is only guaranteed to be at least 2^16 - 1 on
+   * devices that support multi-draw indirect.
+   */
+
+  private static final int INDIRECT_CHUNK = 65535;
+  private static final int INDIRECT_STRIDE = 16;
+
+  private static final Set<VulkanShaderStageFlag> PUSH_STAGES =
+    Set.of(VK_SHADER_STAGE_VERTEX_BIT, VK_SHADER_STAGE_COMPUTE_BIT);
+
+  private final ExperimentParameterInteger requestedObjects;
+  private final List<ExperimentCullingResult> results;
+  private final VLPixelKernelsType kernels;
+  private final ByteBuffer pushConstants;
+  private final float[] objectX;
+  private final float[] objectY;
+  private final float[] objectSize;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private boolean multiDrawIndirect;
+  private VulkanBufferType objectBuffer;
+  private VulkanBufferType commandBuffer;
+  private ExperimentHostBuffer counter;
+  private VulkanDescriptorSetType descriptors;
+  private VulkanRenderPassType renderPass;
+  private VulkanPipelineLayoutType pipelineLayout;
+  private VulkanShaderModuleType vertexShader;
+  private VulkanShaderModuleType fragmentShader;
+  private VulkanPipelineType graphicsPipeline;
+  private VulkanPipelineType cullPipeline;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private VulkanCommandBufferType frameCommands;
+  private int objectCount;
+  private int frame;
+  private int planIndex;
+  private int stepFrame;
+  private long stepCPUTime;
+  private long stepGPUTime;
+  private boolean stepGPUTimed;
+  private int visible;
+
+  public ExperimentCulling()
+  {
+    this(DEFAULT_OBJECTS);
+  }
+
+  /**
+   * An experiment that compares CPU-driven and GPU-driven rendering of a
+   * large scene.
+   *
+   * @param inObjects The initial number of objects
+   */
+
+  public ExperimentCulling(
+    final int inObjects)
+  {
+    super(LoggerFactory.getLogger(ExperimentCulling.class), NAME);
+
+    checkObjectCount(inObjects);
+
+    this.objectCount = inObjects;
+    this.requestedObjects =
+      ExperimentParameterInteger.create(
+        "objects",
+        "The number of objects in the scene",
+        1L,
+        MAXIMUM_OBJECTS,
+        inObjects
+      );
+    this.results = new ArrayList<>();
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(16)
+        .order(ByteOrder.nativeOrder());
+    this.objectX = new float[MAXIMUM_OBJECTS];
+    this.objectY = new float[MAXIMUM_OBJECTS];
+    this.objectSize = new float[MAXIMUM_OBJECTS];
+  }
+
+  private static void checkObjectCount(
+    final int objects)
+  {
+    if (objects < 1 || objects > MAXIMUM_OBJECTS) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Object count %d must be in the range [1, %d]",
+          Integer.valueOf(objects),
+          Integer.valueOf(MAXIMUM_OBJECTS))
+      );
+    }
+  }
+
+  /**
+   * Set the number of objects in the scene. The change takes effect at the
+   * start of the next frame, and restarts the measurements. This method may
+   * be called from any thread.
+   *
+   * @param objects The number of objects
+   */
+
+  public void setObjectCount(
+    final int objects)
+  {
+    checkObjectCount(objects);
+    this.requestedObjects.set(objects);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedObjects);
+  }
+
+  /**
+   * @return The number of objects currently in the scene
+   */
+
+  public int objectCount()
+  {
+    return this.objectCount;
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentCullingResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every mode has been measured at the current
+   * object count
+   */
+
+  public boolean isComplete()
+  {
+    return this.planIndex == ExperimentCullingMode.values().length;
+  }
+
+  /**
+   * @return {@code true} if the device supports multi-draw indirect
+   */
+
+  public boolean isMultiDrawIndirect()
+  {
+    return this.multiDrawIndirect;
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+          .withMultiDrawIndirect(true)
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.multiDrawIndirect = experimentDevice.multiDrawIndirect();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    this.eventLifecycle(LOADING, 0.25, "Generating objects");
+    this.createBuffers();
+    this.uploadObjects();
+
+    this.eventLifecycle(LOADING, 0.5, "Creating pipelines");
+    this.createLayout();
+
+    this.vertexShader =
+      ExperimentShaders.createModule(resources, this.device, "object.vert");
+    this.fragmentShader =
+      ExperimentShaders.createModule(resources, this.device, "color.frag");
+
+    this.cullPipeline =
+      ExperimentPipelines.createCompute(
+        resources,
+        this.device,
+        this.pipelineLayout,
+        ExperimentShaders.createModule(resources, this.device, "cull.comp")
+      );
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          VK_FORMAT_R8G8B8A8_UNORM)
+      );
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      this.multiDrawIndirect
+        ? "Multi-draw indirect supported"
+        : "Multi-draw indirect unsupported; one indirect draw per object"
+    );
+  }
+
+  private VulkanBufferType createDeviceBuffer(
+    final long size,
+    final Set<VulkanBufferUsageFlag> usage)
+    throws VulkanException
+  {
+    final var allocation =
+      this.vmaAllocator.createBuffer(
+        this.resources(),
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanBufferCreateInfo.builder()
+          .addAllUsageFlags(usage)
+          .setSize(size)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .build()
+      );
+    return allocation.result();
+  }
+
+  private void createBuffers()
+    throws VulkanException
+  {
+    this.objectBuffer =
+      this.createDeviceBuffer(
+        (long) MAXIMUM_OBJECTS * OBJECT_SIZE,
+        Set.of(
+          VK_BUFFER_USAGE_STORAGE_BUFFER_BIT,
+          VK_BUFFER_USAGE_TRANSFER_DST_BIT)
+      );
+
+    this.commandBuffer =
+      this.createDeviceBuffer(
+        (long) MAXIMUM_OBJECTS * INDIRECT_STRIDE,
+        Set.of(
+          VK_BUFFER_USAGE_STORAGE_BUFFER_BIT,
+          VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT)
+      );
+
+    this.counter =
+      ExperimentHostBuffer.create(
+        this.resources(),
+        this.device,
+        this.vmaAllocator,
+        16L,
+        Set.of(VK_BUFFER_USAGE_STORAGE_BUFFER_BIT)
+      );
+  }
+
+  /*
+   * Objects are scattered over [-1.5, 1.5] in both axes, so that a little
+   * under half of them are in view at any time. A fixed seed keeps the
+   * scene identical between runs.
+   */
+
+  private void uploadObjects()
+    throws Exception
+  {
+    final var random = new Random(0x5eedL);
+
+    try (var staging = CloseableCollection.create()) {
+      final var buffer =
+        ExperimentHostBuffer.create(
+          staging,
+          this.device,
+          this.vmaAllocator,
+          (long) MAXIMUM_OBJECTS * OBJECT_SIZE,
+          Set.of(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+        );
+
+      final var data = buffer.data();
+      for (var index = 0; index < MAXIMUM_OBJECTS; ++index) {
+        final var x = (random.nextFloat() * 3.0f) - 1.5f;
+        final var y = (random.nextFloat() * 3.0f) - 1.5f;
+        final var size = 0.002f + (random.nextFloat() * 0.008f);
+        final var color =
+          0xff000000 | (random.nextInt() & 0x00ffffff) | 0x404040;
+
+        this.objectX[index] = x;
+        this.objectY[index] = y;
+        this.objectSize[index] = size;
+
+        final var offset = index * OBJECT_SIZE;
+        data.putFloat(offset, x);
+        data.putFloat(offset + 4, y);
+        data.putFloat(offset + 8, size);
+        data.putInt(offset + 12, color);
+      }
+
+      this.runner.runAndWait(commands -> {
+        commands.copyBuffer(
+          buffer.buffer(),
+          this.objectBuffer,
+          List.of(
+            VulkanBufferCopy.of(0L, 0L, (long) MAXIMUM_OBJECTS * OBJECT_SIZE))
+        );
+      });
+    }
+  }
+
+  private void createLayout()
+    throws VulkanException
+  {
+    final var resources = this.resources();
+
+    final var setLayout =
+      resources.add(
+        this.device.createDescriptorSetLayout(
+          VulkanDescriptorSetLayoutCreateInfo.builder()
+            .addBindings(
+              storageBinding(
+                0,
+                Set.of(
+                  VK_SHADER_STAGE_VERTEX_BIT,
+                  VK_SHADER_STAGE_COMPUTE_BIT)))
+            .addBindings(storageBinding(1, Set.of(VK_SHADER_STAGE_COMPUTE_BIT)))
+            .addBindings(storageBinding(2, Set.of(VK_SHADER_STAGE_COMPUTE_BIT)))
+            .build())
+      );
+
+    this.pipelineLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addSetLayouts(setLayout)
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(PUSH_STAGES, 0, 16))
+            .build())
+      );
+
+    final var pool =
+      resources.add(
+        this.device.createDescriptorPool(
+          VulkanDescriptorPoolCreateInfo.builder()
+            .setMaxSets(1)
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, 3))
+            .build())
+      );
+
+    this.descriptors =
+      this.device.allocateDescriptorSets(
+        VulkanDescriptorSetAllocateInfo.builder()
+          .setDescriptorPool(pool)
+          .addSetLayouts(setLayout)
+          .build()
+      ).get(0);
+
+    this.device.updateDescriptorSets(
+      List.of(
+        this.storageWrite(0, this.objectBuffer),
+        this.storageWrite(1, this.commandBuffer),
+        this.storageWrite(2, this.counter.buffer())
+      ),
+      List.of()
+    );
+  }
+
+  private static VulkanDescriptorSetLayoutBinding storageBinding(
+    final int binding,
+    final Set<VulkanShaderStageFlag> stages)
+  {
+    return VulkanDescriptorSetLayoutBinding.builder()
+      .setBinding(binding)
+      .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+      .setDescriptorCount(1)
+      .addAllStageFlags(stages)
+      .build();
+  }
+
+  private VulkanWriteDescriptorSet storageWrite(
+    final int binding,
+    final VulkanBufferType buffer)
+  {
+    return VulkanWriteDescriptorSet.builder()
+      .setDestinationSet(this.descriptors)
+      .setDestinationBinding(binding)
+      .setDestinationArrayElement(0)
+      .setDescriptorCount(1)
+      .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+      .addBuffers(VulkanDescriptorBufferInfo.of(buffer, 0L, buffer.size()))
+      .build();
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        VK_FORMAT_R8G8B8A8_UNORM,
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        width,
+        height
+      );
+
+    this.graphicsPipeline =
+      ExperimentPipelines.createGraphics(
+        this.frameResources,
+        this.device,
+        this.pipelineLayout,
+        this.renderPass,
+        this.vertexShader,
+        this.fragmentShader,
+        ExperimentPipelines.blendOpaque(),
+        width,
+        height
+      );
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.frameCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_PRIMARY);
+
+    this.stepRestart();
+  }
+
+  private void stepRestart()
+  {
+    this.stepFrame = 0;
+    this.stepCPUTime = 0L;
+    this.stepGPUTime = 0L;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var requested = (int) this.requestedObjects.get();
+    if (requested != this.objectCount) {
+      this.objectCount = requested;
+      this.planIndex = 0;
+      this.stepRestart();
+      this.eventLifecycle(
+        LOADING,
+        0.0,
+        String.format(
+          "Object count changed to %d",
+          Integer.valueOf(requested))
+      );
+    }
+
+    /*
+     * Once every mode has been measured, the GPU-driven path is simply
+     * repeated.
+     */
+
+    final var complete = this.isComplete();
+    final var mode =
+      complete ? GPU_INDIRECT : ExperimentCullingMode.values()[this.planIndex];
+
+    ++this.frame;
+    final var offsetX = (float) (0.5 * Math.sin(this.frame * 0.01));
+    final var offsetY = (float) (0.5 * Math.cos(this.frame * 0.013));
+    this.pushConstants.putFloat(0, offsetX);
+    this.pushConstants.putFloat(4, offsetY);
+    this.pushConstants.putInt(8, this.objectCount);
+    this.counter.data().putInt(0, 0);
+
+    final var timeThen = System.nanoTime();
+    this.record(mode, offsetX, offsetY);
+    final var recordTime = System.nanoTime() - timeThen;
+
+    final var submitTime = this.runner.submitAndWait(this.frameCommands);
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+
+    if (mode == GPU_INDIRECT) {
+      this.visible = this.counter.data().getInt(0);
+    }
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepCPUTime += recordTime;
+    this.stepGPUTime += gpuTime.orElse(submitTime);
+    this.stepGPUTimed = gpuTime.isPresent();
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var result =
+      new ExperimentCullingResult(
+        mode,
+        this.objectCount,
+        this.visible,
+        MEASURED_FRAMES,
+        this.stepCPUTime / MEASURED_FRAMES,
+        this.stepGPUTime / MEASURED_FRAMES,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepRestart();
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) ExperimentCullingMode.values().length,
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      final var count = ExperimentCullingMode.values().length;
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.subList(this.results.size() - count, this.results.size())
+          .stream()
+          .map(ExperimentCullingResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  private void record(
+    final ExperimentCullingMode mode,
+    final float offsetX,
+    final float offsetY)
+    throws VulkanException
+  {
+    final var commands = this.frameCommands;
+    commands.beginCommandBuffer();
+    this.timer.reset(commands);
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+    if (mode == GPU_INDIRECT) {
+      this.recordCull(commands);
+    }
+
+    commands.beginRenderPass(
+      this.target.beginInfo(),
+      VK_SUBPASS_CONTENTS_INLINE);
+    commands.bindPipeline(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      this.graphicsPipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      this.pipelineLayout,
+      0,
+      List.of(this.descriptors),
+      List.of()
+    );
+    commands.pushConstants(
+      this.pipelineLayout, PUSH_STAGES, 0, 16, this.pushConstants);
+
+    switch (mode) {
+      case CPU_DRAWS -> this.recordCPUDraws(commands, offsetX, offsetY);
+      case GPU_INDIRECT -> this.recordIndirectDraws(commands);
+    }
+
+    commands.endRenderPass();
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+    this.readback.recordCopyFrom(
+      commands,
+      this.target.image(),
+      VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+    );
+    commands.endCommandBuffer();
+  }
+
+  private void recordCull(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_COMPUTE, this.cullPipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_COMPUTE,
+      this.pipelineLayout,
+      0,
+      List.of(this.descriptors),
+      List.of()
+    );
+    commands.pushConstants(
+      this.pipelineLayout, PUSH_STAGES, 0, 16, this.pushConstants);
+    commands.dispatch(
+      (this.objectCount + WORKGROUP_SIZE - 1) / WORKGROUP_SIZE, 1, 1);
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT),
+      Set.of(VK_PIPELINE_STAGE_DRAW_INDIRECT_BIT, VK_PIPELINE_STAGE_HOST_BIT),
+      Set.of(),
+      List.of(
+        VulkanMemoryBarrier.builder()
+          .addSrcAccessMask(VK_ACCESS_SHADER_WRITE_BIT)
+          .addDstAccessMask(VK_ACCESS_INDIRECT_COMMAND_READ_BIT)
+          .addDstAccessMask(VK_ACCESS_HOST_READ_BIT)
+          .build()
+      ),
+      List.of(),
+      List.of()
+    );
+  }
+
+  /*
+   * The CPU performs exactly the same test as the culling shader, in the
+   * same precision, so both modes draw the same objects.
+   */
+
+  private void recordCPUDraws(
+    final VulkanCommandBufferType commands,
+    final float offsetX,
+    final float offsetY)
+    throws VulkanException
+  {
+    var count = 0;
+    for (var index = 0; index < this.objectCount; ++index) {
+      final var x = this.objectX[index] + offsetX;
+      final var y = this.objectY[index] + offsetY;
+      final var limit = 1.0f + this.objectSize[index];
+      if (x <= limit && x >= -limit && y <= limit && y >= -limit) {
+        commands.draw(3, 1, index * 3, 0);
+        ++count;
+      }
+    }
+    this.visible = count;
+  }
+
+  private void recordIndirectDraws(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    final var draws = this.objectCount;
+    if (this.multiDrawIndirect) {
+      for (var first = 0; first < draws; first += INDIRECT_CHUNK) {
+        final var count = Math.min(INDIRECT_CHUNK, draws - first);
+        commands.drawIndirect(
+          this.commandBuffer,
+          (long) first * INDIRECT_STRIDE,
+          count,
+          INDIRECT_STRIDE
+        );
+      }
+      return;
+    }
+
+    for (var index = 0; index < draws; ++index) {
+      commands.drawIndirect(
+        this.commandBuffer,
+        (long) index * INDIRECT_STRIDE,
+        1,
+        INDIRECT_STRIDE
+      );
+    }
+  }
+}
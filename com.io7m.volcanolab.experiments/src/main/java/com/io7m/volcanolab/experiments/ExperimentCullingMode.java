@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The ways in which the culling experiment culls and draws its objects.
+ */
+
+public enum ExperimentCullingMode
+{
+  /**
+   * Objects are culled on the CPU, and each visible object is drawn with
+   * its own draw call.
+   */
+
+  CPU_DRAWS("CPU culling, per-object draws"),
+
+  /**
+   * Objects are culled by a compute shader that writes one indirect draw
+   * command per object, and the whole scene is drawn with multi-draw
+   * indirect.
+   */
+
+  GPU_INDIRECT("GPU culling, multi-draw indirect");
+
+  private final String label;
+
+  ExperimentCullingMode(
+    final String inLabel)
+  {
+    this.label = inLabel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of measuring a single culling mode.
+ *
+ * @param mode           The culling mode
+ * @param objects        The number of objects in the scene
+ * @param visible        The number of objects that were visible in the
+ *                       last measured frame
+ * @param frames         The number of frames measured
+ * @param cpuNanoseconds The mean time per frame spent recording commands,
+ *                       including any culling on the CPU
+ * @param gpuNanoseconds The mean time per frame spent executing commands
+ * @param gpuTimed       {@code true} if execution was timed with GPU
+ *                       timestamps, {@code false} if it was timed on the CPU
+ */
+
+public record ExperimentCullingResult(
+  ExperimentCullingMode mode,
+  int objects,
+  int visible,
+  int frames,
+  long cpuNanoseconds,
+  long gpuNanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of measuring a single culling mode.
+   *
+   * @param mode           The culling mode
+   * @param objects        The number of objects in the scene
+   * @param visible        The number of objects that were visible in the
+   *                       last measured frame
+   * @param frames         The number of frames measured
+   * @param cpuNanoseconds The mean time per frame spent recording commands,
+   *                       including any culling on the CPU
+   * @param gpuNanoseconds The mean time per frame spent executing commands
+   * @param gpuTimed       {@code true} if execution was timed with GPU
+   *                       timestamps, {@code false} if it was timed on the
+   *                       CPU
+   */
+
+  public ExperimentCullingResult
+  {
+    Objects.requireNonNull(mode, "mode");
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s, %d objects (%d visible): CPU %.3f ms, GPU %.3f ms (%s)",
+      this.mode.label(),
+      Integer.valueOf(this.objects),
+      Integer.valueOf(this.visible),
+      Double.valueOf((double) this.cpuNanoseconds / 1_000_000.0),
+      Double.valueOf((double) this.gpuNanoseconds / 1_000_000.0),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+}
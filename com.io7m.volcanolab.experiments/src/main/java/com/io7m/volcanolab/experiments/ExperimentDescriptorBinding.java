@@ -0,0 +1,1133 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanAccessFlag;
+import com.io7m.jcoronado.api.VulkanBufferImageCopy;
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanComponentMappingType;
+import com.io7m.jcoronado.api.VulkanDescriptorBufferInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorImageInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolSize;
+import com.io7m.jcoronado.api.VulkanDescriptorSetAllocateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutBinding;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutType;
+import com.io7m.jcoronado.api.VulkanDescriptorSetType;
+import com.io7m.jcoronado.api.VulkanDescriptorType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent3D;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageLayout;
+import com.io7m.jcoronado.api.VulkanImageMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanImageSubresourceLayers;
+import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanImageViewCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageViewKind;
+import com.io7m.jcoronado.api.VulkanImageViewType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanOffset3D;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanSamplerCreateInfo;
+import com.io7m.jcoronado.api.VulkanSamplerType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jcoronado.api.VulkanShaderStageFlag;
+import com.io7m.jcoronado.api.VulkanWriteDescriptorSet;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_SHADER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBorderColor.VK_BORDER_COLOR_INT_OPAQUE_BLACK;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_UNIFORM_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_PRIMARY;
+import static com.io7m.jcoronado.api.VulkanCompareOp.VK_COMPARE_OP_ALWAYS;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER;
+import static com.io7m.jcoronado.api.VulkanFilter.VK_FILTER_NEAREST;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageAspectFlag.VK_IMAGE_ASPECT_COLOR_BIT;
+import static com.io7m.jcoronado.api.VulkanImageKind.VK_IMAGE_TYPE_2D;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_UNDEFINED;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_SAMPLED_BIT;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanSamplerAddressMode.VK_SAMPLER_ADDRESS_MODE_REPEAT;
+import static com.io7m.jcoronado.api.VulkanSamplerMipmapMode.VK_SAMPLER_MIPMAP_MODE_NEAREST;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_FRAGMENT_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentBindingMode.DESCRIPTOR_INDEXING;
+import static com.io7m.volcanolab.experiments.ExperimentBindingMode.PER_DRAW_SETS;
+
+/**
+ * <p>An experiment that compares two ways of binding the resources of many
+ * materials.</p>
+ *
+ * <p>Each material is a texture and a color, and the experiment draws one
+ * textured quad per material. In the first mode, each material has a
+ * descriptor set of its own that is bound before each draw. In the second,
+ * a single descriptor set holds an array of every texture and a buffer of
+ * every material, and each draw selects its material with a push constant.
+ * The CPU time spent recording the draws and the GPU time spent executing
+ * them are reported for each mode.</p>
+ *
+ * <p>The second mode requires runtime descriptor arrays. On devices that do
+ * not support them, only the first mode is measured, and the lifecycle
+ * messages say so.</p>
+ */
+
+@ExperimentName(ExperimentDescriptorBinding.NAME)
+public final class ExperimentDescriptorBinding extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Descriptor Binding";
+
+  /**
+   * The number of materials used by default.
+   */
+
+  public static final int DEFAULT_MATERIALS = 4096;
+
+  /**
+   * The maximum number of materials.
+   */
+
+  public static final int MAXIMUM_MATERIALS = 65536;
+
+  /*
+   * Materials share a smaller set of textures. The number is further
+   * limited by the device's per-stage sampler limits, which can be as low
+   * as 16 on devices without descriptor indexing.
+   */
+
+  private static final int MAXIMUM_TEXTURES = 256;
+  private static final int TEXTURE_SIZE = 16;
+  private static final int MATERIAL_SIZE = 32;
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  private static final Set<VulkanShaderStageFlag> PER_DRAW_PUSH_STAGES =
+    Set.of(VK_SHADER_STAGE_VERTEX_BIT);
+  private static final Set<VulkanShaderStageFlag> INDEXED_PUSH_STAGES =
+    Set.of(VK_SHADER_STAGE_VERTEX_BIT, VK_SHADER_STAGE_FRAGMENT_BIT);
+
+  private final int materials;
+  private final Set<ExperimentBindingMode> requestedModes;
+  private final List<ExperimentBindingResult> results;
+  private final VLPixelKernelsType kernels;
+  private final ByteBuffer pushConstants;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private List<ExperimentBindingMode> plan;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private boolean descriptorIndexing;
+  private int textureCount;
+  private int columns;
+  private VulkanSamplerType sampler;
+  private List<VulkanImageViewType> textureViews;
+  private ExperimentHostBuffer materialUniforms;
+  private ExperimentHostBuffer materialStorage;
+  private List<List<VulkanDescriptorSetType>> perDrawSets;
+  private List<VulkanDescriptorSetType> indexedSet;
+  private VulkanPipelineLayoutType perDrawLayout;
+  private VulkanPipelineLayoutType indexedLayout;
+  private VulkanShaderModuleType vertexShader;
+  private VulkanShaderModuleType perDrawShader;
+  private VulkanShaderModuleType indexedShader;
+  private VulkanRenderPassType renderPass;
+  private VulkanPipelineType perDrawPipeline;
+  private VulkanPipelineType indexedPipeline;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private VulkanCommandBufferType frameCommands;
+  private int planIndex;
+  private int stepFrame;
+  private long stepCPUTime;
+  private long stepGPUTime;
+  private boolean stepGPUTimed;
+
+  public ExperimentDescriptorBinding()
+  {
+    this(DEFAULT_MATERIALS, EnumSet.allOf(ExperimentBindingMode.class));
+  }
+
+  /**
+   * An experiment that compares two ways of binding the resources of many
+   * materials.
+   *
+   * @param inMaterials The number of materials
+   * @param inModes     The binding modes to measure; modes the device does
+   *                    not support are skipped
+   */
+
+  public ExperimentDescriptorBinding(
+    final int inMaterials,
+    final Set<ExperimentBindingMode> inModes)
+  {
+    super(LoggerFactory.getLogger(ExperimentDescriptorBinding.class), NAME);
+
+    Objects.requireNonNull(inModes, "modes");
+
+    if (inMaterials < 1 || inMaterials > MAXIMUM_MATERIALS) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Material count %d must be in the range [1, %d]",
+          Integer.valueOf(inMaterials),
+          Integer.valueOf(MAXIMUM_MATERIALS))
+      );
+    }
+    if (inModes.isEmpty()) {
+      throw new IllegalArgumentException(
+        "At least one binding mode must be specified");
+    }
+
+    this.materials = inMaterials;
+    this.requestedModes = EnumSet.copyOf(inModes);
+    this.results = new ArrayList<>();
+    this.plan = List.of();
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(8)
+        .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * @return The binding modes that will be measured, in order; empty until
+   * the experiment has started
+   */
+
+  public List<ExperimentBindingMode> plan()
+  {
+    return this.plan;
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentBindingResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every planned mode has been measured
+   */
+
+  public boolean isComplete()
+  {
+    return !this.plan.isEmpty() && this.planIndex == this.plan.size();
+  }
+
+  /**
+   * @return {@code true} if the device supports descriptor indexing
+   */
+
+  public boolean isDescriptorIndexing()
+  {
+    return this.descriptorIndexing;
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+          .withDescriptorIndexing(
+            this.requestedModes.contains(DESCRIPTOR_INDEXING))
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.descriptorIndexing = experimentDevice.descriptorIndexing();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    final var limits = physicalDevice.properties().limits();
+    this.textureCount =
+      Math.min(
+        Math.min(this.materials, MAXIMUM_TEXTURES),
+        Math.min(
+          limits.maxPerStageDescriptorSamplers(),
+          limits.maxPerStageDescriptorSampledImages())
+      );
+    this.columns = (int) Math.ceil(Math.sqrt(this.materials));
+
+    final var uniformAlignment =
+      Math.max(16L, limits.minUniformBufferOffsetAlignment());
+
+    this.eventLifecycle(LOADING, 0.2, "Uploading textures");
+    this.createTextures();
+
+    this.eventLifecycle(LOADING, 0.4, "Creating materials");
+    this.createMaterials(uniformAlignment);
+
+    this.eventLifecycle(LOADING, 0.6, "Creating descriptor sets");
+    this.vertexShader =
+      ExperimentShaders.createModule(resources, this.device, "material.vert");
+
+    final var modes = new ArrayList<ExperimentBindingMode>();
+    if (this.requestedModes.contains(PER_DRAW_SETS)) {
+      this.createPerDrawSets(uniformAlignment);
+      this.perDrawShader =
+        ExperimentShaders.createModule(
+          resources, this.device, "material_set.frag");
+      modes.add(PER_DRAW_SETS);
+    }
+
+    /*
+     * The indexed shader declares a runtime descriptor array, and so can't
+     * even be loaded on devices without descriptor indexing.
+     */
+
+    final String message;
+    if (this.requestedModes.contains(DESCRIPTOR_INDEXING)) {
+      if (this.descriptorIndexing) {
+        this.createIndexedSet();
+        this.indexedShader =
+          ExperimentShaders.createModule(
+            resources, this.device, "material_indexed.frag");
+        modes.add(DESCRIPTOR_INDEXING);
+        message = "Descriptor indexing supported";
+      } else {
+        message = "Descriptor indexing unsupported; skipping indexed binding";
+      }
+    } else {
+      message = "";
+    }
+
+    if (modes.isEmpty()) {
+      throw new IllegalStateException(
+        "None of the requested binding modes are supported by the device");
+    }
+    this.plan = List.copyOf(modes);
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          VK_FORMAT_R8G8B8A8_UNORM)
+      );
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(STARTED, 1.0, message);
+  }
+
+  /*
+   * Each texture is a checkerboard of two random colors, with a check
+   * size that varies between textures, so that materials sharing a color
+   * can still be told apart.
+   */
+
+  private void createTextures()
+    throws Exception
+  {
+    final var resources = this.resources();
+    final var random = new Random(0x7e47L);
+    final var textureBytes = TEXTURE_SIZE * TEXTURE_SIZE * 4;
+
+    this.sampler =
+      resources.add(
+        this.device.createSampler(
+          VulkanSamplerCreateInfo.builder()
+            .setMagFilter(VK_FILTER_NEAREST)
+            .setMinFilter(VK_FILTER_NEAREST)
+            .setMipmapMode(VK_SAMPLER_MIPMAP_MODE_NEAREST)
+            .setAddressModeU(VK_SAMPLER_ADDRESS_MODE_REPEAT)
+            .setAddressModeV(VK_SAMPLER_ADDRESS_MODE_REPEAT)
+            .setAddressModeW(VK_SAMPLER_ADDRESS_MODE_REPEAT)
+            .setMipLodBias(0.0f)
+            .setAnisotropyEnable(false)
+            .setMaxAnisotropy(1.0f)
+            .setCompareEnable(false)
+            .setCompareOp(VK_COMPARE_OP_ALWAYS)
+            .setMinLod(0.0f)
+            .setMaxLod(0.0f)
+            .setBorderColor(VK_BORDER_COLOR_INT_OPAQUE_BLACK)
+            .setUnnormalizedCoordinates(false)
+            .build())
+      );
+
+    final var images = new ArrayList<VulkanImageType>(this.textureCount);
+    final var views = new ArrayList<VulkanImageViewType>(this.textureCount);
+    for (var index = 0; index < this.textureCount; ++index) {
+      final var image = this.createTexture();
+      images.add(image);
+      views.add(
+        resources.add(
+          this.device.createImageView(
+            VulkanImageViewCreateInfo.builder()
+              .setComponents(VulkanComponentMappingType.identity())
+              .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+              .setImage(image)
+              .setSubresourceRange(colorRange())
+              .setViewType(VulkanImageViewKind.VK_IMAGE_VIEW_TYPE_2D)
+              .build()))
+      );
+    }
+    this.textureViews = List.copyOf(views);
+
+    try (var staging = CloseableCollection.create()) {
+      final var buffer =
+        ExperimentHostBuffer.create(
+          staging,
+          this.device,
+          this.vmaAllocator,
+          (long) this.textureCount * textureBytes,
+          Set.of(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+        );
+
+      final var data = buffer.data();
+      for (var index = 0; index < this.textureCount; ++index) {
+        final var colorA = random.nextInt();
+        final var colorB = random.nextInt();
+        final var check = 1 << (index % 4);
+        final var base = index * textureBytes;
+        for (var y = 0; y < TEXTURE_SIZE; ++y) {
+          for (var x = 0; x < TEXTURE_SIZE; ++x) {
+            final var color =
+              ((x / check + y / check) % 2 == 0) ? colorA : colorB;
+            final var offset = base + ((y * TEXTURE_SIZE + x) * 4);
+            data.put(offset, (byte) color);
+            data.put(offset + 1, (byte) (color >>> 8));
+            data.put(offset + 2, (byte) (color >>> 16));
+            data.put(offset + 3, (byte) 0xff);
+          }
+        }
+      }
+
+      this.runner.runAndWait(commands -> {
+        commands.pipelineBarrier(
+          Set.of(VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT),
+          Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+          Set.of(),
+          List.of(),
+          List.of(),
+          images.stream()
+            .map(image -> imageBarrier(
+              image,
+              Set.of(),
+              Set.of(VK_ACCESS_TRANSFER_WRITE_BIT),
+              VK_IMAGE_LAYOUT_UNDEFINED,
+              VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL))
+            .collect(Collectors.toList())
+        );
+
+        final var extent = VulkanExtent3D.of(TEXTURE_SIZE, TEXTURE_SIZE, 1);
+        for (var index = 0; index < images.size(); ++index) {
+          commands.copyBufferToImage(
+            buffer.buffer(),
+            images.get(index),
+            VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+            List.of(
+              VulkanBufferImageCopy.builder()
+                .setBufferImageHeight(0)
+                .setBufferOffset((long) index * textureBytes)
+                .setBufferRowLength(0)
+                .setImageExtent(extent)
+                .setImageOffset(VulkanOffset3D.of(0, 0, 0))
+                .setImageSubresource(
+                  VulkanImageSubresourceLayers.builder()
+                    .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+                    .setMipLevel(0)
+                    .setBaseArrayLayer(0)
+                    .setLayerCount(1)
+                    .build())
+                .build()
+            )
+          );
+        }
+
+        commands.pipelineBarrier(
+          Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+          Set.of(VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT),
+          Set.of(),
+          List.of(),
+          List.of(),
+          images.stream()
+            .map(image -> imageBarrier(
+              image,
+              Set.of(VK_ACCESS_TRANSFER_WRITE_BIT),
+              Set.of(VK_ACCESS_SHADER_READ_BIT),
+              VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+              VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL))
+            .collect(Collectors.toList())
+        );
+      });
+    }
+  }
+
+  /*
+   * Textures are small and numerous, so they are suballocated rather than
+   * given dedicated memory.
+   */
+
+  private VulkanImageType createTexture()
+    throws VulkanException
+  {
+    final var allocation =
+      this.vmaAllocator.createImage(
+        this.resources(),
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_SAMPLED_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_DST_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(TEXTURE_SIZE, TEXTURE_SIZE, 1))
+          .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(VK_IMAGE_TILING_OPTIMAL)
+          .build()
+      );
+    return allocation.result();
+  }
+
+  /*
+   * Material parameters are written twice: once into a uniform buffer,
+   * padded to the device's uniform offset alignment so that each material
+   * can be bound on its own, and once, tightly packed, into the storage
+   * buffer that the indexed shader reads.
+   */
+
+  private void createMaterials(
+    final long uniformAlignment)
+    throws VulkanException
+  {
+    final var random = new Random(0x3a7eL);
+
+    this.materialUniforms =
+      ExperimentHostBuffer.create(
+        this.resources(),
+        this.device,
+        this.vmaAllocator,
+        (long) this.materials * uniformAlignment,
+        Set.of(VK_BUFFER_USAGE_UNIFORM_BUFFER_BIT)
+      );
+    this.materialStorage =
+      ExperimentHostBuffer.create(
+        this.resources(),
+        this.device,
+        this.vmaAllocator,
+        (long) this.materials * MATERIAL_SIZE,
+        Set.of(VK_BUFFER_USAGE_STORAGE_BUFFER_BIT)
+      );
+
+    final var uniforms = this.materialUniforms.data();
+    final var storage = this.materialStorage.data();
+    for (var index = 0; index < this.materials; ++index) {
+      final var r = 0.5f + (random.nextFloat() * 0.5f);
+      final var g = 0.5f + (random.nextFloat() * 0.5f);
+      final var b = 0.5f + (random.nextFloat() * 0.5f);
+
+      final var uniformOffset = (int) (index * uniformAlignment);
+      uniforms.putFloat(uniformOffset, r);
+      uniforms.putFloat(uniformOffset + 4, g);
+      uniforms.putFloat(uniformOffset + 8, b);
+      uniforms.putFloat(uniformOffset + 12, 1.0f);
+
+      final var storageOffset = index * MATERIAL_SIZE;
+      storage.putFloat(storageOffset, r);
+      storage.putFloat(storageOffset + 4, g);
+      storage.putFloat(storageOffset + 8, b);
+      storage.putFloat(storageOffset + 12, 1.0f);
+      storage.putInt(storageOffset + 16, index % this.textureCount);
+    }
+  }
+
+  private void createPerDrawSets(
+    final long uniformAlignment)
+    throws VulkanException
+  {
+    final var resources = this.resources();
+
+    final var setLayout =
+      resources.add(
+        this.device.createDescriptorSetLayout(
+          VulkanDescriptorSetLayoutCreateInfo.builder()
+            .addBindings(
+              fragmentBinding(0, VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER, 1))
+            .addBindings(
+              fragmentBinding(1, VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER, 1))
+            .build())
+      );
+
+    this.perDrawLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addSetLayouts(setLayout)
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(PER_DRAW_PUSH_STAGES, 0, 8))
+            .build())
+      );
+
+    final var pool =
+      resources.add(
+        this.device.createDescriptorPool(
+          VulkanDescriptorPoolCreateInfo.builder()
+            .setMaxSets(this.materials)
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER, this.materials))
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER, this.materials))
+            .build())
+      );
+
+    final var layouts = new ArrayList<VulkanDescriptorSetLayoutType>();
+    for (var index = 0; index < this.materials; ++index) {
+      layouts.add(setLayout);
+    }
+
+    final var sets =
+      this.device.allocateDescriptorSets(
+        VulkanDescriptorSetAllocateInfo.builder()
+          .setDescriptorPool(pool)
+          .addAllSetLayouts(layouts)
+          .build()
+      );
+
+    final var writes = new ArrayList<VulkanWriteDescriptorSet>();
+    final var uniformBuffer = this.materialUniforms.buffer();
+    for (var index = 0; index < this.materials; ++index) {
+      final var set = sets.get(index);
+      writes.add(
+        VulkanWriteDescriptorSet.builder()
+          .setDestinationSet(set)
+          .setDestinationBinding(0)
+          .setDestinationArrayElement(0)
+          .setDescriptorCount(1)
+          .setDescriptorType(VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER)
+          .addImages(this.textureInfo(index % this.textureCount))
+          .build()
+      );
+      writes.add(
+        VulkanWriteDescriptorSet.builder()
+          .setDestinationSet(set)
+          .setDestinationBinding(1)
+          .setDestinationArrayElement(0)
+          .setDescriptorCount(1)
+          .setDescriptorType(VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER)
+          .addBuffers(
+            VulkanDescriptorBufferInfo.of(
+              uniformBuffer, index * uniformAlignment, 16L))
+          .build()
+      );
+    }
+    this.device.updateDescriptorSets(writes, List.of());
+
+    /*
+     * The single-element lists are built once here so that recording a
+     * draw doesn't allocate.
+     */
+
+    this.perDrawSets =
+      sets.stream()
+        .map(List::of)
+        .collect(Collectors.toList());
+  }
+
+  private void createIndexedSet()
+    throws VulkanException
+  {
+    final var resources = this.resources();
+
+    final var setLayout =
+      resources.add(
+        this.device.createDescriptorSetLayout(
+          VulkanDescriptorSetLayoutCreateInfo.builder()
+            .addBindings(
+              fragmentBinding(
+                0,
+                VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER,
+                this.textureCount))
+            .addBindings(
+              fragmentBinding(1, VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, 1))
+            .build())
+      );
+
+    this.indexedLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addSetLayouts(setLayout)
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(INDEXED_PUSH_STAGES, 0, 8))
+            .build())
+      );
+
+    final var pool =
+      resources.add(
+        this.device.createDescriptorPool(
+          VulkanDescriptorPoolCreateInfo.builder()
+            .setMaxSets(1)
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER, this.textureCount))
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, 1))
+            .build())
+      );
+
+    final var set =
+      this.device.allocateDescriptorSets(
+        VulkanDescriptorSetAllocateInfo.builder()
+          .setDescriptorPool(pool)
+          .addSetLayouts(setLayout)
+          .build()
+      ).get(0);
+
+    final var images = new ArrayList<VulkanDescriptorImageInfo>();
+    for (var index = 0; index < this.textureCount; ++index) {
+      images.add(this.textureInfo(index));
+    }
+
+    final var storage = this.materialStorage.buffer();
+    this.device.updateDescriptorSets(
+      List.of(
+        VulkanWriteDescriptorSet.builder()
+          .setDestinationSet(set)
+          .setDestinationBinding(0)
+          .setDestinationArrayElement(0)
+          .setDescriptorCount(this.textureCount)
+          .setDescriptorType(VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER)
+          .addAllImages(images)
+          .build(),
+        VulkanWriteDescriptorSet.builder()
+          .setDestinationSet(set)
+          .setDestinationBinding(1)
+          .setDestinationArrayElement(0)
+          .setDescriptorCount(1)
+          .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+          .addBuffers(
+            VulkanDescriptorBufferInfo.of(storage, 0L, storage.size()))
+          .build()
+      ),
+      List.of()
+    );
+
+    this.indexedSet = List.of(set);
+  }
+
+  private VulkanDescriptorImageInfo textureInfo(
+    final int index)
+  {
+    return VulkanDescriptorImageInfo.builder()
+      .setSampler(this.sampler)
+      .setImageView(this.textureViews.get(index))
+      .setImageLayout(VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL)
+      .build();
+  }
+
+  private static VulkanDescriptorSetLayoutBinding fragmentBinding(
+    final int binding,
+    final VulkanDescriptorType type,
+    final int count)
+  {
+    return VulkanDescriptorSetLayoutBinding.builder()
+      .setBinding(binding)
+      .setDescriptorType(type)
+      .setDescriptorCount(count)
+      .addStageFlags(VK_SHADER_STAGE_FRAGMENT_BIT)
+      .build();
+  }
+
+  private static VulkanImageSubresourceRange colorRange()
+  {
+    return VulkanImageSubresourceRange.builder()
+      .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+      .setBaseArrayLayer(0)
+      .setBaseMipLevel(0)
+      .setLayerCount(1)
+      .setLevelCount(1)
+      .build();
+  }
+
+  private static VulkanImageMemoryBarrier imageBarrier(
+    final VulkanImageType image,
+    final Set<VulkanAccessFlag> srcAccess,
+    final Set<VulkanAccessFlag> dstAccess,
+    final VulkanImageLayout oldLayout,
+    final VulkanImageLayout newLayout)
+  {
+    return VulkanImageMemoryBarrier.builder()
+      .addAllSrcAccessMask(srcAccess)
+      .addAllDstAccessMask(dstAccess)
+      .setOldLayout(oldLayout)
+      .setNewLayout(newLayout)
+      .setSrcQueueFamilyIndex(-1)
+      .setDstQueueFamilyIndex(-1)
+      .setImage(image)
+      .setSubresourceRange(colorRange())
+      .build();
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        VK_FORMAT_R8G8B8A8_UNORM,
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        width,
+        height
+      );
+
+    if (this.perDrawShader != null) {
+      this.perDrawPipeline =
+        ExperimentPipelines.createGraphics(
+          this.frameResources,
+          this.device,
+          this.perDrawLayout,
+          this.renderPass,
+          this.vertexShader,
+          this.perDrawShader,
+          ExperimentPipelines.blendOpaque(),
+          width,
+          height
+        );
+    }
+
+    if (this.indexedShader != null) {
+      this.indexedPipeline =
+        ExperimentPipelines.createGraphics(
+          this.frameResources,
+          this.device,
+          this.indexedLayout,
+          this.renderPass,
+          this.vertexShader,
+          this.indexedShader,
+          ExperimentPipelines.blendOpaque(),
+          width,
+          height
+        );
+    }
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.frameCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_PRIMARY);
+
+    this.stepRestart();
+  }
+
+  private void stepRestart()
+  {
+    this.stepFrame = 0;
+    this.stepCPUTime = 0L;
+    this.stepGPUTime = 0L;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    /*
+     * Once every mode has been measured, the last mode in the plan is
+     * simply repeated.
+     */
+
+    final var complete = this.isComplete();
+    final var mode =
+      this.plan.get(complete ? this.plan.size() - 1 : this.planIndex);
+
+    final var timeThen = System.nanoTime();
+    this.record(mode);
+    final var recordTime = System.nanoTime() - timeThen;
+
+    final var submitTime = this.runner.submitAndWait(this.frameCommands);
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepCPUTime += recordTime;
+    this.stepGPUTime += gpuTime.orElse(submitTime);
+    this.stepGPUTimed = gpuTime.isPresent();
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var result =
+      new ExperimentBindingResult(
+        mode,
+        this.materials,
+        this.textureCount,
+        MEASURED_FRAMES,
+        this.stepCPUTime / MEASURED_FRAMES,
+        this.stepGPUTime / MEASURED_FRAMES,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepRestart();
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) this.plan.size(),
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.stream()
+          .map(ExperimentBindingResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  private void record(
+    final ExperimentBindingMode mode)
+    throws VulkanException
+  {
+    final var commands = this.frameCommands;
+    commands.beginCommandBuffer();
+    this.timer.reset(commands);
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+    commands.beginRenderPass(
+      this.target.beginInfo(),
+      VK_SUBPASS_CONTENTS_INLINE);
+    this.pushConstants.putInt(4, this.columns);
+
+    switch (mode) {
+      case PER_DRAW_SETS -> this.recordPerDrawSets(commands);
+      case DESCRIPTOR_INDEXING -> this.recordIndexed(commands);
+    }
+
+    commands.endRenderPass();
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+    this.readback.recordCopyFrom(
+      commands,
+      this.target.image(),
+      VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+    );
+    commands.endCommandBuffer();
+  }
+
+  private void recordPerDrawSets(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    commands.bindPipeline(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      this.perDrawPipeline);
+
+    for (var index = 0; index < this.materials; ++index) {
+      commands.bindDescriptorSets(
+        VK_PIPELINE_BIND_POINT_GRAPHICS,
+        this.perDrawLayout,
+        0,
+        this.perDrawSets.get(index),
+        List.of()
+      );
+      this.pushConstants.putInt(0, index);
+      commands.pushConstants(
+        this.perDrawLayout, PER_DRAW_PUSH_STAGES, 0, 8, this.pushConstants);
+      commands.draw(6, 1, 0, 0);
+    }
+  }
+
+  private void recordIndexed(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    commands.bindPipeline(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      this.indexedPipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      this.indexedLayout,
+      0,
+      this.indexedSet,
+      List.of()
+    );
+
+    for (var index = 0; index < this.materials; ++index) {
+      this.pushConstants.putInt(0, index);
+      commands.pushConstants(
+        this.indexedLayout, INDEXED_PUSH_STAGES, 0, 8, this.pushConstants);
+      commands.draw(6, 1, 0, 0);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The ways in which the draw call experiment submits its draws.
+ */
+
+public enum ExperimentDrawCallMode
+{
+  /**
+   * Every draw is recorded into the primary command buffer, every frame.
+   */
+
+  RERECORD("Re-recorded", 0xff3c8cdc),
+
+  /**
+   * Every draw is recorded into a primary command buffer once, and the
+   * same command buffer is submitted every frame.
+   */
+
+  PRERECORDED("Prerecorded", 0xffdc8c3c),
+
+  /**
+   * Every draw is recorded into a secondary command buffer every frame,
+   * and executed from a primary command buffer.
+   */
+
+  SECONDARY("Secondary", 0xffb450b4),
+
+  /**
+   * The draws are written once into an indirect buffer, and the primary
+   * command buffer records a single indirect draw (or one per draw, on
+   * devices without multi-draw indirect) every frame.
+   */
+
+  INDIRECT("Indirect", 0xff50b450);
+
+  private final String label;
+  private final int color;
+
+  ExperimentDrawCallMode(
+    final String inLabel,
+    final int inColor)
+  {
+    this.label = inLabel;
+    this.color = inColor;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+
+  /**
+   * @return The color used for this mode in charts, as {@code 0xAARRGGBB}
+   */
+
+  public int color()
+  {
+    return this.color;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of a single draw call measurement, averaged over a number of
+ * frames.
+ *
+ * @param mode              The submission mode
+ * @param draws             The number of draws per frame
+ * @param frames            The number of frames measured
+ * @param recordNanoseconds The mean CPU time spent recording commands per
+ *                          frame
+ * @param gpuNanoseconds    The mean time spent executing the draws per frame
+ * @param gpuTimed          {@code true} if the execution time was measured
+ *                          with GPU timestamps, {@code false} if it was
+ *                          measured on the CPU
+ */
+
+public record ExperimentDrawCallResult(
+  ExperimentDrawCallMode mode,
+  int draws,
+  int frames,
+  long recordNanoseconds,
+  long gpuNanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of a single draw call measurement, averaged over a number of
+   * frames.
+   *
+   * @param mode              The submission mode
+   * @param draws             The number of draws per frame
+   * @param frames            The number of frames measured
+   * @param recordNanoseconds The mean CPU time spent recording commands per
+   *                          frame
+   * @param gpuNanoseconds    The mean time spent executing the draws per
+   *                          frame
+   * @param gpuTimed          {@code true} if the execution time was measured
+   *                          with GPU timestamps, {@code false} if it was
+   *                          measured on the CPU
+   */
+
+  public ExperimentDrawCallResult
+  {
+    Objects.requireNonNull(mode, "mode");
+  }
+
+  /**
+   * @return The mean CPU recording time per draw, in nanoseconds
+   */
+
+  public double recordNanosecondsPerDraw()
+  {
+    return (double) this.recordNanoseconds / (double) this.draws;
+  }
+
+  /**
+   * @return The mean execution time per draw, in nanoseconds
+   */
+
+  public double gpuNanosecondsPerDraw()
+  {
+    return (double) this.gpuNanoseconds / (double) this.draws;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s %d draws: record %.3f ms (%.1f ns/draw), "
+      + "execute %.3f ms (%.1f ns/draw, %s)",
+      this.mode.label(),
+      Integer.valueOf(this.draws),
+      Double.valueOf(this.recordNanoseconds / 1_000_000.0),
+      Double.valueOf(this.recordNanosecondsPerDraw()),
+      Double.valueOf(this.gpuNanoseconds / 1_000_000.0),
+      Double.valueOf(this.gpuNanosecondsPerDraw()),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+}
@@ -0,0 +1,746 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanCommandBufferBeginInfo;
+import com.io7m.jcoronado.api.VulkanCommandBufferInheritanceInfo;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_PRIMARY;
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_SECONDARY;
+import static com.io7m.jcoronado.api.VulkanCommandBufferUsageFlag.VK_COMMAND_BUFFER_USAGE_RENDER_PASS_CONTINUE_BIT;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_SECONDARY_COMMAND_BUFFERS;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentDrawCallMode.INDIRECT;
+import static com.io7m.volcanolab.experiments.ExperimentDrawCallMode.PRERECORDED;
+import static com.io7m.volcanolab.experiments.ExperimentDrawCallMode.SECONDARY;
+
+/**
+ * <p>An experiment that measures the cost of issuing draw calls.</p>
+ *
+ * <p>For each of a sweep of draw counts, and for each {@link
+ * ExperimentDrawCallMode}, the experiment draws that many tiny triangles per
+ * frame and measures both the CPU time spent recording commands and the time
+ * spent executing them. The triangles are laid out in a grid, so the
+ * rendered image shows whether every draw arrived. Measurements are
+ * reported as lifecycle messages and through {@link #results()}.</p>
+ *
+ * <p>Once the sweep is complete, the last draw count is repeated. The draw
+ * count is the experiment's workload, and can be changed while the
+ * experiment is running with {@link #setDrawCount(int)}; every mode is
+ * then measured again at the new count.</p>
+ */
+
+@ExperimentName(ExperimentDrawCalls.NAME)
+public final class ExperimentDrawCalls extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Draw Calls";
+
+  /**
+   * The draw counts measured by default.
+   */
+
+  public static final List<Integer> DEFAULT_DRAW_COUNTS =
+    List.of(
+      Integer.valueOf(1),
+      Integer.valueOf(10),
+      Integer.valueOf(100),
+      Integer.valueOf(1_000),
+      Integer.valueOf(10_000),
+      Integer.valueOf(100_000)
+    );
+
+  /**
+   * The maximum number of draws per frame. Indirect commands for this many
+   * draws are written up front, so that the draw count can be changed
+   * without reallocating.
+   */
+
+  public static final int MAXIMUM_DRAWS = 1_000_000;
+
+  /*
+   * Each measurement discards a few frames (so that, for example, the
+   * prerecorded command buffer is recorded outside of the measurement)
+   * and then averages over a few more.
+   */
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  /*
+   * maxDrawIndirectCount is only guaranteed to be at least 2^16 - 1 on
+   * devices that support multi-draw indirect.
+   */
+
+  private static final int INDIRECT_CHUNK = 65535;
+  private static final int INDIRECT_STRIDE = 16;
+
+  private final List<Integer> drawCounts;
+  private final ExperimentParameterInteger requestedDraws;
+  private List<Step> plan;
+  private final List<ExperimentDrawCallResult> results;
+  private final VLPixelKernelsType kernels;
+  private final ByteBuffer pushConstants;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private ExperimentHostBuffer indirect;
+  private boolean multiDrawIndirect;
+  private VulkanRenderPassType renderPass;
+  private VulkanPipelineLayoutType pipelineLayout;
+  private VulkanShaderModuleType vertexShader;
+  private VulkanShaderModuleType fragmentShader;
+  private VulkanPipelineType pipeline;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private VulkanCommandBufferType frameCommands;
+  private VulkanCommandBufferType prerecordedCommands;
+  private VulkanCommandBufferType secondaryCommands;
+  private int prerecordedDraws;
+  private int draws;
+  private int planIndex;
+  private int stepFrame;
+  private long stepRecordTime;
+  private long stepGPUTime;
+  private boolean stepGPUTimed;
+
+  public ExperimentDrawCalls()
+  {
+    this(DEFAULT_DRAW_COUNTS);
+  }
+
+  /**
+   * An experiment that measures the cost of issuing draw calls.
+   *
+   * @param inDrawCounts The draw counts to measure
+   */
+
+  public ExperimentDrawCalls(
+    final List<Integer> inDrawCounts)
+  {
+    super(LoggerFactory.getLogger(ExperimentDrawCalls.class), NAME);
+
+    this.drawCounts =
+      List.copyOf(Objects.requireNonNull(inDrawCounts, "drawCounts"));
+    if (this.drawCounts.isEmpty()) {
+      throw new IllegalArgumentException("At least one draw count is required");
+    }
+
+    for (final var count : this.drawCounts) {
+      final var value = count.intValue();
+      if (value < 1 || value > MAXIMUM_DRAWS) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Draw count %d must be in the range [1, %d]",
+            Integer.valueOf(value),
+            Integer.valueOf(MAXIMUM_DRAWS))
+        );
+      }
+    }
+
+    this.draws = this.drawCounts.get(this.drawCounts.size() - 1).intValue();
+    this.requestedDraws =
+      ExperimentParameterInteger.create(
+        "draws",
+        "The number of draws issued per frame",
+        1L,
+        MAXIMUM_DRAWS,
+        this.draws
+      );
+
+    this.plan = planFor(this.drawCounts);
+    this.results = new ArrayList<>(this.plan.size());
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(8)
+        .order(ByteOrder.nativeOrder());
+    this.prerecordedDraws = -1;
+  }
+
+  private static List<Step> planFor(
+    final List<Integer> counts)
+  {
+    final var steps = new ArrayList<Step>();
+    for (final var count : counts) {
+      for (final var mode : ExperimentDrawCallMode.values()) {
+        steps.add(new Step(mode, count.intValue()));
+      }
+    }
+    return List.copyOf(steps);
+  }
+
+  /**
+   * Set the number of draws issued per frame. The change takes effect at
+   * the start of the next frame, and measures every mode again at the new
+   * count. This method may be called from any thread.
+   *
+   * @param count The number of draws
+   */
+
+  public void setDrawCount(
+    final int count)
+  {
+    this.requestedDraws.set(count);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedDraws);
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentDrawCallResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every measurement has been taken
+   */
+
+  public boolean isComplete()
+  {
+    return this.planIndex == this.plan.size();
+  }
+
+  /**
+   * @return {@code true} if indirect draws are issued with multi-draw
+   * indirect, {@code false} if one indirect draw is issued per draw
+   */
+
+  public boolean isMultiDrawIndirect()
+  {
+    return this.multiDrawIndirect;
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+          .withMultiDrawIndirect(true)
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.multiDrawIndirect = experimentDevice.multiDrawIndirect();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    this.eventLifecycle(LOADING, 0.25, "Creating pipeline");
+
+    this.vertexShader =
+      ExperimentShaders.createModule(resources, this.device, "grid.vert");
+    this.fragmentShader =
+      ExperimentShaders.createModule(resources, this.device, "color.frag");
+
+    this.pipelineLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(
+                Set.of(VK_SHADER_STAGE_VERTEX_BIT), 0, 8))
+            .build())
+      );
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          VK_FORMAT_R8G8B8A8_UNORM)
+      );
+
+    this.eventLifecycle(LOADING, 0.5, "Writing indirect commands");
+    this.createIndirectCommands();
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      this.multiDrawIndirect
+        ? "Multi-draw indirect supported"
+        : "Multi-draw indirect unsupported; issuing one indirect draw per draw"
+    );
+  }
+
+  /*
+   * Draw i uses vertices [3i, 3i + 3), from which the vertex shader derives
+   * its grid cell.
+   */
+
+  private void createIndirectCommands()
+    throws VulkanException
+  {
+    this.indirect =
+      ExperimentHostBuffer.create(
+        this.resources(),
+        this.device,
+        this.vmaAllocator,
+        (long) MAXIMUM_DRAWS * INDIRECT_STRIDE,
+        Set.of(VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT)
+      );
+
+    final var data = this.indirect.data();
+    for (var index = 0; index < MAXIMUM_DRAWS; ++index) {
+      final var offset = index * INDIRECT_STRIDE;
+      data.putInt(offset, 3);
+      data.putInt(offset + 4, 1);
+      data.putInt(offset + 8, index * 3);
+      data.putInt(offset + 12, 0);
+    }
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        VK_FORMAT_R8G8B8A8_UNORM,
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        width,
+        height
+      );
+
+    this.pipeline =
+      ExperimentPipelines.createGraphics(
+        this.frameResources,
+        this.device,
+        this.pipelineLayout,
+        this.renderPass,
+        this.vertexShader,
+        this.fragmentShader,
+        ExperimentPipelines.blendOpaque(),
+        width,
+        height
+      );
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.frameCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_PRIMARY);
+    this.prerecordedCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_PRIMARY);
+    this.secondaryCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_SECONDARY);
+
+    this.prerecordedDraws = -1;
+    this.stepRestart();
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var requested = (int) this.requestedDraws.get();
+    if (requested != this.draws) {
+      this.draws = requested;
+      this.plan = planFor(List.of(Integer.valueOf(requested)));
+      this.planIndex = 0;
+      this.stepRestart();
+      this.eventLifecycle(
+        LOADING,
+        0.0,
+        String.format(
+          "Draw count changed to %d",
+          Integer.valueOf(requested))
+      );
+    }
+
+    /*
+     * Once the sweep is complete, the final step is simply repeated.
+     */
+
+    final var complete = this.isComplete();
+    final var step =
+      this.plan.get(Math.min(this.planIndex, this.plan.size() - 1));
+
+    this.setGrid(step.draws);
+
+    final var recordTime = this.recordStep(step);
+    final var submitTime = this.runner.submitAndWait(this.submitted(step));
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepRecordTime += recordTime;
+    this.stepGPUTime += gpuTime.orElse(submitTime);
+    this.stepGPUTimed = gpuTime.isPresent();
+
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var result =
+      new ExperimentDrawCallResult(
+        step.mode,
+        step.draws,
+        MEASURED_FRAMES,
+        this.stepRecordTime / MEASURED_FRAMES,
+        this.stepGPUTime / MEASURED_FRAMES,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepRestart();
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) this.plan.size(),
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.stream()
+          .map(ExperimentDrawCallResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  private void stepRestart()
+  {
+    this.stepFrame = 0;
+    this.stepRecordTime = 0L;
+    this.stepGPUTime = 0L;
+    this.stepGPUTimed = false;
+  }
+
+  private void setGrid(
+    final int draws)
+  {
+    final var columns = (int) Math.ceil(Math.sqrt(draws));
+    final var rows = (draws + columns - 1) / columns;
+    this.pushConstants.putInt(0, columns);
+    this.pushConstants.putInt(4, rows);
+  }
+
+  private VulkanCommandBufferType submitted(
+    final Step step)
+  {
+    if (step.mode == PRERECORDED) {
+      return this.prerecordedCommands;
+    }
+    return this.frameCommands;
+  }
+
+  /**
+   * Record whatever the given step requires to be recorded this frame.
+   *
+   * @param step The step
+   *
+   * @return The CPU time spent recording, in nanoseconds
+   */
+
+  private long recordStep(
+    final Step step)
+    throws VulkanException
+  {
+    switch (step.mode) {
+      case RERECORD, INDIRECT -> {
+        final var timeThen = System.nanoTime();
+        this.recordFrame(this.frameCommands, step);
+        return System.nanoTime() - timeThen;
+      }
+
+      case PRERECORDED -> {
+        if (this.prerecordedDraws != step.draws) {
+          this.recordFrame(this.prerecordedCommands, step);
+          this.prerecordedDraws = step.draws;
+        }
+        return 0L;
+      }
+
+      case SECONDARY -> {
+        final var timeThen = System.nanoTime();
+        this.secondaryCommands.beginCommandBuffer(
+          VulkanCommandBufferBeginInfo.builder()
+            .addFlags(VK_COMMAND_BUFFER_USAGE_RENDER_PASS_CONTINUE_BIT)
+            .setInheritanceInfo(
+              VulkanCommandBufferInheritanceInfo.builder()
+                .setRenderPass(this.renderPass)
+                .setSubpass(0)
+                .setFramebuffer(this.target.framebuffer())
+                .build())
+            .build()
+        );
+        this.recordDraws(this.secondaryCommands, step.draws);
+        this.secondaryCommands.endCommandBuffer();
+        this.recordFrame(this.frameCommands, step);
+        return System.nanoTime() - timeThen;
+      }
+    }
+
+    throw new IllegalStateException();
+  }
+
+  private void recordFrame(
+    final VulkanCommandBufferType commands,
+    final Step step)
+    throws VulkanException
+  {
+    commands.beginCommandBuffer();
+    this.timer.reset(commands);
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+    if (step.mode == SECONDARY) {
+      commands.beginRenderPass(
+        this.target.beginInfo(),
+        VK_SUBPASS_CONTENTS_SECONDARY_COMMAND_BUFFERS);
+      commands.executeCommands(List.of(this.secondaryCommands));
+    } else {
+      commands.beginRenderPass(
+        this.target.beginInfo(),
+        VK_SUBPASS_CONTENTS_INLINE);
+      if (step.mode == INDIRECT) {
+        this.recordIndirectDraws(commands, step.draws);
+      } else {
+        this.recordDraws(commands, step.draws);
+      }
+    }
+
+    commands.endRenderPass();
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+    this.readback.recordCopyFrom(
+      commands,
+      this.target.image(),
+      VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+    );
+    commands.endCommandBuffer();
+  }
+
+  private void recordState(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, this.pipeline);
+    commands.pushConstants(
+      this.pipelineLayout,
+      Set.of(VK_SHADER_STAGE_VERTEX_BIT),
+      0,
+      8,
+      this.pushConstants
+    );
+  }
+
+  private void recordDraws(
+    final VulkanCommandBufferType commands,
+    final int draws)
+    throws VulkanException
+  {
+    this.recordState(commands);
+    for (var index = 0; index < draws; ++index) {
+      commands.draw(3, 1, index * 3, 0);
+    }
+  }
+
+  private void recordIndirectDraws(
+    final VulkanCommandBufferType commands,
+    final int draws)
+    throws VulkanException
+  {
+    this.recordState(commands);
+
+    final var buffer = this.indirect.buffer();
+    if (this.multiDrawIndirect) {
+      for (var first = 0; first < draws; first += INDIRECT_CHUNK) {
+        final var count = Math.min(INDIRECT_CHUNK, draws - first);
+        commands.drawIndirect(
+          buffer,
+          (long) first * INDIRECT_STRIDE,
+          count,
+          INDIRECT_STRIDE
+        );
+      }
+      return;
+    }
+
+    for (var index = 0; index < draws; ++index) {
+      commands.drawIndirect(
+        buffer,
+        (long) index * INDIRECT_STRIDE,
+        1,
+        INDIRECT_STRIDE
+      );
+    }
+  }
+
+  private record Step(
+    ExperimentDrawCallMode mode,
+    int draws)
+  {
+
+  }
+}
@@ -0,0 +1,585 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanFormat;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPipelineColorBlendAttachmentState;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R16G16B16A16_SFLOAT;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R32G32B32A32_SFLOAT;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_FRAGMENT_BIT;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentFillRateBlend.ALPHA;
+import static com.io7m.volcanolab.experiments.ExperimentFillRateFormat.RGBA8;
+
+/**
+ * <p>An experiment that measures raster throughput.</p>
+ *
+ * <p>Each frame draws a number of full-screen layers into a color
+ * attachment of a selectable format, with a selectable blend state, and
+ * measures the number of pixels written per second. Increasing the layer
+ * count (overdraw) shows where a device's fill rate saturates; the blend
+ * states show the cost of reading the attachment back into the blend
+ * units.</p>
+ */
+
+@ExperimentName(ExperimentFillRate.NAME)
+public final class ExperimentFillRate extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Fill Rate";
+
+  /**
+   * The number of layers drawn by default.
+   */
+
+  public static final int DEFAULT_LAYERS = 16;
+
+  /**
+   * The maximum number of layers.
+   */
+
+  public static final int MAXIMUM_LAYERS = 4096;
+
+  /*
+   * A summary of the measured rate is published as a lifecycle message
+   * every this many frames.
+   */
+
+  private static final int REPORT_INTERVAL_FRAMES = 60;
+
+  private final ExperimentParameterInteger layersParameter;
+  private final ExperimentFillRateBlend blend;
+  private final ExperimentFillRateFormat format;
+  private final VLPixelKernelsType kernels;
+  private final ByteBuffer pushConstants;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private VulkanRenderPassType renderPass;
+  private VulkanPipelineLayoutType pipelineLayout;
+  private VulkanShaderModuleType vertexShader;
+  private VulkanShaderModuleType fragmentShader;
+  private VulkanPipelineType pipeline;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private int width;
+  private int height;
+  private int layers;
+  private double pixelsPerSecond;
+  private boolean gpuTimed;
+  private long reportPixels;
+  private long reportNanoseconds;
+  private int reportFrames;
+
+  public ExperimentFillRate()
+  {
+    this(DEFAULT_LAYERS, ALPHA, RGBA8);
+  }
+
+  /**
+   * An experiment that measures raster throughput.
+   *
+   * @param inLayers The number of full-screen layers drawn per frame
+   * @param inBlend  The blend state
+   * @param inFormat The color attachment format
+   */
+
+  public ExperimentFillRate(
+    final int inLayers,
+    final ExperimentFillRateBlend inBlend,
+    final ExperimentFillRateFormat inFormat)
+  {
+    super(LoggerFactory.getLogger(ExperimentFillRate.class), NAME);
+
+    if (inLayers < 1 || inLayers > MAXIMUM_LAYERS) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Layer count %d must be in the range [1, %d]",
+          Integer.valueOf(inLayers),
+          Integer.valueOf(MAXIMUM_LAYERS))
+      );
+    }
+
+    this.layersParameter =
+      ExperimentParameterInteger.create(
+        "layers",
+        "The number of full-screen layers drawn per frame",
+        1L,
+        MAXIMUM_LAYERS,
+        inLayers
+      );
+    this.layers = inLayers;
+    this.blend = Objects.requireNonNull(inBlend, "blend");
+    this.format = Objects.requireNonNull(inFormat, "format");
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(4 * 4)
+        .order(ByteOrder.nativeOrder());
+    this.writeLayerColor();
+  }
+
+  /*
+   * The layer color is chosen such that the final image is the same
+   * recognizable color regardless of the layer count: opaque layers simply
+   * replace each other, translucent layers converge on the color, and
+   * additive layers each contribute an equal share of it.
+   */
+
+  private void writeLayerColor()
+  {
+    final float r = 0.2f;
+    final float g = 0.6f;
+    final float b = 0.9f;
+
+    switch (this.blend) {
+      case OPAQUE -> {
+        this.pushConstants.putFloat(0, r);
+        this.pushConstants.putFloat(4, g);
+        this.pushConstants.putFloat(8, b);
+        this.pushConstants.putFloat(12, 1.0f);
+      }
+      case ALPHA -> {
+        final float alpha = 0.25f;
+        this.pushConstants.putFloat(0, r * alpha);
+        this.pushConstants.putFloat(4, g * alpha);
+        this.pushConstants.putFloat(8, b * alpha);
+        this.pushConstants.putFloat(12, alpha);
+      }
+      case ADDITIVE -> {
+        final float share = 1.0f / (float) this.layers;
+        this.pushConstants.putFloat(0, r * share);
+        this.pushConstants.putFloat(4, g * share);
+        this.pushConstants.putFloat(8, b * share);
+        this.pushConstants.putFloat(12, 0.0f);
+      }
+    }
+  }
+
+  private static VulkanFormat vulkanFormat(
+    final ExperimentFillRateFormat format)
+  {
+    return switch (format) {
+      case RGBA8 -> VK_FORMAT_R8G8B8A8_UNORM;
+      case RGBA16F -> VK_FORMAT_R16G16B16A16_SFLOAT;
+      case RGBA32F -> VK_FORMAT_R32G32B32A32_SFLOAT;
+    };
+  }
+
+  private static VulkanPipelineColorBlendAttachmentState blendState(
+    final ExperimentFillRateBlend blend)
+  {
+    return switch (blend) {
+      case OPAQUE -> ExperimentPipelines.blendOpaque();
+      case ALPHA -> ExperimentPipelines.blendAlpha();
+      case ADDITIVE -> ExperimentPipelines.blendAdditive();
+    };
+  }
+
+  /**
+   * @return The number of full-screen layers drawn per frame
+   */
+
+  public int layers()
+  {
+    return (int) this.layersParameter.get();
+  }
+
+  /**
+   * Set the number of full-screen layers drawn per frame. The new count
+   * takes effect on the next frame.
+   *
+   * @param count The number of layers
+   */
+
+  public void setLayers(
+    final int count)
+  {
+    this.layersParameter.set(count);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.layersParameter);
+  }
+
+  /**
+   * @return The blend state
+   */
+
+  public ExperimentFillRateBlend blend()
+  {
+    return this.blend;
+  }
+
+  /**
+   * @return The color attachment format
+   */
+
+  public ExperimentFillRateFormat format()
+  {
+    return this.format;
+  }
+
+  /**
+   * @return The number of pixels written per second in the most recent frame
+   */
+
+  public double pixelsPerSecond()
+  {
+    return this.pixelsPerSecond;
+  }
+
+  /**
+   * @return {@code true} if the most recent frame was timed on the GPU, or
+   * {@code false} if it was timed on the CPU (which includes the readback)
+   */
+
+  public boolean isGPUTimed()
+  {
+    return this.gpuTimed;
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    this.eventLifecycle(LOADING, 0.25, "Creating pipeline");
+
+    this.vertexShader =
+      ExperimentShaders.createModule(resources, this.device, "fullscreen.vert");
+    this.fragmentShader =
+      ExperimentShaders.createModule(resources, this.device, "fill.frag");
+
+    this.pipelineLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(
+                Set.of(VK_SHADER_STAGE_FRAGMENT_BIT), 0, 16))
+            .build())
+      );
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          vulkanFormat(this.format))
+      );
+
+    this.eventLifecycle(LOADING, 0.5, "");
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      String.format(
+        "%d layers, %s blending, %s attachment",
+        Integer.valueOf(this.layers),
+        this.blend.label(),
+        this.format.label())
+    );
+    this.eventLifecycle(RUNNING, 1.0, "");
+  }
+
+  private void reconfigureForSize(
+    final int inWidth,
+    final int inHeight)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.width = inWidth;
+    this.height = inHeight;
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        vulkanFormat(this.format),
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        inWidth,
+        inHeight
+      );
+
+    /*
+     * The viewport is baked into the pipeline, so the pipeline is
+     * recreated along with the attachment.
+     */
+
+    this.pipeline =
+      ExperimentPipelines.createGraphics(
+        this.frameResources,
+        this.device,
+        this.pipelineLayout,
+        this.renderPass,
+        this.vertexShader,
+        this.fragmentShader,
+        blendState(this.blend),
+        inWidth,
+        inHeight
+      );
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        inWidth,
+        inHeight
+      );
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    this.applyLayerCount();
+
+    final var cpuTime =
+      this.runner.runAndWait(commands -> {
+        this.timer.reset(commands);
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+        commands.beginRenderPass(
+          this.target.beginInfo(),
+          VK_SUBPASS_CONTENTS_INLINE);
+        commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, this.pipeline);
+        commands.pushConstants(
+          this.pipelineLayout,
+          Set.of(VK_SHADER_STAGE_FRAGMENT_BIT),
+          0,
+          16,
+          this.pushConstants
+        );
+
+        /*
+         * One full-screen triangle per instance; each instance is a layer.
+         */
+
+        commands.draw(3, this.layers, 0, 0);
+        commands.endRenderPass();
+
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+        this.readback.recordCopyFrom(
+          commands,
+          this.target.image(),
+          VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+        );
+      });
+
+    /*
+     * The attachment is cleared to opaque black, and none of the blend
+     * states reduce alpha, so the result is always opaque.
+     */
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+    final var time = Math.max(1L, gpuTime.orElse(cpuTime));
+    final var pixels = (long) this.width * (long) this.height * this.layers;
+
+    this.gpuTimed = gpuTime.isPresent();
+    this.pixelsPerSecond = (double) pixels * 1.0e9 / (double) time;
+    this.report(pixels, time);
+  }
+
+  /*
+   * The layer count is written by the host and picked up here, on the
+   * render thread, so that a frame never sees a count that disagrees with
+   * the push constants recorded for it.
+   */
+
+  private void applyLayerCount()
+  {
+    final var requested = (int) this.layersParameter.get();
+    if (requested == this.layers) {
+      return;
+    }
+
+    this.layers = requested;
+    this.writeLayerColor();
+    this.reportPixels = 0L;
+    this.reportNanoseconds = 0L;
+    this.reportFrames = 0;
+  }
+
+  private void report(
+    final long pixels,
+    final long time)
+  {
+    this.reportPixels += pixels;
+    this.reportNanoseconds += time;
+    ++this.reportFrames;
+
+    if (this.reportFrames < REPORT_INTERVAL_FRAMES) {
+      return;
+    }
+
+    final var rate =
+      (double) this.reportPixels / (double) this.reportNanoseconds;
+
+    this.metric(
+      "pixels_per_second",
+      "The mean fill rate over the last report interval",
+      rate * 1.0e9);
+
+    this.eventLifecycle(
+      RUNNING,
+      1.0,
+      String.format(
+        "%dx%d, %d layers: %.3f Gpixels/s (%s)",
+        Integer.valueOf(this.width),
+        Integer.valueOf(this.height),
+        Integer.valueOf(this.layers),
+        Double.valueOf(rate),
+        this.gpuTimed ? "GPU timed" : "CPU timed")
+    );
+
+    this.reportPixels = 0L;
+    this.reportNanoseconds = 0L;
+    this.reportFrames = 0;
+  }
+}
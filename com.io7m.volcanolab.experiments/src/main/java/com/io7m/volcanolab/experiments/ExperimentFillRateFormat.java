@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The color attachment formats supported by the fill rate experiment.
+ */
+
+public enum ExperimentFillRateFormat
+{
+  /**
+   * Four 8-bit unsigned normalized components.
+   */
+
+  RGBA8("RGBA8", 4),
+
+  /**
+   * Four 16-bit floating point components.
+   */
+
+  RGBA16F("RGBA16F", 8),
+
+  /**
+   * Four 32-bit floating point components.
+   */
+
+  RGBA32F("RGBA32F", 16);
+
+  private final String label;
+  private final int bytesPerPixel;
+
+  ExperimentFillRateFormat(
+    final String inLabel,
+    final int inBytesPerPixel)
+  {
+    this.label = inLabel;
+    this.bytesPerPixel = inBytesPerPixel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+
+  /**
+   * @return The size of a single pixel in bytes
+   */
+
+  public int bytesPerPixel()
+  {
+    return this.bytesPerPixel;
+  }
+}
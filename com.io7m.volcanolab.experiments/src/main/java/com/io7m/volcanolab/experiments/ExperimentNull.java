@@ -17,20 +17,36 @@
 package com.io7m.volcanolab.experiments;
 
 import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrameDamage;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.Optional;
 
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
 
+@ExperimentName(ExperimentNull.NAME)
 public final class ExperimentNull extends ExperimentAbstract
 {
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Null";
+
   public ExperimentNull()
   {
-    super(LoggerFactory.getLogger(ExperimentNull.class), "Null");
+    super(LoggerFactory.getLogger(ExperimentNull.class), NAME);
+  }
+
+  @Override
+  public Optional<ExperimentFrameDamage> damage()
+  {
+    return Optional.of(ExperimentFrameDamage.NONE);
   }
 
   @Override
@@ -0,0 +1,733 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanCommandBufferBeginInfo;
+import com.io7m.jcoronado.api.VulkanCommandBufferInheritanceInfo;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanCommandPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanFramebufferType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_SECONDARY;
+import static com.io7m.jcoronado.api.VulkanCommandBufferUsageFlag.VK_COMMAND_BUFFER_USAGE_RENDER_PASS_CONTINUE_BIT;
+import static com.io7m.jcoronado.api.VulkanCommandPoolCreateFlag.VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_SECONDARY_COMMAND_BUFFERS;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentParallelRecordingThreads.PLATFORM;
+import static com.io7m.volcanolab.experiments.ExperimentParallelRecordingThreads.VIRTUAL;
+
+/**
+ * <p>An experiment that measures how command buffer recording scales across
+ * threads.</p>
+ *
+ * <p>Each frame, a fixed number of tiny draws is divided evenly between a
+ * number of threads. Each thread records its share into a secondary command
+ * buffer allocated from its own command pool, and a single primary command
+ * buffer executes all of them. The wall-clock recording time is measured
+ * for each of a sweep of thread counts, and reported as a speedup over the
+ * first (normally single-threaded) measurement.</p>
+ *
+ * <p>Once the sweep is complete, the last thread count is repeated. The
+ * thread count is the experiment's workload, and can be changed while the
+ * experiment is running with {@link #setThreadCount(int)}, up to the
+ * largest count in the sweep, for which the command pools are created; the
+ * new count is then measured.</p>
+ */
+
+@ExperimentName(ExperimentParallelRecording.NAME)
+public final class ExperimentParallelRecording extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Parallel Recording";
+
+  /**
+   * The number of draws per frame used by default.
+   */
+
+  public static final int DEFAULT_DRAWS = 50_000;
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  private final int draws;
+  private final List<Integer> threadCounts;
+  private final ExperimentParameterInteger requestedThreadCount;
+  private final ExperimentParallelRecordingThreads requestedThreads;
+  private final List<ExperimentParallelRecordingResult> results;
+  private final VLPixelKernelsType kernels;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private ExecutorService executor;
+  private ExperimentParallelRecordingThreads threads;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private VulkanRenderPassType renderPass;
+  private VulkanPipelineLayoutType pipelineLayout;
+  private VulkanShaderModuleType vertexShader;
+  private VulkanShaderModuleType fragmentShader;
+  private VulkanPipelineType pipeline;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private List<Worker> workers;
+  private List<Integer> plan;
+  private int threadCount;
+  private int planIndex;
+  private int stepFrame;
+  private long stepRecordTime;
+
+  public ExperimentParallelRecording()
+  {
+    this(DEFAULT_DRAWS, defaultThreadCounts(), PLATFORM);
+  }
+
+  /**
+   * An experiment that measures how command buffer recording scales across
+   * threads.
+   *
+   * @param inDraws        The number of draws per frame
+   * @param inThreadCounts The thread counts to measure, in order
+   * @param inThreads      The kind of threads used to record
+   */
+
+  public ExperimentParallelRecording(
+    final int inDraws,
+    final List<Integer> inThreadCounts,
+    final ExperimentParallelRecordingThreads inThreads)
+  {
+    super(LoggerFactory.getLogger(ExperimentParallelRecording.class), NAME);
+
+    if (inDraws < 1) {
+      throw new IllegalArgumentException(
+        String.format("Draw count %d must be >= 1", Integer.valueOf(inDraws)));
+    }
+
+    this.threadCounts =
+      List.copyOf(Objects.requireNonNull(inThreadCounts, "threadCounts"));
+    if (this.threadCounts.isEmpty()) {
+      throw new IllegalArgumentException(
+        "At least one thread count is required");
+    }
+
+    for (final var count : this.threadCounts) {
+      final var value = count.intValue();
+      if (value < 1 || value > inDraws) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Thread count %d must be in the range [1, %d]",
+            Integer.valueOf(value),
+            Integer.valueOf(inDraws))
+        );
+      }
+    }
+
+    this.draws = inDraws;
+    this.requestedThreads = Objects.requireNonNull(inThreads, "threads");
+    this.threads = this.requestedThreads;
+    this.results = new ArrayList<>(this.threadCounts.size());
+    this.kernels = VLPixelKernels.best();
+    this.workers = List.of();
+    this.plan = this.threadCounts;
+
+    this.threadCount =
+      this.threadCounts.get(this.threadCounts.size() - 1).intValue();
+    this.requestedThreadCount =
+      ExperimentParameterInteger.create(
+        "threads",
+        "The number of threads that record commands",
+        1L,
+        this.threadCounts.stream()
+          .mapToInt(Integer::intValue)
+          .max()
+          .orElseThrow(),
+        this.threadCount
+      );
+  }
+
+  /**
+   * @return 1, 2, 4, ... up to the number of available processors
+   */
+
+  public static List<Integer> defaultThreadCounts()
+  {
+    final var processors = Runtime.getRuntime().availableProcessors();
+    final var counts = new ArrayList<Integer>();
+    for (var count = 1; count < processors; count *= 2) {
+      counts.add(Integer.valueOf(count));
+    }
+    counts.add(Integer.valueOf(processors));
+    return List.copyOf(counts);
+  }
+
+  /**
+   * Set the number of threads that record commands. The change takes
+   * effect at the start of the next frame, and measures the new count.
+   * This method may be called from any thread.
+   *
+   * @param count The number of threads, no larger than the largest count
+   *              in the sweep
+   */
+
+  public void setThreadCount(
+    final int count)
+  {
+    this.requestedThreadCount.set(count);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedThreadCount);
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentParallelRecordingResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every measurement has been taken
+   */
+
+  public boolean isComplete()
+  {
+    return this.planIndex == this.plan.size();
+  }
+
+  /**
+   * @return The kind of threads actually in use
+   */
+
+  public ExperimentParallelRecordingThreads threads()
+  {
+    return this.threads;
+  }
+
+  /*
+   * Virtual threads are resolved reflectively so that the experiment can
+   * use them when run on a new enough runtime, while still building for
+   * older ones.
+   */
+
+  private static Optional<ExecutorService> virtualThreadExecutor()
+  {
+    try {
+      final var method =
+        Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return Optional.of((ExecutorService) method.invoke(null));
+    } catch (final ReflectiveOperationException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static ExecutorService platformThreadExecutor(
+    final int threadCount)
+  {
+    return Executors.newFixedThreadPool(threadCount, runnable -> {
+      final var thread = new Thread(runnable);
+      thread.setName(
+        String.format(
+          "com.io7m.volcanolab.recording[%d]",
+          Long.valueOf(thread.getId()))
+      );
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+
+    final var executorNow = this.executor;
+    if (executorNow != null) {
+      executorNow.shutdown();
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    this.vertexShader =
+      ExperimentShaders.createModule(resources, this.device, "grid.vert");
+    this.fragmentShader =
+      ExperimentShaders.createModule(resources, this.device, "color.frag");
+
+    this.pipelineLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(
+                Set.of(VK_SHADER_STAGE_VERTEX_BIT), 0, 8))
+            .build())
+      );
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          VK_FORMAT_R8G8B8A8_UNORM)
+      );
+
+    final var maximumThreads =
+      this.threadCounts.stream()
+        .mapToInt(Integer::intValue)
+        .max()
+        .orElseThrow();
+
+    this.eventLifecycle(
+      LOADING,
+      0.5,
+      String.format(
+        "Creating %d command pools",
+        Integer.valueOf(maximumThreads))
+    );
+
+    final var newWorkers = new ArrayList<Worker>(maximumThreads);
+    for (var index = 0; index < maximumThreads; ++index) {
+      newWorkers.add(this.createWorker(experimentDevice));
+    }
+    this.workers = List.copyOf(newWorkers);
+
+    this.threads = this.requestedThreads;
+    if (this.threads == VIRTUAL) {
+      final var virtual = virtualThreadExecutor();
+      if (virtual.isPresent()) {
+        this.executor = virtual.get();
+      } else {
+        this.threads = PLATFORM;
+        this.eventLifecycle(
+          LOADING,
+          0.75,
+          "Virtual threads are unavailable; using platform threads"
+        );
+      }
+    }
+    if (this.threads == PLATFORM) {
+      this.executor = platformThreadExecutor(maximumThreads);
+    }
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      String.format(
+        "%d draws per frame, %s",
+        Integer.valueOf(this.draws),
+        this.threads.label())
+    );
+  }
+
+  private Worker createWorker(
+    final ExperimentDevice experimentDevice)
+    throws VulkanException
+  {
+    final var resources = this.resources();
+    final var pool =
+      resources.add(
+        this.device.createCommandPool(
+          VulkanCommandPoolCreateInfo.builder()
+            .addFlags(VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT)
+            .setQueueFamilyIndex(
+              experimentDevice.graphicsQueue().queueFamilyIndex())
+            .build())
+      );
+
+    final var commands =
+      resources.add(
+        this.device.createCommandBuffer(
+          pool, VK_COMMAND_BUFFER_LEVEL_SECONDARY)
+      );
+
+    final var columns = (int) Math.ceil(Math.sqrt(this.draws));
+    final var rows = (this.draws + columns - 1) / columns;
+    final var pushConstants =
+      ByteBuffer.allocateDirect(8)
+        .order(ByteOrder.nativeOrder());
+    pushConstants.putInt(0, columns);
+    pushConstants.putInt(4, rows);
+
+    return new Worker(commands, pushConstants);
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        VK_FORMAT_R8G8B8A8_UNORM,
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        width,
+        height
+      );
+
+    this.pipeline =
+      ExperimentPipelines.createGraphics(
+        this.frameResources,
+        this.device,
+        this.pipelineLayout,
+        this.renderPass,
+        this.vertexShader,
+        this.fragmentShader,
+        ExperimentPipelines.blendOpaque(),
+        width,
+        height
+      );
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.stepFrame = 0;
+    this.stepRecordTime = 0L;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var requested = (int) this.requestedThreadCount.get();
+    if (requested != this.threadCount) {
+      this.threadCount = requested;
+      this.plan = List.of(Integer.valueOf(requested));
+      this.planIndex = 0;
+      this.stepFrame = 0;
+      this.stepRecordTime = 0L;
+      this.eventLifecycle(
+        LOADING,
+        0.0,
+        String.format(
+          "Thread count changed to %d",
+          Integer.valueOf(requested))
+      );
+    }
+
+    /*
+     * Once the sweep is complete, the final thread count is simply
+     * repeated.
+     */
+
+    final var complete = this.isComplete();
+    final var threadCount =
+      this.plan.get(Math.min(this.planIndex, this.plan.size() - 1))
+        .intValue();
+
+    final var active = this.workers.subList(0, threadCount);
+    final var recordTime = this.recordInParallel(active);
+
+    this.runner.runAndWait(commands -> {
+      commands.beginRenderPass(
+        this.target.beginInfo(),
+        VK_SUBPASS_CONTENTS_SECONDARY_COMMAND_BUFFERS);
+      commands.executeCommands(
+        active.stream()
+          .map(Worker::commands)
+          .collect(Collectors.toList())
+      );
+      commands.endRenderPass();
+
+      this.readback.recordCopyFrom(
+        commands,
+        this.target.image(),
+        VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+      );
+    });
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepRecordTime += recordTime;
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var meanTime = this.stepRecordTime / MEASURED_FRAMES;
+    final var baseline =
+      this.results.isEmpty()
+        ? meanTime
+        : this.results.get(0).recordNanoseconds();
+
+    final var result =
+      new ExperimentParallelRecordingResult(
+        threadCount,
+        this.draws,
+        MEASURED_FRAMES,
+        meanTime,
+        (double) baseline / (double) Math.max(1L, meanTime)
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepFrame = 0;
+    this.stepRecordTime = 0L;
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) this.plan.size(),
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.stream()
+          .map(ExperimentParallelRecordingResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  /**
+   * Record the frame's draws, divided evenly between the given workers.
+   *
+   * @param active The workers
+   *
+   * @return The wall-clock time taken, in nanoseconds
+   */
+
+  private long recordInParallel(
+    final List<Worker> active)
+    throws Exception
+  {
+    final var count = active.size();
+    final var tasks = new ArrayList<Callable<Void>>(count);
+    final var framebuffer = this.target.framebuffer();
+
+    for (var index = 0; index < count; ++index) {
+      final var first = (int) ((long) this.draws * index / count);
+      final var last = (int) ((long) this.draws * (index + 1) / count);
+      final var worker = active.get(index);
+      tasks.add(() -> {
+        this.recordWorker(worker, framebuffer, first, last);
+        return null;
+      });
+    }
+
+    final var timeThen = System.nanoTime();
+    final var futures = this.executor.invokeAll(tasks);
+    final var timeNow = System.nanoTime();
+
+    for (final var future : futures) {
+      try {
+        future.get();
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw e;
+      }
+    }
+
+    return timeNow - timeThen;
+  }
+
+  private void recordWorker(
+    final Worker worker,
+    final VulkanFramebufferType framebuffer,
+    final int first,
+    final int last)
+    throws VulkanException
+  {
+    final var commands = worker.commands;
+    commands.beginCommandBuffer(
+      VulkanCommandBufferBeginInfo.builder()
+        .addFlags(VK_COMMAND_BUFFER_USAGE_RENDER_PASS_CONTINUE_BIT)
+        .setInheritanceInfo(
+          VulkanCommandBufferInheritanceInfo.builder()
+            .setRenderPass(this.renderPass)
+            .setSubpass(0)
+            .setFramebuffer(framebuffer)
+            .build())
+        .build()
+    );
+
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, this.pipeline);
+    commands.pushConstants(
+      this.pipelineLayout,
+      Set.of(VK_SHADER_STAGE_VERTEX_BIT),
+      0,
+      8,
+      worker.pushConstants
+    );
+
+    for (var index = first; index < last; ++index) {
+      commands.draw(3, 1, index * 3, 0);
+    }
+    commands.endCommandBuffer();
+  }
+
+  /*
+   * Each worker owns a command pool (through its command buffer) and its
+   * own push constant data, so that no Vulkan or JVM state is shared
+   * between recording threads.
+   */
+
+  private record Worker(
+    VulkanCommandBufferType commands,
+    ByteBuffer pushConstants)
+  {
+
+  }
+}
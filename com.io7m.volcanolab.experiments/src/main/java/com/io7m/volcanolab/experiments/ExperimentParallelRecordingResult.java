@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The result of recording a frame's draws across a number of threads,
+ * averaged over a number of frames.
+ *
+ * @param threads           The number of recording threads
+ * @param draws             The number of draws per frame
+ * @param frames            The number of frames measured
+ * @param recordNanoseconds The mean wall-clock time spent recording the
+ *                          secondary command buffers per frame
+ * @param speedup           The recording speedup relative to the first
+ *                          (normally single-threaded) measurement
+ */
+
+public record ExperimentParallelRecordingResult(
+  int threads,
+  int draws,
+  int frames,
+  long recordNanoseconds,
+  double speedup)
+{
+  /**
+   * @return The parallel efficiency: the speedup divided by the number of
+   * threads
+   */
+
+  public double efficiency()
+  {
+    return this.speedup / (double) this.threads;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%d threads: record %.3f ms, speedup %.2fx (efficiency %.0f%%)",
+      Integer.valueOf(this.threads),
+      Double.valueOf(this.recordNanoseconds / 1_000_000.0),
+      Double.valueOf(this.speedup),
+      Double.valueOf(this.efficiency() * 100.0)
+    );
+  }
+}
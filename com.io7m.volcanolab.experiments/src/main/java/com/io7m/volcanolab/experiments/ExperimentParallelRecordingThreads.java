@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The kinds of thread on which the parallel recording experiment records
+ * command buffers.
+ */
+
+public enum ExperimentParallelRecordingThreads
+{
+  /**
+   * A fixed pool of platform threads, one per recording task.
+   */
+
+  PLATFORM("Platform threads"),
+
+  /**
+   * A new virtual thread per recording task. Virtual threads are only
+   * available on Java 21 and newer; on older runtimes, the experiment falls
+   * back to {@link #PLATFORM}.
+   */
+
+  VIRTUAL("Virtual threads");
+
+  private final String label;
+
+  ExperimentParallelRecordingThreads(
+    final String inLabel)
+  {
+    this.label = inLabel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The queue on which rendered images are copied out for readback.
+ */
+
+public enum ExperimentReadbackQueueMode
+{
+  /**
+   * Rendering and the image-to-buffer copy are recorded into one command
+   * buffer and submitted to the graphics queue.
+   */
+
+  READBACK_ON_GRAPHICS_QUEUE,
+
+  /**
+   * The image-to-buffer copy is submitted to a transfer-only queue after
+   * a queue family ownership transfer, so that the graphics queue can begin
+   * rendering the next frame while the previous frame is copied out. Falls
+   * back to {@link #READBACK_ON_GRAPHICS_QUEUE} on devices that lack a
+   * transfer-only queue family.
+   */
+
+  READBACK_ON_TRANSFER_QUEUE
+}
@@ -17,6 +17,9 @@
 package com.io7m.volcanolab.experiments;
 
 import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
@@ -26,13 +29,22 @@ import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADI
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
 import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
 
+@ExperimentName(ExperimentSlowLoad.NAME)
 public final class ExperimentSlowLoad extends ExperimentAbstract
 {
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "SlowLoad";
+
+  private final VLPixelKernelsType kernels;
   private double progress;
 
   public ExperimentSlowLoad()
   {
-    super(LoggerFactory.getLogger(ExperimentSlowLoad.class), "SlowLoad");
+    super(LoggerFactory.getLogger(ExperimentSlowLoad.class), NAME);
+    this.kernels = VLPixelKernels.best();
     this.progress = 0.0;
   }
 
@@ -70,13 +82,8 @@ public final class ExperimentSlowLoad extends ExperimentAbstract
       this.eventLifecycle(LOADING, this.progress, "");
     }
 
-    final var blue = (byte) (this.progress * 255.0);
-    for (int index = 0; index < output.capacity(); index += 4) {
-      output.put(index, blue);
-      output.put(index + 1, (byte) 0x00);
-      output.put(index + 2, (byte) 0x00);
-      output.put(index + 3, (byte) 0xff);
-    }
+    final var blue = (int) (Math.min(this.progress, 1.0) * 255.0);
+    this.kernels.fillAll(output, 0xff000000 | blue);
   }
 }
 
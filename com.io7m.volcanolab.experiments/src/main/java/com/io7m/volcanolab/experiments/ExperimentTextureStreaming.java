@@ -0,0 +1,1080 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanAccessFlag;
+import com.io7m.jcoronado.api.VulkanBufferImageCopy;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent3D;
+import com.io7m.jcoronado.api.VulkanImageBlit;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageLayout;
+import com.io7m.jcoronado.api.VulkanImageMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanImageSubresource;
+import com.io7m.jcoronado.api.VulkanImageSubresourceLayers;
+import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
+import com.io7m.jcoronado.api.VulkanImageTiling;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanOffset3D;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanFilter.VK_FILTER_NEAREST;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanFormatFeatureFlag.VK_FORMAT_FEATURE_BLIT_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanImageAspectFlag.VK_IMAGE_ASPECT_COLOR_BIT;
+import static com.io7m.jcoronado.api.VulkanImageKind.VK_IMAGE_TYPE_2D;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_GENERAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_PREINITIALIZED;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_UNDEFINED;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_LINEAR;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_CPU_TO_GPU;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiments.ExperimentTextureUploadMode.HOST_VISIBLE_IMAGE;
+import static com.io7m.volcanolab.experiments.ExperimentTextureUploadMode.STAGING_RING;
+
+/**
+ * <p>An experiment that measures the cost of streaming texture data to the
+ * device.</p>
+ *
+ * <p>Every frame, the contents of a set of textures are regenerated on the
+ * CPU and uploaded, and the textures are then tiled into the output. Each
+ * of the {@link ExperimentTextureUploadMode} upload modes is measured in
+ * turn, after a baseline in which the textures are tiled without being
+ * uploaded. The upload rate and the time that uploading adds to a frame
+ * are reported for each mode.</p>
+ *
+ * <p>The texture size is the experiment's workload, and can be changed
+ * while the experiment is running with {@link #setTextureSize(int)}; the
+ * textures are then recreated at the new size, and the baseline and every
+ * mode are measured again.</p>
+ */
+
+@ExperimentName(ExperimentTextureStreaming.NAME)
+public final class ExperimentTextureStreaming extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Texture Streaming";
+
+  /**
+   * The number of textures uploaded per frame by default.
+   */
+
+  public static final int DEFAULT_TEXTURE_COUNT = 16;
+
+  /**
+   * The width and height of each texture by default.
+   */
+
+  public static final int DEFAULT_TEXTURE_SIZE = 256;
+
+  /**
+   * The maximum number of textures.
+   */
+
+  public static final int MAXIMUM_TEXTURE_COUNT = 1024;
+
+  /**
+   * The maximum width and height of a texture; the smallest maximum image
+   * dimension that Vulkan guarantees.
+   */
+
+  public static final int MAXIMUM_TEXTURE_SIZE = 4096;
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  private final int textureCount;
+  private final ExperimentParameterInteger requestedSize;
+  private final List<ExperimentTextureUploadMode> modes;
+  private final List<ExperimentTextureStreamingResult> results;
+  private final VLPixelKernelsType kernels;
+  private final VulkanImageSubresourceLayers layers;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private CloseableCollectionType<ClosingResourceFailedException> textureResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private List<VulkanImageType> textures;
+  private List<HostImage> hostImages;
+  private ExperimentHostBuffer ring;
+  private IntBuffer ringPixels;
+  private long ringOffset;
+  private VulkanImageType composite;
+  private ExperimentReadbackImage readback;
+  private List<ExperimentTextureUploadMode> plan;
+  private int textureSize;
+  private int[] row;
+  private int planIndex;
+  private int frame;
+  private int stepFrame;
+  private long stepWriteTime;
+  private long stepCopyTime;
+  private long stepFrameTime;
+  private boolean stepGPUTimed;
+  private long baselineFrameTime;
+
+  public ExperimentTextureStreaming()
+  {
+    this(
+      DEFAULT_TEXTURE_COUNT,
+      DEFAULT_TEXTURE_SIZE,
+      List.of(ExperimentTextureUploadMode.values())
+    );
+  }
+
+  /**
+   * An experiment that measures the cost of streaming texture data to the
+   * device.
+   *
+   * @param inTextureCount The number of textures uploaded per frame
+   * @param inTextureSize  The width and height of each texture
+   * @param inModes        The upload modes to measure, in order
+   */
+
+  public ExperimentTextureStreaming(
+    final int inTextureCount,
+    final int inTextureSize,
+    final List<ExperimentTextureUploadMode> inModes)
+  {
+    super(LoggerFactory.getLogger(ExperimentTextureStreaming.class), NAME);
+
+    if (inTextureCount < 1 || inTextureCount > MAXIMUM_TEXTURE_COUNT) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Texture count %d must be in the range [1, %d]",
+          Integer.valueOf(inTextureCount),
+          Integer.valueOf(MAXIMUM_TEXTURE_COUNT))
+      );
+    }
+    if (inTextureSize < 1 || inTextureSize > MAXIMUM_TEXTURE_SIZE) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Texture size %d must be in the range [1, %d]",
+          Integer.valueOf(inTextureSize),
+          Integer.valueOf(MAXIMUM_TEXTURE_SIZE))
+      );
+    }
+
+    this.modes = List.copyOf(Objects.requireNonNull(inModes, "modes"));
+    if (this.modes.isEmpty()) {
+      throw new IllegalArgumentException("At least one mode is required");
+    }
+
+    this.textureCount = inTextureCount;
+    this.textureSize = inTextureSize;
+    this.results = new ArrayList<>(this.modes.size());
+    this.kernels = VLPixelKernels.best();
+    this.row = new int[inTextureSize];
+    this.requestedSize =
+      ExperimentParameterInteger.create(
+        "textureSize",
+        "The width and height of each texture",
+        1L,
+        MAXIMUM_TEXTURE_SIZE,
+        inTextureSize
+      );
+    this.plan = List.of();
+    this.textures = List.of();
+    this.hostImages = List.of();
+    this.layers =
+      VulkanImageSubresourceLayers.builder()
+        .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+        .setLayerCount(1)
+        .setBaseArrayLayer(0)
+        .setMipLevel(0)
+        .build();
+  }
+
+  /**
+   * Set the width and height of each texture. The change takes effect at
+   * the start of the next frame, and measures the baseline and every mode
+   * again at the new size. This method may be called from any thread.
+   *
+   * @param size The width and height
+   */
+
+  public void setTextureSize(
+    final int size)
+  {
+    this.requestedSize.set(size);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedSize);
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentTextureStreamingResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return The modes that the device supports, in measurement order; empty
+   * until the experiment has started
+   */
+
+  public List<ExperimentTextureUploadMode> plan()
+  {
+    return this.plan;
+  }
+
+  /**
+   * @return {@code true} if the baseline and every supported mode have been
+   * measured
+   */
+
+  public boolean isComplete()
+  {
+    return !this.plan.isEmpty() && this.planIndex == this.plan.size() + 1;
+  }
+
+  private long textureBytes()
+  {
+    return (long) this.textureSize * (long) this.textureSize * 4L;
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    /*
+     * Not every device can blit from linearly tiled images. Where it can't,
+     * the host-visible image mode is reported and left out.
+     */
+
+    final var linearBlit =
+      physicalDevice.formatProperties(VK_FORMAT_R8G8B8A8_UNORM)
+        .linearTilingFeatures()
+        .contains(VK_FORMAT_FEATURE_BLIT_SRC_BIT);
+
+    final var supported = new ArrayList<ExperimentTextureUploadMode>();
+    for (final var mode : this.modes) {
+      if (mode == HOST_VISIBLE_IMAGE && !linearBlit) {
+        this.eventLifecycle(
+          LOADING,
+          0.5,
+          String.format(
+            "Skipping %s: the device cannot blit from linear images",
+            mode.label())
+        );
+      } else {
+        supported.add(mode);
+      }
+    }
+
+    if (supported.isEmpty()) {
+      throw new IllegalStateException(
+        "The device supports none of the requested upload modes");
+    }
+
+    this.plan = List.copyOf(supported);
+    this.createTextures();
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      String.format(
+        "Uploading %d %dx%d textures per frame",
+        Integer.valueOf(this.textureCount),
+        Integer.valueOf(this.textureSize),
+        Integer.valueOf(this.textureSize))
+    );
+  }
+
+  /*
+   * The textures, the host-visible images, and the ring are all sized by
+   * the texture size, and so are held in their own collection that is
+   * replaced whenever the size changes.
+   */
+
+  private void createTextures()
+    throws Exception
+  {
+    this.textureResources = CloseableCollection.create();
+    this.resources().add(this.textureResources);
+    this.row = new int[this.textureSize];
+    this.ringOffset = 0L;
+    this.hostImages = List.of();
+
+    final var createdTextures = new ArrayList<VulkanImageType>();
+    for (var index = 0; index < this.textureCount; ++index) {
+      createdTextures.add(
+        this.createImage(
+          this.textureResources,
+          this.textureSize,
+          this.textureSize,
+          VK_IMAGE_TILING_OPTIMAL)
+      );
+    }
+    this.textures = List.copyOf(createdTextures);
+
+    /*
+     * The ring holds two frames of uploads. Each frame waits for its
+     * submission to complete, so this is more than the ring strictly needs,
+     * but it is the size a ring would need if frames were allowed to
+     * overlap.
+     */
+
+    this.ring =
+      ExperimentHostBuffer.create(
+        this.textureResources,
+        this.device,
+        this.vmaAllocator,
+        this.textureBytes() * this.textureCount * 2L,
+        Set.of(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+      );
+    this.ringPixels = littleEndianInts(this.ring.data());
+
+    if (this.plan.contains(HOST_VISIBLE_IMAGE)) {
+      final var created = new ArrayList<HostImage>();
+      for (var index = 0; index < this.textureCount; ++index) {
+        created.add(this.createHostImage(this.textureResources));
+      }
+      this.hostImages = List.copyOf(created);
+    }
+
+    this.initializeImages();
+  }
+
+  private static IntBuffer littleEndianInts(
+    final ByteBuffer data)
+  {
+    return data.duplicate()
+      .order(ByteOrder.LITTLE_ENDIAN)
+      .asIntBuffer();
+  }
+
+  private VulkanImageType createImage(
+    final CloseableCollectionType<?> resources,
+    final int width,
+    final int height,
+    final VulkanImageTiling tiling)
+    throws VulkanException
+  {
+    final var allocation =
+      this.vmaAllocator.createImage(
+        resources,
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_SRC_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_DST_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(width, height, 1))
+          .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(tiling)
+          .build()
+      );
+    return allocation.result();
+  }
+
+  private HostImage createHostImage(
+    final CloseableCollectionType<?> resources)
+    throws VulkanException
+  {
+    final var allocation =
+      this.vmaAllocator.createImage(
+        resources,
+        VMAAllocationCreateInfo.builder()
+          .setUsage(VMA_MEMORY_USAGE_CPU_TO_GPU)
+          .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)
+          .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_COHERENT_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_SRC_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(this.textureSize, this.textureSize, 1))
+          .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_PREINITIALIZED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(VK_IMAGE_TILING_LINEAR)
+          .build()
+      );
+
+    final var image = allocation.result();
+    final var info = allocation.allocation().info();
+
+    final var mapped =
+      resources.add(
+        this.device.mapMemory(
+          info.deviceMemory().orElseThrow(),
+          info.offset(),
+          info.size(),
+          Set.of()
+        ));
+
+    /*
+     * Rows of a linear image may be padded, so writes must follow the
+     * layout that the implementation chose.
+     */
+
+    final var layout =
+      this.device.getImageSubresourceLayout(
+        image,
+        VulkanImageSubresource.of(Set.of(VK_IMAGE_ASPECT_COLOR_BIT), 0, 0)
+      );
+
+    final var pixels =
+      mapped.asByteBuffer()
+        .position((int) layout.offset())
+        .slice();
+
+    return new HostImage(
+      image,
+      littleEndianInts(pixels),
+      (int) (layout.rowPitch() / 4L)
+    );
+  }
+
+  /*
+   * The device-local textures are given their first contents through the
+   * ring, and are left in the layout from which they are tiled. The
+   * host-visible images stay in the general layout for their whole
+   * lifetime.
+   */
+
+  private void initializeImages()
+    throws Exception
+  {
+    final var uploads = this.writeRing();
+
+    this.runner.runAndWait(commands -> {
+      this.recordUploads(commands, uploads);
+
+      if (!this.hostImages.isEmpty()) {
+        commands.pipelineBarrier(
+          Set.of(VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT),
+          Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+          Set.of(),
+          List.of(),
+          List.of(),
+          this.hostImages.stream()
+            .map(image -> imageBarrier(
+              image.image,
+              Set.of(),
+              VK_IMAGE_LAYOUT_PREINITIALIZED,
+              VK_IMAGE_LAYOUT_GENERAL))
+            .collect(Collectors.toList())
+        );
+      }
+    });
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.composite =
+      this.createImage(
+        this.frameResources,
+        width,
+        height,
+        VK_IMAGE_TILING_OPTIMAL
+      );
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.stepFrame = 0;
+    this.stepWriteTime = 0L;
+    this.stepCopyTime = 0L;
+    this.stepFrameTime = 0L;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  /**
+   * @return The mode for the current frame, or {@code null} for a baseline
+   * frame
+   */
+
+  private ExperimentTextureUploadMode currentMode()
+  {
+    if (this.isComplete()) {
+      return this.plan.contains(STAGING_RING)
+        ? STAGING_RING
+        : this.plan.get(this.plan.size() - 1);
+    }
+    if (this.planIndex == 0) {
+      return null;
+    }
+    return this.plan.get(this.planIndex - 1);
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var requested = (int) this.requestedSize.get();
+    if (requested != this.textureSize) {
+      this.textureSize = requested;
+      this.eventLifecycle(
+        LOADING,
+        0.0,
+        String.format(
+          "Texture size changed to %d",
+          Integer.valueOf(requested))
+      );
+      this.device.waitIdle();
+      this.textureResources.close();
+      this.createTextures();
+      this.planIndex = 0;
+      this.stepFrame = 0;
+      this.stepWriteTime = 0L;
+      this.stepCopyTime = 0L;
+      this.stepFrameTime = 0L;
+    }
+
+    final var timeFrameThen = System.nanoTime();
+    final var complete = this.isComplete();
+    final var mode = this.currentMode();
+    final var width = context.width();
+    final var height = context.height();
+    ++this.frame;
+
+    final var timeWriteThen = System.nanoTime();
+    final long writeTime;
+    final long cpuTime;
+
+    try (var uploadResources = CloseableCollection.create()) {
+      final List<Upload> uploads;
+      if (mode == null) {
+        uploads = List.of();
+      } else {
+        uploads = switch (mode) {
+          case PER_UPLOAD_STAGING -> this.writeStagingBuffers(uploadResources);
+          case STAGING_RING -> this.writeRing();
+          case HOST_VISIBLE_IMAGE -> this.writeHostImages();
+        };
+      }
+      writeTime = System.nanoTime() - timeWriteThen;
+
+      final List<VulkanImageType> sources;
+      if (mode == HOST_VISIBLE_IMAGE) {
+        sources =
+          this.hostImages.stream()
+            .map(HostImage::image)
+            .collect(Collectors.toList());
+      } else {
+        sources = this.textures;
+      }
+
+      final var sourceLayout =
+        mode == HOST_VISIBLE_IMAGE
+          ? VK_IMAGE_LAYOUT_GENERAL
+          : VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+
+      cpuTime = this.runner.runAndWait(commands -> {
+        this.timer.reset(commands);
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+        this.recordUploads(commands, uploads);
+        this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+        this.recordComposite(commands, sources, sourceLayout, width, height);
+        this.readback.recordCopyFrom(
+          commands,
+          this.composite,
+          VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+        );
+      });
+    }
+
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+    this.readback.copyTo(this.kernels, output, true);
+    final var frameTime = System.nanoTime() - timeFrameThen;
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepWriteTime += writeTime;
+    this.stepCopyTime += gpuTime.orElse(cpuTime);
+    this.stepFrameTime += frameTime;
+    this.stepGPUTimed = gpuTime.isPresent();
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var meanFrameTime = this.stepFrameTime / MEASURED_FRAMES;
+    if (mode == null) {
+      this.baselineFrameTime = meanFrameTime;
+      this.finishStep(
+        String.format(
+          "Baseline: frame %.3f ms",
+          Double.valueOf((double) meanFrameTime / 1_000_000.0))
+      );
+      return;
+    }
+
+    final var result =
+      new ExperimentTextureStreamingResult(
+        mode,
+        this.textureBytes() * this.textureCount,
+        MEASURED_FRAMES,
+        this.stepWriteTime / MEASURED_FRAMES,
+        mode == HOST_VISIBLE_IMAGE ? 0L : this.stepCopyTime / MEASURED_FRAMES,
+        meanFrameTime,
+        this.baselineFrameTime,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    this.finishStep(result.describe());
+
+    if (this.isComplete()) {
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.stream()
+          .map(ExperimentTextureStreamingResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  private void finishStep(
+    final String message)
+  {
+    ++this.planIndex;
+    this.stepFrame = 0;
+    this.stepWriteTime = 0L;
+    this.stepCopyTime = 0L;
+    this.stepFrameTime = 0L;
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) (this.plan.size() + 1),
+      message
+    );
+  }
+
+  private List<Upload> writeStagingBuffers(
+    final CloseableCollectionType<?> uploadResources)
+    throws VulkanException
+  {
+    final var uploads = new ArrayList<Upload>(this.textureCount);
+    for (var index = 0; index < this.textureCount; ++index) {
+      final var staging =
+        ExperimentHostBuffer.create(
+          uploadResources,
+          this.device,
+          this.vmaAllocator,
+          this.textureBytes(),
+          Set.of(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+        );
+      this.writeTexture(
+        littleEndianInts(staging.data()), 0, this.textureSize, index);
+      uploads.add(new Upload(staging.buffer(), 0L, this.textures.get(index)));
+    }
+    return uploads;
+  }
+
+  private List<Upload> writeRing()
+  {
+    final var capacity = this.ring.buffer().size();
+    final var size = this.textureBytes();
+
+    final var uploads = new ArrayList<Upload>(this.textureCount);
+    for (var index = 0; index < this.textureCount; ++index) {
+      if (this.ringOffset + size > capacity) {
+        this.ringOffset = 0L;
+      }
+      this.writeTexture(
+        this.ringPixels,
+        (int) (this.ringOffset / 4L),
+        this.textureSize,
+        index
+      );
+      uploads.add(
+        new Upload(this.ring.buffer(), this.ringOffset, this.textures.get(index)));
+      this.ringOffset += size;
+    }
+    return uploads;
+  }
+
+  private List<Upload> writeHostImages()
+  {
+    for (var index = 0; index < this.textureCount; ++index) {
+      final var image = this.hostImages.get(index);
+      this.writeTexture(image.pixels, 0, image.rowPitch, index);
+    }
+    return List.of();
+  }
+
+  /**
+   * Write the current frame's contents of a texture: a gradient that
+   * scrolls horizontally over time, tinted per texture.
+   */
+
+  private void writeTexture(
+    final IntBuffer target,
+    final int offset,
+    final int rowPitch,
+    final int texture)
+  {
+    final var size = this.textureSize;
+    final var shift = this.frame * 4;
+    final var blue = ((texture * 37) & 0x7f) | 0x80;
+    final var base = 0xff000000 | (blue << 16);
+
+    for (var y = 0; y < size; ++y) {
+      final var green = ((y * 256) / size) << 8;
+      for (var x = 0; x < size; ++x) {
+        this.row[x] = base | green | ((x + shift) & 0xff);
+      }
+      target.put(offset + (y * rowPitch), this.row);
+    }
+  }
+
+  private void recordUploads(
+    final VulkanCommandBufferType commands,
+    final List<Upload> uploads)
+    throws VulkanException
+  {
+    if (uploads.isEmpty()) {
+      return;
+    }
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      uploads.stream()
+        .map(upload -> imageBarrier(
+          upload.image,
+          Set.of(),
+          VK_IMAGE_LAYOUT_UNDEFINED,
+          VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL))
+        .collect(Collectors.toList())
+    );
+
+    final var extent = VulkanExtent3D.of(this.textureSize, this.textureSize, 1);
+    for (final var upload : uploads) {
+      commands.copyBufferToImage(
+        upload.buffer,
+        upload.image,
+        VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+        List.of(
+          VulkanBufferImageCopy.builder()
+            .setBufferImageHeight(0)
+            .setBufferOffset(upload.offset)
+            .setBufferRowLength(0)
+            .setImageExtent(extent)
+            .setImageOffset(VulkanOffset3D.of(0, 0, 0))
+            .setImageSubresource(this.layers)
+            .build()
+        )
+      );
+    }
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      uploads.stream()
+        .map(upload -> imageBarrier(
+          upload.image,
+          Set.of(VK_ACCESS_TRANSFER_WRITE_BIT),
+          VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+          VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL))
+        .collect(Collectors.toList())
+    );
+  }
+
+  /**
+   * Tile the textures into the composite image, in a grid of roughly square
+   * cells that covers the whole image.
+   */
+
+  private void recordComposite(
+    final VulkanCommandBufferType commands,
+    final List<VulkanImageType> sources,
+    final VulkanImageLayout sourceLayout,
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(imageBarrier(
+        this.composite,
+        Set.of(),
+        VK_IMAGE_LAYOUT_UNDEFINED,
+        VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL))
+    );
+
+    final var columns = (int) Math.ceil(Math.sqrt(this.textureCount));
+    final var rows = (this.textureCount + columns - 1) / columns;
+    final var sourceExtent =
+      VulkanOffset3D.of(this.textureSize, this.textureSize, 1);
+
+    for (var cellY = 0; cellY < rows; ++cellY) {
+      final var y0 = (cellY * height) / rows;
+      final var y1 = ((cellY + 1) * height) / rows;
+      for (var cellX = 0; cellX < columns; ++cellX) {
+        final var x0 = (cellX * width) / columns;
+        final var x1 = ((cellX + 1) * width) / columns;
+        if (x0 == x1 || y0 == y1) {
+          continue;
+        }
+
+        final var source =
+          sources.get(((cellY * columns) + cellX) % sources.size());
+        commands.blitImage(
+          source,
+          sourceLayout,
+          this.composite,
+          VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+          List.of(
+            VulkanImageBlit.of(
+              this.layers,
+              VulkanOffset3D.of(0, 0, 0),
+              sourceExtent,
+              this.layers,
+              VulkanOffset3D.of(x0, y0, 0),
+              VulkanOffset3D.of(x1, y1, 1))
+          ),
+          VK_FILTER_NEAREST
+        );
+      }
+    }
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(imageBarrier(
+        this.composite,
+        Set.of(VK_ACCESS_TRANSFER_WRITE_BIT),
+        VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+        VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL))
+    );
+  }
+
+  private static VulkanImageMemoryBarrier imageBarrier(
+    final VulkanImageType image,
+    final Set<VulkanAccessFlag> srcAccess,
+    final VulkanImageLayout oldLayout,
+    final VulkanImageLayout newLayout)
+  {
+    return VulkanImageMemoryBarrier.builder()
+      .addAllSrcAccessMask(srcAccess)
+      .addDstAccessMask(VK_ACCESS_TRANSFER_READ_BIT)
+      .addDstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+      .setOldLayout(oldLayout)
+      .setNewLayout(newLayout)
+      .setSrcQueueFamilyIndex(-1)
+      .setDstQueueFamilyIndex(-1)
+      .setImage(image)
+      .setSubresourceRange(
+        VulkanImageSubresourceRange.builder()
+          .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+          .setBaseArrayLayer(0)
+          .setBaseMipLevel(0)
+          .setLayerCount(1)
+          .setLevelCount(1)
+          .build())
+      .build();
+  }
+
+  private record Upload(
+    VulkanBufferType buffer,
+    long offset,
+    VulkanImageType image)
+  {
+
+  }
+
+  private record HostImage(
+    VulkanImageType image,
+    IntBuffer pixels,
+    int rowPitch)
+  {
+
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of measuring a single texture upload mode.
+ *
+ * @param mode                     The upload mode
+ * @param bytes                    The number of bytes uploaded per frame
+ * @param frames                   The number of frames measured
+ * @param writeNanoseconds         The mean time per frame spent writing
+ *                                 texture data on the CPU, including any
+ *                                 allocation of staging memory
+ * @param copyNanoseconds          The mean time per frame spent copying
+ *                                 texture data on the device
+ * @param frameNanoseconds         The mean time taken by a whole frame
+ * @param baselineFrameNanoseconds The mean time taken by a whole frame in
+ *                                 which no textures were uploaded
+ * @param gpuTimed                 {@code true} if copies were timed with
+ *                                 GPU timestamps, {@code false} if they
+ *                                 were timed on the CPU
+ */
+
+public record ExperimentTextureStreamingResult(
+  ExperimentTextureUploadMode mode,
+  long bytes,
+  int frames,
+  long writeNanoseconds,
+  long copyNanoseconds,
+  long frameNanoseconds,
+  long baselineFrameNanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of measuring a single texture upload mode.
+   *
+   * @param mode                     The upload mode
+   * @param bytes                    The number of bytes uploaded per frame
+   * @param frames                   The number of frames measured
+   * @param writeNanoseconds         The mean time per frame spent writing
+   *                                 texture data on the CPU, including any
+   *                                 allocation of staging memory
+   * @param copyNanoseconds          The mean time per frame spent copying
+   *                                 texture data on the device
+   * @param frameNanoseconds         The mean time taken by a whole frame
+   * @param baselineFrameNanoseconds The mean time taken by a whole frame in
+   *                                 which no textures were uploaded
+   * @param gpuTimed                 {@code true} if copies were timed with
+   *                                 GPU timestamps, {@code false} if they
+   *                                 were timed on the CPU
+   */
+
+  public ExperimentTextureStreamingResult
+  {
+    Objects.requireNonNull(mode, "mode");
+  }
+
+  /**
+   * @return The upload rate in megabytes (10^6 bytes) per second, counting
+   * both the CPU writes and the device copies
+   */
+
+  public double megabytesPerSecond()
+  {
+    final var nanoseconds = this.writeNanoseconds + this.copyNanoseconds;
+    if (nanoseconds <= 0L) {
+      return 0.0;
+    }
+    return ((double) this.bytes * 1000.0) / (double) nanoseconds;
+  }
+
+  /**
+   * @return The time that uploading adds to a frame, in nanoseconds
+   */
+
+  public long frameImpactNanoseconds()
+  {
+    return this.frameNanoseconds - this.baselineFrameNanoseconds;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s: %.1f MB/s, frame %.3f ms (%+.3f ms)",
+      this.mode.label(),
+      Double.valueOf(this.megabytesPerSecond()),
+      Double.valueOf((double) this.frameNanoseconds / 1_000_000.0),
+      Double.valueOf((double) this.frameImpactNanoseconds() / 1_000_000.0)
+    );
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The ways in which the texture streaming experiment uploads textures.
+ */
+
+public enum ExperimentTextureUploadMode
+{
+  /**
+   * Every upload allocates, fills, and frees its own staging buffer, and
+   * copies from it into a device-local image.
+   */
+
+  PER_UPLOAD_STAGING("Staging buffer per upload"),
+
+  /**
+   * Every upload is written into the next free region of a single
+   * persistently mapped staging ring, and copied from there into a
+   * device-local image.
+   */
+
+  STAGING_RING("Staging ring"),
+
+  /**
+   * Every upload is written directly into a linearly tiled image in
+   * host-visible memory, which the device reads in place.
+   */
+
+  HOST_VISIBLE_IMAGE("Host-visible image");
+
+  private final String label;
+
+  ExperimentTextureUploadMode(
+    final String inLabel)
+  {
+    this.label = inLabel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+}
@@ -0,0 +1,899 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanDescriptorBufferInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolSize;
+import com.io7m.jcoronado.api.VulkanDescriptorSetAllocateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutBinding;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetType;
+import com.io7m.jcoronado.api.VulkanDescriptorType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jcoronado.api.VulkanWriteDescriptorSet;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentColorTarget;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackImage;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackProbe;
+import com.io7m.volcanolab.experiments.internal.ExperimentReadbackStrategy;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_UNIFORM_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_PRIMARY;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER_DYNAMIC;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER_DYNAMIC;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+import static com.io7m.jcoronado.api.VulkanSubpassContents.VK_SUBPASS_CONTENTS_INLINE;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * <p>An experiment that compares ways of updating per-object data every
+ * frame.</p>
+ *
+ * <p>Each frame, every object moves slightly, and its new position, size,
+ * and color are delivered to the GPU either as push constants, through a
+ * uniform buffer ring bound with a dynamic offset per draw, or through a
+ * single storage buffer bound once per frame. One small triangle is drawn
+ * per object. For each mode and object count, the experiment reports the
+ * CPU time spent writing the data, the CPU time spent recording commands,
+ * the number of bytes transferred, and the GPU frame time.</p>
+ *
+ * <p>Once the sweep is complete, the last object count is repeated. The
+ * object count is the experiment's workload, and can be changed while the
+ * experiment is running with {@link #setObjectCount(int)}, up to the
+ * largest count in the sweep, for which the buffers are sized; every mode
+ * is then measured again at the new count.</p>
+ */
+
+@ExperimentName(ExperimentUniformUpdate.NAME)
+public final class ExperimentUniformUpdate extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Uniform Updates";
+
+  /**
+   * The object counts measured by default.
+   */
+
+  public static final List<Integer> DEFAULT_OBJECT_COUNTS =
+    List.of(
+      Integer.valueOf(256),
+      Integer.valueOf(1_024),
+      Integer.valueOf(4_096),
+      Integer.valueOf(16_384),
+      Integer.valueOf(65_536)
+    );
+
+  /**
+   * The maximum number of objects.
+   */
+
+  public static final int MAXIMUM_OBJECTS = 262_144;
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  /*
+   * Each object is a transform (position, size, and one unused component)
+   * followed by a color.
+   */
+
+  private static final int OBJECT_SIZE = 32;
+
+  /*
+   * The buffers hold one region per frame in flight, so that the CPU never
+   * writes data that the GPU may still be reading. This experiment waits
+   * for each frame to complete, but the layout is the one a real renderer
+   * would use.
+   */
+
+  private static final int FRAMES_IN_FLIGHT = 2;
+
+  private final List<Integer> objectCounts;
+  private final ExperimentParameterInteger requestedObjects;
+  private List<Step> plan;
+  private final List<ExperimentUniformUpdateResult> results;
+  private final VLPixelKernelsType kernels;
+  private final ByteBuffer pushConstants;
+  private final int maximumObjects;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentReadbackStrategy readbackStrategy;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private VulkanRenderPassType renderPass;
+  private VulkanShaderModuleType fragmentShader;
+  private Binding push;
+  private Binding uniform;
+  private Binding storage;
+  private ExperimentHostBuffer uniformRing;
+  private ExperimentHostBuffer storageRing;
+  private long uniformStride;
+  private long storageRegion;
+  private List<List<Integer>> uniformOffsets;
+  private List<List<Integer>> storageOffsets;
+  private ExperimentColorTarget target;
+  private ExperimentReadbackImage readback;
+  private VulkanCommandBufferType frameCommands;
+  private int frame;
+  private int objects;
+  private int planIndex;
+  private int stepFrame;
+  private long stepWriteTime;
+  private long stepRecordTime;
+  private long stepGPUTime;
+  private boolean stepGPUTimed;
+
+  public ExperimentUniformUpdate()
+  {
+    this(DEFAULT_OBJECT_COUNTS);
+  }
+
+  /**
+   * An experiment that compares ways of updating per-object data every
+   * frame.
+   *
+   * @param inObjectCounts The object counts to measure
+   */
+
+  public ExperimentUniformUpdate(
+    final List<Integer> inObjectCounts)
+  {
+    super(LoggerFactory.getLogger(ExperimentUniformUpdate.class), NAME);
+
+    this.objectCounts =
+      List.copyOf(Objects.requireNonNull(inObjectCounts, "objectCounts"));
+    if (this.objectCounts.isEmpty()) {
+      throw new IllegalArgumentException(
+        "At least one object count is required");
+    }
+
+    for (final var count : this.objectCounts) {
+      final var value = count.intValue();
+      if (value < 1 || value > MAXIMUM_OBJECTS) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Object count %d must be in the range [1, %d]",
+            Integer.valueOf(value),
+            Integer.valueOf(MAXIMUM_OBJECTS))
+        );
+      }
+    }
+
+    this.plan = planFor(this.objectCounts);
+    this.results = new ArrayList<>(this.plan.size());
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(OBJECT_SIZE)
+        .order(ByteOrder.nativeOrder());
+    this.maximumObjects =
+      this.objectCounts.stream()
+        .mapToInt(Integer::intValue)
+        .max()
+        .orElseThrow();
+
+    this.objects =
+      this.objectCounts.get(this.objectCounts.size() - 1).intValue();
+    this.requestedObjects =
+      ExperimentParameterInteger.create(
+        "objects",
+        "The number of objects updated and drawn per frame",
+        1L,
+        this.maximumObjects,
+        this.objects
+      );
+  }
+
+  private static List<Step> planFor(
+    final List<Integer> counts)
+  {
+    final var steps = new ArrayList<Step>();
+    for (final var count : counts) {
+      for (final var mode : ExperimentUniformUpdateMode.values()) {
+        steps.add(new Step(mode, count.intValue()));
+      }
+    }
+    return List.copyOf(steps);
+  }
+
+  /**
+   * Set the number of objects updated and drawn per frame. The change
+   * takes effect at the start of the next frame, and measures every mode
+   * again at the new count. This method may be called from any thread.
+   *
+   * @param count The number of objects, no larger than the largest count
+   *              in the sweep
+   */
+
+  public void setObjectCount(
+    final int count)
+  {
+    this.requestedObjects.set(count);
+  }
+
+  @Override
+  public List<ExperimentParameterType> parameters()
+  {
+    return List.of(this.requestedObjects);
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentUniformUpdateResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return {@code true} if every measurement has been taken
+   */
+
+  public boolean isComplete()
+  {
+    return this.planIndex == this.plan.size();
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+    this.readbackStrategy =
+      ExperimentReadbackProbe.strategyFor(
+        physicalDevice,
+        this.device,
+        this.vmaAllocator
+      );
+
+    /*
+     * Each object in the uniform ring must start on a multiple of the
+     * device's uniform offset alignment, which is commonly much larger than
+     * the object itself. Storage buffer regions only need aligning once
+     * per frame.
+     */
+
+    final var limits = physicalDevice.properties().limits();
+    this.uniformStride =
+      alignUp(OBJECT_SIZE, limits.minUniformBufferOffsetAlignment());
+    this.storageRegion =
+      alignUp(
+        (long) this.maximumObjects * OBJECT_SIZE,
+        limits.minStorageBufferOffsetAlignment());
+
+    this.eventLifecycle(LOADING, 0.25, "Creating buffers");
+
+    this.uniformRing =
+      ExperimentHostBuffer.create(
+        resources,
+        this.device,
+        this.vmaAllocator,
+        FRAMES_IN_FLIGHT * this.maximumObjects * this.uniformStride,
+        Set.of(VK_BUFFER_USAGE_UNIFORM_BUFFER_BIT)
+      );
+    this.storageRing =
+      ExperimentHostBuffer.create(
+        resources,
+        this.device,
+        this.vmaAllocator,
+        FRAMES_IN_FLIGHT * this.storageRegion,
+        Set.of(VK_BUFFER_USAGE_STORAGE_BUFFER_BIT)
+      );
+
+    /*
+     * Dynamic offset lists are built once here so that recording a draw
+     * doesn't allocate.
+     */
+
+    this.uniformOffsets = new ArrayList<>();
+    for (var slot = 0; slot < FRAMES_IN_FLIGHT; ++slot) {
+      for (var index = 0; index < this.maximumObjects; ++index) {
+        final var offset =
+          ((long) slot * this.maximumObjects + index) * this.uniformStride;
+        this.uniformOffsets.add(List.of(Integer.valueOf((int) offset)));
+      }
+    }
+
+    this.storageOffsets = new ArrayList<>();
+    for (var slot = 0; slot < FRAMES_IN_FLIGHT; ++slot) {
+      this.storageOffsets.add(
+        List.of(Integer.valueOf((int) (slot * this.storageRegion))));
+    }
+
+    this.eventLifecycle(LOADING, 0.5, "Creating pipelines");
+
+    this.fragmentShader =
+      ExperimentShaders.createModule(resources, this.device, "color.frag");
+
+    this.push =
+      this.createBinding(Set.of(), "update_push.vert");
+    this.uniform =
+      this.createBinding(
+        Set.of(VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER_DYNAMIC),
+        "update_uniform.vert");
+    this.storage =
+      this.createBinding(
+        Set.of(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER_DYNAMIC),
+        "update_storage.vert");
+
+    this.device.updateDescriptorSets(
+      List.of(
+        dynamicWrite(
+          this.uniform.set.get(0),
+          VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER_DYNAMIC,
+          VulkanDescriptorBufferInfo.of(
+            this.uniformRing.buffer(), 0L, OBJECT_SIZE)),
+        dynamicWrite(
+          this.storage.set.get(0),
+          VK_DESCRIPTOR_TYPE_STORAGE_BUFFER_DYNAMIC,
+          VulkanDescriptorBufferInfo.of(
+            this.storageRing.buffer(), 0L, this.storageRegion))
+      ),
+      List.of()
+    );
+
+    this.renderPass =
+      resources.add(
+        ExperimentColorTarget.createRenderPass(
+          this.device,
+          VK_FORMAT_R8G8B8A8_UNORM)
+      );
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      String.format(
+        "Uniform stride %d bytes for %d byte objects",
+        Long.valueOf(this.uniformStride),
+        Integer.valueOf(OBJECT_SIZE))
+    );
+  }
+
+  private static long alignUp(
+    final long size,
+    final long alignment)
+  {
+    final var align = Math.max(1L, alignment);
+    return ((size + align - 1L) / align) * align;
+  }
+
+  private static VulkanWriteDescriptorSet dynamicWrite(
+    final VulkanDescriptorSetType set,
+    final VulkanDescriptorType type,
+    final VulkanDescriptorBufferInfo buffer)
+  {
+    return VulkanWriteDescriptorSet.builder()
+      .setDestinationSet(set)
+      .setDestinationBinding(0)
+      .setDestinationArrayElement(0)
+      .setDescriptorCount(1)
+      .setDescriptorType(type)
+      .addBuffers(buffer)
+      .build();
+  }
+
+  /*
+   * Each mode has its own pipeline layout: push constants only, or a
+   * single descriptor set holding one dynamic buffer.
+   */
+
+  private Binding createBinding(
+    final Set<VulkanDescriptorType> types,
+    final String vertexShaderName)
+    throws VulkanException
+  {
+    final var resources = this.resources();
+    final var layoutBuilder = VulkanPipelineLayoutCreateInfo.builder();
+
+    List<VulkanDescriptorSetType> sets = List.of();
+    for (final var type : types) {
+      final var setLayout =
+        resources.add(
+          this.device.createDescriptorSetLayout(
+            VulkanDescriptorSetLayoutCreateInfo.builder()
+              .addBindings(
+                VulkanDescriptorSetLayoutBinding.builder()
+                  .setBinding(0)
+                  .setDescriptorType(type)
+                  .setDescriptorCount(1)
+                  .addStageFlags(VK_SHADER_STAGE_VERTEX_BIT)
+                  .build())
+              .build())
+        );
+
+      final var pool =
+        resources.add(
+          this.device.createDescriptorPool(
+            VulkanDescriptorPoolCreateInfo.builder()
+              .setMaxSets(1)
+              .addPoolSizes(VulkanDescriptorPoolSize.of(type, 1))
+              .build())
+        );
+
+      sets =
+        List.copyOf(
+          this.device.allocateDescriptorSets(
+            VulkanDescriptorSetAllocateInfo.builder()
+              .setDescriptorPool(pool)
+              .addSetLayouts(setLayout)
+              .build()
+          ));
+
+      layoutBuilder.addSetLayouts(setLayout);
+    }
+
+    if (types.isEmpty()) {
+      layoutBuilder.addPushConstantRanges(
+        VulkanPushConstantRange.of(
+          Set.of(VK_SHADER_STAGE_VERTEX_BIT), 0, OBJECT_SIZE));
+    }
+
+    final var layout =
+      resources.add(this.device.createPipelineLayout(layoutBuilder.build()));
+    final var shader =
+      ExperimentShaders.createModule(resources, this.device, vertexShaderName);
+
+    return new Binding(layout, shader, sets);
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    this.target =
+      ExperimentColorTarget.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.renderPass,
+        VK_FORMAT_R8G8B8A8_UNORM,
+        VulkanClearValueColorFloatingPoint.of(0.0f, 0.0f, 0.0f, 1.0f),
+        width,
+        height
+      );
+
+    for (final var binding : List.of(this.push, this.uniform, this.storage)) {
+      binding.pipeline =
+        ExperimentPipelines.createGraphics(
+          this.frameResources,
+          this.device,
+          binding.layout,
+          this.renderPass,
+          binding.vertexShader,
+          this.fragmentShader,
+          ExperimentPipelines.blendOpaque(),
+          width,
+          height
+        );
+    }
+
+    this.readback =
+      ExperimentReadbackImage.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        this.readbackStrategy,
+        width,
+        height
+      );
+
+    this.frameCommands =
+      this.runner.createCommandBuffer(
+        this.frameResources, VK_COMMAND_BUFFER_LEVEL_PRIMARY);
+
+    this.stepRestart();
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var requested = (int) this.requestedObjects.get();
+    if (requested != this.objects) {
+      this.objects = requested;
+      this.plan = planFor(List.of(Integer.valueOf(requested)));
+      this.planIndex = 0;
+      this.stepRestart();
+      this.eventLifecycle(
+        LOADING,
+        0.0,
+        String.format(
+          "Object count changed to %d",
+          Integer.valueOf(requested))
+      );
+    }
+
+    /*
+     * Once the sweep is complete, the final step is simply repeated.
+     */
+
+    final var complete = this.isComplete();
+    final var step =
+      this.plan.get(Math.min(this.planIndex, this.plan.size() - 1));
+
+    ++this.frame;
+    final var slot = this.frame % FRAMES_IN_FLIGHT;
+
+    final var timeThen = System.nanoTime();
+    final var bytes = this.write(step, slot);
+    final var timeWritten = System.nanoTime();
+    this.record(step, slot);
+    final var timeRecorded = System.nanoTime();
+
+    final var submitTime = this.runner.submitAndWait(this.frameCommands);
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+
+    this.readback.copyTo(this.kernels, output, true);
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepWriteTime += timeWritten - timeThen;
+    this.stepRecordTime += timeRecorded - timeWritten;
+    this.stepGPUTime += gpuTime.orElse(submitTime);
+    this.stepGPUTimed = gpuTime.isPresent();
+
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var result =
+      new ExperimentUniformUpdateResult(
+        step.mode,
+        step.objects,
+        MEASURED_FRAMES,
+        this.stepWriteTime / MEASURED_FRAMES,
+        this.stepRecordTime / MEASURED_FRAMES,
+        bytes,
+        this.stepGPUTime / MEASURED_FRAMES,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepRestart();
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) this.plan.size(),
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        this.results.stream()
+          .map(ExperimentUniformUpdateResult::describe)
+          .collect(Collectors.joining("; "))
+      );
+    }
+  }
+
+  private void stepRestart()
+  {
+    this.stepFrame = 0;
+    this.stepWriteTime = 0L;
+    this.stepRecordTime = 0L;
+    this.stepGPUTime = 0L;
+    this.stepGPUTimed = false;
+  }
+
+  /**
+   * Write every object's data for this frame into mapped memory. Push
+   * constants are written as commands are recorded instead.
+   *
+   * @return The number of bytes of object data transferred this frame
+   */
+
+  private long write(
+    final Step step,
+    final int slot)
+  {
+    final var objects = step.objects;
+    return switch (step.mode) {
+      case PUSH_CONSTANTS -> (long) objects * OBJECT_SIZE;
+
+      case UNIFORM_RING -> {
+        final var data = this.uniformRing.data();
+        final var base = (long) slot * this.maximumObjects;
+        for (var index = 0; index < objects; ++index) {
+          this.writeObject(
+            data,
+            (int) ((base + index) * this.uniformStride),
+            index,
+            objects);
+        }
+        yield (long) objects * this.uniformStride;
+      }
+
+      case STORAGE_BUFFER -> {
+        final var data = this.storageRing.data();
+        final var base = (int) (slot * this.storageRegion);
+        for (var index = 0; index < objects; ++index) {
+          this.writeObject(data, base + index * OBJECT_SIZE, index, objects);
+        }
+        yield (long) objects * OBJECT_SIZE;
+      }
+    };
+  }
+
+  /*
+   * Objects sit in a square grid and drift a little each frame. The motion
+   * is deliberately cheap to compute, so that the cost measured is the cost
+   * of writing the data, not of producing it.
+   */
+
+  private void writeObject(
+    final ByteBuffer data,
+    final int offset,
+    final int index,
+    final int objects)
+  {
+    final var columns = (int) Math.ceil(Math.sqrt(objects));
+    final var cell = 2.0f / (float) columns;
+    final var drift = (float) ((this.frame + index) & 7) * (cell / 32.0f);
+
+    data.putFloat(offset, -1.0f + (((index % columns) + 0.5f) * cell) + drift);
+    data.putFloat(offset + 4, -1.0f + (((index / columns) + 0.7f) * cell));
+    data.putFloat(offset + 8, cell * 0.4f);
+    data.putFloat(offset + 12, 0.0f);
+    data.putFloat(offset + 16, (float) (index & 0xff) / 255.0f);
+    data.putFloat(offset + 20, (float) ((index >>> 8) & 0xff) / 255.0f);
+    data.putFloat(offset + 24, 0.5f);
+    data.putFloat(offset + 28, 1.0f);
+  }
+
+  private void record(
+    final Step step,
+    final int slot)
+    throws VulkanException
+  {
+    final var commands = this.frameCommands;
+    commands.beginCommandBuffer();
+    this.timer.reset(commands);
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+    commands.beginRenderPass(
+      this.target.beginInfo(),
+      VK_SUBPASS_CONTENTS_INLINE);
+
+    switch (step.mode) {
+      case PUSH_CONSTANTS -> this.recordPushConstants(commands, step.objects);
+      case UNIFORM_RING -> this.recordUniformRing(commands, step.objects, slot);
+      case STORAGE_BUFFER -> this.recordStorage(commands, step.objects, slot);
+    }
+
+    commands.endRenderPass();
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+    this.readback.recordCopyFrom(
+      commands,
+      this.target.image(),
+      VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL
+    );
+    commands.endCommandBuffer();
+  }
+
+  private void recordPushConstants(
+    final VulkanCommandBufferType commands,
+    final int objects)
+    throws VulkanException
+  {
+    final var binding = this.push;
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, binding.pipeline);
+
+    final var stages = Set.of(VK_SHADER_STAGE_VERTEX_BIT);
+    for (var index = 0; index < objects; ++index) {
+      this.writeObject(this.pushConstants, 0, index, objects);
+      commands.pushConstants(
+        binding.layout, stages, 0, OBJECT_SIZE, this.pushConstants);
+      commands.draw(3, 1, 0, 0);
+    }
+  }
+
+  private void recordUniformRing(
+    final VulkanCommandBufferType commands,
+    final int objects,
+    final int slot)
+    throws VulkanException
+  {
+    final var binding = this.uniform;
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, binding.pipeline);
+
+    final var base = slot * this.maximumObjects;
+    for (var index = 0; index < objects; ++index) {
+      commands.bindDescriptorSets(
+        VK_PIPELINE_BIND_POINT_GRAPHICS,
+        binding.layout,
+        0,
+        binding.set,
+        this.uniformOffsets.get(base + index)
+      );
+      commands.draw(3, 1, 0, 0);
+    }
+  }
+
+  private void recordStorage(
+    final VulkanCommandBufferType commands,
+    final int objects,
+    final int slot)
+    throws VulkanException
+  {
+    final var binding = this.storage;
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_GRAPHICS, binding.pipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_GRAPHICS,
+      binding.layout,
+      0,
+      binding.set,
+      this.storageOffsets.get(slot)
+    );
+
+    for (var index = 0; index < objects; ++index) {
+      commands.draw(3, 1, 0, index);
+    }
+  }
+
+  private record Step(
+    ExperimentUniformUpdateMode mode,
+    int objects)
+  {
+
+  }
+
+  private static final class Binding
+  {
+    private final VulkanPipelineLayoutType layout;
+    private final VulkanShaderModuleType vertexShader;
+    private final List<VulkanDescriptorSetType> set;
+    private VulkanPipelineType pipeline;
+
+    Binding(
+      final VulkanPipelineLayoutType inLayout,
+      final VulkanShaderModuleType inVertexShader,
+      final List<VulkanDescriptorSetType> inSet)
+    {
+      this.layout = Objects.requireNonNull(inLayout, "layout");
+      this.vertexShader =
+        Objects.requireNonNull(inVertexShader, "vertexShader");
+      this.set = Objects.requireNonNull(inSet, "set");
+    }
+  }
+}
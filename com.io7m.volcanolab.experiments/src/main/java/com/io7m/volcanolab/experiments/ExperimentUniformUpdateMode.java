@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+/**
+ * The ways in which the uniform update experiment delivers per-object data
+ * to the GPU.
+ */
+
+public enum ExperimentUniformUpdateMode
+{
+  /**
+   * Each object's data is recorded into the command buffer with push
+   * constants before its draw.
+   */
+
+  PUSH_CONSTANTS("Push constants"),
+
+  /**
+   * Each object's data is written into a per-frame region of a uniform
+   * buffer ring, and bound with a dynamic offset before its draw.
+   */
+
+  UNIFORM_RING("Dynamic uniform buffer ring"),
+
+  /**
+   * Every object's data is written into a per-frame region of a single
+   * storage buffer, bound once, and each draw selects its object with its
+   * first instance.
+   */
+
+  STORAGE_BUFFER("Storage buffer");
+
+  private final String label;
+
+  ExperimentUniformUpdateMode(
+    final String inLabel)
+  {
+    this.label = inLabel;
+  }
+
+  /**
+   * @return A humanly-readable label
+   */
+
+  public String label()
+  {
+    return this.label;
+  }
+}
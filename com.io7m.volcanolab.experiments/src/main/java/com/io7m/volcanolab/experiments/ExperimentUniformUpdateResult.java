@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of measuring a single update mode at a single object count.
+ *
+ * @param mode              The update mode
+ * @param objects           The number of objects updated and drawn per frame
+ * @param frames            The number of frames measured
+ * @param writeNanoseconds  The mean time per frame spent writing object data
+ *                          into mapped memory; for push constants, where the
+ *                          data is written as commands are recorded, this
+ *                          is zero
+ * @param recordNanoseconds The mean time per frame spent recording commands
+ * @param bytes             The number of bytes of object data transferred
+ *                          per frame, including any alignment padding
+ * @param gpuNanoseconds    The mean time per frame spent executing commands
+ * @param gpuTimed          {@code true} if execution was timed with GPU
+ *                          timestamps, {@code false} if it was timed on the
+ *                          CPU
+ */
+
+public record ExperimentUniformUpdateResult(
+  ExperimentUniformUpdateMode mode,
+  int objects,
+  int frames,
+  long writeNanoseconds,
+  long recordNanoseconds,
+  long bytes,
+  long gpuNanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of measuring a single update mode at a single object count.
+   *
+   * @param mode              The update mode
+   * @param objects           The number of objects updated and drawn per
+   *                          frame
+   * @param frames            The number of frames measured
+   * @param writeNanoseconds  The mean time per frame spent writing object
+   *                          data into mapped memory; for push constants,
+   *                          where the data is written as commands are
+   *                          recorded, this is zero
+   * @param recordNanoseconds The mean time per frame spent recording
+   *                          commands
+   * @param bytes             The number of bytes of object data transferred
+   *                          per frame, including any alignment padding
+   * @param gpuNanoseconds    The mean time per frame spent executing commands
+   * @param gpuTimed          {@code true} if execution was timed with GPU
+   *                          timestamps, {@code false} if it was timed on
+   *                          the CPU
+   */
+
+  public ExperimentUniformUpdateResult
+  {
+    Objects.requireNonNull(mode, "mode");
+  }
+
+  /**
+   * @return The mean CPU time per frame spent writing and recording
+   */
+
+  public long cpuNanoseconds()
+  {
+    return this.writeNanoseconds + this.recordNanoseconds;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s, %d objects: CPU %.3f ms (write %.3f ms), %d KiB, GPU %.3f ms (%s)",
+      this.mode.label(),
+      Integer.valueOf(this.objects),
+      Double.valueOf((double) this.cpuNanoseconds() / 1_000_000.0),
+      Double.valueOf((double) this.writeNanoseconds / 1_000_000.0),
+      Long.valueOf(this.bytes / 1024L),
+      Double.valueOf((double) this.gpuNanoseconds / 1_000_000.0),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+}
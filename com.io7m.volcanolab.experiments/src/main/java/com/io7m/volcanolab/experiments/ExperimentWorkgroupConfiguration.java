@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compute dispatch shape: the size of a workgroup, and the amount of
+ * shared memory each workgroup reserves.
+ *
+ * @param sizeX       The workgroup width
+ * @param sizeY       The workgroup height
+ * @param sharedBytes The shared memory reserved by each workgroup, in bytes
+ */
+
+public record ExperimentWorkgroupConfiguration(
+  int sizeX,
+  int sizeY,
+  int sharedBytes)
+{
+  /**
+   * A compute dispatch shape: the size of a workgroup, and the amount of
+   * shared memory each workgroup reserves.
+   *
+   * @param sizeX       The workgroup width
+   * @param sizeY       The workgroup height
+   * @param sharedBytes The shared memory reserved by each workgroup, in bytes
+   */
+
+  public ExperimentWorkgroupConfiguration
+  {
+    if (sizeX < 1 || sizeY < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Workgroup size %dx%d must be at least 1x1",
+          Integer.valueOf(sizeX),
+          Integer.valueOf(sizeY))
+      );
+    }
+
+    /*
+     * Every invocation stores one word into shared memory.
+     */
+
+    final var minimumShared = sizeX * sizeY * 4;
+    if (sharedBytes < minimumShared || sharedBytes % 4 != 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Shared memory size %d must be a multiple of 4 that is >= %d",
+          Integer.valueOf(sharedBytes),
+          Integer.valueOf(minimumShared))
+      );
+    }
+  }
+
+  /**
+   * Create a configuration that reserves only as much shared memory as the
+   * workgroup needs.
+   *
+   * @param sizeX The workgroup width
+   * @param sizeY The workgroup height
+   *
+   * @return A configuration
+   */
+
+  public static ExperimentWorkgroupConfiguration of(
+    final int sizeX,
+    final int sizeY)
+  {
+    return new ExperimentWorkgroupConfiguration(sizeX, sizeY, sizeX * sizeY * 4);
+  }
+
+  /**
+   * The default sweep: a range of one and two dimensional workgroup shapes,
+   * each with minimal shared memory and with 8 KiB and 16 KiB reserved. 16
+   * KiB is the smallest maximum that Vulkan guarantees, so every shape here
+   * fits on every device as long as the device allows the number of
+   * invocations.
+   *
+   * @return The default configurations
+   */
+
+  public static List<ExperimentWorkgroupConfiguration> defaults()
+  {
+    final var shapes = new int[][]{
+      {8, 8},
+      {16, 8},
+      {16, 16},
+      {32, 32},
+      {64, 1},
+      {128, 1},
+    };
+
+    final var configurations = new ArrayList<ExperimentWorkgroupConfiguration>();
+    for (final var shape : shapes) {
+      final var minimal = of(shape[0], shape[1]);
+      configurations.add(minimal);
+      for (final var shared : new int[]{8192, 16384}) {
+        if (shared > minimal.sharedBytes) {
+          configurations.add(
+            new ExperimentWorkgroupConfiguration(shape[0], shape[1], shared));
+        }
+      }
+    }
+    return List.copyOf(configurations);
+  }
+
+  /**
+   * @return The number of invocations in each workgroup
+   */
+
+  public int invocations()
+  {
+    return this.sizeX * this.sizeY;
+  }
+
+  /**
+   * @return A humanly-readable description of the configuration
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%dx%d, %d bytes shared",
+      Integer.valueOf(this.sizeX),
+      Integer.valueOf(this.sizeY),
+      Integer.valueOf(this.sharedBytes)
+    );
+  }
+}
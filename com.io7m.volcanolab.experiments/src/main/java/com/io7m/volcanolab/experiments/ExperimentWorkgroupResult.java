@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import java.util.Objects;
+
+/**
+ * The result of measuring a single workgroup configuration.
+ *
+ * @param configuration The configuration
+ * @param pixels        The number of pixels computed by one dispatch
+ * @param dispatches    The number of dispatches measured
+ * @param nanoseconds   The mean time taken by one dispatch
+ * @param gpuTimed      {@code true} if the time was measured with GPU
+ *                      timestamps, {@code false} if it was measured on the
+ *                      CPU
+ */
+
+public record ExperimentWorkgroupResult(
+  ExperimentWorkgroupConfiguration configuration,
+  long pixels,
+  int dispatches,
+  long nanoseconds,
+  boolean gpuTimed)
+{
+  /**
+   * The result of measuring a single workgroup configuration.
+   *
+   * @param configuration The configuration
+   * @param pixels        The number of pixels computed by one dispatch
+   * @param dispatches    The number of dispatches measured
+   * @param nanoseconds   The mean time taken by one dispatch
+   * @param gpuTimed      {@code true} if the time was measured with GPU
+   *                      timestamps, {@code false} if it was measured on the
+   *                      CPU
+   */
+
+  public ExperimentWorkgroupResult
+  {
+    Objects.requireNonNull(configuration, "configuration");
+  }
+
+  /**
+   * @return The number of pixels computed per second, in millions
+   */
+
+  public double megapixelsPerSecond()
+  {
+    if (this.nanoseconds <= 0L) {
+      return 0.0;
+    }
+    return ((double) this.pixels * 1000.0) / (double) this.nanoseconds;
+  }
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  public String describe()
+  {
+    return String.format(
+      "%s: %.3f ms, %.1f Mpixels/s (%s)",
+      this.configuration.describe(),
+      Double.valueOf((double) this.nanoseconds / 1_000_000.0),
+      Double.valueOf(this.megapixelsPerSecond()),
+      this.gpuTimed ? "GPU timed" : "CPU timed"
+    );
+  }
+}
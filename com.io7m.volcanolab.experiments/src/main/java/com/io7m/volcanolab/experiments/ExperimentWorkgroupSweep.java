@@ -0,0 +1,637 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments;
+
+import com.io7m.jcoronado.api.VulkanBufferCopy;
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanDescriptorBufferInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorPoolSize;
+import com.io7m.jcoronado.api.VulkanDescriptorSetAllocateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutBinding;
+import com.io7m.jcoronado.api.VulkanDescriptorSetLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanDescriptorSetType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPushConstantRange;
+import com.io7m.jcoronado.api.VulkanWriteDescriptorSet;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentName;
+import com.io7m.volcanolab.experiments.internal.ExperimentAllocator;
+import com.io7m.volcanolab.experiments.internal.ExperimentCommandRunner;
+import com.io7m.volcanolab.experiments.internal.ExperimentDevice;
+import com.io7m.volcanolab.experiments.internal.ExperimentDeviceConfiguration;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameCopy;
+import com.io7m.volcanolab.experiments.internal.ExperimentGPUTimer;
+import com.io7m.volcanolab.experiments.internal.ExperimentHostBuffer;
+import com.io7m.volcanolab.experiments.internal.ExperimentPipelines;
+import com.io7m.volcanolab.experiments.internal.ExperimentShaders;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.foreign.MemorySegment;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_HOST_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_SHADER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanDescriptorType.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_COMPUTE;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_HOST_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.INITIALIZED;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.LOADING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.STARTED;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * <p>An experiment that measures how compute throughput depends on the
+ * shape of a dispatch.</p>
+ *
+ * <p>A compute shader renders the Mandelbrot set, one pixel per invocation,
+ * into the output. The shader is specialized for each of a sweep of
+ * workgroup sizes and shared memory reservations; larger reservations limit
+ * the number of workgroups that can be resident at once. Each configuration
+ * is timed with GPU timestamps over several frames. Once the sweep is
+ * complete, the fastest configuration is used for every subsequent
+ * frame.</p>
+ */
+
+@ExperimentName(ExperimentWorkgroupSweep.NAME)
+public final class ExperimentWorkgroupSweep extends ExperimentAbstract
+{
+  /**
+   * The name of the experiment.
+   */
+
+  public static final String NAME = "Workgroup Sweep";
+
+  /**
+   * The maximum number of iterations per pixel used by default.
+   */
+
+  public static final int DEFAULT_ITERATIONS = 256;
+
+  private static final int WARMUP_FRAMES = 2;
+  private static final int MEASURED_FRAMES = 8;
+
+  private final List<ExperimentWorkgroupConfiguration> configurations;
+  private final int iterations;
+  private final List<ExperimentWorkgroupResult> results;
+  private final ByteBuffer pushConstants;
+  private final VLPixelKernelsType kernels;
+  private CloseableCollectionType<ClosingResourceFailedException> frameResources;
+  private VulkanLogicalDeviceType device;
+  private ExperimentAllocator vmaAllocator;
+  private ExperimentCommandRunner runner;
+  private ExperimentGPUTimer timer;
+  private VulkanPipelineLayoutType pipelineLayout;
+  private VulkanDescriptorSetType descriptors;
+  private List<ExperimentWorkgroupConfiguration> plan;
+  private List<VulkanPipelineType> pipelines;
+  private VulkanBufferType pixelBuffer;
+  private ExperimentHostBuffer hostBuffer;
+  private MemorySegment hostSegment;
+  private int bestIndex;
+  private int planIndex;
+  private int stepFrame;
+  private long stepTime;
+  private boolean stepGPUTimed;
+
+  public ExperimentWorkgroupSweep()
+  {
+    this(ExperimentWorkgroupConfiguration.defaults(), DEFAULT_ITERATIONS);
+  }
+
+  /**
+   * An experiment that measures how compute throughput depends on the
+   * shape of a dispatch.
+   *
+   * @param inConfigurations The configurations to measure, in order
+   * @param inIterations     The maximum number of iterations per pixel
+   */
+
+  public ExperimentWorkgroupSweep(
+    final List<ExperimentWorkgroupConfiguration> inConfigurations,
+    final int inIterations)
+  {
+    super(LoggerFactory.getLogger(ExperimentWorkgroupSweep.class), NAME);
+
+    this.configurations =
+      List.copyOf(Objects.requireNonNull(inConfigurations, "configurations"));
+    if (this.configurations.isEmpty()) {
+      throw new IllegalArgumentException(
+        "At least one configuration is required");
+    }
+
+    if (inIterations < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Iteration count %d must be >= 1",
+          Integer.valueOf(inIterations))
+      );
+    }
+
+    this.iterations = inIterations;
+    this.results = new ArrayList<>(this.configurations.size());
+    this.plan = List.of();
+    this.pipelines = List.of();
+    this.kernels = VLPixelKernels.best();
+    this.pushConstants =
+      ByteBuffer.allocateDirect(16)
+        .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * @return The results measured so far, in measurement order
+   */
+
+  public List<ExperimentWorkgroupResult> results()
+  {
+    return List.copyOf(this.results);
+  }
+
+  /**
+   * @return The configurations that the device supports, in measurement
+   * order; empty until the experiment has started
+   */
+
+  public List<ExperimentWorkgroupConfiguration> plan()
+  {
+    return this.plan;
+  }
+
+  /**
+   * @return {@code true} if every supported configuration has been measured
+   */
+
+  public boolean isComplete()
+  {
+    return !this.plan.isEmpty() && this.planIndex == this.plan.size();
+  }
+
+  @Override
+  protected void closeActual()
+  {
+    try {
+      if (this.device != null) {
+        this.device.waitIdle();
+      }
+    } catch (final VulkanException e) {
+      // Nothing we can do about it
+    }
+  }
+
+  @Override
+  protected void startActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.eventLifecycle(INITIALIZED, 0.0, "");
+    this.eventLifecycle(LOADING, 0.0, "");
+
+    final var physicalDevice = context.physicalDevice();
+    final var resources = this.resources();
+
+    final var experimentDevice =
+      ExperimentDevice.create(
+        resources,
+        physicalDevice,
+        ExperimentDeviceConfiguration.graphicsOnly()
+      );
+
+    this.trackMemory(experimentDevice.allocator());
+
+    this.device = experimentDevice.device();
+    this.vmaAllocator = experimentDevice.allocator();
+    this.runner = ExperimentCommandRunner.create(resources, experimentDevice);
+    this.timer = ExperimentGPUTimer.create(resources, experimentDevice, 2);
+
+    /*
+     * Configurations that exceed the device's limits are reported and left
+     * out of the sweep, rather than failing the experiment.
+     */
+
+    final var limits = physicalDevice.properties().limits();
+    final var maxInvocations = limits.maxComputeWorkGroupInvocations();
+    final var maxShared = limits.maxComputeSharedMemorySize();
+
+    final var supported = new ArrayList<ExperimentWorkgroupConfiguration>();
+    for (final var configuration : this.configurations) {
+      if (configuration.invocations() > maxInvocations
+          || configuration.sharedBytes() > maxShared) {
+        this.eventLifecycle(
+          LOADING,
+          0.0,
+          String.format(
+            "Skipping %s: exceeds device limits",
+            configuration.describe())
+        );
+      } else {
+        supported.add(configuration);
+      }
+    }
+
+    if (supported.isEmpty()) {
+      throw new IllegalStateException(
+        "The device supports none of the requested configurations");
+    }
+
+    this.createLayout();
+    this.createPipelines(supported);
+    this.plan = List.copyOf(supported);
+
+    this.reconfigureForSize(context.width(), context.height());
+
+    this.eventLifecycle(LOADING, 1.0, "");
+    this.eventLifecycle(
+      STARTED,
+      1.0,
+      this.timer.isSupported()
+        ? "Timing with GPU timestamps"
+        : "GPU timestamps unsupported; timing on the CPU"
+    );
+  }
+
+  private void createLayout()
+    throws VulkanException
+  {
+    final var resources = this.resources();
+
+    final var setLayout =
+      resources.add(
+        this.device.createDescriptorSetLayout(
+          VulkanDescriptorSetLayoutCreateInfo.builder()
+            .addBindings(
+              VulkanDescriptorSetLayoutBinding.builder()
+                .setBinding(0)
+                .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+                .setDescriptorCount(1)
+                .addStageFlags(VK_SHADER_STAGE_COMPUTE_BIT)
+                .build())
+            .build())
+      );
+
+    this.pipelineLayout =
+      resources.add(
+        this.device.createPipelineLayout(
+          VulkanPipelineLayoutCreateInfo.builder()
+            .addSetLayouts(setLayout)
+            .addPushConstantRanges(
+              VulkanPushConstantRange.of(
+                Set.of(VK_SHADER_STAGE_COMPUTE_BIT), 0, 16))
+            .build())
+      );
+
+    final var pool =
+      resources.add(
+        this.device.createDescriptorPool(
+          VulkanDescriptorPoolCreateInfo.builder()
+            .setMaxSets(1)
+            .addPoolSizes(
+              VulkanDescriptorPoolSize.of(
+                VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, 1))
+            .build())
+      );
+
+    this.descriptors =
+      this.device.allocateDescriptorSets(
+        VulkanDescriptorSetAllocateInfo.builder()
+          .setDescriptorPool(pool)
+          .addSetLayouts(setLayout)
+          .build()
+      ).get(0);
+  }
+
+  private void createPipelines(
+    final List<ExperimentWorkgroupConfiguration> supported)
+    throws VulkanException
+  {
+    final var resources = this.resources();
+    final var module =
+      ExperimentShaders.createModule(
+        resources, this.device, "mandelbrot.comp");
+
+    final var created = new ArrayList<VulkanPipelineType>(supported.size());
+    for (var index = 0; index < supported.size(); ++index) {
+      final var configuration = supported.get(index);
+      this.eventLifecycle(
+        LOADING,
+        (double) index / (double) supported.size(),
+        String.format("Creating pipeline for %s", configuration.describe())
+      );
+
+      created.add(
+        ExperimentPipelines.createCompute(
+          resources,
+          this.device,
+          this.pipelineLayout,
+          module,
+          List.of(
+            Integer.valueOf(configuration.sizeX()),
+            Integer.valueOf(configuration.sizeY()),
+            Integer.valueOf(configuration.sharedBytes() / 4)
+          )
+        )
+      );
+    }
+    this.pipelines = List.copyOf(created);
+  }
+
+  private void reconfigureForSize(
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    this.frameResources = CloseableCollection.create();
+    this.resources().add(this.frameResources);
+
+    final var size = (long) width * (long) height * 4L;
+
+    final var allocation =
+      this.vmaAllocator.createBuffer(
+        this.frameResources,
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanBufferCreateInfo.builder()
+          .addUsageFlags(VK_BUFFER_USAGE_STORAGE_BUFFER_BIT)
+          .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_SRC_BIT)
+          .setSize(size)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .build()
+      );
+
+    this.pixelBuffer = allocation.result();
+    this.hostBuffer =
+      ExperimentHostBuffer.create(
+        this.frameResources,
+        this.device,
+        this.vmaAllocator,
+        size,
+        Set.of(VK_BUFFER_USAGE_TRANSFER_DST_BIT)
+      );
+    this.hostSegment = MemorySegment.ofByteBuffer(this.hostBuffer.data());
+
+    this.device.updateDescriptorSets(
+      List.of(
+        VulkanWriteDescriptorSet.builder()
+          .setDestinationSet(this.descriptors)
+          .setDestinationBinding(0)
+          .setDestinationArrayElement(0)
+          .setDescriptorCount(1)
+          .setDescriptorType(VK_DESCRIPTOR_TYPE_STORAGE_BUFFER)
+          .addBuffers(VulkanDescriptorBufferInfo.of(this.pixelBuffer, 0L, size))
+          .build()
+      ),
+      List.of()
+    );
+
+    /*
+     * The view is scaled so that the interesting region of the set fits
+     * the output whatever its aspect ratio.
+     */
+
+    final var scale = Math.max(3.0f / (float) width, 2.5f / (float) height);
+    this.pushConstants.putInt(0, width);
+    this.pushConstants.putInt(4, height);
+    this.pushConstants.putInt(8, this.iterations);
+    this.pushConstants.putFloat(12, scale);
+
+    this.stepFrame = 0;
+    this.stepTime = 0L;
+  }
+
+  @Override
+  protected void onSizeChangedActual(
+    final ExperimentContextType context)
+    throws Exception
+  {
+    this.device.waitIdle();
+    this.frameResources.close();
+    this.reconfigureForSize(context.width(), context.height());
+  }
+
+  @Override
+  protected void renderActual(
+    final ExperimentContextType context,
+    final ByteBuffer output)
+    throws Exception
+  {
+    this.renderFrameActual(
+      context,
+      ExperimentFrame.ofByteBuffer(
+        output,
+        context.width(),
+        context.height(),
+        BGRA8_PRE)
+    );
+  }
+
+  @Override
+  protected void renderFrameActual(
+    final ExperimentContextType context,
+    final ExperimentFrame output)
+    throws Exception
+  {
+    final var complete = this.isComplete();
+    final var index = complete ? this.bestIndex : this.planIndex;
+    final var configuration = this.plan.get(index);
+    final var pipeline = this.pipelines.get(index);
+    final var width = context.width();
+    final var height = context.height();
+
+    final var cpuTime =
+      this.runner.runAndWait(commands -> {
+        this.recordDispatch(commands, pipeline, configuration, width, height);
+      });
+
+    final var gpuTime = this.timer.elapsedNanoseconds(0, 1);
+
+    ExperimentFrameCopy.copyFromRGBA8(
+      this.kernels,
+      this.hostSegment,
+      output,
+      true
+    );
+
+    if (complete) {
+      return;
+    }
+
+    ++this.stepFrame;
+    if (this.stepFrame <= WARMUP_FRAMES) {
+      return;
+    }
+
+    this.stepTime += gpuTime.orElse(cpuTime);
+    this.stepGPUTimed = gpuTime.isPresent();
+    if (this.stepFrame < WARMUP_FRAMES + MEASURED_FRAMES) {
+      return;
+    }
+
+    final var result =
+      new ExperimentWorkgroupResult(
+        configuration,
+        (long) width * (long) height,
+        MEASURED_FRAMES,
+        this.stepTime / MEASURED_FRAMES,
+        this.stepGPUTimed
+      );
+
+    this.results.add(result);
+    ++this.planIndex;
+    this.stepFrame = 0;
+    this.stepTime = 0L;
+
+    this.eventLifecycle(
+      LOADING,
+      (double) this.planIndex / (double) this.plan.size(),
+      result.describe()
+    );
+
+    if (this.isComplete()) {
+      final var best =
+        this.results.stream()
+          .max(Comparator.comparingDouble(
+            ExperimentWorkgroupResult::megapixelsPerSecond))
+          .orElseThrow();
+
+      this.bestIndex = this.results.indexOf(best);
+      this.eventLifecycle(
+        RUNNING,
+        1.0,
+        String.format(
+          "Best: %s; %s",
+          best.describe(),
+          this.results.stream()
+            .map(ExperimentWorkgroupResult::describe)
+            .collect(Collectors.joining("; ")))
+      );
+    }
+  }
+
+  private void recordDispatch(
+    final VulkanCommandBufferType commands,
+    final VulkanPipelineType pipeline,
+    final ExperimentWorkgroupConfiguration configuration,
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    final var groupsX =
+      (width + configuration.sizeX() - 1) / configuration.sizeX();
+    final var groupsY =
+      (height + configuration.sizeY() - 1) / configuration.sizeY();
+
+    this.timer.reset(commands);
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT, 0);
+
+    commands.bindPipeline(VK_PIPELINE_BIND_POINT_COMPUTE, pipeline);
+    commands.bindDescriptorSets(
+      VK_PIPELINE_BIND_POINT_COMPUTE,
+      this.pipelineLayout,
+      0,
+      List.of(this.descriptors),
+      List.of()
+    );
+    commands.pushConstants(
+      this.pipelineLayout,
+      Set.of(VK_SHADER_STAGE_COMPUTE_BIT),
+      0,
+      16,
+      this.pushConstants
+    );
+    commands.dispatch(groupsX, groupsY, 1);
+
+    this.timer.timestamp(commands, VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT, 1);
+
+    /*
+     * The copy to host memory happens after the second timestamp so that
+     * it isn't included in the measurement.
+     */
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(
+        VulkanMemoryBarrier.builder()
+          .addSrcAccessMask(VK_ACCESS_SHADER_WRITE_BIT)
+          .addDstAccessMask(VK_ACCESS_TRANSFER_READ_BIT)
+          .build()
+      ),
+      List.of(),
+      List.of()
+    );
+
+    commands.copyBuffer(
+      this.pixelBuffer,
+      this.hostBuffer.buffer(),
+      List.of(VulkanBufferCopy.of(0L, 0L, this.pixelBuffer.size()))
+    );
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_HOST_BIT),
+      Set.of(),
+      List.of(
+        VulkanMemoryBarrier.builder()
+          .addSrcAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+          .addDstAccessMask(VK_ACCESS_HOST_READ_BIT)
+          .build()
+      ),
+      List.of(),
+      List.of()
+    );
+  }
+}
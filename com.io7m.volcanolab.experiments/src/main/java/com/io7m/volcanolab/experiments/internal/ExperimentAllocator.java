@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jcoronado.vma.VMAAllocationInfo;
+import com.io7m.jcoronado.vma.VMAAllocationResult;
+import com.io7m.jcoronado.vma.VMAAllocatorType;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A memory allocator that accounts for the device memory allocated through
+ * it, per memory heap. Every allocation is owned by a resource collection,
+ * and is subtracted from the heap usage when the collection is closed.
+ */
+
+public final class ExperimentAllocator
+{
+  /*
+   * Without VK_EXT_memory_budget, VMA estimates the budget of each heap as
+   * 80% of the heap size, leaving the rest for other processes and the
+   * driver. The same estimate is used here.
+   */
+
+  private static final long BUDGET_PERCENT = 80L;
+
+  private final VMAAllocatorType allocator;
+  private final int[] typeHeaps;
+  private final long[] heapBudgets;
+  private final AtomicLongArray heapUsage;
+
+  private ExperimentAllocator(
+    final VMAAllocatorType inAllocator,
+    final int[] inTypeHeaps,
+    final long[] inHeapBudgets)
+  {
+    this.allocator = inAllocator;
+    this.typeHeaps = inTypeHeaps;
+    this.heapBudgets = inHeapBudgets;
+    this.heapUsage = new AtomicLongArray(inHeapBudgets.length);
+  }
+
+  /**
+   * Create an accounting allocator.
+   *
+   * @param physicalDevice The physical device
+   * @param allocator      The underlying allocator
+   *
+   * @return An allocator
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentAllocator create(
+    final VulkanPhysicalDeviceType physicalDevice,
+    final VMAAllocatorType allocator)
+    throws VulkanException
+  {
+    Objects.requireNonNull(physicalDevice, "physicalDevice");
+    Objects.requireNonNull(allocator, "allocator");
+
+    final var memory = physicalDevice.memory();
+    final var types = memory.types();
+    final var heaps = memory.heaps();
+
+    final var typeHeaps = new int[types.size()];
+    for (var index = 0; index < typeHeaps.length; ++index) {
+      typeHeaps[index] = types.get(index).heapIndex();
+    }
+
+    final var heapBudgets = new long[heaps.size()];
+    for (var index = 0; index < heapBudgets.length; ++index) {
+      heapBudgets[index] = heaps.get(index).size() / 100L * BUDGET_PERCENT;
+    }
+
+    return new ExperimentAllocator(allocator, typeHeaps, heapBudgets);
+  }
+
+  /**
+   * Allocate a buffer. The buffer is registered with the given resource
+   * collection.
+   *
+   * @param resources      The resources that will own the buffer
+   * @param allocationInfo The allocation parameters
+   * @param bufferInfo     The buffer parameters
+   *
+   * @return The allocation
+   *
+   * @throws VulkanException On errors
+   */
+
+  public VMAAllocationResult<VulkanBufferType> createBuffer(
+    final CloseableCollectionType<?> resources,
+    final VMAAllocationCreateInfo allocationInfo,
+    final VulkanBufferCreateInfo bufferInfo)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+
+    final var allocation =
+      this.allocator.createBuffer(allocationInfo, bufferInfo);
+
+    resources.add(allocation.result());
+    this.track(resources, allocation.allocation().info());
+    return allocation;
+  }
+
+  /**
+   * Allocate an image. The image is registered with the given resource
+   * collection.
+   *
+   * @param resources      The resources that will own the image
+   * @param allocationInfo The allocation parameters
+   * @param imageInfo      The image parameters
+   *
+   * @return The allocation
+   *
+   * @throws VulkanException On errors
+   */
+
+  public VMAAllocationResult<VulkanImageType> createImage(
+    final CloseableCollectionType<?> resources,
+    final VMAAllocationCreateInfo allocationInfo,
+    final VulkanImageCreateInfo imageInfo)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+
+    final var allocation =
+      this.allocator.createImage(allocationInfo, imageInfo);
+
+    resources.add(allocation.result());
+    this.track(resources, allocation.allocation().info());
+    return allocation;
+  }
+
+  private void track(
+    final CloseableCollectionType<?> resources,
+    final VMAAllocationInfo info)
+  {
+    final var heap = this.typeHeaps[info.memoryType()];
+    final var size = info.size();
+    this.heapUsage.addAndGet(heap, size);
+    resources.add(() -> this.heapUsage.addAndGet(heap, -size));
+  }
+
+  /**
+   * @return The number of bytes currently allocated from all heaps
+   */
+
+  public long usedBytes()
+  {
+    var total = 0L;
+    for (var index = 0; index < this.heapUsage.length(); ++index) {
+      total += this.heapUsage.get(index);
+    }
+    return total;
+  }
+
+  /**
+   * @return The current usage and budget of each heap
+   */
+
+  public List<ExperimentMemoryHeap> heaps()
+  {
+    final var heaps = new ArrayList<ExperimentMemoryHeap>(
+      this.heapBudgets.length);
+    for (var index = 0; index < this.heapBudgets.length; ++index) {
+      heaps.add(new ExperimentMemoryHeap(
+        index,
+        this.heapUsage.get(index),
+        this.heapBudgets[index]));
+    }
+    return List.copyOf(heaps);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A bar chart drawn into an output frame.</p>
+ *
+ * <p>Bars are drawn left to right in groups, with a gap between each group.
+ * All bars are scaled relative to the largest value. There are no labels;
+ * experiments report the values themselves in lifecycle messages.</p>
+ */
+
+public final class ExperimentBarChart
+{
+  private static final int BACKGROUND = 0xff202020;
+  private static final int AXIS = 0xff808080;
+  private static final int MARGIN = 16;
+
+  private ExperimentBarChart()
+  {
+
+  }
+
+  /**
+   * A single bar.
+   *
+   * @param value The value; negative values are drawn as zero
+   * @param color The color as {@code 0xAARRGGBB}
+   */
+
+  public record Bar(
+    double value,
+    int color)
+  {
+
+  }
+
+  /**
+   * Draw a bar chart covering the whole frame.
+   *
+   * @param kernels   The pixel kernels
+   * @param frame     The frame
+   * @param bars      The bars
+   * @param groupSize The number of bars in each group
+   */
+
+  public static void draw(
+    final VLPixelKernelsType kernels,
+    final ExperimentFrame frame,
+    final List<Bar> bars,
+    final int groupSize)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    Objects.requireNonNull(frame, "frame");
+    Objects.requireNonNull(bars, "bars");
+
+    if (groupSize <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Group size %d must be positive",
+          Integer.valueOf(groupSize))
+      );
+    }
+
+    ExperimentFrameDraw.clear(kernels, frame, BACKGROUND);
+
+    final var chartWidth = frame.width() - (MARGIN * 2);
+    final var chartHeight = frame.height() - (MARGIN * 2);
+    if (chartWidth <= 0 || chartHeight <= 0) {
+      return;
+    }
+
+    final var baseline = MARGIN + chartHeight;
+    ExperimentFrameDraw.fillRectangle(
+      kernels, frame, MARGIN, baseline, chartWidth, 1, AXIS);
+
+    if (bars.isEmpty()) {
+      return;
+    }
+
+    var maximum = 0.0;
+    for (final var bar : bars) {
+      maximum = Math.max(maximum, bar.value);
+    }
+
+    /*
+     * Each group is followed by a gap one bar wide, so a chart of n bars in
+     * groups of g occupies n + ceil(n / g) slots.
+     */
+
+    final var groups = (bars.size() + groupSize - 1) / groupSize;
+    final var slots = bars.size() + groups;
+    final var slotWidth = Math.max(1, chartWidth / slots);
+
+    for (var index = 0; index < bars.size(); ++index) {
+      final var bar = bars.get(index);
+      final var slot = index + (index / groupSize);
+      final var scaled =
+        maximum > 0.0 ? Math.max(0.0, bar.value) / maximum : 0.0;
+      final var barHeight = (int) (scaled * (double) (chartHeight - 1));
+
+      ExperimentFrameDraw.fillRectangle(
+        kernels,
+        frame,
+        MARGIN + (slot * slotWidth),
+        baseline - barHeight,
+        Math.max(1, slotWidth - 1),
+        barHeight,
+        bar.color
+      );
+    }
+  }
+}
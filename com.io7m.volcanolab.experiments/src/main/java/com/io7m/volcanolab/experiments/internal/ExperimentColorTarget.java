@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanAttachmentDescription;
+import com.io7m.jcoronado.api.VulkanAttachmentReference;
+import com.io7m.jcoronado.api.VulkanClearValueColorFloatingPoint;
+import com.io7m.jcoronado.api.VulkanComponentMappingType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent2D;
+import com.io7m.jcoronado.api.VulkanExtent3D;
+import com.io7m.jcoronado.api.VulkanFormat;
+import com.io7m.jcoronado.api.VulkanFramebufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanFramebufferType;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanImageViewCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageViewKind;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanOffset2D;
+import com.io7m.jcoronado.api.VulkanRectangle2D;
+import com.io7m.jcoronado.api.VulkanRenderPassBeginInfo;
+import com.io7m.jcoronado.api.VulkanRenderPassCreateInfo;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanSubpassDescription;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.Objects;
+
+import static com.io7m.jcoronado.api.VulkanAttachmentLoadOp.VK_ATTACHMENT_LOAD_OP_CLEAR;
+import static com.io7m.jcoronado.api.VulkanAttachmentLoadOp.VK_ATTACHMENT_LOAD_OP_DONT_CARE;
+import static com.io7m.jcoronado.api.VulkanAttachmentStoreOp.VK_ATTACHMENT_STORE_OP_DONT_CARE;
+import static com.io7m.jcoronado.api.VulkanAttachmentStoreOp.VK_ATTACHMENT_STORE_OP_STORE;
+import static com.io7m.jcoronado.api.VulkanImageAspectFlag.VK_IMAGE_ASPECT_COLOR_BIT;
+import static com.io7m.jcoronado.api.VulkanImageKind.VK_IMAGE_TYPE_2D;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_COLOR_ATTACHMENT_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_UNDEFINED;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineBindPoint.VK_PIPELINE_BIND_POINT_GRAPHICS;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+
+/**
+ * <p>A single color attachment, and a framebuffer for it, that experiments
+ * render into before reading the results back.</p>
+ *
+ * <p>Render passes created with {@link #createRenderPass(VulkanLogicalDeviceType,
+ * VulkanFormat)} clear the attachment and leave it in the transfer source
+ * layout, ready for {@link ExperimentReadbackImage}.</p>
+ *
+ * @param image       The attachment image
+ * @param framebuffer The framebuffer
+ * @param beginInfo   The information required to begin the render pass
+ * @param width       The width
+ * @param height      The height
+ */
+
+public record ExperimentColorTarget(
+  VulkanImageType image,
+  VulkanFramebufferType framebuffer,
+  VulkanRenderPassBeginInfo beginInfo,
+  int width,
+  int height)
+{
+  /**
+   * <p>A single color attachment, and a framebuffer for it, that experiments
+   * render into before reading the results back.</p>
+   *
+   * @param image       The attachment image
+   * @param framebuffer The framebuffer
+   * @param beginInfo   The information required to begin the render pass
+   * @param width       The width
+   * @param height      The height
+   */
+
+  public ExperimentColorTarget
+  {
+    Objects.requireNonNull(image, "image");
+    Objects.requireNonNull(framebuffer, "framebuffer");
+    Objects.requireNonNull(beginInfo, "beginInfo");
+  }
+
+  /**
+   * Create a render pass with a single color attachment of the given format
+   * and a single subpass. The attachment is cleared on load, and is left in
+   * {@code VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL}.
+   *
+   * @param device The device
+   * @param format The attachment format
+   *
+   * @return A render pass
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VulkanRenderPassType createRenderPass(
+    final VulkanLogicalDeviceType device,
+    final VulkanFormat format)
+    throws VulkanException
+  {
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(format, "format");
+
+    final var colorAttachmentDescription =
+      VulkanAttachmentDescription.builder()
+        .setFinalLayout(VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL)
+        .setFormat(format)
+        .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+        .setLoadOp(VK_ATTACHMENT_LOAD_OP_CLEAR)
+        .setSamples(VK_SAMPLE_COUNT_1_BIT)
+        .setStencilLoadOp(VK_ATTACHMENT_LOAD_OP_DONT_CARE)
+        .setStencilStoreOp(VK_ATTACHMENT_STORE_OP_DONT_CARE)
+        .setStoreOp(VK_ATTACHMENT_STORE_OP_STORE)
+        .build();
+
+    final var colorReference =
+      VulkanAttachmentReference.of(0, VK_IMAGE_LAYOUT_COLOR_ATTACHMENT_OPTIMAL);
+
+    final var subPass =
+      VulkanSubpassDescription.builder()
+        .setPipelineBindPoint(VK_PIPELINE_BIND_POINT_GRAPHICS)
+        .addColorAttachments(colorReference)
+        .build();
+
+    return device.createRenderPass(
+      VulkanRenderPassCreateInfo.builder()
+        .addSubpasses(subPass)
+        .addAttachments(colorAttachmentDescription)
+        .build()
+    );
+  }
+
+  /**
+   * Create a color target. The created objects are registered with the
+   * given resource collection.
+   *
+   * @param resources  The resources
+   * @param device     The device
+   * @param allocator  The allocator
+   * @param renderPass A render pass created with {@link
+   *                   #createRenderPass(VulkanLogicalDeviceType, VulkanFormat)}
+   * @param format     The attachment format, matching the render pass
+   * @param clearColor The clear color
+   * @param width      The width
+   * @param height     The height
+   *
+   * @return A color target
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentColorTarget create(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator,
+    final VulkanRenderPassType renderPass,
+    final VulkanFormat format,
+    final VulkanClearValueColorFloatingPoint clearColor,
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(allocator, "allocator");
+    Objects.requireNonNull(renderPass, "renderPass");
+    Objects.requireNonNull(format, "format");
+    Objects.requireNonNull(clearColor, "clearColor");
+
+    final var imageAllocation =
+      allocator.createImage(
+        resources,
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_SRC_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(width, height, 1))
+          .setFormat(format)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(VK_IMAGE_TILING_OPTIMAL)
+          .build()
+      );
+
+    final var image = imageAllocation.result();
+
+    final var imageView =
+      resources.add(
+        device.createImageView(
+          VulkanImageViewCreateInfo.builder()
+            .setComponents(VulkanComponentMappingType.identity())
+            .setFormat(format)
+            .setImage(image)
+            .setSubresourceRange(
+              VulkanImageSubresourceRange.builder()
+                .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+                .setBaseArrayLayer(0)
+                .setBaseMipLevel(0)
+                .setLayerCount(1)
+                .setLevelCount(1)
+                .build())
+            .setViewType(VulkanImageViewKind.VK_IMAGE_VIEW_TYPE_2D)
+            .build())
+      );
+
+    final var framebuffer =
+      resources.add(
+        device.createFramebuffer(
+          VulkanFramebufferCreateInfo.builder()
+            .setRenderPass(renderPass)
+            .setWidth(width)
+            .setHeight(height)
+            .setLayers(1)
+            .addAttachments(imageView)
+            .build())
+      );
+
+    final var beginInfo =
+      VulkanRenderPassBeginInfo.builder()
+        .addClearValues(clearColor)
+        .setFramebuffer(framebuffer)
+        .setRenderArea(
+          VulkanRectangle2D.of(
+            VulkanOffset2D.of(0, 0),
+            VulkanExtent2D.of(width, height)))
+        .setRenderPass(renderPass)
+        .build();
+
+    return new ExperimentColorTarget(
+      image,
+      framebuffer,
+      beginInfo,
+      width,
+      height
+    );
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanCommandBufferLevel;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanCommandPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanCommandPoolType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanFenceCreateInfo;
+import com.io7m.jcoronado.api.VulkanFenceType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanQueueType;
+import com.io7m.jcoronado.api.VulkanSubmitInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.jcoronado.api.VulkanCommandBufferLevel.VK_COMMAND_BUFFER_LEVEL_PRIMARY;
+import static com.io7m.jcoronado.api.VulkanCommandPoolCreateFlag.VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT;
+
+/**
+ * <p>A command buffer that is recorded, submitted to the graphics queue, and
+ * waited upon, repeatedly.</p>
+ *
+ * <p>This is intended for setup work and for measurements, where each
+ * submission is run in isolation; it is not suitable for pipelining
+ * frames.</p>
+ */
+
+public final class ExperimentCommandRunner
+{
+  /*
+   * Measurements on software implementations can take a long time, so the
+   * fence timeout is generous.
+   */
+
+  private static final long FENCE_TIMEOUT =
+    TimeUnit.SECONDS.toNanos(60L);
+
+  private final VulkanLogicalDeviceType device;
+  private final VulkanQueueType queue;
+  private final VulkanCommandPoolType pool;
+  private final VulkanCommandBufferType commands;
+  private final VulkanFenceType fence;
+
+  private ExperimentCommandRunner(
+    final VulkanLogicalDeviceType inDevice,
+    final VulkanQueueType inQueue,
+    final VulkanCommandPoolType inPool,
+    final VulkanCommandBufferType inCommands,
+    final VulkanFenceType inFence)
+  {
+    this.device =
+      Objects.requireNonNull(inDevice, "device");
+    this.queue =
+      Objects.requireNonNull(inQueue, "queue");
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.commands =
+      Objects.requireNonNull(inCommands, "commands");
+    this.fence =
+      Objects.requireNonNull(inFence, "fence");
+  }
+
+  /**
+   * A function that records commands.
+   */
+
+  public interface RecorderType
+  {
+    /**
+     * Record commands.
+     *
+     * @param commands The command buffer, already begun
+     *
+     * @throws VulkanException On errors
+     */
+
+    void record(VulkanCommandBufferType commands)
+      throws VulkanException;
+  }
+
+  /**
+   * Create a runner on the device's graphics queue. The created objects are
+   * registered with the given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   *
+   * @return A runner
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentCommandRunner create(
+    final CloseableCollectionType<?> resources,
+    final ExperimentDevice device)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    final var logical = device.device();
+    final var queue = device.graphicsQueue();
+
+    final var pool =
+      resources.add(
+        logical.createCommandPool(
+          VulkanCommandPoolCreateInfo.builder()
+            .addFlags(VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT)
+            .setQueueFamilyIndex(queue.queueFamilyIndex())
+            .build())
+      );
+
+    final var commands =
+      resources.add(
+        logical.createCommandBuffer(pool, VK_COMMAND_BUFFER_LEVEL_PRIMARY)
+      );
+
+    final var fence =
+      resources.add(
+        logical.createFence(VulkanFenceCreateInfo.builder().build())
+      );
+
+    return new ExperimentCommandRunner(logical, queue, pool, commands, fence);
+  }
+
+  /**
+   * Record commands, submit them, and wait for them to complete.
+   *
+   * @param recorder The function that records commands
+   *
+   * @return The time in nanoseconds between submission and completion, as
+   * seen by the CPU
+   *
+   * @throws VulkanException On errors
+   */
+
+  public long runAndWait(
+    final RecorderType recorder)
+    throws VulkanException
+  {
+    Objects.requireNonNull(recorder, "recorder");
+
+    this.commands.beginCommandBuffer();
+    recorder.record(this.commands);
+    this.commands.endCommandBuffer();
+    return this.submitAndWait(this.commands);
+  }
+
+  /**
+   * Create a command buffer from the runner's pool. The pool allows
+   * individual command buffers to be reset, so the returned buffer may be
+   * recorded any number of times. The command buffer is registered with
+   * the given resource collection.
+   *
+   * @param resources The resources
+   * @param level     The command buffer level
+   *
+   * @return A command buffer
+   *
+   * @throws VulkanException On errors
+   */
+
+  public VulkanCommandBufferType createCommandBuffer(
+    final CloseableCollectionType<?> resources,
+    final VulkanCommandBufferLevel level)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(level, "level");
+
+    return resources.add(this.device.createCommandBuffer(this.pool, level));
+  }
+
+  /**
+   * Submit an already-recorded primary command buffer, and wait for it to
+   * complete.
+   *
+   * @param buffer The command buffer
+   *
+   * @return The time in nanoseconds between submission and completion, as
+   * seen by the CPU
+   *
+   * @throws VulkanException On errors
+   */
+
+  public long submitAndWait(
+    final VulkanCommandBufferType buffer)
+    throws VulkanException
+  {
+    Objects.requireNonNull(buffer, "buffer");
+
+    final var timeThen = System.nanoTime();
+    this.queue.submit(List.of(
+      VulkanSubmitInfo.builder()
+        .addCommandBuffers(buffer)
+        .build()
+    ), Optional.of(this.fence));
+
+    this.device.waitForFence(this.fence, FENCE_TIMEOUT);
+    final var timeNow = System.nanoTime();
+    this.device.resetFences(List.of(this.fence));
+    return timeNow - timeThen;
+  }
+}
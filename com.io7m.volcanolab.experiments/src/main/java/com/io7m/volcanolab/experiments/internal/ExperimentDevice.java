@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceCreateInfo;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceQueueCreateInfo;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceFeatures;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceFeatures10;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceFeatures12;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.api.VulkanQueueFamilyProperties;
+import com.io7m.jcoronado.api.VulkanQueueType;
+import com.io7m.jcoronado.lwjgl.VMALWJGLAllocatorProvider;
+import com.io7m.jcoronado.vma.VMAAllocatorCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_GRAPHICS_BIT;
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_TRANSFER_BIT;
+
+/**
+ * A logical device, its queues, and a memory allocator, created for the
+ * lifetime of an experiment.
+ *
+ * @param physicalDevice     The physical device
+ * @param device             The logical device
+ * @param graphicsQueue      The graphics queue
+ * @param transferQueue      The transfer-only queue, if one was requested
+ *                           and the device exposes one
+ * @param allocator          The memory allocator, which accounts for the
+ *                           memory allocated through it
+ * @param timelineSemaphores {@code true} if timeline semaphores are enabled
+ * @param multiDrawIndirect  {@code true} if multi-draw indirect is enabled
+ * @param descriptorIndexing {@code true} if runtime descriptor arrays of
+ *                           sampled images are enabled
+ */
+
+public record ExperimentDevice(
+  VulkanPhysicalDeviceType physicalDevice,
+  VulkanLogicalDeviceType device,
+  VulkanQueueType graphicsQueue,
+  Optional<VulkanQueueType> transferQueue,
+  ExperimentAllocator allocator,
+  boolean timelineSemaphores,
+  boolean multiDrawIndirect,
+  boolean descriptorIndexing)
+{
+  /**
+   * A logical device, its queues, and a memory allocator, created for the
+   * lifetime of an experiment.
+   *
+   * @param physicalDevice     The physical device
+   * @param device             The logical device
+   * @param graphicsQueue      The graphics queue
+   * @param transferQueue      The transfer-only queue, if one was requested
+   *                           and the device exposes one
+   * @param allocator          The memory allocator, which accounts for
+   *                           the memory allocated through it
+   * @param timelineSemaphores {@code true} if timeline semaphores are enabled
+   * @param multiDrawIndirect  {@code true} if multi-draw indirect is enabled
+   * @param descriptorIndexing {@code true} if runtime descriptor arrays of
+   *                           sampled images are enabled
+   */
+
+  public ExperimentDevice
+  {
+    Objects.requireNonNull(physicalDevice, "physicalDevice");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(graphicsQueue, "graphicsQueue");
+    Objects.requireNonNull(transferQueue, "transferQueue");
+    Objects.requireNonNull(allocator, "allocator");
+  }
+
+  /**
+   * Create a logical device and allocator. The created objects are
+   * registered with the given resource collection.
+   *
+   * @param resources      The resources
+   * @param physicalDevice The physical device
+   * @param configuration  The device configuration
+   *
+   * @return A device
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentDevice create(
+    final CloseableCollectionType<?> resources,
+    final VulkanPhysicalDeviceType physicalDevice,
+    final ExperimentDeviceConfiguration configuration)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(physicalDevice, "physicalDevice");
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var graphicsFamily =
+      physicalDevice.queueFamilyFindWithFlags(VK_QUEUE_GRAPHICS_BIT)
+        .orElseThrow();
+
+    final Optional<VulkanQueueFamilyProperties> transferFamily;
+    if (configuration.dedicatedTransferQueue()) {
+      transferFamily = findTransferOnlyFamily(physicalDevice);
+    } else {
+      transferFamily = Optional.empty();
+    }
+
+    final var deviceInfoBuilder =
+      VulkanLogicalDeviceCreateInfo.builder();
+
+    deviceInfoBuilder.addQueueCreateInfos(
+      VulkanLogicalDeviceQueueCreateInfo.builder()
+        .setQueueCount(1)
+        .setQueueFamilyIndex(graphicsFamily.queueFamilyIndex())
+        .setQueuePriorities(1.0f)
+        .build()
+    );
+
+    transferFamily.ifPresent(family -> {
+      deviceInfoBuilder.addQueueCreateInfos(
+        VulkanLogicalDeviceQueueCreateInfo.builder()
+          .setQueueCount(1)
+          .setQueueFamilyIndex(family.queueFamilyIndex())
+          .setQueuePriorities(1.0f)
+          .build()
+      );
+    });
+
+    final var timelineSemaphores =
+      configuration.timelineSemaphores()
+      && supportsTimelineSemaphores(physicalDevice);
+
+    final var multiDrawIndirect =
+      configuration.multiDrawIndirect()
+      && supportsMultiDrawIndirect(physicalDevice);
+
+    final var descriptorIndexing =
+      configuration.descriptorIndexing()
+      && supportsDescriptorIndexing(physicalDevice);
+
+    if (timelineSemaphores || multiDrawIndirect || descriptorIndexing) {
+      deviceInfoBuilder.setFeatures(
+        VulkanPhysicalDeviceFeatures.builder()
+          .setFeatures10(
+            VulkanPhysicalDeviceFeatures10.builder()
+              .setMultiDrawIndirect(multiDrawIndirect)
+              .setShaderSampledImageArrayDynamicIndexing(descriptorIndexing)
+              .build())
+          .setFeatures12(
+            VulkanPhysicalDeviceFeatures12.builder()
+              .setTimelineSemaphore(timelineSemaphores)
+              .setRuntimeDescriptorArray(descriptorIndexing)
+              .build())
+          .build()
+      );
+    }
+
+    final var device =
+      resources.add(
+        physicalDevice.createLogicalDevice(deviceInfoBuilder.build())
+      );
+
+    final var graphicsQueue =
+      findQueue(device, graphicsFamily.queueFamilyIndex())
+        .orElseThrow();
+
+    final Optional<VulkanQueueType> transferQueue;
+    if (transferFamily.isPresent()) {
+      transferQueue =
+        findQueue(device, transferFamily.get().queueFamilyIndex());
+    } else {
+      transferQueue = Optional.empty();
+    }
+
+    final var vmaAllocators =
+      VMALWJGLAllocatorProvider.create();
+
+    final var allocator =
+      resources.add(
+        vmaAllocators.createAllocator(
+          VMAAllocatorCreateInfo.builder()
+            .setFrameInUseCount(1)
+            .setLogicalDevice(device)
+            .build()
+        )
+      );
+
+    final var experimentAllocator =
+      ExperimentAllocator.create(physicalDevice, allocator);
+
+    return new ExperimentDevice(
+      physicalDevice,
+      device,
+      graphicsQueue,
+      transferQueue,
+      experimentAllocator,
+      timelineSemaphores,
+      multiDrawIndirect,
+      descriptorIndexing
+    );
+  }
+
+  private static boolean supportsTimelineSemaphores(
+    final VulkanPhysicalDeviceType physicalDevice)
+    throws VulkanException
+  {
+    return physicalDevice.features()
+      .features12()
+      .timelineSemaphore();
+  }
+
+  private static boolean supportsMultiDrawIndirect(
+    final VulkanPhysicalDeviceType physicalDevice)
+    throws VulkanException
+  {
+    return physicalDevice.features()
+      .features10()
+      .multiDrawIndirect();
+  }
+
+  /*
+   * Indexing an array of sampled images with a dynamically uniform index
+   * needs only the core dynamic indexing feature; declaring the array
+   * without a size needs runtime descriptor arrays.
+   */
+
+  private static boolean supportsDescriptorIndexing(
+    final VulkanPhysicalDeviceType physicalDevice)
+    throws VulkanException
+  {
+    final var features = physicalDevice.features();
+    return features.features12().runtimeDescriptorArray()
+           && features.features10().shaderSampledImageArrayDynamicIndexing();
+  }
+
+  private static Optional<VulkanQueueType> findQueue(
+    final VulkanLogicalDeviceType device,
+    final int queueFamilyIndex)
+  {
+    return device.queues()
+      .stream()
+      .filter(queue -> queue.queueFamilyIndex() == queueFamilyIndex)
+      .findFirst();
+  }
+
+  private static Optional<VulkanQueueFamilyProperties> findTransferOnlyFamily(
+    final VulkanPhysicalDeviceType physicalDevice)
+    throws VulkanException
+  {
+    return physicalDevice.queueFamilies()
+      .stream()
+      .filter(family -> {
+        final var flags = family.queueFlags();
+        return flags.contains(VK_QUEUE_TRANSFER_BIT)
+               && !flags.contains(VK_QUEUE_GRAPHICS_BIT)
+               && !flags.contains(VK_QUEUE_COMPUTE_BIT);
+      })
+      .findFirst();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+/**
+ * The configuration of a logical device created for an experiment.
+ *
+ * @param dedicatedTransferQueue {@code true} if a transfer-only queue should
+ *                               be created when the device exposes one
+ * @param timelineSemaphores     {@code true} if timeline semaphores should be
+ *                               enabled when the device supports them
+ * @param multiDrawIndirect      {@code true} if multi-draw indirect should be
+ *                               enabled when the device supports it
+ * @param descriptorIndexing     {@code true} if runtime descriptor arrays
+ *                               should be enabled when the device supports
+ *                               them
+ */
+
+public record ExperimentDeviceConfiguration(
+  boolean dedicatedTransferQueue,
+  boolean timelineSemaphores,
+  boolean multiDrawIndirect,
+  boolean descriptorIndexing)
+{
+  /**
+   * @return A configuration with a single graphics queue
+   */
+
+  public static ExperimentDeviceConfiguration graphicsOnly()
+  {
+    return new ExperimentDeviceConfiguration(false, true, false, false);
+  }
+
+  /**
+   * @param enabled {@code true} if multi-draw indirect should be enabled
+   *
+   * @return This configuration with multi-draw indirect set as given
+   */
+
+  public ExperimentDeviceConfiguration withMultiDrawIndirect(
+    final boolean enabled)
+  {
+    return new ExperimentDeviceConfiguration(
+      this.dedicatedTransferQueue,
+      this.timelineSemaphores,
+      enabled,
+      this.descriptorIndexing
+    );
+  }
+
+  /**
+   * @param enabled {@code true} if runtime descriptor arrays should be enabled
+   *
+   * @return This configuration with descriptor indexing set as given
+   */
+
+  public ExperimentDeviceConfiguration withDescriptorIndexing(
+    final boolean enabled)
+  {
+    return new ExperimentDeviceConfiguration(
+      this.dedicatedTransferQueue,
+      this.timelineSemaphores,
+      this.multiDrawIndirect,
+      enabled
+    );
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A key that identifies a physical device and the driver that exposes it,
+ * used to cache per-device decisions.
+ *
+ * @param name          The device name
+ * @param deviceUUID    The device UUID, if the driver exposes one
+ * @param driverVersion The driver version
+ */
+
+public record ExperimentDeviceKey(
+  String name,
+  Optional<UUID> deviceUUID,
+  long driverVersion)
+{
+  /**
+   * A key that identifies a physical device and the driver that exposes it,
+   * used to cache per-device decisions.
+   *
+   * @param name          The device name
+   * @param deviceUUID    The device UUID, if the driver exposes one
+   * @param driverVersion The driver version
+   */
+
+  public ExperimentDeviceKey
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(deviceUUID, "deviceUUID");
+  }
+
+  /**
+   * Produce a key for the given device.
+   *
+   * @param device The device
+   *
+   * @return A key
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentDeviceKey of(
+    final VulkanPhysicalDeviceType device)
+    throws VulkanException
+  {
+    Objects.requireNonNull(device, "device");
+
+    final var properties = device.properties();
+    return new ExperimentDeviceKey(
+      properties.name(),
+      device.idProperties().map(p -> p.deviceUUID()),
+      properties.driverVersion()
+    );
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.foreign.MemorySegment;
+
+import java.util.Objects;
+
+/**
+ * Functions to copy tightly packed images read back from the GPU into
+ * output frames.
+ */
+
+public final class ExperimentFrameCopy
+{
+  private ExperimentFrameCopy()
+  {
+
+  }
+
+  /**
+   * Copy a tightly packed {@code RGBA8} image the size of {@code target}
+   * into {@code target}, converting to the target's pixel format.
+   *
+   * @param kernels      The pixel kernels
+   * @param source       The source image
+   * @param target       The target frame
+   * @param sourceOpaque {@code true} if every source pixel is known to have
+   *                     an alpha of {@code 1.0}, in which case
+   *                     premultiplication is skipped
+   */
+
+  public static void copyFromRGBA8(
+    final VLPixelKernelsType kernels,
+    final MemorySegment source,
+    final ExperimentFrame target,
+    final boolean sourceOpaque)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(target, "target");
+
+    final var rowBytes = target.rowBytes();
+    final var sourceSize = rowBytes * (long) target.height();
+    if (source.byteSize() < sourceSize) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Source image of %d bytes is too small for a %dx%d frame",
+          Long.valueOf(source.byteSize()),
+          Integer.valueOf(target.width()),
+          Integer.valueOf(target.height()))
+      );
+    }
+
+    switch (target.format()) {
+      case RGBA8 -> {
+        if (target.isTightlyPacked()) {
+          target.memory()
+            .asSlice(0L, sourceSize)
+            .copyFrom(source.asSlice(0L, sourceSize));
+          return;
+        }
+        for (var y = 0; y < target.height(); ++y) {
+          target.row(y).copyFrom(source.asSlice(y * rowBytes, rowBytes));
+        }
+      }
+
+      case BGRA8_PRE -> {
+        /*
+         * Whole-frame kernels are used where the frame fits in a byte buffer;
+         * otherwise the frame is processed a row at a time.
+         */
+
+        if (target.isTightlyPacked() && sourceSize <= Integer.MAX_VALUE) {
+          final var pixels = target.width() * target.height();
+          final var targetBuffer = target.asByteBuffer();
+          kernels.swizzleRB(
+            source.asSlice(0L, sourceSize).asByteBuffer(),
+            0,
+            targetBuffer,
+            0,
+            pixels
+          );
+          if (!sourceOpaque) {
+            kernels.premultiply(targetBuffer, 0, pixels);
+          }
+          return;
+        }
+
+        for (var y = 0; y < target.height(); ++y) {
+          final var targetRow = target.row(y).asByteBuffer();
+          kernels.swizzleRB(
+            source.asSlice(y * rowBytes, rowBytes).asByteBuffer(),
+            0,
+            targetRow,
+            0,
+            target.width()
+          );
+          if (!sourceOpaque) {
+            kernels.premultiply(targetRow, 0, target.width());
+          }
+        }
+      }
+    }
+  }
+}
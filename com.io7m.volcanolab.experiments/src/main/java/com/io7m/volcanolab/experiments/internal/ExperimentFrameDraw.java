@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+
+import java.util.Objects;
+
+/**
+ * Functions to draw simple shapes into output frames on the CPU.
+ */
+
+public final class ExperimentFrameDraw
+{
+  private ExperimentFrameDraw()
+  {
+
+  }
+
+  /**
+   * Convert an opaque {@code 0xAARRGGBB} color to a pixel value in the
+   * given frame's format.
+   *
+   * @param frame The frame
+   * @param color The color
+   *
+   * @return A pixel value suitable for the pixel kernels
+   */
+
+  public static int pixelOf(
+    final ExperimentFrame frame,
+    final int color)
+  {
+    return switch (frame.format()) {
+      case BGRA8_PRE -> color;
+      case RGBA8 -> (color & 0xff00ff00)
+                    | ((color >>> 16) & 0xff)
+                    | ((color & 0xff) << 16);
+    };
+  }
+
+  /**
+   * Fill the whole frame with an opaque color.
+   *
+   * @param kernels The pixel kernels
+   * @param frame   The frame
+   * @param color   The color as {@code 0xAARRGGBB}
+   */
+
+  public static void clear(
+    final VLPixelKernelsType kernels,
+    final ExperimentFrame frame,
+    final int color)
+  {
+    fillRectangle(kernels, frame, 0, 0, frame.width(), frame.height(), color);
+  }
+
+  /**
+   * Fill a rectangle with an opaque color. The rectangle is clipped to the
+   * frame.
+   *
+   * @param kernels The pixel kernels
+   * @param frame   The frame
+   * @param x       The left edge
+   * @param y       The top edge
+   * @param width   The width
+   * @param height  The height
+   * @param color   The color as {@code 0xAARRGGBB}
+   */
+
+  public static void fillRectangle(
+    final VLPixelKernelsType kernels,
+    final ExperimentFrame frame,
+    final int x,
+    final int y,
+    final int width,
+    final int height,
+    final int color)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    Objects.requireNonNull(frame, "frame");
+
+    final var x0 = Math.max(0, x);
+    final var y0 = Math.max(0, y);
+    final var x1 = Math.min(frame.width(), x + width);
+    final var y1 = Math.min(frame.height(), y + height);
+    if (x0 >= x1 || y0 >= y1) {
+      return;
+    }
+
+    final var pixel = pixelOf(frame, color);
+    final var count = x1 - x0;
+    final var bytesPerPixel = frame.format().bytesPerPixel();
+
+    if (frame.byteSize() <= Integer.MAX_VALUE) {
+      final var buffer = frame.asByteBuffer();
+      for (var row = y0; row < y1; ++row) {
+        final var offset = frame.rowOffset(row) + ((long) x0 * bytesPerPixel);
+        kernels.fill(buffer, (int) offset, count, pixel);
+      }
+      return;
+    }
+
+    for (var row = y0; row < y1; ++row) {
+      kernels.fill(frame.row(row).asByteBuffer(), x0 * bytesPerPixel, count, pixel);
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanFenceCreateInfo;
+import com.io7m.jcoronado.api.VulkanFenceStatus;
+import com.io7m.jcoronado.api.VulkanFenceType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanQueueType;
+import com.io7m.jcoronado.api.VulkanSubmitInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Frame synchronization using a ring of binary fences, one per frame in
+ * flight. Waiting on a frame waits on (and resets) the fence of the frame's
+ * slot in the ring. Fences may signal in any order, so the completed frame
+ * counter only advances over a contiguous run of frames whose fences have
+ * been observed to signal; frames that complete early are remembered in
+ * their slot until the frames before them catch up.
+ */
+
+public final class ExperimentFrameSyncFence implements ExperimentFrameSyncType
+{
+  private static final long TIMEOUT = 1_000_000_000L;
+
+  private final VulkanLogicalDeviceType device;
+  private final VulkanFenceType[] fences;
+  private final long[] fenceFrames;
+  private final long[] slotCompleted;
+  private long frameLatest;
+  private long frameCompleted;
+  private long waitTime;
+  private long waits;
+
+  private ExperimentFrameSyncFence(
+    final VulkanLogicalDeviceType inDevice,
+    final VulkanFenceType[] inFences)
+  {
+    this.device = inDevice;
+    this.fences = inFences;
+    this.fenceFrames = new long[inFences.length];
+    this.slotCompleted = new long[inFences.length];
+  }
+
+  /**
+   * Create a fence-based frame synchronization primitive.
+   *
+   * @param resources      The resources that will own the fences
+   * @param device         The device
+   * @param framesInFlight The maximum number of frames in flight
+   *
+   * @return A frame synchronization primitive
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentFrameSyncType create(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final int framesInFlight)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    if (framesInFlight < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Frames in flight %d must be >= 1",
+          Integer.valueOf(framesInFlight)));
+    }
+
+    final var fences = new VulkanFenceType[framesInFlight];
+    for (var index = 0; index < framesInFlight; ++index) {
+      fences[index] =
+        resources.add(device.createFence(VulkanFenceCreateInfo.builder().build()));
+    }
+    return new ExperimentFrameSyncFence(device, fences);
+  }
+
+  @Override
+  public String kind()
+  {
+    return "fence";
+  }
+
+  @Override
+  public long frameBegin()
+    throws VulkanException
+  {
+    final var frame = this.frameLatest + 1L;
+
+    /*
+     * The slot's fence might still be attached to a frame that hasn't been
+     * waited on. It must be waited on before it can be reused.
+     */
+
+    final var slot = this.slotOf(frame);
+    final var occupant = this.fenceFrames[slot];
+    if (occupant != 0L) {
+      this.waitFor(occupant);
+    }
+
+    this.frameLatest = frame;
+    return frame;
+  }
+
+  @Override
+  public void frameSubmit(
+    final VulkanQueueType queue,
+    final long frame,
+    final VulkanSubmitInfo submission)
+    throws VulkanException
+  {
+    final var slot = this.slotOf(frame);
+    this.fenceFrames[slot] = frame;
+    queue.submit(List.of(submission), Optional.of(this.fences[slot]));
+  }
+
+  @Override
+  public boolean isComplete(
+    final long frame)
+    throws VulkanException
+  {
+    if (frame <= this.frameCompleted) {
+      return true;
+    }
+
+    final var slot = this.slotOf(frame);
+    if (this.slotCompleted[slot] >= frame) {
+      return true;
+    }
+    if (this.fenceFrames[slot] != frame) {
+      return false;
+    }
+
+    final var fence = this.fences[slot];
+    if (this.device.getFenceStatus(fence) == VulkanFenceStatus.VK_FENCE_SIGNALLED) {
+      this.markComplete(slot, frame);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void waitFor(
+    final long frame)
+    throws VulkanException
+  {
+    if (frame <= this.frameCompleted) {
+      return;
+    }
+
+    final var slot = this.slotOf(frame);
+    if (this.slotCompleted[slot] >= frame) {
+      return;
+    }
+    if (this.fenceFrames[slot] != frame) {
+      throw new IllegalStateException(
+        String.format(
+          "Frame %d has not been submitted",
+          Long.valueOf(frame)));
+    }
+
+    final var timeThen = System.nanoTime();
+    this.device.waitForFence(this.fences[slot], TIMEOUT);
+    this.markComplete(slot, frame);
+    this.waitTime += System.nanoTime() - timeThen;
+    ++this.waits;
+  }
+
+  private void markComplete(
+    final int slot,
+    final long frame)
+    throws VulkanException
+  {
+    this.device.resetFences(List.of(this.fences[slot]));
+    this.fenceFrames[slot] = 0L;
+    this.slotCompleted[slot] = frame;
+
+    /*
+     * A slot is only reused once its previous frame has completed, so a slot
+     * that has completed a frame at or after the next frame implies that
+     * the next frame itself has completed.
+     */
+
+    while (this.frameCompleted < this.frameLatest) {
+      final var next = this.frameCompleted + 1L;
+      if (this.slotCompleted[this.slotOf(next)] < next) {
+        break;
+      }
+      this.frameCompleted = next;
+    }
+  }
+
+  @Override
+  public long waitTimeNanoseconds()
+  {
+    return this.waitTime;
+  }
+
+  @Override
+  public long waitCount()
+  {
+    return this.waits;
+  }
+
+  private int slotOf(
+    final long frame)
+  {
+    return (int) (frame % (long) this.fences.length);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanQueueType;
+import com.io7m.jcoronado.api.VulkanSemaphoreTimelineCreateInfo;
+import com.io7m.jcoronado.api.VulkanSemaphoreTimelineType;
+import com.io7m.jcoronado.api.VulkanSubmitInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Frame synchronization using a single timeline semaphore whose counter is
+ * the number of the most recently completed frame. The last observed
+ * counter value is cached, so that asking about any frame at or before it is
+ * a single comparison, and the device is only queried for newer frames.
+ * Because a counter value of {@code n} is taken to mean that every frame up
+ * to {@code n} has completed, frames must be submitted in increasing order
+ * and each frame's work must execute after the work of the frame before it
+ * (for example, by submitting every frame to the same queue). Vulkan
+ * additionally requires the values signalled on a timeline semaphore to
+ * strictly increase, so submitting frames out of order is rejected.
+ */
+
+public final class ExperimentFrameSyncTimeline
+  implements ExperimentFrameSyncType
+{
+  private static final long TIMEOUT = 1_000_000_000L;
+
+  private final VulkanLogicalDeviceType device;
+  private final VulkanSemaphoreTimelineType semaphore;
+  private long frameLatest;
+  private long frameSubmitted;
+  private long frameCompleted;
+  private long waitTime;
+  private long waits;
+
+  private ExperimentFrameSyncTimeline(
+    final VulkanLogicalDeviceType inDevice,
+    final VulkanSemaphoreTimelineType inSemaphore)
+  {
+    this.device = inDevice;
+    this.semaphore = inSemaphore;
+  }
+
+  /**
+   * Create a timeline-semaphore-based frame synchronization primitive. The
+   * device must have been created with timeline semaphores enabled.
+   *
+   * @param resources The resources that will own the semaphore
+   * @param device    The device
+   *
+   * @return A frame synchronization primitive
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentFrameSyncType create(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    final var semaphore =
+      resources.add(
+        device.createTimelineSemaphore(
+          VulkanSemaphoreTimelineCreateInfo.builder()
+            .setInitialValue(0L)
+            .build())
+      );
+
+    return new ExperimentFrameSyncTimeline(device, semaphore);
+  }
+
+  @Override
+  public String kind()
+  {
+    return "timeline semaphore";
+  }
+
+  @Override
+  public long frameBegin()
+  {
+    ++this.frameLatest;
+    return this.frameLatest;
+  }
+
+  @Override
+  public void frameSubmit(
+    final VulkanQueueType queue,
+    final long frame,
+    final VulkanSubmitInfo submission)
+    throws VulkanException
+  {
+    if (frame <= this.frameSubmitted) {
+      throw new IllegalStateException(
+        String.format(
+          "Frame %d submitted after frame %d",
+          Long.valueOf(frame),
+          Long.valueOf(this.frameSubmitted)));
+    }
+
+    /*
+     * Binary semaphores signalled by the submission need placeholder values
+     * so that the value list lines up with the semaphore list.
+     */
+
+    final var builder =
+      VulkanSubmitInfo.builder()
+        .from(submission);
+
+    for (var index = 0; index < submission.signalSemaphores().size(); ++index) {
+      builder.addSignalSemaphoreValues(0L);
+    }
+
+    builder.addSignalSemaphores(this.semaphore);
+    builder.addSignalSemaphoreValues(frame);
+    queue.submit(List.of(builder.build()), Optional.empty());
+    this.frameSubmitted = frame;
+  }
+
+  @Override
+  public boolean isComplete(
+    final long frame)
+    throws VulkanException
+  {
+    if (frame <= this.frameCompleted) {
+      return true;
+    }
+
+    this.frameCompleted =
+      Math.max(
+        this.frameCompleted,
+        this.device.getSemaphoreCounterValue(this.semaphore));
+
+    return frame <= this.frameCompleted;
+  }
+
+  @Override
+  public void waitFor(
+    final long frame)
+    throws VulkanException
+  {
+    if (frame <= this.frameCompleted) {
+      return;
+    }
+
+    final var timeThen = System.nanoTime();
+    this.device.waitForTimelineSemaphore(this.semaphore, frame, TIMEOUT);
+    this.frameCompleted = Math.max(this.frameCompleted, frame);
+    this.waitTime += System.nanoTime() - timeThen;
+    ++this.waits;
+  }
+
+  @Override
+  public long waitTimeNanoseconds()
+  {
+    return this.waitTime;
+  }
+
+  @Override
+  public long waitCount()
+  {
+    return this.waits;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanQueueType;
+import com.io7m.jcoronado.api.VulkanSubmitInfo;
+
+/**
+ * A primitive that tracks the completion of numbered frames on the device.
+ * Frame numbers start at {@code 1} and increase monotonically; frame
+ * {@code 0} is always considered complete.
+ */
+
+public interface ExperimentFrameSyncType
+{
+  /**
+   * @return A humanly-readable name for the synchronization mechanism
+   */
+
+  String kind();
+
+  /**
+   * Begin a new frame.
+   *
+   * @return The number of the new frame
+   *
+   * @throws VulkanException On errors
+   */
+
+  long frameBegin()
+    throws VulkanException;
+
+  /**
+   * Submit the final work for the given frame. Completion of the submitted
+   * work marks the frame as complete.
+   *
+   * @param queue      The queue
+   * @param frame      The frame number
+   * @param submission The work
+   *
+   * @throws VulkanException On errors
+   */
+
+  void frameSubmit(
+    VulkanQueueType queue,
+    long frame,
+    VulkanSubmitInfo submission)
+    throws VulkanException;
+
+  /**
+   * @param frame The frame number
+   *
+   * @return {@code true} if the given frame has completed
+   *
+   * @throws VulkanException On errors
+   */
+
+  boolean isComplete(long frame)
+    throws VulkanException;
+
+  /**
+   * Wait for the given frame to complete.
+   *
+   * @param frame The frame number
+   *
+   * @throws VulkanException On errors
+   */
+
+  void waitFor(long frame)
+    throws VulkanException;
+
+  /**
+   * @return The total time spent waiting, in nanoseconds
+   */
+
+  long waitTimeNanoseconds();
+
+  /**
+   * @return The number of waits that actually had to block or query the device
+   */
+
+  long waitCount();
+}
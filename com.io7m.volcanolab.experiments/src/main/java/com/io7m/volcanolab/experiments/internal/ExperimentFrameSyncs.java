@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.util.Objects;
+
+/**
+ * Functions to create frame synchronization primitives.
+ */
+
+public final class ExperimentFrameSyncs
+{
+  private ExperimentFrameSyncs()
+  {
+
+  }
+
+  /**
+   * Create the cheapest frame synchronization primitive that the device
+   * supports: a timeline semaphore if timeline semaphores are enabled,
+   * and a ring of fences otherwise.
+   *
+   * @param resources      The resources that will own the primitive
+   * @param device         The device
+   * @param framesInFlight The maximum number of frames in flight
+   *
+   * @return A frame synchronization primitive
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentFrameSyncType create(
+    final CloseableCollectionType<?> resources,
+    final ExperimentDevice device,
+    final int framesInFlight)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    if (device.timelineSemaphores()) {
+      return ExperimentFrameSyncTimeline.create(resources, device.device());
+    }
+    return ExperimentFrameSyncFence.create(
+      resources, device.device(), framesInFlight);
+  }
+}
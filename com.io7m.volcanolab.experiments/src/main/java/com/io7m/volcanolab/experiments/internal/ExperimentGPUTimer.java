@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanPipelineStageFlag;
+import com.io7m.jcoronado.api.VulkanQueryPoolCreateInfo;
+import com.io7m.jcoronado.api.VulkanQueryPoolType;
+import com.io7m.jcoronado.api.VulkanQueueFamilyProperties;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.io7m.jcoronado.api.VulkanQueryResultFlag.VK_QUERY_RESULT_64_BIT;
+import static com.io7m.jcoronado.api.VulkanQueryResultFlag.VK_QUERY_RESULT_WAIT_BIT;
+import static com.io7m.jcoronado.api.VulkanQueryType.VK_QUERY_TYPE_TIMESTAMP;
+
+/**
+ * <p>A pool of GPU timestamp queries on the graphics queue.</p>
+ *
+ * <p>Not every device supports timestamps on every queue. On devices that
+ * don't, recording timestamps does nothing and no elapsed times are
+ * available; callers are expected to fall back to timing on the CPU.</p>
+ */
+
+public final class ExperimentGPUTimer
+{
+  private final VulkanLogicalDeviceType device;
+  private final Optional<VulkanQueryPoolType> pool;
+  private final int queryCount;
+  private final double nanosecondsPerTick;
+  private final long validMask;
+  private final ByteBuffer results;
+
+  private ExperimentGPUTimer(
+    final VulkanLogicalDeviceType inDevice,
+    final Optional<VulkanQueryPoolType> inPool,
+    final int inQueryCount,
+    final double inNanosecondsPerTick,
+    final long inValidMask)
+  {
+    this.device =
+      Objects.requireNonNull(inDevice, "device");
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.queryCount =
+      inQueryCount;
+    this.nanosecondsPerTick =
+      inNanosecondsPerTick;
+    this.validMask =
+      inValidMask;
+    this.results =
+      ByteBuffer.allocateDirect(2 * 8)
+        .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Create a timer with the given number of queries. The query pool is
+   * registered with the given resource collection.
+   *
+   * @param resources  The resources
+   * @param device     The device
+   * @param queryCount The number of timestamp queries
+   *
+   * @return A timer
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentGPUTimer create(
+    final CloseableCollectionType<?> resources,
+    final ExperimentDevice device,
+    final int queryCount)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    final var physicalDevice =
+      device.physicalDevice();
+    final var familyIndex =
+      device.graphicsQueue().queueFamilyIndex();
+
+    final var validBits =
+      physicalDevice.queueFamilies()
+        .stream()
+        .filter(family -> family.queueFamilyIndex() == familyIndex)
+        .mapToInt(VulkanQueueFamilyProperties::timestampValidBits)
+        .findFirst()
+        .orElse(0);
+
+    final var period =
+      physicalDevice.properties()
+        .limits()
+        .timestampPeriod();
+
+    if (validBits == 0 || period <= 0.0f) {
+      return new ExperimentGPUTimer(
+        device.device(),
+        Optional.empty(),
+        queryCount,
+        0.0,
+        0L
+      );
+    }
+
+    final var pool =
+      resources.add(
+        device.device()
+          .createQueryPool(
+            VulkanQueryPoolCreateInfo.builder()
+              .setQueryType(VK_QUERY_TYPE_TIMESTAMP)
+              .setQueryCount(queryCount)
+              .build()
+          )
+      );
+
+    final var mask =
+      validBits >= 64 ? -1L : (1L << validBits) - 1L;
+
+    return new ExperimentGPUTimer(
+      device.device(),
+      Optional.of(pool),
+      queryCount,
+      period,
+      mask
+    );
+  }
+
+  /**
+   * @return {@code true} if the device supports timestamps
+   */
+
+  public boolean isSupported()
+  {
+    return this.pool.isPresent();
+  }
+
+  /**
+   * Record a reset of all queries. This must be recorded before any
+   * timestamps are written in a command buffer.
+   *
+   * @param commands The command buffer
+   *
+   * @throws VulkanException On errors
+   */
+
+  public void reset(
+    final VulkanCommandBufferType commands)
+    throws VulkanException
+  {
+    if (this.pool.isPresent()) {
+      commands.resetQueryPool(this.pool.get(), 0, this.queryCount);
+    }
+  }
+
+  /**
+   * Record a timestamp write.
+   *
+   * @param commands The command buffer
+   * @param stage    The pipeline stage at which to write the timestamp
+   * @param query    The query index
+   *
+   * @throws VulkanException On errors
+   */
+
+  public void timestamp(
+    final VulkanCommandBufferType commands,
+    final VulkanPipelineStageFlag stage,
+    final int query)
+    throws VulkanException
+  {
+    Objects.checkIndex(query, this.queryCount);
+    if (this.pool.isPresent()) {
+      commands.writeTimestamp(stage, this.pool.get(), query);
+    }
+  }
+
+  /**
+   * Retrieve the time between two timestamps. This waits for both queries
+   * to become available, so it should only be called once the command
+   * buffer that wrote them has been submitted.
+   *
+   * @param queryStart The query holding the start time
+   * @param queryEnd   The query holding the end time
+   *
+   * @return The elapsed time in nanoseconds, if timestamps are supported
+   *
+   * @throws VulkanException On errors
+   */
+
+  public OptionalLong elapsedNanoseconds(
+    final int queryStart,
+    final int queryEnd)
+    throws VulkanException
+  {
+    Objects.checkIndex(queryStart, this.queryCount);
+    Objects.checkIndex(queryEnd, this.queryCount);
+
+    if (this.pool.isEmpty()) {
+      return OptionalLong.empty();
+    }
+
+    final var start = this.read(queryStart);
+    final var end = this.read(queryEnd);
+    final var ticks = (end - start) & this.validMask;
+    return OptionalLong.of((long) ((double) ticks * this.nanosecondsPerTick));
+  }
+
+  private long read(
+    final int query)
+    throws VulkanException
+  {
+    this.results.clear();
+    this.device.getQueryPoolResults(
+      this.pool.orElseThrow(),
+      query,
+      1,
+      this.results,
+      8L,
+      Set.of(VK_QUERY_RESULT_64_BIT, VK_QUERY_RESULT_WAIT_BIT)
+    );
+    return this.results.getLong(0);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanBufferUsageFlag;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_CPU_TO_GPU;
+
+/**
+ * <p>A buffer in host-visible, host-coherent memory that stays mapped for
+ * its whole lifetime.</p>
+ *
+ * <p>Writes through {@link #data()} are visible to the device without
+ * flushing, but the usual rules apply: the host must not write to regions
+ * that commands still in flight are reading.</p>
+ *
+ * @param buffer The buffer
+ * @param data   The mapped contents of the buffer, in native byte order
+ */
+
+public record ExperimentHostBuffer(
+  VulkanBufferType buffer,
+  ByteBuffer data)
+{
+  /**
+   * <p>A buffer in host-visible, host-coherent memory that stays mapped for
+   * its whole lifetime.</p>
+   *
+   * @param buffer The buffer
+   * @param data   The mapped contents of the buffer, in native byte order
+   */
+
+  public ExperimentHostBuffer
+  {
+    Objects.requireNonNull(buffer, "buffer");
+    Objects.requireNonNull(data, "data");
+  }
+
+  /**
+   * Create a mapped buffer. The created objects are registered with the
+   * given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   * @param allocator The allocator
+   * @param size      The size in bytes
+   * @param usage     The buffer usage
+   *
+   * @return A mapped buffer
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentHostBuffer create(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator,
+    final long size,
+    final Set<VulkanBufferUsageFlag> usage)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(allocator, "allocator");
+    Objects.requireNonNull(usage, "usage");
+
+    final var allocation =
+      allocator.createBuffer(
+        resources,
+        VMAAllocationCreateInfo.builder()
+          .setUsage(VMA_MEMORY_USAGE_CPU_TO_GPU)
+          .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)
+          .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_COHERENT_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanBufferCreateInfo.builder()
+          .addAllUsageFlags(usage)
+          .setSize(size)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .build()
+      );
+
+    final var buffer = allocation.result();
+    final var info = allocation.allocation().info();
+
+    final var mapped =
+      resources.add(
+        device.mapMemory(
+          info.deviceMemory().orElseThrow(),
+          info.offset(),
+          info.size(),
+          Set.of()
+        ));
+
+    return new ExperimentHostBuffer(
+      buffer,
+      mapped.asByteBuffer().order(ByteOrder.nativeOrder())
+    );
+  }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanBlendFactor;
+import com.io7m.jcoronado.api.VulkanComputePipelineCreateInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent2D;
+import com.io7m.jcoronado.api.VulkanGraphicsPipelineCreateInfo;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanOffset2D;
+import com.io7m.jcoronado.api.VulkanPipelineColorBlendAttachmentState;
+import com.io7m.jcoronado.api.VulkanPipelineColorBlendStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineInputAssemblyStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineLayoutType;
+import com.io7m.jcoronado.api.VulkanPipelineMultisampleStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineRasterizationStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineShaderStageCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineType;
+import com.io7m.jcoronado.api.VulkanPipelineVertexInputStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanPipelineViewportStateCreateInfo;
+import com.io7m.jcoronado.api.VulkanRectangle2D;
+import com.io7m.jcoronado.api.VulkanRenderPassType;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jcoronado.api.VulkanSpecializationInfo;
+import com.io7m.jcoronado.api.VulkanSpecializationMapEntry;
+import com.io7m.jcoronado.api.VulkanViewport;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.jcoronado.api.VulkanBlendFactor.VK_BLEND_FACTOR_ONE;
+import static com.io7m.jcoronado.api.VulkanBlendFactor.VK_BLEND_FACTOR_ONE_MINUS_SRC_ALPHA;
+import static com.io7m.jcoronado.api.VulkanBlendFactor.VK_BLEND_FACTOR_ZERO;
+import static com.io7m.jcoronado.api.VulkanBlendOp.VK_BLEND_OP_ADD;
+import static com.io7m.jcoronado.api.VulkanColorComponentFlag.VK_COLOR_COMPONENT_A_BIT;
+import static com.io7m.jcoronado.api.VulkanColorComponentFlag.VK_COLOR_COMPONENT_B_BIT;
+import static com.io7m.jcoronado.api.VulkanColorComponentFlag.VK_COLOR_COMPONENT_G_BIT;
+import static com.io7m.jcoronado.api.VulkanColorComponentFlag.VK_COLOR_COMPONENT_R_BIT;
+import static com.io7m.jcoronado.api.VulkanCullModeFlag.VK_CULL_MODE_NONE;
+import static com.io7m.jcoronado.api.VulkanFrontFace.VK_FRONT_FACE_COUNTER_CLOCKWISE;
+import static com.io7m.jcoronado.api.VulkanPolygonMode.VK_POLYGON_MODE_FILL;
+import static com.io7m.jcoronado.api.VulkanPrimitiveTopology.VK_PRIMITIVE_TOPOLOGY_TRIANGLE_LIST;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_FRAGMENT_BIT;
+import static com.io7m.jcoronado.api.VulkanShaderStageFlag.VK_SHADER_STAGE_VERTEX_BIT;
+
+/**
+ * Functions to create pipelines.
+ */
+
+public final class ExperimentPipelines
+{
+  private ExperimentPipelines()
+  {
+
+  }
+
+  /**
+   * Create a compute pipeline whose entry point is {@code main}. The
+   * pipeline is registered with the given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   * @param layout    The pipeline layout
+   * @param module    The compute shader module
+   *
+   * @return A compute pipeline
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VulkanPipelineType createCompute(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final VulkanPipelineLayoutType layout,
+    final VulkanShaderModuleType module)
+    throws VulkanException
+  {
+    return createCompute(resources, device, layout, module, List.of());
+  }
+
+  /**
+   * Create a compute pipeline whose entry point is {@code main}, with the
+   * given {@code uint} specialization constants. The constant at index
+   * {@code i} of the list is supplied for {@code constant_id = i}. The
+   * pipeline is registered with the given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   * @param layout    The pipeline layout
+   * @param module    The compute shader module
+   * @param constants The specialization constants
+   *
+   * @return A compute pipeline
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VulkanPipelineType createCompute(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final VulkanPipelineLayoutType layout,
+    final VulkanShaderModuleType module,
+    final List<Integer> constants)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(layout, "layout");
+    Objects.requireNonNull(module, "module");
+    Objects.requireNonNull(constants, "constants");
+
+    final var stageBuilder =
+      VulkanPipelineShaderStageCreateInfo.builder()
+        .setStage(VK_SHADER_STAGE_COMPUTE_BIT)
+        .setModule(module)
+        .setName("main");
+
+    if (!constants.isEmpty()) {
+      final var data =
+        ByteBuffer.allocateDirect(constants.size() * 4)
+          .order(ByteOrder.nativeOrder());
+      final var specialization = VulkanSpecializationInfo.builder();
+      for (var index = 0; index < constants.size(); ++index) {
+        data.putInt(index * 4, constants.get(index).intValue());
+        specialization.addMapEntries(
+          VulkanSpecializationMapEntry.of(index, index * 4, 4L));
+      }
+      specialization.setData(data);
+      stageBuilder.setSpecializationInfo(specialization.build());
+    }
+
+    final var pipelines =
+      device.createComputePipelines(
+        Optional.empty(),
+        List.of(
+          VulkanComputePipelineCreateInfo.builder()
+            .setLayout(layout)
+            .setStage(stageBuilder.build())
+            .build()
+        )
+      );
+
+    return resources.add(pipelines.get(0));
+  }
+
+  /**
+   * @return A color blend attachment state that replaces the destination
+   */
+
+  public static VulkanPipelineColorBlendAttachmentState blendOpaque()
+  {
+    return blendAttachment(false, VK_BLEND_FACTOR_ONE, VK_BLEND_FACTOR_ZERO);
+  }
+
+  /**
+   * @return A color blend attachment state for premultiplied alpha "over"
+   */
+
+  public static VulkanPipelineColorBlendAttachmentState blendAlpha()
+  {
+    return blendAttachment(
+      true,
+      VK_BLEND_FACTOR_ONE,
+      VK_BLEND_FACTOR_ONE_MINUS_SRC_ALPHA);
+  }
+
+  /**
+   * @return A color blend attachment state that adds to the destination
+   */
+
+  public static VulkanPipelineColorBlendAttachmentState blendAdditive()
+  {
+    return blendAttachment(true, VK_BLEND_FACTOR_ONE, VK_BLEND_FACTOR_ONE);
+  }
+
+  private static VulkanPipelineColorBlendAttachmentState blendAttachment(
+    final boolean enable,
+    final VulkanBlendFactor source,
+    final VulkanBlendFactor target)
+  {
+    return VulkanPipelineColorBlendAttachmentState.builder()
+      .setEnable(enable)
+      .setSrcColorBlendFactor(source)
+      .setDstColorBlendFactor(target)
+      .setColorBlendOp(VK_BLEND_OP_ADD)
+      .setSrcAlphaBlendFactor(source)
+      .setDstAlphaBlendFactor(target)
+      .setAlphaBlendOp(VK_BLEND_OP_ADD)
+      .addColorWriteMask(VK_COLOR_COMPONENT_R_BIT)
+      .addColorWriteMask(VK_COLOR_COMPONENT_G_BIT)
+      .addColorWriteMask(VK_COLOR_COMPONENT_B_BIT)
+      .addColorWriteMask(VK_COLOR_COMPONENT_A_BIT)
+      .build();
+  }
+
+  /**
+   * Create a graphics pipeline for subpass 0 of the given render pass. The
+   * pipeline has no vertex inputs (vertices are expected to be generated in
+   * the vertex shader), draws triangle lists without culling, and has a
+   * fixed viewport covering the given size. The entry point of both shaders
+   * is {@code main}. The pipeline is registered with the given resource
+   * collection.
+   *
+   * @param resources  The resources
+   * @param device     The device
+   * @param layout     The pipeline layout
+   * @param renderPass The render pass
+   * @param vertex     The vertex shader module
+   * @param fragment   The fragment shader module
+   * @param blend      The blend state of the single color attachment
+   * @param width      The viewport width
+   * @param height     The viewport height
+   *
+   * @return A graphics pipeline
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VulkanPipelineType createGraphics(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final VulkanPipelineLayoutType layout,
+    final VulkanRenderPassType renderPass,
+    final VulkanShaderModuleType vertex,
+    final VulkanShaderModuleType fragment,
+    final VulkanPipelineColorBlendAttachmentState blend,
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(layout, "layout");
+    Objects.requireNonNull(renderPass, "renderPass");
+    Objects.requireNonNull(vertex, "vertex");
+    Objects.requireNonNull(fragment, "fragment");
+    Objects.requireNonNull(blend, "blend");
+
+    final var viewport =
+      VulkanViewport.builder()
+        .setX(0.0f)
+        .setY(0.0f)
+        .setWidth((float) width)
+        .setHeight((float) height)
+        .setMinDepth(0.0f)
+        .setMaxDepth(1.0f)
+        .build();
+
+    final var scissor =
+      VulkanRectangle2D.of(
+        VulkanOffset2D.of(0, 0),
+        VulkanExtent2D.of(width, height)
+      );
+
+    final var createInfo =
+      VulkanGraphicsPipelineCreateInfo.builder()
+        .addStages(
+          VulkanPipelineShaderStageCreateInfo.builder()
+            .setStage(VK_SHADER_STAGE_VERTEX_BIT)
+            .setModule(vertex)
+            .setName("main")
+            .build())
+        .addStages(
+          VulkanPipelineShaderStageCreateInfo.builder()
+            .setStage(VK_SHADER_STAGE_FRAGMENT_BIT)
+            .setModule(fragment)
+            .setName("main")
+            .build())
+        .setVertexInputState(
+          VulkanPipelineVertexInputStateCreateInfo.builder()
+            .build())
+        .setInputAssemblyState(
+          VulkanPipelineInputAssemblyStateCreateInfo.builder()
+            .setTopology(VK_PRIMITIVE_TOPOLOGY_TRIANGLE_LIST)
+            .setPrimitiveRestartEnable(false)
+            .build())
+        .setViewportState(
+          VulkanPipelineViewportStateCreateInfo.builder()
+            .addViewports(viewport)
+            .addScissors(scissor)
+            .build())
+        .setRasterizationState(
+          VulkanPipelineRasterizationStateCreateInfo.builder()
+            .setPolygonMode(VK_POLYGON_MODE_FILL)
+            .addCullMode(VK_CULL_MODE_NONE)
+            .setFrontFace(VK_FRONT_FACE_COUNTER_CLOCKWISE)
+            .setLineWidth(1.0f)
+            .build())
+        .setMultisampleState(
+          VulkanPipelineMultisampleStateCreateInfo.builder()
+            .setRasterizationSamples(VK_SAMPLE_COUNT_1_BIT)
+            .build())
+        .setColorBlendState(
+          VulkanPipelineColorBlendStateCreateInfo.builder()
+            .addAttachments(blend)
+            .build())
+        .setLayout(layout)
+        .setRenderPass(renderPass)
+        .setSubpass(0)
+        .build();
+
+    final var pipelines =
+      device.createGraphicsPipelines(Optional.empty(), List.of(createInfo));
+
+    return resources.add(pipelines.get(0));
+  }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A software triangle rasterizer. The output image is divided into square
+ * tiles, triangles are binned into the tiles they overlap, and the tiles are
+ * rendered in parallel on a fork/join pool. Each pixel is owned by exactly
+ * one tile, and triangles are drawn in submission order within each tile,
+ * so the output is identical regardless of the degree of parallelism.
+ */
+
+public final class ExperimentRasterizer
+{
+  /**
+   * The width and height of tiles, in pixels.
+   */
+
+  public static final int TILE_SIZE = 32;
+
+  private static final int TILES_PER_TASK = 4;
+  private static final int BACKGROUND = 0xff202020;
+
+  private final ForkJoinPool pool;
+  private final int triangleCount;
+  private final float[] centerX;
+  private final float[] centerY;
+  private final float[] offsets;
+  private final int[] colors;
+  private final float[] screen;
+  private int[] tileStarts;
+  private int[] tileTriangles;
+  private int tilesX;
+  private int tilesY;
+
+  /**
+   * Create a rasterizer with a deterministic, pseudo-random triangle
+   * workload.
+   *
+   * @param inPool          The pool on which tiles are rendered
+   * @param inTriangleCount The number of triangles
+   * @param seed            The seed used to generate triangles
+   */
+
+  public ExperimentRasterizer(
+    final ForkJoinPool inPool,
+    final int inTriangleCount,
+    final long seed)
+  {
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+
+    if (inTriangleCount < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Triangle count %d must be >= 0",
+          Integer.valueOf(inTriangleCount)));
+    }
+
+    this.triangleCount = inTriangleCount;
+    this.centerX = new float[inTriangleCount];
+    this.centerY = new float[inTriangleCount];
+    this.offsets = new float[inTriangleCount * 6];
+    this.colors = new int[inTriangleCount];
+    this.screen = new float[inTriangleCount * 6];
+    this.tileStarts = new int[1];
+    this.tileTriangles = new int[0];
+
+    final var random = new SplittableRandom(seed);
+    for (var index = 0; index < inTriangleCount; ++index) {
+      this.centerX[index] = (float) random.nextDouble();
+      this.centerY[index] = (float) random.nextDouble();
+
+      final var radius = (float) random.nextDouble(0.005, 0.06);
+      final var angle = random.nextDouble(0.0, Math.PI * 2.0);
+      for (var vertex = 0; vertex < 3; ++vertex) {
+        final var theta = angle + (double) vertex * (Math.PI * 2.0 / 3.0);
+        this.offsets[index * 6 + vertex * 2] =
+          (float) (Math.cos(theta) * radius);
+        this.offsets[index * 6 + vertex * 2 + 1] =
+          (float) (Math.sin(theta) * radius);
+      }
+
+      this.colors[index] = 0xff000000 | random.nextInt(0x1000000);
+    }
+  }
+
+  /**
+   * @return The number of triangles
+   */
+
+  public int triangleCount()
+  {
+    return this.triangleCount;
+  }
+
+  /**
+   * @return The number of tiles used by the most recent frame
+   */
+
+  public int tileCount()
+  {
+    return this.tilesX * this.tilesY;
+  }
+
+  /**
+   * Render a frame. Triangles are rotated about their centers by the given
+   * angle.
+   *
+   * @param angle  The rotation angle, in radians
+   * @param width  The output width
+   * @param height The output height
+   * @param output The output buffer, in BGRA order
+   */
+
+  public void render(
+    final double angle,
+    final int width,
+    final int height,
+    final ByteBuffer output)
+  {
+    Objects.requireNonNull(output, "output");
+
+    this.transform(angle, width, height);
+    this.bin(width, height);
+
+    final var target =
+      output.duplicate()
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+    this.pool.invoke(
+      new TileRange(this, target, width, height, 0, this.tileCount()));
+  }
+
+  private void transform(
+    final double angle,
+    final int width,
+    final int height)
+  {
+    final var scale = (float) Math.min(width, height);
+    final var cos = (float) Math.cos(angle);
+    final var sin = (float) Math.sin(angle);
+
+    for (var index = 0; index < this.triangleCount; ++index) {
+      final var cx = this.centerX[index] * (float) width;
+      final var cy = this.centerY[index] * (float) height;
+      for (var vertex = 0; vertex < 3; ++vertex) {
+        final var base = index * 6 + vertex * 2;
+        final var ox = this.offsets[base];
+        final var oy = this.offsets[base + 1];
+        this.screen[base] = cx + (ox * cos - oy * sin) * scale;
+        this.screen[base + 1] = cy + (ox * sin + oy * cos) * scale;
+      }
+    }
+  }
+
+  private void bin(
+    final int width,
+    final int height)
+  {
+    this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+    this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+    final var tiles = this.tilesX * this.tilesY;
+    if (this.tileStarts.length != tiles + 1) {
+      this.tileStarts = new int[tiles + 1];
+    } else {
+      Arrays.fill(this.tileStarts, 0);
+    }
+
+    /*
+     * Count the triangles in each tile, convert the counts to offsets, and
+     * then fill in the triangle indices. Filling in the indices in
+     * triangle order keeps the per-tile order equal to submission order.
+     */
+
+    final var bounds = new int[4];
+    for (var index = 0; index < this.triangleCount; ++index) {
+      if (!this.tileBounds(index, width, height, bounds)) {
+        continue;
+      }
+      for (var ty = bounds[1]; ty <= bounds[3]; ++ty) {
+        for (var tx = bounds[0]; tx <= bounds[2]; ++tx) {
+          ++this.tileStarts[ty * this.tilesX + tx + 1];
+        }
+      }
+    }
+
+    for (var tile = 0; tile < tiles; ++tile) {
+      this.tileStarts[tile + 1] += this.tileStarts[tile];
+    }
+
+    final var total = this.tileStarts[tiles];
+    if (this.tileTriangles.length < total) {
+      this.tileTriangles = new int[total];
+    }
+
+    final var cursors = Arrays.copyOf(this.tileStarts, tiles);
+    for (var index = 0; index < this.triangleCount; ++index) {
+      if (!this.tileBounds(index, width, height, bounds)) {
+        continue;
+      }
+      for (var ty = bounds[1]; ty <= bounds[3]; ++ty) {
+        for (var tx = bounds[0]; tx <= bounds[2]; ++tx) {
+          final var tile = ty * this.tilesX + tx;
+          this.tileTriangles[cursors[tile]] = index;
+          ++cursors[tile];
+        }
+      }
+    }
+  }
+
+  private boolean tileBounds(
+    final int index,
+    final int width,
+    final int height,
+    final int[] bounds)
+  {
+    final var base = index * 6;
+    final var s = this.screen;
+    final var minX = Math.min(s[base], Math.min(s[base + 2], s[base + 4]));
+    final var maxX = Math.max(s[base], Math.max(s[base + 2], s[base + 4]));
+    final var minY = Math.min(s[base + 1], Math.min(s[base + 3], s[base + 5]));
+    final var maxY = Math.max(s[base + 1], Math.max(s[base + 3], s[base + 5]));
+
+    if (maxX < 0.0f || maxY < 0.0f || minX >= width || minY >= height) {
+      return false;
+    }
+
+    bounds[0] = Math.max(0, (int) minX) / TILE_SIZE;
+    bounds[1] = Math.max(0, (int) minY) / TILE_SIZE;
+    bounds[2] = Math.min(width - 1, (int) maxX) / TILE_SIZE;
+    bounds[3] = Math.min(height - 1, (int) maxY) / TILE_SIZE;
+    return true;
+  }
+
+  private void renderTile(
+    final ByteBuffer target,
+    final int width,
+    final int height,
+    final int tile)
+  {
+    final var tileX0 = (tile % this.tilesX) * TILE_SIZE;
+    final var tileY0 = (tile / this.tilesX) * TILE_SIZE;
+    final var tileX1 = Math.min(width, tileX0 + TILE_SIZE);
+    final var tileY1 = Math.min(height, tileY0 + TILE_SIZE);
+
+    for (var y = tileY0; y < tileY1; ++y) {
+      final var row = y * width;
+      for (var x = tileX0; x < tileX1; ++x) {
+        target.putInt((row + x) * 4, BACKGROUND);
+      }
+    }
+
+    final var s = this.screen;
+    final var end = this.tileStarts[tile + 1];
+    for (var cursor = this.tileStarts[tile]; cursor < end; ++cursor) {
+      final var index = this.tileTriangles[cursor];
+      final var base = index * 6;
+
+      var ax = s[base];
+      var ay = s[base + 1];
+      var bx = s[base + 2];
+      var by = s[base + 3];
+      final var cx = s[base + 4];
+      final var cy = s[base + 5];
+
+      /*
+       * Normalize the winding so that all edge functions are positive
+       * inside the triangle.
+       */
+
+      final var area = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+      if (area == 0.0f) {
+        continue;
+      }
+      if (area < 0.0f) {
+        final var tx = ax;
+        final var ty = ay;
+        ax = bx;
+        ay = by;
+        bx = tx;
+        by = ty;
+      }
+
+      final var minX = Math.max(tileX0, (int) Math.min(ax, Math.min(bx, cx)));
+      final var maxX = Math.min(tileX1 - 1, (int) Math.max(ax, Math.max(bx, cx)));
+      final var minY = Math.max(tileY0, (int) Math.min(ay, Math.min(by, cy)));
+      final var maxY = Math.min(tileY1 - 1, (int) Math.max(ay, Math.max(by, cy)));
+      final var color = this.colors[index];
+
+      for (var y = minY; y <= maxY; ++y) {
+        final var py = (float) y + 0.5f;
+        final var row = y * width;
+        for (var x = minX; x <= maxX; ++x) {
+          final var px = (float) x + 0.5f;
+          final var e0 = (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+          final var e1 = (cx - bx) * (py - by) - (cy - by) * (px - bx);
+          final var e2 = (ax - cx) * (py - cy) - (ay - cy) * (px - cx);
+          if (e0 >= 0.0f && e1 >= 0.0f && e2 >= 0.0f) {
+            target.putInt((row + x) * 4, color);
+          }
+        }
+      }
+    }
+  }
+
+  private static final class TileRange extends RecursiveAction
+  {
+    private final ExperimentRasterizer rasterizer;
+    private final ByteBuffer target;
+    private final int width;
+    private final int height;
+    private final int tileLow;
+    private final int tileHigh;
+
+    TileRange(
+      final ExperimentRasterizer inRasterizer,
+      final ByteBuffer inTarget,
+      final int inWidth,
+      final int inHeight,
+      final int inTileLow,
+      final int inTileHigh)
+    {
+      this.rasterizer = inRasterizer;
+      this.target = inTarget;
+      this.width = inWidth;
+      this.height = inHeight;
+      this.tileLow = inTileLow;
+      this.tileHigh = inTileHigh;
+    }
+
+    @Override
+    protected void compute()
+    {
+      final var count = this.tileHigh - this.tileLow;
+      if (count <= TILES_PER_TASK) {
+        for (var tile = this.tileLow; tile < this.tileHigh; ++tile) {
+          this.rasterizer.renderTile(this.target, this.width, this.height, tile);
+        }
+        return;
+      }
+
+      final var middle = this.tileLow + count / 2;
+      invokeAll(
+        new TileRange(
+          this.rasterizer,
+          this.target,
+          this.width,
+          this.height,
+          this.tileLow,
+          middle),
+        new TileRange(
+          this.rasterizer,
+          this.target,
+          this.width,
+          this.height,
+          middle,
+          this.tileHigh)
+      );
+    }
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanAccessFlag;
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanBufferImageCopy;
+import com.io7m.jcoronado.api.VulkanBufferType;
+import com.io7m.jcoronado.api.VulkanCommandBufferType;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanExtent3D;
+import com.io7m.jcoronado.api.VulkanImageBlit;
+import com.io7m.jcoronado.api.VulkanImageCreateInfo;
+import com.io7m.jcoronado.api.VulkanImageLayout;
+import com.io7m.jcoronado.api.VulkanImageMemoryBarrier;
+import com.io7m.jcoronado.api.VulkanImageSubresourceLayers;
+import com.io7m.jcoronado.api.VulkanImageSubresourceRange;
+import com.io7m.jcoronado.api.VulkanImageType;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanOffset3D;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jcoronado.vma.VMAAllocationInfo;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.foreign.MemorySegment;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_READ_BIT;
+import static com.io7m.jcoronado.api.VulkanAccessFlag.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanFilter.VK_FILTER_NEAREST;
+import static com.io7m.jcoronado.api.VulkanFormat.VK_FORMAT_R8G8B8A8_UNORM;
+import static com.io7m.jcoronado.api.VulkanImageAspectFlag.VK_IMAGE_ASPECT_COLOR_BIT;
+import static com.io7m.jcoronado.api.VulkanImageKind.VK_IMAGE_TYPE_2D;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageLayout.VK_IMAGE_LAYOUT_UNDEFINED;
+import static com.io7m.jcoronado.api.VulkanImageTiling.VK_IMAGE_TILING_OPTIMAL;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanImageUsageFlag.VK_IMAGE_USAGE_TRANSFER_SRC_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
+import static com.io7m.jcoronado.api.VulkanPipelineStageFlag.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static com.io7m.jcoronado.api.VulkanSampleCountFlag.VK_SAMPLE_COUNT_1_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_ONLY;
+
+/**
+ * <p>An RGBA8 image and a host-visible buffer used to read back images of
+ * arbitrary color formats.</p>
+ *
+ * <p>Experiments that render into attachments of formats other than RGBA8
+ * blit their attachment into the image (converting the format), which is
+ * then copied into the buffer. The buffer contents are then copied into
+ * an {@link ExperimentFrame} with {@link ExperimentFrameCopy}.</p>
+ */
+
+public final class ExperimentReadbackImage
+{
+  private final VulkanLogicalDeviceType device;
+  private final ExperimentReadbackStrategy strategy;
+  private final VulkanImageType image;
+  private final VulkanBufferType buffer;
+  private final VMAAllocationInfo bufferInfo;
+  private final MemorySegment bufferSegment;
+  private final VulkanImageSubresourceLayers layers;
+  private final int width;
+  private final int height;
+
+  private ExperimentReadbackImage(
+    final VulkanLogicalDeviceType inDevice,
+    final ExperimentReadbackStrategy inStrategy,
+    final VulkanImageType inImage,
+    final VulkanBufferType inBuffer,
+    final VMAAllocationInfo inBufferInfo,
+    final MemorySegment inBufferSegment,
+    final int inWidth,
+    final int inHeight)
+  {
+    this.device =
+      Objects.requireNonNull(inDevice, "device");
+    this.strategy =
+      Objects.requireNonNull(inStrategy, "strategy");
+    this.image =
+      Objects.requireNonNull(inImage, "image");
+    this.buffer =
+      Objects.requireNonNull(inBuffer, "buffer");
+    this.bufferInfo =
+      Objects.requireNonNull(inBufferInfo, "bufferInfo");
+    this.bufferSegment =
+      Objects.requireNonNull(inBufferSegment, "bufferSegment");
+    this.width =
+      inWidth;
+    this.height =
+      inHeight;
+    this.layers =
+      VulkanImageSubresourceLayers.builder()
+        .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+        .setLayerCount(1)
+        .setBaseArrayLayer(0)
+        .setMipLevel(0)
+        .build();
+  }
+
+  /**
+   * Create a readback image of the given size. The created objects are
+   * registered with the given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   * @param allocator The allocator
+   * @param strategy  The readback strategy
+   * @param width     The width
+   * @param height    The height
+   *
+   * @return A readback image
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentReadbackImage create(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator,
+    final ExperimentReadbackStrategy strategy,
+    final int width,
+    final int height)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(allocator, "allocator");
+    Objects.requireNonNull(strategy, "strategy");
+
+    final var imageAllocation =
+      allocator.createImage(
+        resources,
+        VMAAllocationCreateInfo.builder()
+          .addRequiredFlags(VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT)
+          .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+          .setUsage(VMA_MEMORY_USAGE_GPU_ONLY)
+          .setMemoryTypeBits(0L)
+          .build(),
+        VulkanImageCreateInfo.builder()
+          .addSamples(VK_SAMPLE_COUNT_1_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_SRC_BIT)
+          .addUsage(VK_IMAGE_USAGE_TRANSFER_DST_BIT)
+          .setArrayLayers(1)
+          .setExtent(VulkanExtent3D.of(width, height, 1))
+          .setFormat(VK_FORMAT_R8G8B8A8_UNORM)
+          .setImageType(VK_IMAGE_TYPE_2D)
+          .setInitialLayout(VK_IMAGE_LAYOUT_UNDEFINED)
+          .setMipLevels(1)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .setTiling(VK_IMAGE_TILING_OPTIMAL)
+          .build()
+      );
+
+    final var image = imageAllocation.result();
+
+    final var bufferAllocation =
+      allocator.createBuffer(
+        resources,
+        ExperimentReadbackProbe.allocationCreateInfo(strategy),
+        VulkanBufferCreateInfo.builder()
+          .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_DST_BIT)
+          .setSize((long) width * 4L * (long) height)
+          .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+          .build()
+      );
+
+    final var buffer = bufferAllocation.result();
+    final var bufferInfo = bufferAllocation.allocation().info();
+
+    final var mapped =
+      resources.add(
+        device.mapMemory(
+          bufferInfo.deviceMemory().orElseThrow(),
+          bufferInfo.offset(),
+          bufferInfo.size(),
+          Set.of()
+        ));
+
+    return new ExperimentReadbackImage(
+      device,
+      strategy,
+      image,
+      buffer,
+      bufferInfo,
+      MemorySegment.ofByteBuffer(mapped.asByteBuffer()),
+      width,
+      height
+    );
+  }
+
+  /**
+   * Record commands that blit the whole of {@code source} (which must be
+   * the same size as this image, and must have been made available to
+   * transfer reads) into this image, and then copy this image into the
+   * host-visible buffer.
+   *
+   * @param commands     The command buffer
+   * @param source       The source image
+   * @param sourceLayout The current layout of the source image
+   *
+   * @throws VulkanException On errors
+   */
+
+  public void recordCopyFrom(
+    final VulkanCommandBufferType commands,
+    final VulkanImageType source,
+    final VulkanImageLayout sourceLayout)
+    throws VulkanException
+  {
+    Objects.requireNonNull(commands, "commands");
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(sourceLayout, "sourceLayout");
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(this.barrier(
+        Set.of(),
+        VK_IMAGE_LAYOUT_UNDEFINED,
+        VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL))
+    );
+
+    final var origin = VulkanOffset3D.of(0, 0, 0);
+    final var extent = VulkanOffset3D.of(this.width, this.height, 1);
+    commands.blitImage(
+      source,
+      sourceLayout,
+      this.image,
+      VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+      List.of(
+        VulkanImageBlit.of(
+          this.layers,
+          origin,
+          extent,
+          this.layers,
+          origin,
+          extent)
+      ),
+      VK_FILTER_NEAREST
+    );
+
+    commands.pipelineBarrier(
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(VK_PIPELINE_STAGE_TRANSFER_BIT),
+      Set.of(),
+      List.of(),
+      List.of(),
+      List.of(this.barrier(
+        Set.of(VK_ACCESS_TRANSFER_WRITE_BIT),
+        VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL,
+        VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL))
+    );
+
+    commands.copyImageToBuffer(
+      this.image,
+      VK_IMAGE_LAYOUT_TRANSFER_SRC_OPTIMAL,
+      this.buffer,
+      List.of(
+        VulkanBufferImageCopy.builder()
+          .setBufferImageHeight(0)
+          .setBufferOffset(0L)
+          .setBufferRowLength(0)
+          .setImageExtent(VulkanExtent3D.of(this.width, this.height, 1))
+          .setImageOffset(origin)
+          .setImageSubresource(this.layers)
+          .build()
+      )
+    );
+  }
+
+  private VulkanImageMemoryBarrier barrier(
+    final Set<VulkanAccessFlag> srcAccess,
+    final VulkanImageLayout oldLayout,
+    final VulkanImageLayout newLayout)
+  {
+    return VulkanImageMemoryBarrier.builder()
+      .addAllSrcAccessMask(srcAccess)
+      .addDstAccessMask(VK_ACCESS_TRANSFER_READ_BIT)
+      .addDstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT)
+      .setOldLayout(oldLayout)
+      .setNewLayout(newLayout)
+      .setSrcQueueFamilyIndex(-1)
+      .setDstQueueFamilyIndex(-1)
+      .setImage(this.image)
+      .setSubresourceRange(
+        VulkanImageSubresourceRange.builder()
+          .addAspectMask(VK_IMAGE_ASPECT_COLOR_BIT)
+          .setBaseArrayLayer(0)
+          .setBaseMipLevel(0)
+          .setLayerCount(1)
+          .setLevelCount(1)
+          .build())
+      .build();
+  }
+
+  /**
+   * Copy the buffer contents into a frame. The commands recorded by
+   * {@link #recordCopyFrom(VulkanCommandBufferType, VulkanImageType,
+   * VulkanImageLayout)} must have completed.
+   *
+   * @param kernels The pixel kernels
+   * @param output  The output frame, which must be the same size as this image
+   * @param opaque  {@code true} if every pixel read back is known to be opaque
+   *
+   * @throws VulkanException On errors
+   */
+
+  public void copyTo(
+    final VLPixelKernelsType kernels,
+    final ExperimentFrame output,
+    final boolean opaque)
+    throws VulkanException
+  {
+    ExperimentReadbackProbe.invalidate(
+      this.device,
+      this.strategy,
+      this.bufferInfo
+    );
+
+    ExperimentFrameCopy.copyFromRGBA8(
+      kernels,
+      this.bufferSegment,
+      output,
+      opaque
+    );
+  }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanBufferCreateInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanMappedMemoryRange;
+import com.io7m.jcoronado.api.VulkanMemoryPropertyFlag;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.vma.VMAAllocationCreateInfo;
+import com.io7m.jcoronado.vma.VMAAllocationInfo;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.io7m.jcoronado.api.VulkanBufferUsageFlag.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT;
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT;
+import static com.io7m.jcoronado.api.VulkanSharingMode.VK_SHARING_MODE_EXCLUSIVE;
+import static com.io7m.jcoronado.vma.VMAAllocationCreateFlag.VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT;
+import static com.io7m.jcoronado.vma.VMAMemoryUsage.VMA_MEMORY_USAGE_GPU_TO_CPU;
+
+/**
+ * A probe that times host reads from each host-visible memory type exposed
+ * by a device, and picks the fastest one for readback buffers. Decisions are
+ * cached per device and driver so that the probe runs once per process.
+ */
+
+public final class ExperimentReadbackProbe
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentReadbackProbe.class);
+
+  private static final int PROBE_SIZE = 8 * 1024 * 1024;
+  private static final int PROBE_ITERATIONS = 8;
+
+  private static final ConcurrentHashMap<ExperimentDeviceKey, CompletableFuture<ExperimentReadbackStrategy>> STRATEGIES =
+    new ConcurrentHashMap<>();
+
+  private ExperimentReadbackProbe()
+  {
+
+  }
+
+  /**
+   * Return the readback strategy for the given device, probing the device
+   * if no decision has been cached yet.
+   *
+   * @param physicalDevice The physical device
+   * @param device         The logical device
+   * @param allocator      The allocator
+   *
+   * @return A readback strategy
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static ExperimentReadbackStrategy strategyFor(
+    final VulkanPhysicalDeviceType physicalDevice,
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator)
+    throws VulkanException
+  {
+    Objects.requireNonNull(physicalDevice, "physicalDevice");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(allocator, "allocator");
+
+    final var key = ExperimentDeviceKey.of(physicalDevice);
+
+    /*
+     * The first thread to ask about a device publishes a future for it and
+     * runs the probe; threads asking about the same device at the same time
+     * wait on that future rather than each running their own. The probe
+     * runs outside the map, so that it holds no lock on the map while it
+     * talks to the device. A failed probe is removed again, so that a later
+     * request can retry it.
+     */
+
+    final var created = new CompletableFuture<ExperimentReadbackStrategy>();
+    final var existing = STRATEGIES.putIfAbsent(key, created);
+    if (existing != null) {
+      return await(existing);
+    }
+
+    try {
+      final var strategy = probe(physicalDevice, device, allocator);
+      LOG.info(
+        "readback strategy for {}: {}", key.name(), strategy.describe());
+      created.complete(strategy);
+      return strategy;
+    } catch (final VulkanException | RuntimeException e) {
+      STRATEGIES.remove(key, created);
+      created.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private static ExperimentReadbackStrategy await(
+    final CompletableFuture<ExperimentReadbackStrategy> future)
+    throws VulkanException
+  {
+    try {
+      return future.join();
+    } catch (final CompletionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof VulkanException vulkanException) {
+        throw vulkanException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Produce allocation info for a readback buffer using the given strategy.
+   *
+   * @param strategy The strategy
+   *
+   * @return The allocation info
+   */
+
+  public static VMAAllocationCreateInfo allocationCreateInfo(
+    final ExperimentReadbackStrategy strategy)
+  {
+    Objects.requireNonNull(strategy, "strategy");
+
+    final var memoryTypeBits =
+      strategy.memoryTypeIndex() >= 0
+        ? 1L << strategy.memoryTypeIndex()
+        : 0L;
+
+    return VMAAllocationCreateInfo.builder()
+      .setUsage(VMA_MEMORY_USAGE_GPU_TO_CPU)
+      .addRequiredFlags(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)
+      .addAllRequiredFlags(strategy.memoryFlags())
+      .addFlags(VMA_ALLOCATION_CREATE_DEDICATED_MEMORY_BIT)
+      .setMemoryTypeBits(memoryTypeBits)
+      .build();
+  }
+
+  /**
+   * Invalidate the mapped range of the given allocation if the strategy
+   * requires it. Readback buffers are allocated as dedicated allocations, so
+   * the range covers the whole of the underlying memory object.
+   *
+   * @param device     The logical device
+   * @param strategy   The strategy
+   * @param allocation The allocation
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static void invalidate(
+    final VulkanLogicalDeviceType device,
+    final ExperimentReadbackStrategy strategy,
+    final VMAAllocationInfo allocation)
+    throws VulkanException
+  {
+    if (!strategy.requiresInvalidation()) {
+      return;
+    }
+
+    device.invalidateMappedMemoryRanges(
+      List.of(
+        VulkanMappedMemoryRange.of(
+          allocation.deviceMemory().orElseThrow(),
+          allocation.offset(),
+          allocation.size())
+      )
+    );
+  }
+
+  private static ExperimentReadbackStrategy probe(
+    final VulkanPhysicalDeviceType physicalDevice,
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator)
+    throws VulkanException
+  {
+    final var types =
+      physicalDevice.memory().types();
+
+    ExperimentReadbackStrategy best = null;
+    for (var index = 0; index < types.size(); ++index) {
+      final var flags = types.get(index).flags();
+      if (!flags.contains(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)) {
+        continue;
+      }
+
+      final var measuredOpt =
+        probeMemoryType(device, allocator, index, flags);
+      if (measuredOpt.isEmpty()) {
+        continue;
+      }
+
+      final var measured = measuredOpt.get();
+      LOG.debug("readback probe: {}", measured.describe());
+      if (best == null || measured.bytesPerSecond() > best.bytesPerSecond()) {
+        best = measured;
+      }
+    }
+
+    if (best == null) {
+      final var coherent =
+        types.stream()
+          .map(type -> type.flags())
+          .anyMatch(flags -> {
+            return flags.contains(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT)
+              && flags.contains(VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
+          });
+      return fallback(coherent);
+    }
+    return best;
+  }
+
+  /**
+   * If no memory type could be probed, let the allocator pick a
+   * host-visible type. Coherent memory is only required if the device
+   * offers it; otherwise readback uses non-coherent memory, and mapped
+   * ranges are explicitly invalidated before each read.
+   */
+
+  private static ExperimentReadbackStrategy fallback(
+    final boolean coherent)
+  {
+    if (coherent) {
+      return new ExperimentReadbackStrategy(
+        -1,
+        Set.of(
+          VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT,
+          VK_MEMORY_PROPERTY_HOST_COHERENT_BIT),
+        0.0
+      );
+    }
+
+    return new ExperimentReadbackStrategy(
+      -1,
+      Set.of(VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT),
+      0.0
+    );
+  }
+
+  private static Optional<ExperimentReadbackStrategy> probeMemoryType(
+    final VulkanLogicalDeviceType device,
+    final ExperimentAllocator allocator,
+    final int index,
+    final Set<VulkanMemoryPropertyFlag> flags)
+  {
+    final var candidate =
+      new ExperimentReadbackStrategy(index, flags, 0.0);
+
+    try (var probeResources = CloseableCollection.create()) {
+      final var allocation =
+        allocator.createBuffer(
+          probeResources,
+          allocationCreateInfo(candidate),
+          VulkanBufferCreateInfo.builder()
+            .addUsageFlags(VK_BUFFER_USAGE_TRANSFER_DST_BIT)
+            .setSize(PROBE_SIZE)
+            .setSharingMode(VK_SHARING_MODE_EXCLUSIVE)
+            .build()
+        );
+
+      final var info = allocation.allocation().info();
+      if (info.memoryType() != index) {
+        return Optional.empty();
+      }
+
+      final var mapped =
+        probeResources.add(
+          device.mapMemory(
+            info.deviceMemory().orElseThrow(),
+            info.offset(),
+            info.size(),
+            Set.of()
+          ));
+
+      final var source = mapped.asByteBuffer();
+      final var target = ByteBuffer.allocateDirect(PROBE_SIZE);
+
+      /*
+       * Take the best of a handful of passes so that a single preemption
+       * doesn't penalize an otherwise fast memory type. The invalidation is
+       * part of the measured cost, as it is part of every real readback.
+       */
+
+      var bestTime = Long.MAX_VALUE;
+      for (var iteration = 0; iteration < PROBE_ITERATIONS; ++iteration) {
+        final var timeThen = System.nanoTime();
+        invalidate(device, candidate, info);
+        source.position(0);
+        source.limit(PROBE_SIZE);
+        target.position(0);
+        target.put(source);
+        bestTime = Math.min(bestTime, System.nanoTime() - timeThen);
+      }
+
+      final var seconds = (double) Math.max(1L, bestTime) / 1_000_000_000.0;
+      return Optional.of(
+        new ExperimentReadbackStrategy(
+          index,
+          flags,
+          (double) PROBE_SIZE / seconds)
+      );
+    } catch (final VulkanException | ClosingResourceFailedException e) {
+      LOG.debug("readback probe: memory type {} unusable: ", index, e);
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanMemoryPropertyFlag;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.jcoronado.api.VulkanMemoryPropertyFlag.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT;
+
+/**
+ * A strategy for reading rendered images back to the host.
+ *
+ * @param memoryTypeIndex The index of the memory type used for readback
+ *                        buffers, or {@code -1} if the allocator is free to
+ *                        pick one
+ * @param memoryFlags     The property flags of the chosen memory type
+ * @param bytesPerSecond  The measured host read rate
+ */
+
+public record ExperimentReadbackStrategy(
+  int memoryTypeIndex,
+  Set<VulkanMemoryPropertyFlag> memoryFlags,
+  double bytesPerSecond)
+{
+  /**
+   * A strategy for reading rendered images back to the host.
+   *
+   * @param memoryTypeIndex The index of the memory type used for readback
+   *                        buffers, or {@code -1} if the allocator is free to
+   *                        pick one
+   * @param memoryFlags     The property flags of the chosen memory type
+   * @param bytesPerSecond  The measured host read rate
+   */
+
+  public ExperimentReadbackStrategy
+  {
+    memoryFlags = Set.copyOf(Objects.requireNonNull(memoryFlags, "memoryFlags"));
+  }
+
+  /**
+   * @return {@code true} if mapped ranges must be invalidated before reading
+   */
+
+  public boolean requiresInvalidation()
+  {
+    return !this.memoryFlags.contains(VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
+  }
+
+  /**
+   * @return A humanly-readable description of the strategy
+   */
+
+  public String describe()
+  {
+    final var flagNames =
+      this.memoryFlags.stream()
+        .map(Enum::name)
+        .sorted()
+        .collect(Collectors.joining("|"));
+
+    return String.format(
+      "memory type %d [%s] %.1f MiB/s%s",
+      Integer.valueOf(this.memoryTypeIndex),
+      flagNames,
+      Double.valueOf(this.bytesPerSecond / (1024.0 * 1024.0)),
+      this.requiresInvalidation() ? " (invalidated)" : ""
+    );
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.experiments.internal;
+
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanLogicalDeviceType;
+import com.io7m.jcoronado.api.VulkanShaderModuleCreateInfo;
+import com.io7m.jcoronado.api.VulkanShaderModuleType;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Functions to load the SPIR-V shaders bundled with the experiments.
+ */
+
+public final class ExperimentShaders
+{
+  private ExperimentShaders()
+  {
+
+  }
+
+  /**
+   * Load the SPIR-V binary with the given name, and create a shader module
+   * from it. The module is registered with the given resource collection.
+   *
+   * @param resources The resources
+   * @param device    The device
+   * @param name      The shader name, such as {@code "bandwidth_copy.comp"}
+   *
+   * @return A shader module
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VulkanShaderModuleType createModule(
+    final CloseableCollectionType<?> resources,
+    final VulkanLogicalDeviceType device,
+    final String name)
+    throws VulkanException
+  {
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(device, "device");
+
+    return resources.add(
+      device.createShaderModule(
+        VulkanShaderModuleCreateInfo.builder()
+          .setData(load(name))
+          .build()
+      )
+    );
+  }
+
+  /**
+   * Load the SPIR-V binary with the given name.
+   *
+   * @param name The shader name, such as {@code "bandwidth_copy.comp"}
+   *
+   * @return The shader code in a direct buffer
+   */
+
+  public static ByteBuffer load(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var file = name + ".spv";
+    try (var stream = ExperimentShaders.class.getResourceAsStream(file)) {
+      if (stream == null) {
+        throw new IllegalArgumentException(
+          String.format("No such shader: %s", file));
+      }
+
+      final var bytes = stream.readAllBytes();
+      if (bytes.length % 4 != 0) {
+        throw new IllegalStateException(
+          String.format(
+            "Shader %s has a size (%d) that is not a multiple of 4",
+            file,
+            Integer.valueOf(bytes.length))
+        );
+      }
+
+      final var buffer =
+        ByteBuffer.allocateDirect(bytes.length)
+          .order(ByteOrder.nativeOrder());
+      buffer.put(bytes);
+      buffer.flip();
+      return buffer;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -15,9 +15,20 @@
  */
 
 import com.io7m.volcanolab.experiment.api.ExperimentType;
+import com.io7m.volcanolab.experiments.ExperimentBandwidth;
+import com.io7m.volcanolab.experiments.ExperimentCPURasterizer;
 import com.io7m.volcanolab.experiments.ExperimentClear;
+import com.io7m.volcanolab.experiments.ExperimentClearTransferQueue;
+import com.io7m.volcanolab.experiments.ExperimentCulling;
+import com.io7m.volcanolab.experiments.ExperimentDescriptorBinding;
+import com.io7m.volcanolab.experiments.ExperimentDrawCalls;
+import com.io7m.volcanolab.experiments.ExperimentFillRate;
 import com.io7m.volcanolab.experiments.ExperimentNull;
+import com.io7m.volcanolab.experiments.ExperimentParallelRecording;
 import com.io7m.volcanolab.experiments.ExperimentSlowLoad;
+import com.io7m.volcanolab.experiments.ExperimentTextureStreaming;
+import com.io7m.volcanolab.experiments.ExperimentUniformUpdate;
+import com.io7m.volcanolab.experiments.ExperimentWorkgroupSweep;
 
 /**
  * Vulkan experiments (Experiments)
@@ -34,10 +45,25 @@ module com.io7m.volcanolab.experiments
   requires com.io7m.jcoronado.lwjgl;
   requires com.io7m.jcoronado.vma;
   requires com.io7m.jmulticlose.core;
+  requires com.io7m.volcanolab.pixels;
   requires org.slf4j;
 
   exports com.io7m.volcanolab.experiments;
 
   provides ExperimentType
-    with ExperimentClear, ExperimentNull, ExperimentSlowLoad;
+    with
+      ExperimentBandwidth,
+      ExperimentCPURasterizer,
+      ExperimentClear,
+      ExperimentClearTransferQueue,
+      ExperimentCulling,
+      ExperimentDescriptorBinding,
+      ExperimentDrawCalls,
+      ExperimentFillRate,
+      ExperimentNull,
+      ExperimentParallelRecording,
+      ExperimentSlowLoad,
+      ExperimentTextureStreaming,
+      ExperimentUniformUpdate,
+      ExperimentWorkgroupSweep;
 }
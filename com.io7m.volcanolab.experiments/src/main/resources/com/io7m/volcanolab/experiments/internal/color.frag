@@ -0,0 +1,13 @@
+#version 450
+
+//
+// Write the interpolated vertex color.
+//
+
+layout(location = 0) in vec4 inColor;
+layout(location = 0) out vec4 outColor;
+
+void main()
+{
+  outColor = inColor;
+}
@@ -0,0 +1,16 @@
+#version 450
+
+//
+// Write a constant color.
+//
+
+layout(location = 0) out vec4 color;
+
+layout(push_constant) uniform Parameters {
+  vec4 color;
+} parameters;
+
+void main()
+{
+  color = parameters.color;
+}
@@ -0,0 +1,12 @@
+#version 450
+
+//
+// Generate a single triangle that covers the whole viewport, with no
+// vertex buffers. Draw three vertices.
+//
+
+void main()
+{
+  vec2 position = vec2((gl_VertexIndex << 1) & 2, gl_VertexIndex & 2);
+  gl_Position = vec4((position * 2.0) - 1.0, 0.0, 1.0);
+}
@@ -0,0 +1,30 @@
+#version 450
+
+//
+// Generate one small triangle per group of three vertices, laid out in a
+// grid of columns by rows cells. The cell is derived from the vertex
+// index alone, so draws select their cell with firstVertex and no vertex
+// buffers, instancing, or per-draw state are required.
+//
+
+layout(location = 0) out vec4 color;
+
+layout(push_constant) uniform Parameters {
+  uint columns;
+  uint rows;
+} parameters;
+
+void main()
+{
+  uint vertex = uint(gl_VertexIndex);
+  uint draw   = vertex / 3u;
+  uint corner = vertex % 3u;
+  uint column = draw % parameters.columns;
+  uint row    = draw / parameters.columns;
+
+  vec2 cell = vec2(column + (corner & 1u), row + (corner >> 1u));
+  vec2 size = vec2(parameters.columns, parameters.rows);
+
+  gl_Position = vec4(((cell / size) * 2.0) - 1.0, 0.0, 1.0);
+  color = vec4(float(column) / size.x, float(row) / size.y, 0.5, 1.0);
+}
@@ -0,0 +1,34 @@
+#version 450
+
+//
+// Draw one textured quad per material, in a grid of the given number of
+// columns. Each quad is two triangles generated from the vertex index, so
+// the draws need no vertex buffers.
+//
+
+layout(push_constant) uniform Parameters {
+  uint material;
+  uint columns;
+} parameters;
+
+layout(location = 0) out vec2 uv;
+
+void main()
+{
+  uint vertex = uint(gl_VertexIndex);
+
+  // Vertices 1, 2, and 4 lie on the right edge; 2, 4, and 5 on the top.
+  vec2 corner = vec2(
+    float((0x16u >> vertex) & 1u),
+    float((0x34u >> vertex) & 1u));
+
+  uint column = parameters.material % parameters.columns;
+  uint row    = parameters.material / parameters.columns;
+  float cell  = 2.0 / float(parameters.columns);
+
+  vec2 cellOrigin = vec2(float(column), float(row));
+  vec2 point = ((cellOrigin + corner) * cell) - 1.0;
+
+  gl_Position = vec4(point, 0.0, 1.0);
+  uv = corner;
+}
@@ -0,0 +1,37 @@
+#version 450
+
+#extension GL_EXT_nonuniform_qualifier : require
+
+//
+// Shade a material selected by a push constant from a single descriptor
+// set holding every texture and every material. The index is dynamically
+// uniform, so no nonuniformEXT qualifier is required.
+//
+
+struct Material {
+  vec4 color;
+  uint textureIndex;
+  uint pad0;
+  uint pad1;
+  uint pad2;
+};
+
+layout(push_constant) uniform Parameters {
+  uint material;
+  uint columns;
+} parameters;
+
+layout(set = 0, binding = 0) uniform sampler2D textures[];
+
+layout(std430, set = 0, binding = 1) readonly buffer Materials {
+  Material data[];
+} materials;
+
+layout(location = 0) in vec2 uv;
+layout(location = 0) out vec4 outColor;
+
+void main()
+{
+  Material material = materials.data[parameters.material];
+  outColor = texture(textures[material.textureIndex], uv) * material.color;
+}
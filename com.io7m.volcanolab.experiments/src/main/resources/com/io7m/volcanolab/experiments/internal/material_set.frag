@@ -0,0 +1,20 @@
+#version 450
+
+//
+// Shade a material whose texture and parameters are bound in a descriptor
+// set of their own.
+//
+
+layout(set = 0, binding = 0) uniform sampler2D materialTexture;
+
+layout(std140, set = 0, binding = 1) uniform Material {
+  vec4 color;
+} material;
+
+layout(location = 0) in vec2 uv;
+layout(location = 0) out vec4 outColor;
+
+void main()
+{
+  outColor = texture(materialTexture, uv) * material.color;
+}
@@ -0,0 +1,46 @@
+#version 450
+
+//
+// Draw one small triangle per object. Draw i uses vertices [3i, 3i + 3),
+// so the object is derived from the vertex index alone, and the draws
+// need no vertex buffers or instancing.
+//
+
+struct Object {
+  vec2  position;
+  float size;
+  uint  color;
+};
+
+layout(std430, set = 0, binding = 0) readonly buffer Objects {
+  Object data[];
+} objects;
+
+layout(push_constant) uniform Parameters {
+  vec2 offset;
+  uint count;
+} parameters;
+
+layout(location = 0) out vec4 color;
+
+void main()
+{
+  uint vertex = uint(gl_VertexIndex);
+  uint index  = vertex / 3u;
+  uint corner = vertex % 3u;
+
+  Object object = objects.data[index];
+
+  vec2 point;
+  point.x = corner == 0u ? 0.0 : (corner == 1u ? -0.866 : 0.866);
+  point.y = corner == 0u ? -1.0 : 0.5;
+
+  gl_Position =
+    vec4(object.position + parameters.offset + (point * object.size), 0.0, 1.0);
+
+  color = vec4(
+    float(object.color & 0xffu) / 255.0,
+    float((object.color >> 8u) & 0xffu) / 255.0,
+    float((object.color >> 16u) & 0xffu) / 255.0,
+    1.0);
+}
@@ -0,0 +1,28 @@
+#version 450
+
+//
+// Draw one small triangle per object. The object's transform holds its
+// position in xy and its size in z.
+//
+// Per-object data arrives in push constants.
+//
+
+layout(push_constant) uniform Object {
+  vec4 transform;
+  vec4 color;
+} object;
+
+layout(location = 0) out vec4 color;
+
+void main()
+{
+  uint corner = uint(gl_VertexIndex) % 3u;
+
+  vec2 point;
+  point.x = corner == 0u ? 0.0 : (corner == 1u ? -0.866 : 0.866);
+  point.y = corner == 0u ? -1.0 : 0.5;
+
+  vec4 transform = object.transform;
+  gl_Position = vec4(transform.xy + (point * transform.z), 0.0, 1.0);
+  color = object.color;
+}
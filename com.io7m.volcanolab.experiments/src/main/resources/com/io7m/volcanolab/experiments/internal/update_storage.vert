@@ -0,0 +1,33 @@
+#version 450
+
+//
+// Draw one small triangle per object. The object's transform holds its
+// position in xy and its size in z.
+//
+// Per-object data is read from a storage buffer holding every object,
+// indexed by the draw's first instance.
+//
+
+struct Object {
+  vec4 transform;
+  vec4 color;
+};
+
+layout(std430, set = 0, binding = 0) readonly buffer Objects {
+  Object data[];
+} objects;
+
+layout(location = 0) out vec4 color;
+
+void main()
+{
+  uint corner = uint(gl_VertexIndex) % 3u;
+
+  vec2 point;
+  point.x = corner == 0u ? 0.0 : (corner == 1u ? -0.866 : 0.866);
+  point.y = corner == 0u ? -1.0 : 0.5;
+
+  vec4 transform = objects.data[gl_InstanceIndex].transform;
+  gl_Position = vec4(transform.xy + (point * transform.z), 0.0, 1.0);
+  color = objects.data[gl_InstanceIndex].color;
+}
@@ -18,6 +18,9 @@ package com.io7m.volcanolab.gui.main;
 
 import com.io7m.claypot.core.CLPApplicationConfiguration;
 import com.io7m.claypot.core.Claypot;
+import com.io7m.volcanolab.gui.main.internal.VLCommandBenchmark;
+import com.io7m.volcanolab.gui.main.internal.VLCommandCompare;
+import com.io7m.volcanolab.gui.main.internal.VLCommandSweep;
 import com.io7m.volcanolab.gui.main.internal.VLGUIMainStart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +61,9 @@ public final class VLGUIMain
         .setDocumentationURI(URI.create(
           "https://www.io7m.com/software/volcanolab"))
         .setProgramName("volcanolab")
+        .addCommands(VLCommandBenchmark::new)
+        .addCommands(VLCommandCompare::new)
+        .addCommands(VLCommandSweep::new)
         .build();
 
     final var claypot = Claypot.create(applicationConfiguration);
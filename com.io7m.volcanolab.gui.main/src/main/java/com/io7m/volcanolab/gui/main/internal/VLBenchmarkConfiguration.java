@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The configuration of a benchmark run.
+ *
+ * @param experiment        The name of the experiment
+ * @param device            The name or UUID of the device, or the first
+ *                          device if not specified
+ * @param resolutions       The resolutions at which to run the experiment
+ * @param warmupFrames      The minimum number of warm-up frames
+ * @param warmupFramesLimit The maximum number of warm-up frames, after which
+ *                          measurement begins even if the frame times have
+ *                          not settled
+ * @param measuredFrames    The number of measured frames
+ * @param tolerance         The relative change in median frame time between
+ *                          two consecutive windows below which the frame
+ *                          times are considered to have settled
+ */
+
+public record VLBenchmarkConfiguration(
+  String experiment,
+  Optional<String> device,
+  List<VLBenchmarkResolution> resolutions,
+  int warmupFrames,
+  int warmupFramesLimit,
+  int measuredFrames,
+  double tolerance)
+{
+  /**
+   * The configuration of a benchmark run.
+   *
+   * @param experiment        The name of the experiment
+   * @param device            The name or UUID of the device, or the first
+   *                          device if not specified
+   * @param resolutions       The resolutions at which to run the experiment
+   * @param warmupFrames      The minimum number of warm-up frames
+   * @param warmupFramesLimit The maximum number of warm-up frames, after
+   *                          which measurement begins even if the frame
+   *                          times have not settled
+   * @param measuredFrames    The number of measured frames
+   * @param tolerance         The relative change in median frame time
+   *                          between two consecutive windows below which the
+   *                          frame times are considered to have settled
+   */
+
+  public VLBenchmarkConfiguration
+  {
+    Objects.requireNonNull(experiment, "experiment");
+    Objects.requireNonNull(device, "device");
+    resolutions = List.copyOf(resolutions);
+
+    if (resolutions.isEmpty()) {
+      throw new IllegalArgumentException("At least one resolution is required");
+    }
+    if (warmupFrames < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Warm-up frames %d must be non-negative",
+          Integer.valueOf(warmupFrames))
+      );
+    }
+    if (warmupFramesLimit < warmupFrames) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Warm-up frame limit %d must be at least %d",
+          Integer.valueOf(warmupFramesLimit),
+          Integer.valueOf(warmupFrames))
+      );
+    }
+    if (measuredFrames <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Measured frames %d must be positive",
+          Integer.valueOf(measuredFrames))
+      );
+    }
+    if (!(tolerance > 0.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Tolerance %f must be positive",
+          Double.valueOf(tolerance))
+      );
+    }
+  }
+}
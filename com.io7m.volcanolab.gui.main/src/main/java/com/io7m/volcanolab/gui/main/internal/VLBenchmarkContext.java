@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+
+import java.util.Objects;
+
+/**
+ * The context in which experiments are benchmarked.
+ */
+
+final class VLBenchmarkContext implements ExperimentContextType
+{
+  private final VulkanPhysicalDeviceType physicalDevice;
+  private final VLBenchmarkResolution resolution;
+
+  VLBenchmarkContext(
+    final VulkanPhysicalDeviceType inPhysicalDevice,
+    final VLBenchmarkResolution inResolution)
+  {
+    this.physicalDevice =
+      Objects.requireNonNull(inPhysicalDevice, "physicalDevice");
+    this.resolution =
+      Objects.requireNonNull(inResolution, "resolution");
+  }
+
+  /**
+   * @return The resolution
+   */
+
+  VLBenchmarkResolution resolution()
+  {
+    return this.resolution;
+  }
+
+  @Override
+  public VulkanPhysicalDeviceType physicalDevice()
+  {
+    return this.physicalDevice;
+  }
+
+  @Override
+  public int width()
+  {
+    return this.resolution.width();
+  }
+
+  @Override
+  public int height()
+  {
+    return this.resolution.height();
+  }
+}
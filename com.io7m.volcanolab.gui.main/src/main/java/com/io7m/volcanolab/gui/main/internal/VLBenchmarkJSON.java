@@ -0,0 +1,277 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Functions to serialize benchmark reports to JSON. All times are in
+ * nanoseconds.
+ */
+
+public final class VLBenchmarkJSON
+{
+  /**
+   * The format identifier written into every report.
+   */
+
+  public static final String FORMAT = "com.io7m.volcanolab.benchmark/1";
+
+  /**
+   * The format identifier written into every sweep report.
+   */
+
+  public static final String FORMAT_SWEEP = "com.io7m.volcanolab.sweep/1";
+
+  private VLBenchmarkJSON()
+  {
+
+  }
+
+  /**
+   * Serialize a report.
+   *
+   * @param report The report
+   *
+   * @return The report as a JSON document
+   */
+
+  public static String serialize(
+    final VLBenchmarkReport report)
+  {
+    Objects.requireNonNull(report, "report");
+
+    final var out = new StringBuilder(1024);
+    out.append("{\n");
+    field(out, 1, "format", string(FORMAT), true);
+    field(out, 1, "experiment", string(report.experiment()), true);
+    field(out, 1, "baseline", string(report.baseline()), true);
+    field(out, 1, "started", string(report.started().toString()), true);
+
+    device(out, report.device());
+
+    indent(out, 1).append("\"results\": [\n");
+    final var results = report.results();
+    for (var index = 0; index < results.size(); ++index) {
+      final var result = results.get(index);
+      indent(out, 2).append("{\n");
+      final var resolution = result.resolution();
+      field(out, 3, "width", Integer.toString(resolution.width()), true);
+      field(out, 3, "height", Integer.toString(resolution.height()), true);
+      series(out, "experiment", result.experiment());
+      series(out, "baseline", result.baseline());
+      indent(out, 3).append("\"adjusted\": ");
+      statistics(out, 3, result.adjusted());
+      out.append('\n');
+      indent(out, 2).append('}');
+      if (index + 1 < results.size()) {
+        out.append(',');
+      }
+      out.append('\n');
+    }
+    indent(out, 1).append("]\n");
+    out.append("}\n");
+    return out.toString();
+  }
+
+  /**
+   * Serialize a sweep report.
+   *
+   * @param report The report
+   *
+   * @return The report as a JSON document
+   */
+
+  public static String serializeSweep(
+    final VLSweepReport report)
+  {
+    Objects.requireNonNull(report, "report");
+
+    final var out = new StringBuilder(4096);
+    out.append("{\n");
+    field(out, 1, "format", string(FORMAT_SWEEP), true);
+    field(out, 1, "experiment", string(report.experiment()), true);
+    field(out, 1, "parameter", string(report.parameter()), true);
+    field(out, 1, "baseline", string(report.baseline()), true);
+    field(out, 1, "started", string(report.started().toString()), true);
+    device(out, report.device());
+
+    indent(out, 1).append("\"curves\": [\n");
+    final var curves = report.curves();
+    for (var index = 0; index < curves.size(); ++index) {
+      final var curve = curves.get(index);
+      indent(out, 2).append("{\n");
+      final var resolution = curve.resolution();
+      field(out, 3, "width", Integer.toString(resolution.width()), true);
+      field(out, 3, "height", Integer.toString(resolution.height()), true);
+      final var knee = curve.knee().map(point -> number(point.value()));
+      field(out, 3, "knee", knee.orElse("null"), true);
+      series(out, "baseline", curve.baseline());
+
+      indent(out, 3).append("\"points\": [\n");
+      final var points = curve.points();
+      for (var pIndex = 0; pIndex < points.size(); ++pIndex) {
+        final var point = points.get(pIndex);
+        indent(out, 4).append("{\n");
+        field(out, 5, "value", number(point.value()), true);
+        final var series = point.series();
+        final var warmupFrames = Integer.toString(series.warmupFrames());
+        field(out, 5, "warmupFrames", warmupFrames, true);
+        field(out, 5, "steady", Boolean.toString(series.steady()), true);
+        indent(out, 5).append("\"frameTimes\": ");
+        statistics(out, 5, series.frameTimes());
+        out.append('\n');
+        indent(out, 4).append('}');
+        if (pIndex + 1 < points.size()) {
+          out.append(',');
+        }
+        out.append('\n');
+      }
+      indent(out, 3).append("]\n");
+
+      indent(out, 2).append('}');
+      if (index + 1 < curves.size()) {
+        out.append(',');
+      }
+      out.append('\n');
+    }
+    indent(out, 1).append("]\n");
+    out.append("}\n");
+    return out.toString();
+  }
+
+  private static void device(
+    final StringBuilder out,
+    final VLBenchmarkDevice device)
+  {
+    indent(out, 1).append("\"device\": {\n");
+    field(out, 2, "name", string(device.name()), true);
+    final var uuid = device.deviceUUID().map(UUID::toString);
+    final var driverVersion = Long.toUnsignedString(device.driverVersion());
+    field(out, 2, "uuid", optional(uuid), true);
+    field(out, 2, "driverVersion", driverVersion, true);
+    field(out, 2, "driverName", optional(device.driverName()), true);
+    field(out, 2, "driverInfo", optional(device.driverInfo()), false);
+    indent(out, 1).append("},\n");
+  }
+
+  private static void series(
+    final StringBuilder out,
+    final String name,
+    final VLBenchmarkSeries series)
+  {
+    indent(out, 3).append(string(name)).append(": {\n");
+    final var warmupFrames = Integer.toString(series.warmupFrames());
+    field(out, 4, "warmupFrames", warmupFrames, true);
+    field(out, 4, "steady", Boolean.toString(series.steady()), true);
+    indent(out, 4).append("\"frameTimes\": ");
+    statistics(out, 4, series.frameTimes());
+    out.append('\n');
+    indent(out, 3).append("},\n");
+  }
+
+  private static void statistics(
+    final StringBuilder out,
+    final int depth,
+    final VLBenchmarkStatistics statistics)
+  {
+    out.append("{\n");
+    final var inner = depth + 1;
+    field(out, inner, "samples", Integer.toString(statistics.samples()), true);
+    field(out, inner, "minimum", Long.toString(statistics.minimum()), true);
+    field(out, inner, "mean", number(statistics.mean()), true);
+    final var deviation = number(statistics.standardDeviation());
+    field(out, inner, "standardDeviation", deviation, true);
+    field(out, inner, "p50", Long.toString(statistics.p50()), true);
+    field(out, inner, "p90", Long.toString(statistics.p90()), true);
+    field(out, inner, "p95", Long.toString(statistics.p95()), true);
+    field(out, inner, "p99", Long.toString(statistics.p99()), true);
+    field(out, inner, "maximum", Long.toString(statistics.maximum()), false);
+    indent(out, depth).append('}');
+  }
+
+  private static void field(
+    final StringBuilder out,
+    final int depth,
+    final String name,
+    final String value,
+    final boolean more)
+  {
+    indent(out, depth)
+      .append(string(name))
+      .append(": ")
+      .append(value);
+    if (more) {
+      out.append(',');
+    }
+    out.append('\n');
+  }
+
+  private static StringBuilder indent(
+    final StringBuilder out,
+    final int depth)
+  {
+    for (var index = 0; index < depth; ++index) {
+      out.append("  ");
+    }
+    return out;
+  }
+
+  private static String number(
+    final double value)
+  {
+    if (!Double.isFinite(value)) {
+      return "null";
+    }
+    return String.format(Locale.ROOT, "%.3f", Double.valueOf(value));
+  }
+
+  private static String optional(
+    final Optional<String> value)
+  {
+    return value.map(VLBenchmarkJSON::string).orElse("null");
+  }
+
+  private static String string(
+    final String text)
+  {
+    final var out = new StringBuilder(text.length() + 2);
+    out.append('"');
+    for (var index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        case '\t' -> out.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", Integer.valueOf(c)));
+          } else {
+            out.append(c);
+          }
+        }
+      }
+    }
+    out.append('"');
+    return out.toString();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.regex.Pattern;
+
+/**
+ * A resolution at which an experiment is benchmarked.
+ *
+ * @param width  The width in pixels
+ * @param height The height in pixels
+ */
+
+public record VLBenchmarkResolution(
+  int width,
+  int height)
+{
+  private static final Pattern PATTERN =
+    Pattern.compile("([0-9]+)x([0-9]+)");
+
+  /**
+   * A resolution at which an experiment is benchmarked.
+   *
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   */
+
+  public VLBenchmarkResolution
+  {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Resolution %dx%d must be positive",
+          Integer.valueOf(width),
+          Integer.valueOf(height))
+      );
+    }
+  }
+
+  /**
+   * Parse a resolution of the form {@code WIDTHxHEIGHT}.
+   *
+   * @param text The text
+   *
+   * @return A resolution
+   */
+
+  public static VLBenchmarkResolution parse(
+    final String text)
+  {
+    final var matcher = PATTERN.matcher(text.trim());
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Resolution '%s' must be of the form WIDTHxHEIGHT",
+          text)
+      );
+    }
+    return new VLBenchmarkResolution(
+      Integer.parseInt(matcher.group(1)),
+      Integer.parseInt(matcher.group(2))
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%dx%d",
+      Integer.valueOf(this.width),
+      Integer.valueOf(this.height));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Objects;
+
+/**
+ * The result of benchmarking an experiment at one resolution.
+ *
+ * @param resolution The resolution
+ * @param experiment The frame times of the experiment
+ * @param baseline   The frame times of the baseline experiment
+ */
+
+public record VLBenchmarkResult(
+  VLBenchmarkResolution resolution,
+  VLBenchmarkSeries experiment,
+  VLBenchmarkSeries baseline)
+{
+  /**
+   * The result of benchmarking an experiment at one resolution.
+   *
+   * @param resolution The resolution
+   * @param experiment The frame times of the experiment
+   * @param baseline   The frame times of the baseline experiment
+   */
+
+  public VLBenchmarkResult
+  {
+    Objects.requireNonNull(resolution, "resolution");
+    Objects.requireNonNull(experiment, "experiment");
+    Objects.requireNonNull(baseline, "baseline");
+  }
+
+  /**
+   * @return The frame times of the experiment less the median frame time of
+   * the baseline experiment
+   */
+
+  public VLBenchmarkStatistics adjusted()
+  {
+    return this.experiment.frameTimes()
+      .subtract(this.baseline.frameTimes().p50());
+  }
+}
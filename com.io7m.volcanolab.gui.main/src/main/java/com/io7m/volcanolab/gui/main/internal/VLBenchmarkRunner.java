@@ -0,0 +1,353 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanInstanceType;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.api.VulkanUncheckedException;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentNames;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import jdk.incubator.foreign.ResourceScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * Run an experiment at a series of resolutions and measure its frame times,
+ * along with those of the baseline experiment that does no work.
+ */
+
+public final class VLBenchmarkRunner
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLBenchmarkRunner.class);
+
+  /**
+   * The name of the experiment whose frame times are taken to be the
+   * overhead of the host rendering loop.
+   */
+
+  public static final String BASELINE = "Null";
+
+  /*
+   * The number of frames in each of the two windows compared when deciding
+   * whether frame times have settled.
+   */
+
+  private static final int STEADY_WINDOW = 30;
+
+  private final VLBenchmarkConfiguration configuration;
+  private final TreeMap<String, Provider<ExperimentType>> experiments;
+
+  private VLBenchmarkRunner(
+    final VLBenchmarkConfiguration inConfiguration,
+    final TreeMap<String, Provider<ExperimentType>> inExperiments)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.experiments =
+      Objects.requireNonNull(inExperiments, "experiments");
+  }
+
+  /**
+   * Create a runner for the experiments available from the service loader.
+   *
+   * @param configuration The configuration
+   *
+   * @return A runner
+   */
+
+  public static VLBenchmarkRunner create(
+    final VLBenchmarkConfiguration configuration)
+  {
+    /*
+     * Providers are indexed by the name on their type, so no experiment is
+     * instantiated until it is selected.
+     */
+
+    final var experiments =
+      ExperimentNames.index(ServiceLoader.load(ExperimentType.class));
+
+    LOG.debug("loaded {} experiments", experiments.size());
+    return new VLBenchmarkRunner(configuration, experiments);
+  }
+
+  /**
+   * Run the benchmark.
+   *
+   * @return The results
+   *
+   * @throws Exception On errors
+   */
+
+  public VLBenchmarkReport run()
+    throws Exception
+  {
+    final var started = OffsetDateTime.now();
+    final var experiment = this.findExperiment(this.configuration.experiment());
+    final var baseline = this.findExperiment(BASELINE);
+
+    try (var instance = createInstance()) {
+      final var device = findDevice(instance, this.configuration.device());
+      final var deviceInfo = VLBenchmarkDevice.of(device);
+      LOG.info("device: {}", deviceInfo.name());
+
+      final var results = new ArrayList<VLBenchmarkResult>();
+      for (final var resolution : this.configuration.resolutions()) {
+        LOG.info("{}: {}", BASELINE, resolution);
+        final var baselineSeries = this.measure(baseline, device, resolution);
+        LOG.info("{}: {}", this.configuration.experiment(), resolution);
+        final var experimentSeries =
+          this.measure(experiment, device, resolution);
+        results.add(
+          new VLBenchmarkResult(resolution, experimentSeries, baselineSeries));
+      }
+
+      return new VLBenchmarkReport(
+        this.configuration.experiment(),
+        BASELINE,
+        deviceInfo,
+        started,
+        results
+      );
+    }
+  }
+
+  /**
+   * Find the named experiment.
+   *
+   * @param name The experiment name
+   *
+   * @return The experiment provider
+   */
+
+  Provider<ExperimentType> findExperiment(
+    final String name)
+  {
+    final var provider = this.experiments.get(name);
+    if (provider == null) {
+      throw new IllegalArgumentException(
+        String.format(
+          "No experiment named '%s'. Available experiments: %s",
+          name,
+          String.join(", ", this.experiments.keySet()))
+      );
+    }
+    return provider;
+  }
+
+  /**
+   * Measure a fresh instance of an experiment at the given resolution.
+   *
+   * @param provider   The experiment provider
+   * @param device     The device
+   * @param resolution The resolution
+   *
+   * @return The measured series
+   *
+   * @throws Exception On errors
+   */
+
+  VLBenchmarkSeries measure(
+    final Provider<ExperimentType> provider,
+    final VulkanPhysicalDeviceType device,
+    final VLBenchmarkResolution resolution)
+    throws Exception
+  {
+    final var context = new VLBenchmarkContext(device, resolution);
+
+    try (var scope = ResourceScope.newSharedScope();
+         var experiment = provider.get()) {
+      final var frame =
+        ExperimentFrame.allocate(
+          scope,
+          resolution.width(),
+          resolution.height(),
+          BGRA8_PRE);
+
+      experiment.start(context);
+      experiment.onSizeChanged(context);
+      return this.measureRunning(experiment, context, frame);
+    }
+  }
+
+  /**
+   * Warm up and then measure an experiment that has already been started.
+   * Frame times are not carried over between calls, so the experiment's
+   * workload may be changed between calls.
+   *
+   * @param experiment The experiment
+   * @param context    The context at which the experiment was started
+   * @param frame      The output frame
+   *
+   * @return The measured series
+   *
+   * @throws Exception On errors
+   */
+
+  VLBenchmarkSeries measureRunning(
+    final ExperimentType experiment,
+    final VLBenchmarkContext context,
+    final ExperimentFrame frame)
+    throws Exception
+  {
+    final var warmupLimit = this.configuration.warmupFramesLimit();
+    final var warmupMinimum = this.configuration.warmupFrames();
+    final var tolerance = this.configuration.tolerance();
+
+    final var warmup = new long[warmupLimit];
+    var warmupCount = 0;
+    var steady = false;
+    while (warmupCount < warmupLimit) {
+      warmup[warmupCount] = renderTimed(experiment, context, frame);
+      ++warmupCount;
+
+      steady = warmupCount >= warmupMinimum
+        && VLBenchmarkStatistics.isSteady(
+          warmup, warmupCount, STEADY_WINDOW, tolerance);
+      if (steady) {
+        break;
+      }
+    }
+
+    if (!steady) {
+      LOG.warn(
+        "{}: {}: frame times did not settle within {} frames",
+        experiment.name(),
+        context.resolution(),
+        Integer.valueOf(warmupLimit));
+    }
+
+    final var times = new long[this.configuration.measuredFrames()];
+    for (var index = 0; index < times.length; ++index) {
+      times[index] = renderTimed(experiment, context, frame);
+    }
+
+    return new VLBenchmarkSeries(
+      warmupCount,
+      steady,
+      VLBenchmarkStatistics.of(times)
+    );
+  }
+
+  private static long renderTimed(
+    final ExperimentType experiment,
+    final VLBenchmarkContext context,
+    final ExperimentFrame frame)
+    throws Exception
+  {
+    final var timeThen = System.nanoTime();
+    experiment.render(context, frame);
+    return System.nanoTime() - timeThen;
+  }
+
+  static VulkanPhysicalDeviceType findDevice(
+    final VulkanInstanceType instance,
+    final Optional<String> requested)
+    throws VulkanException
+  {
+    final var devices = instance.physicalDevices();
+    if (devices.isEmpty()) {
+      throw new IllegalStateException("No Vulkan devices are available");
+    }
+
+    if (requested.isEmpty()) {
+      return devices.get(0);
+    }
+
+    final var name = requested.get();
+    final var uuid = parseUUID(name);
+    return devices.stream()
+      .filter(device -> deviceMatches(name, uuid, device))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException(
+        String.format("No device matches '%s'", name)));
+  }
+
+  private static Optional<UUID> parseUUID(
+    final String text)
+  {
+    try {
+      return Optional.of(UUID.fromString(text));
+    } catch (final IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static boolean deviceMatches(
+    final String name,
+    final Optional<UUID> uuid,
+    final VulkanPhysicalDeviceType device)
+  {
+    try {
+      if (uuid.isPresent()) {
+        return device.idProperties()
+          .map(id -> Objects.equals(id.deviceUUID(), uuid.get()))
+          .orElse(Boolean.FALSE)
+          .booleanValue();
+      }
+      return Objects.equals(device.properties().name(), name);
+    } catch (final VulkanException e) {
+      throw new VulkanUncheckedException(e);
+    }
+  }
+
+  static VulkanInstanceType createInstance()
+    throws VulkanException
+  {
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.benchmark")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    /*
+     * Validation layers are deliberately not enabled: they add host
+     * overhead to every Vulkan call and would distort the measurements.
+     */
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .build();
+
+    return instances.createInstance(createInfo, Optional.empty());
+  }
+}
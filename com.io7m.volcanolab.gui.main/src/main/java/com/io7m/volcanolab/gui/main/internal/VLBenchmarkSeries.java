@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Objects;
+
+/**
+ * The frame times of one experiment at one resolution.
+ *
+ * @param warmupFrames The number of warm-up frames that were rendered
+ * @param steady       {@code true} if the frame times settled before the
+ *                     warm-up frame limit was reached
+ * @param frameTimes   The measured frame times
+ */
+
+public record VLBenchmarkSeries(
+  int warmupFrames,
+  boolean steady,
+  VLBenchmarkStatistics frameTimes)
+{
+  /**
+   * The frame times of one experiment at one resolution.
+   *
+   * @param warmupFrames The number of warm-up frames that were rendered
+   * @param steady       {@code true} if the frame times settled before the
+   *                     warm-up frame limit was reached
+   * @param frameTimes   The measured frame times
+   */
+
+  public VLBenchmarkSeries
+  {
+    Objects.requireNonNull(frameTimes, "frameTimes");
+  }
+}
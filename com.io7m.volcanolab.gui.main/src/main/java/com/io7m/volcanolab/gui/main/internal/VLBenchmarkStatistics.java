@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Summary statistics of a set of frame times, in nanoseconds.
+ *
+ * @param samples           The number of samples
+ * @param minimum           The minimum
+ * @param mean              The mean
+ * @param standardDeviation The standard deviation
+ * @param p50               The 50th percentile
+ * @param p90               The 90th percentile
+ * @param p95               The 95th percentile
+ * @param p99               The 99th percentile
+ * @param maximum           The maximum
+ */
+
+public record VLBenchmarkStatistics(
+  int samples,
+  long minimum,
+  double mean,
+  double standardDeviation,
+  long p50,
+  long p90,
+  long p95,
+  long p99,
+  long maximum)
+{
+  /**
+   * Summary statistics of a set of frame times, in nanoseconds.
+   *
+   * @param samples           The number of samples
+   * @param minimum           The minimum
+   * @param mean              The mean
+   * @param standardDeviation The standard deviation
+   * @param p50               The 50th percentile
+   * @param p90               The 90th percentile
+   * @param p95               The 95th percentile
+   * @param p99               The 99th percentile
+   * @param maximum           The maximum
+   */
+
+  public VLBenchmarkStatistics
+  {
+    if (samples <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Sample count %d must be positive",
+          Integer.valueOf(samples))
+      );
+    }
+  }
+
+  /**
+   * Summarize the given frame times.
+   *
+   * @param times The frame times in nanoseconds
+   *
+   * @return The statistics
+   */
+
+  public static VLBenchmarkStatistics of(
+    final long[] times)
+  {
+    Objects.requireNonNull(times, "times");
+
+    final var sorted = times.clone();
+    Arrays.sort(sorted);
+
+    var sum = 0.0;
+    for (final var time : sorted) {
+      sum += (double) time;
+    }
+    final var mean = sum / (double) sorted.length;
+
+    var squares = 0.0;
+    for (final var time : sorted) {
+      final var delta = (double) time - mean;
+      squares += delta * delta;
+    }
+
+    return new VLBenchmarkStatistics(
+      sorted.length,
+      sorted[0],
+      mean,
+      Math.sqrt(squares / (double) sorted.length),
+      percentile(sorted, 50),
+      percentile(sorted, 90),
+      percentile(sorted, 95),
+      percentile(sorted, 99),
+      sorted[sorted.length - 1]
+    );
+  }
+
+  /**
+   * Determine whether the frame times have settled. The frame times are
+   * considered to have settled when the medians of the last two windows of
+   * {@code window} frames differ by no more than {@code tolerance} relative
+   * to the earlier window.
+   *
+   * @param times     The frame times in nanoseconds
+   * @param count     The number of frame times in {@code times} that are
+   *                  valid
+   * @param window    The window size
+   * @param tolerance The tolerance
+   *
+   * @return {@code true} if the frame times have settled
+   */
+
+  public static boolean isSteady(
+    final long[] times,
+    final int count,
+    final int window,
+    final double tolerance)
+  {
+    Objects.requireNonNull(times, "times");
+
+    if (count < window * 2) {
+      return false;
+    }
+
+    final var earlier = median(times, count - (window * 2), window);
+    final var later = median(times, count - window, window);
+    if (earlier == 0L) {
+      return later == 0L;
+    }
+
+    final var change = Math.abs((double) (later - earlier)) / (double) earlier;
+    return change <= tolerance;
+  }
+
+  private static long median(
+    final long[] times,
+    final int offset,
+    final int count)
+  {
+    final var sorted = Arrays.copyOfRange(times, offset, offset + count);
+    Arrays.sort(sorted);
+    return sorted[count / 2];
+  }
+
+  private static long percentile(
+    final long[] sorted,
+    final int percent)
+  {
+    /*
+     * Nearest-rank: the smallest sample such that at least percent% of the
+     * samples are less than or equal to it.
+     */
+
+    final var rank =
+      (int) Math.ceil(((double) percent / 100.0) * (double) sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * Subtract a fixed overhead from every time, clamping at zero.
+   *
+   * @param overhead The overhead in nanoseconds
+   *
+   * @return The adjusted statistics
+   */
+
+  public VLBenchmarkStatistics subtract(
+    final long overhead)
+  {
+    return new VLBenchmarkStatistics(
+      this.samples,
+      Math.max(0L, this.minimum - overhead),
+      Math.max(0.0, this.mean - (double) overhead),
+      this.standardDeviation,
+      Math.max(0L, this.p50 - overhead),
+      Math.max(0L, this.p90 - overhead),
+      Math.max(0L, this.p95 - overhead),
+      Math.max(0L, this.p99 - overhead),
+      Math.max(0L, this.maximum - overhead)
+    );
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.io7m.claypot.core.CLPAbstractCommand;
+import com.io7m.claypot.core.CLPCommandContextType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.claypot.core.CLPCommandType.Status.SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Benchmark an experiment without the user interface.
+ */
+
+@Parameters(commandDescription = "Benchmark an experiment.")
+public final class VLCommandBenchmark extends CLPAbstractCommand
+{
+  @Parameter(
+    names = "--experiment",
+    required = true,
+    description = "The name of the experiment")
+  private String experiment;
+
+  @Parameter(
+    names = "--device",
+    required = false,
+    description = "The name or UUID of the device (defaults to the first)")
+  private String device;
+
+  @Parameter(
+    names = "--resolutions",
+    required = false,
+    description = "A comma-separated list of resolutions (such as 640x480)")
+  private List<String> resolutions = new ArrayList<>();
+
+  @Parameter(
+    names = "--warmup-frames",
+    required = false,
+    description = "The minimum number of warm-up frames")
+  private int warmupFrames = 60;
+
+  @Parameter(
+    names = "--warmup-frames-limit",
+    required = false,
+    description = "The maximum number of warm-up frames")
+  private int warmupFramesLimit = 2000;
+
+  @Parameter(
+    names = "--measure-frames",
+    required = false,
+    description = "The number of measured frames")
+  private int measuredFrames = 600;
+
+  @Parameter(
+    names = "--steady-tolerance",
+    required = false,
+    description = "The relative change in median frame time that is "
+      + "considered settled")
+  private double tolerance = 0.05;
+
+  @Parameter(
+    names = "--output",
+    required = true,
+    description = "The file to which JSON results are written")
+  private Path output;
+
+  @Parameter(
+    names = "--store",
+    required = false,
+    description = "A result store directory to which results are appended")
+  private Path store;
+
+  @Parameter(
+    names = "--revision",
+    required = false,
+    description = "The revision of the code being benchmarked")
+  private String revision;
+
+  /**
+   * Construct a command.
+   *
+   * @param inContext The command context
+   */
+
+  public VLCommandBenchmark(
+    final CLPCommandContextType inContext)
+  {
+    super(inContext);
+  }
+
+  @Override
+  protected Status executeActual()
+    throws Exception
+  {
+    if (this.store != null && this.revision == null) {
+      throw new IllegalArgumentException(
+        "A --revision must be specified when results are stored");
+    }
+
+    final var parsedResolutions =
+      (this.resolutions.isEmpty() ? List.of("1280x720") : this.resolutions)
+        .stream()
+        .map(VLBenchmarkResolution::parse)
+        .toList();
+
+    final var configuration =
+      new VLBenchmarkConfiguration(
+        this.experiment,
+        Optional.ofNullable(this.device),
+        parsedResolutions,
+        this.warmupFrames,
+        Math.max(this.warmupFrames, this.warmupFramesLimit),
+        this.measuredFrames,
+        this.tolerance
+      );
+
+    final var report =
+      VLBenchmarkRunner.create(configuration)
+        .run();
+
+    writeReport(this.output, VLBenchmarkJSON.serialize(report));
+
+    if (this.store != null) {
+      final var records = VLResultRecord.ofReport(report, this.revision);
+      try (var results = VLResultStore.open(this.store)) {
+        for (final var record : records) {
+          results.append(record);
+        }
+      }
+    }
+    return SUCCESS;
+  }
+
+  /**
+   * Write a report to a file.
+   *
+   * @param output The output file
+   * @param text   The report text
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static void writeReport(
+    final Path output,
+    final String text)
+    throws IOException
+  {
+    /*
+     * Write to a temporary file and move it into place so that a failed
+     * write never leaves a truncated report where a complete one is
+     * expected.
+     */
+
+    final var target = output.toAbsolutePath();
+    final var temporary =
+      target.resolveSibling(target.getFileName() + ".tmp");
+    Files.writeString(temporary, text, UTF_8);
+    Files.move(
+      temporary,
+      target,
+      StandardCopyOption.REPLACE_EXISTING,
+      StandardCopyOption.ATOMIC_MOVE
+    );
+  }
+
+  @Override
+  public String name()
+  {
+    return "benchmark";
+  }
+}
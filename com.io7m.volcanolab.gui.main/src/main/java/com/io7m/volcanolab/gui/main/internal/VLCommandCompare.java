@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.io7m.claypot.core.CLPAbstractCommand;
+import com.io7m.claypot.core.CLPCommandContextType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+
+import static com.io7m.claypot.core.CLPCommandType.Status.FAILURE;
+import static com.io7m.claypot.core.CLPCommandType.Status.SUCCESS;
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.REGRESSION;
+
+/**
+ * Compare stored benchmark results against a baseline revision.
+ */
+
+@Parameters(commandDescription = "Compare stored benchmark results.")
+public final class VLCommandCompare extends CLPAbstractCommand
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLCommandCompare.class);
+
+  @Parameter(
+    names = "--store",
+    required = true,
+    description = "The result store directory")
+  private Path store;
+
+  @Parameter(
+    names = "--baseline-revision",
+    required = true,
+    description = "The revision against which to compare")
+  private String baselineRevision;
+
+  @Parameter(
+    names = "--revision",
+    required = true,
+    description = "The revision to compare")
+  private String revision;
+
+  @Parameter(
+    names = "--experiment",
+    required = false,
+    description = "Only compare results of the named experiment")
+  private String experiment;
+
+  @Parameter(
+    names = "--threshold-relative",
+    required = false,
+    description = "The minimum relative change in mean frame time reported")
+  private double thresholdRelative = 0.05;
+
+  @Parameter(
+    names = "--threshold-t",
+    required = false,
+    description = "The minimum magnitude of Welch's t statistic reported")
+  private double thresholdT = 3.0;
+
+  /**
+   * Construct a command.
+   *
+   * @param inContext The command context
+   */
+
+  public VLCommandCompare(
+    final CLPCommandContextType inContext)
+  {
+    super(inContext);
+  }
+
+  @Override
+  protected Status executeActual()
+    throws Exception
+  {
+    final var thresholds =
+      new VLResultThresholds(this.thresholdRelative, this.thresholdT);
+
+    var regressions = 0;
+    try (var results = VLResultStore.open(this.store)) {
+
+      /*
+       * Where a configuration was benchmarked more than once at a revision,
+       * the most recent result is used.
+       */
+
+      final var candidates = new LinkedHashMap<VLResultKey, VLResultRecord>();
+      for (final var record : results.findRevision(this.revision)) {
+        if (this.experiment == null
+          || this.experiment.equals(record.key().experiment())) {
+          candidates.put(record.key(), record);
+        }
+      }
+
+      if (candidates.isEmpty()) {
+        LOG.error("no results are stored for revision {}", this.revision);
+        return FAILURE;
+      }
+
+      for (final var candidate : candidates.values()) {
+        final var key = candidate.key();
+        final var baselines =
+          results.find(key.withRevision(this.baselineRevision));
+        if (baselines.isEmpty()) {
+          LOG.warn(
+            "{} {} on {}: no baseline result",
+            key.experiment(),
+            key.resolution(),
+            candidate.deviceName());
+          continue;
+        }
+
+        final var comparison =
+          VLResultComparison.compare(
+            baselines.get(baselines.size() - 1),
+            candidate,
+            thresholds);
+
+        final var message =
+          String.format(
+            "%s %s on %s: %s (%+.2f%%, t = %.2f)",
+            key.experiment(),
+            key.resolution(),
+            candidate.deviceName(),
+            comparison.verdict(),
+            Double.valueOf(comparison.relativeChange() * 100.0),
+            Double.valueOf(comparison.tStatistic()));
+
+        if (comparison.verdict() == REGRESSION) {
+          ++regressions;
+          LOG.error("{}", message);
+        } else {
+          LOG.info("{}", message);
+        }
+      }
+    }
+
+    return regressions == 0 ? SUCCESS : FAILURE;
+  }
+
+  @Override
+  public String name()
+  {
+    return "compare";
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.io7m.claypot.core.CLPAbstractCommand;
+import com.io7m.claypot.core.CLPCommandContextType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.claypot.core.CLPCommandType.Status.SUCCESS;
+
+/**
+ * Sweep an experiment parameter and locate the knee of its frame time
+ * curve.
+ */
+
+@Parameters(commandDescription = "Sweep an experiment parameter.")
+public final class VLCommandSweep extends CLPAbstractCommand
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLCommandSweep.class);
+
+  @Parameter(
+    names = "--experiment",
+    required = true,
+    description = "The name of the experiment")
+  private String experiment;
+
+  @Parameter(
+    names = "--parameter",
+    required = true,
+    description = "The name of the experiment parameter to sweep")
+  private String parameter;
+
+  @Parameter(
+    names = "--values",
+    required = false,
+    description = "A comma-separated list of ascending parameter values")
+  private List<Double> values = new ArrayList<>();
+
+  @Parameter(
+    names = "--range",
+    required = false,
+    description = "A range of parameter values as minimum:maximum:count")
+  private String range;
+
+  @Parameter(
+    names = "--geometric",
+    required = false,
+    description = "Space the values of --range geometrically, and locate "
+      + "knees on a logarithmic scale")
+  private boolean geometric;
+
+  @Parameter(
+    names = "--device",
+    required = false,
+    description = "The name or UUID of the device (defaults to the first)")
+  private String device;
+
+  @Parameter(
+    names = "--resolutions",
+    required = false,
+    description = "A comma-separated list of resolutions (such as 640x480)")
+  private List<String> resolutions = new ArrayList<>();
+
+  @Parameter(
+    names = "--warmup-frames",
+    required = false,
+    description = "The minimum number of warm-up frames per point")
+  private int warmupFrames = 60;
+
+  @Parameter(
+    names = "--warmup-frames-limit",
+    required = false,
+    description = "The maximum number of warm-up frames per point")
+  private int warmupFramesLimit = 2000;
+
+  @Parameter(
+    names = "--measure-frames",
+    required = false,
+    description = "The number of measured frames per point")
+  private int measuredFrames = 300;
+
+  @Parameter(
+    names = "--steady-tolerance",
+    required = false,
+    description = "The relative change in median frame time that is "
+      + "considered settled")
+  private double tolerance = 0.05;
+
+  @Parameter(
+    names = "--output",
+    required = true,
+    description = "The file to which JSON results are written")
+  private Path output;
+
+  /**
+   * Construct a command.
+   *
+   * @param inContext The command context
+   */
+
+  public VLCommandSweep(
+    final CLPCommandContextType inContext)
+  {
+    super(inContext);
+  }
+
+  @Override
+  protected Status executeActual()
+    throws Exception
+  {
+    final var parsedResolutions =
+      (this.resolutions.isEmpty() ? List.of("1280x720") : this.resolutions)
+        .stream()
+        .map(VLBenchmarkResolution::parse)
+        .toList();
+
+    final var benchmark =
+      new VLBenchmarkConfiguration(
+        this.experiment,
+        Optional.ofNullable(this.device),
+        parsedResolutions,
+        this.warmupFrames,
+        Math.max(this.warmupFrames, this.warmupFramesLimit),
+        this.measuredFrames,
+        this.tolerance
+      );
+
+    final var configuration =
+      new VLSweepConfiguration(
+        benchmark,
+        this.parameter,
+        this.parseValues(),
+        this.geometric
+      );
+
+    final var report =
+      VLSweepRunner.create(configuration)
+        .run();
+
+    for (final var curve : report.curves()) {
+      if (curve.knee().isPresent()) {
+        LOG.info(
+          "{}: knee at {} = {}",
+          curve.resolution(),
+          this.parameter,
+          Double.valueOf(curve.knee().get().value()));
+      } else {
+        LOG.info("{}: no knee", curve.resolution());
+      }
+    }
+
+    VLCommandBenchmark.writeReport(
+      this.output, VLBenchmarkJSON.serializeSweep(report));
+    return SUCCESS;
+  }
+
+  private List<Double> parseValues()
+  {
+    final var hasRange = this.range != null;
+    if (hasRange == !this.values.isEmpty()) {
+      throw new IllegalArgumentException(
+        "Exactly one of --values or --range must be specified");
+    }
+    if (!hasRange) {
+      return this.values;
+    }
+
+    final var segments = this.range.split(":");
+    if (segments.length != 3) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Range '%s' must be of the form minimum:maximum:count",
+          this.range)
+      );
+    }
+
+    return VLSweepConfiguration.range(
+      Double.parseDouble(segments[0]),
+      Double.parseDouble(segments[1]),
+      Integer.parseInt(segments[2]),
+      this.geometric
+    );
+  }
+
+  @Override
+  public String name()
+  {
+    return "sweep";
+  }
+}
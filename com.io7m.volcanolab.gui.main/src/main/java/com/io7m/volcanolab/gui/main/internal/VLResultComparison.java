@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Objects;
+
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.IMPROVEMENT;
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.REGRESSION;
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.UNCHANGED;
+
+/**
+ * A comparison of a result against a baseline result with the same key
+ * apart from the revision. Frame times are compared after subtracting the
+ * host overhead measured alongside each result.
+ *
+ * @param baseline       The baseline result
+ * @param candidate      The result being compared
+ * @param relativeChange The relative change in mean frame time
+ * @param tStatistic     Welch's t statistic for the change in mean frame time
+ * @param verdict        The verdict
+ */
+
+public record VLResultComparison(
+  VLResultRecord baseline,
+  VLResultRecord candidate,
+  double relativeChange,
+  double tStatistic,
+  VLResultVerdict verdict)
+{
+  /**
+   * A comparison of a result against a baseline result.
+   *
+   * @param baseline       The baseline result
+   * @param candidate      The result being compared
+   * @param relativeChange The relative change in mean frame time
+   * @param tStatistic     Welch's t statistic for the change in mean frame
+   *                       time
+   * @param verdict        The verdict
+   */
+
+  public VLResultComparison
+  {
+    Objects.requireNonNull(baseline, "baseline");
+    Objects.requireNonNull(candidate, "candidate");
+    Objects.requireNonNull(verdict, "verdict");
+  }
+
+  /**
+   * Compare a result against a baseline.
+   *
+   * @param baseline   The baseline result
+   * @param candidate  The result being compared
+   * @param thresholds The thresholds
+   *
+   * @return The comparison
+   */
+
+  public static VLResultComparison compare(
+    final VLResultRecord baseline,
+    final VLResultRecord candidate,
+    final VLResultThresholds thresholds)
+  {
+    Objects.requireNonNull(baseline, "baseline");
+    Objects.requireNonNull(candidate, "candidate");
+    Objects.requireNonNull(thresholds, "thresholds");
+
+    final var before = baseline.adjusted();
+    final var after = candidate.adjusted();
+    final var delta = after.mean() - before.mean();
+
+    /*
+     * An experiment that is no slower than the baseline experiment has an
+     * adjusted mean of zero; fall back to the unadjusted mean so that the
+     * relative change remains finite.
+     */
+
+    final var scale =
+      before.mean() > 0.0
+        ? before.mean()
+        : Math.max(1.0, baseline.experiment().frameTimes().mean());
+    final var relative = delta / scale;
+
+    final var variance =
+      square(before.standardDeviation()) / (double) before.samples()
+        + square(after.standardDeviation()) / (double) after.samples();
+
+    final double t;
+    if (variance > 0.0) {
+      t = delta / Math.sqrt(variance);
+    } else if (delta == 0.0) {
+      t = 0.0;
+    } else {
+      t = Math.copySign(Double.POSITIVE_INFINITY, delta);
+    }
+
+    final VLResultVerdict verdict;
+    if (relative > thresholds.relativeChange()
+      && t > thresholds.tStatistic()) {
+      verdict = REGRESSION;
+    } else if (-relative > thresholds.relativeChange()
+      && -t > thresholds.tStatistic()) {
+      verdict = IMPROVEMENT;
+    } else {
+      verdict = UNCHANGED;
+    }
+
+    return new VLResultComparison(baseline, candidate, relative, t, verdict);
+  }
+
+  private static double square(
+    final double x)
+  {
+    return x * x;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The key under which benchmark results are stored. Results are only
+ * comparable when every part of the key other than the revision matches.
+ *
+ * @param experiment    The name of the experiment
+ * @param device        The device UUID, or the device name if the driver
+ *                      does not expose a UUID
+ * @param driverVersion The driver version
+ * @param resolution    The resolution
+ * @param revision      The revision of the code that produced the result
+ */
+
+public record VLResultKey(
+  String experiment,
+  String device,
+  long driverVersion,
+  VLBenchmarkResolution resolution,
+  String revision)
+{
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  /**
+   * The key under which benchmark results are stored.
+   *
+   * @param experiment    The name of the experiment
+   * @param device        The device UUID, or the device name if the driver
+   *                      does not expose a UUID
+   * @param driverVersion The driver version
+   * @param resolution    The resolution
+   * @param revision      The revision of the code that produced the result
+   */
+
+  public VLResultKey
+  {
+    Objects.requireNonNull(experiment, "experiment");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(resolution, "resolution");
+    Objects.requireNonNull(revision, "revision");
+  }
+
+  /**
+   * @param device The device
+   *
+   * @return The identifier used for {@code device} in keys
+   */
+
+  public static String deviceIdentifier(
+    final VLBenchmarkDevice device)
+  {
+    return device.deviceUUID()
+      .map(Object::toString)
+      .orElse(device.name());
+  }
+
+  /**
+   * @param newRevision The revision
+   *
+   * @return This key with the given revision
+   */
+
+  public VLResultKey withRevision(
+    final String newRevision)
+  {
+    return new VLResultKey(
+      this.experiment,
+      this.device,
+      this.driverVersion,
+      this.resolution,
+      newRevision
+    );
+  }
+
+  /**
+   * A 64-bit FNV-1a hash of the key, stable across runs and JVMs, used to
+   * index stored results.
+   *
+   * @return The hash
+   */
+
+  public long hash64()
+  {
+    return hash64(
+      String.join(
+        "\u0000",
+        this.experiment,
+        this.device,
+        Long.toUnsignedString(this.driverVersion),
+        this.resolution.toString(),
+        this.revision
+      )
+    );
+  }
+
+  /**
+   * A 64-bit FNV-1a hash of the UTF-8 encoding of {@code text}.
+   *
+   * @param text The text
+   *
+   * @return The hash
+   */
+
+  public static long hash64(
+    final String text)
+  {
+    var hash = FNV_OFFSET;
+    for (final var b : text.getBytes(UTF_8)) {
+      hash ^= (long) (b & 0xff);
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A stored benchmark result.
+ *
+ * @param key         The key
+ * @param time        The time the result was produced
+ * @param deviceName  The device name
+ * @param experiment  The frame times of the experiment
+ * @param baselineP50 The median frame time of the baseline experiment
+ */
+
+public record VLResultRecord(
+  VLResultKey key,
+  OffsetDateTime time,
+  String deviceName,
+  VLBenchmarkSeries experiment,
+  long baselineP50)
+{
+  /**
+   * A stored benchmark result.
+   *
+   * @param key         The key
+   * @param time        The time the result was produced
+   * @param deviceName  The device name
+   * @param experiment  The frame times of the experiment
+   * @param baselineP50 The median frame time of the baseline experiment
+   */
+
+  public VLResultRecord
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(time, "time");
+    Objects.requireNonNull(deviceName, "deviceName");
+    Objects.requireNonNull(experiment, "experiment");
+  }
+
+  /**
+   * Produce records for each of the results in a report.
+   *
+   * @param report   The report
+   * @param revision The revision of the code that produced the report
+   *
+   * @return The records
+   */
+
+  public static List<VLResultRecord> ofReport(
+    final VLBenchmarkReport report,
+    final String revision)
+  {
+    Objects.requireNonNull(report, "report");
+    Objects.requireNonNull(revision, "revision");
+
+    final var device = report.device();
+    return report.results()
+      .stream()
+      .map(result -> new VLResultRecord(
+        new VLResultKey(
+          report.experiment(),
+          VLResultKey.deviceIdentifier(device),
+          device.driverVersion(),
+          result.resolution(),
+          revision),
+        report.started(),
+        device.name(),
+        result.experiment(),
+        result.baseline().frameTimes().p50()))
+      .toList();
+  }
+
+  /**
+   * @return The frame times of the experiment less the baseline
+   */
+
+  public VLBenchmarkStatistics adjusted()
+  {
+    return this.experiment.frameTimes().subtract(this.baselineP50);
+  }
+}
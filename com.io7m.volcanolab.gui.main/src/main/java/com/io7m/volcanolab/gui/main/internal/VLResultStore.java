@@ -0,0 +1,497 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>An append-only store of benchmark results.</p>
+ *
+ * <p>Results are written as rows of a CSV file, {@code results.csv}, that
+ * can be read by any spreadsheet or plotting tool. Rows are never modified
+ * or removed. Alongside it, {@code results.idx} holds one fixed-size entry
+ * per row: the hash of the row's key, the hash of the row's revision, and
+ * the byte offset of the row. Queries scan the index and read only the
+ * rows whose hashes match.</p>
+ *
+ * <p>Rows are written before their index entries. If the process dies
+ * between the two, the next open indexes the rows that have no entries and
+ * discards any partially written row.</p>
+ */
+
+public final class VLResultStore implements AutoCloseable
+{
+  private static final String HEADER =
+    String.join(
+      ",",
+      "time",
+      "experiment",
+      "device",
+      "deviceName",
+      "driverVersion",
+      "width",
+      "height",
+      "revision",
+      "steady",
+      "warmupFrames",
+      "samples",
+      "minimum",
+      "mean",
+      "standardDeviation",
+      "p50",
+      "p90",
+      "p95",
+      "p99",
+      "maximum",
+      "baselineP50"
+    );
+
+  private static final int FIELD_COUNT = 20;
+  private static final int INDEX_ENTRY_SIZE = 24;
+
+  private final FileChannel data;
+  private final FileChannel index;
+
+  private VLResultStore(
+    final FileChannel inData,
+    final FileChannel inIndex)
+  {
+    this.data = Objects.requireNonNull(inData, "data");
+    this.index = Objects.requireNonNull(inIndex, "index");
+  }
+
+  /**
+   * Open or create a store in the given directory.
+   *
+   * @param directory The directory
+   *
+   * @return A store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static VLResultStore open(
+    final Path directory)
+    throws IOException
+  {
+    Objects.requireNonNull(directory, "directory");
+
+    Files.createDirectories(directory);
+    final var data =
+      FileChannel.open(directory.resolve("results.csv"), CREATE, READ, WRITE);
+    final FileChannel index;
+    try {
+      index =
+        FileChannel.open(directory.resolve("results.idx"), CREATE, READ, WRITE);
+    } catch (final IOException e) {
+      data.close();
+      throw e;
+    }
+
+    final var store = new VLResultStore(data, index);
+    try (var ignored = data.lock()) {
+      if (data.size() == 0L) {
+        writeFully(data, encode(HEADER + "\n"), 0L);
+      }
+      store.repairIndex();
+    } catch (final IOException | RuntimeException e) {
+      store.close();
+      throw e;
+    }
+    return store;
+  }
+
+  /**
+   * Append a record to the store.
+   *
+   * @param record The record
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void append(
+    final VLResultRecord record)
+    throws IOException
+  {
+    Objects.requireNonNull(record, "record");
+
+    final var row = encode(serialize(record) + "\n");
+    try (var ignored = this.data.lock()) {
+      final var offset = this.data.size();
+      writeFully(this.data, row, offset);
+      this.data.force(false);
+      this.appendIndex(record.key(), offset);
+    }
+  }
+
+  /**
+   * Find all records with the given key, oldest first.
+   *
+   * @param key The key
+   *
+   * @return The records
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public List<VLResultRecord> find(
+    final VLResultKey key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+
+    final var hash = key.hash64();
+    final var results = new ArrayList<VLResultRecord>();
+    for (final var offset : this.scanIndex(0, hash)) {
+      final var record = this.readRecord(offset);
+      if (record.key().equals(key)) {
+        results.add(record);
+      }
+    }
+    return List.copyOf(results);
+  }
+
+  /**
+   * Find all records produced by the given revision, oldest first.
+   *
+   * @param revision The revision
+   *
+   * @return The records
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public List<VLResultRecord> findRevision(
+    final String revision)
+    throws IOException
+  {
+    Objects.requireNonNull(revision, "revision");
+
+    final var hash = VLResultKey.hash64(revision);
+    final var results = new ArrayList<VLResultRecord>();
+    for (final var offset : this.scanIndex(8, hash)) {
+      final var record = this.readRecord(offset);
+      if (record.key().revision().equals(revision)) {
+        results.add(record);
+      }
+    }
+    return List.copyOf(results);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      this.index.close();
+    } finally {
+      this.data.close();
+    }
+  }
+
+  private List<Long> scanIndex(
+    final int field,
+    final long hash)
+    throws IOException
+  {
+    final var size = this.index.size();
+    final var entries = ByteBuffer.allocate(Math.toIntExact(size));
+    readFully(this.index, entries, 0L);
+
+    final var offsets = new ArrayList<Long>();
+    for (var entry = 0; entry < size; entry += INDEX_ENTRY_SIZE) {
+      if (entries.getLong(entry + field) == hash) {
+        offsets.add(Long.valueOf(entries.getLong(entry + 16)));
+      }
+    }
+    return offsets;
+  }
+
+  private void appendIndex(
+    final VLResultKey key,
+    final long offset)
+    throws IOException
+  {
+    final var entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    entry.putLong(0, key.hash64());
+    entry.putLong(8, VLResultKey.hash64(key.revision()));
+    entry.putLong(16, offset);
+    writeFully(this.index, entry, this.index.size());
+    this.index.force(false);
+  }
+
+  private void repairIndex()
+    throws IOException
+  {
+    final var indexSize = this.index.size();
+    final var indexComplete = indexSize - (indexSize % INDEX_ENTRY_SIZE);
+    this.index.truncate(indexComplete);
+
+    long position;
+    if (indexComplete == 0L) {
+      position = this.readLine(0L).length + 1L;
+    } else {
+      final var last = ByteBuffer.allocate(8);
+      readFully(this.index, last, indexComplete - 8L);
+      final var offset = last.getLong(0);
+      position = offset + this.readLine(offset).length + 1L;
+    }
+
+    while (position < this.data.size()) {
+      final var line = this.readLine(position);
+      if (position + line.length >= this.data.size()) {
+        this.data.truncate(position);
+        break;
+      }
+      final var record = parse(new String(line, UTF_8));
+      this.appendIndex(record.key(), position);
+      position += line.length + 1L;
+    }
+  }
+
+  private VLResultRecord readRecord(
+    final long offset)
+    throws IOException
+  {
+    return parse(new String(this.readLine(offset), UTF_8));
+  }
+
+  /**
+   * Read the bytes of the line starting at {@code offset}, excluding the
+   * terminating newline. If there is no terminating newline, the bytes up to
+   * the end of the file are returned.
+   */
+
+  private byte[] readLine(
+    final long offset)
+    throws IOException
+  {
+    var buffer = ByteBuffer.allocate(512);
+    var position = offset;
+    var length = 0;
+    while (true) {
+      final var read = this.data.read(buffer, position);
+      if (read <= 0) {
+        return copyOf(buffer, length);
+      }
+      for (var at = length; at < length + read; ++at) {
+        if (buffer.get(at) == (byte) '\n') {
+          return copyOf(buffer, at);
+        }
+      }
+      length += read;
+      position += read;
+      if (!buffer.hasRemaining()) {
+        final var larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        larger.put(buffer.flip());
+        buffer = larger;
+      }
+    }
+  }
+
+  private static byte[] copyOf(
+    final ByteBuffer buffer,
+    final int length)
+  {
+    final var bytes = new byte[length];
+    buffer.get(0, bytes);
+    return bytes;
+  }
+
+  private static String serialize(
+    final VLResultRecord record)
+  {
+    final var key = record.key();
+    final var series = record.experiment();
+    final var times = series.frameTimes();
+    return String.join(
+      ",",
+      field(record.time().toString()),
+      field(key.experiment()),
+      field(key.device()),
+      field(record.deviceName()),
+      Long.toUnsignedString(key.driverVersion()),
+      Integer.toString(key.resolution().width()),
+      Integer.toString(key.resolution().height()),
+      field(key.revision()),
+      Boolean.toString(series.steady()),
+      Integer.toString(series.warmupFrames()),
+      Integer.toString(times.samples()),
+      Long.toString(times.minimum()),
+      Double.toString(times.mean()),
+      Double.toString(times.standardDeviation()),
+      Long.toString(times.p50()),
+      Long.toString(times.p90()),
+      Long.toString(times.p95()),
+      Long.toString(times.p99()),
+      Long.toString(times.maximum()),
+      Long.toString(record.baselineP50())
+    );
+  }
+
+  private static VLResultRecord parse(
+    final String line)
+  {
+    final var fields = split(line);
+    if (fields.size() != FIELD_COUNT) {
+      throw new IllegalStateException(
+        String.format(
+          "Malformed result row (expected %d fields, got %d): %s",
+          Integer.valueOf(FIELD_COUNT),
+          Integer.valueOf(fields.size()),
+          line)
+      );
+    }
+
+    final var key =
+      new VLResultKey(
+        fields.get(1),
+        fields.get(2),
+        Long.parseUnsignedLong(fields.get(4)),
+        new VLBenchmarkResolution(
+          Integer.parseInt(fields.get(5)),
+          Integer.parseInt(fields.get(6))),
+        fields.get(7)
+      );
+
+    final var times =
+      new VLBenchmarkStatistics(
+        Integer.parseInt(fields.get(10)),
+        Long.parseLong(fields.get(11)),
+        Double.parseDouble(fields.get(12)),
+        Double.parseDouble(fields.get(13)),
+        Long.parseLong(fields.get(14)),
+        Long.parseLong(fields.get(15)),
+        Long.parseLong(fields.get(16)),
+        Long.parseLong(fields.get(17)),
+        Long.parseLong(fields.get(18))
+      );
+
+    return new VLResultRecord(
+      key,
+      OffsetDateTime.parse(fields.get(0)),
+      fields.get(3),
+      new VLBenchmarkSeries(
+        Integer.parseInt(fields.get(9)),
+        Boolean.parseBoolean(fields.get(8)),
+        times),
+      Long.parseLong(fields.get(19))
+    );
+  }
+
+  /*
+   * Fields are quoted as in RFC 4180 when they contain a comma or a quote.
+   * Line breaks cannot be represented, because the index addresses rows by
+   * the offset of their first byte and rows end at the first newline.
+   */
+
+  private static String field(
+    final String text)
+  {
+    if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+      throw new IllegalArgumentException(
+        String.format("Stored values cannot contain line breaks: %s", text));
+    }
+    if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0) {
+      return '"' + text.replace("\"", "\"\"") + '"';
+    }
+    return text;
+  }
+
+  private static List<String> split(
+    final String line)
+  {
+    final var fields = new ArrayList<String>(FIELD_COUNT);
+    final var current = new StringBuilder(32);
+    var quoted = false;
+    for (var index = 0; index < line.length(); ++index) {
+      final var c = line.charAt(index);
+      if (quoted) {
+        if (c == '"') {
+          if (index + 1 < line.length() && line.charAt(index + 1) == '"') {
+            current.append('"');
+            ++index;
+          } else {
+            quoted = false;
+          }
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    fields.add(current.toString());
+    return fields;
+  }
+
+  private static ByteBuffer encode(
+    final String text)
+  {
+    return ByteBuffer.wrap(text.getBytes(UTF_8));
+  }
+
+  private static void writeFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long offset)
+    throws IOException
+  {
+    var position = offset;
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private static void readFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long offset)
+    throws IOException
+  {
+    var position = offset;
+    while (buffer.hasRemaining()) {
+      final var read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException(
+          String.format(
+            "Unexpected end of file at offset %d",
+            Long.valueOf(position))
+        );
+      }
+      position += read;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+/**
+ * The thresholds a change in frame time must exceed to be reported.
+ *
+ * @param relativeChange The minimum relative change in mean frame time
+ *                       (such as {@code 0.05} for five percent)
+ * @param tStatistic     The minimum magnitude of Welch's t statistic; with
+ *                       the hundreds of samples a benchmark run takes, a
+ *                       value of {@code 3.0} corresponds to a two-sided
+ *                       significance level of roughly {@code 0.003}
+ */
+
+public record VLResultThresholds(
+  double relativeChange,
+  double tStatistic)
+{
+  /**
+   * The thresholds a change in frame time must exceed to be reported.
+   *
+   * @param relativeChange The minimum relative change in mean frame time
+   *                       (such as {@code 0.05} for five percent)
+   * @param tStatistic     The minimum magnitude of Welch's t statistic
+   */
+
+  public VLResultThresholds
+  {
+    if (!(relativeChange >= 0.0) || !(tStatistic >= 0.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Thresholds (%f, %f) must be non-negative",
+          Double.valueOf(relativeChange),
+          Double.valueOf(tStatistic))
+      );
+    }
+  }
+}
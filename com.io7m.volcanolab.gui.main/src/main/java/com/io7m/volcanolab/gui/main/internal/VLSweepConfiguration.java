@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The configuration of a parameter sweep.
+ *
+ * @param benchmark   The benchmark configuration used to measure each point
+ * @param parameter   The name of the experiment parameter to sweep
+ * @param values      The parameter values, in ascending order
+ * @param logarithmic {@code true} if the values are spaced geometrically,
+ *                    in which case knees are located on a logarithmic scale
+ */
+
+public record VLSweepConfiguration(
+  VLBenchmarkConfiguration benchmark,
+  String parameter,
+  List<Double> values,
+  boolean logarithmic)
+{
+  /**
+   * The configuration of a parameter sweep.
+   *
+   * @param benchmark   The benchmark configuration used to measure each
+   *                    point
+   * @param parameter   The name of the experiment parameter to sweep
+   * @param values      The parameter values, in ascending order
+   * @param logarithmic {@code true} if the values are spaced geometrically,
+   *                    in which case knees are located on a logarithmic
+   *                    scale
+   */
+
+  public VLSweepConfiguration
+  {
+    Objects.requireNonNull(benchmark, "benchmark");
+    Objects.requireNonNull(parameter, "parameter");
+    values = List.copyOf(values);
+
+    if (values.isEmpty()) {
+      throw new IllegalArgumentException("At least one value is required");
+    }
+    for (var index = 1; index < values.size(); ++index) {
+      final var previous = values.get(index - 1).doubleValue();
+      final var current = values.get(index).doubleValue();
+      if (!(current > previous)) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Values must be strictly ascending (%f follows %f)",
+            Double.valueOf(current),
+            Double.valueOf(previous))
+        );
+      }
+    }
+    if (logarithmic && !(values.get(0).doubleValue() > 0.0)) {
+      throw new IllegalArgumentException(
+        "Geometrically spaced values must be positive");
+    }
+  }
+
+  /**
+   * Generate evenly spaced values.
+   *
+   * @param minimum     The first value
+   * @param maximum     The last value
+   * @param count       The number of values
+   * @param logarithmic {@code true} if the values should be spaced
+   *                    geometrically rather than linearly
+   *
+   * @return The values
+   */
+
+  public static List<Double> range(
+    final double minimum,
+    final double maximum,
+    final int count,
+    final boolean logarithmic)
+  {
+    if (count < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Value count %d must be positive",
+          Integer.valueOf(count))
+      );
+    }
+    if (count == 1) {
+      return List.of(Double.valueOf(minimum));
+    }
+
+    final var values = new Double[count];
+    for (var index = 0; index < count; ++index) {
+      final var t = (double) index / (double) (count - 1);
+      final double value;
+      if (logarithmic) {
+        value = minimum * Math.pow(maximum / minimum, t);
+      } else {
+        value = minimum + (maximum - minimum) * t;
+      }
+      values[index] = Double.valueOf(value);
+    }
+
+    /*
+     * Pin the ends so that rounding never pushes them out of a parameter's
+     * range.
+     */
+
+    values[0] = Double.valueOf(minimum);
+    values[count - 1] = Double.valueOf(maximum);
+    return List.of(values);
+  }
+}
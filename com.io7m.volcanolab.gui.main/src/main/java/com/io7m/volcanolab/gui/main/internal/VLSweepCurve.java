@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The frame time curve of a swept parameter at one resolution.
+ *
+ * @param resolution The resolution
+ * @param baseline   The frame times of the baseline experiment
+ * @param points     The measured points, in ascending parameter order
+ * @param knee       The point past which frame times begin to rise
+ *                   sharply, if the curve has one
+ */
+
+public record VLSweepCurve(
+  VLBenchmarkResolution resolution,
+  VLBenchmarkSeries baseline,
+  List<VLSweepPoint> points,
+  Optional<VLSweepPoint> knee)
+{
+  /**
+   * The frame time curve of a swept parameter at one resolution.
+   *
+   * @param resolution The resolution
+   * @param baseline   The frame times of the baseline experiment
+   * @param points     The measured points, in ascending parameter order
+   * @param knee       The point past which frame times begin to rise
+   *                   sharply, if the curve has one
+   */
+
+  public VLSweepCurve
+  {
+    Objects.requireNonNull(resolution, "resolution");
+    Objects.requireNonNull(baseline, "baseline");
+    points = List.copyOf(points);
+    Objects.requireNonNull(knee, "knee");
+  }
+}
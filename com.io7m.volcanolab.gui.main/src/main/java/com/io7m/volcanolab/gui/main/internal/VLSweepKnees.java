@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * Functions to locate the knee of a frame time curve: the point after which
+ * increasing the workload starts to cost disproportionately more time.
+ *
+ * <p>The curve is normalized to the unit square and the knee is taken to be
+ * the point furthest below the diagonal joining its ends (the "Kneedle"
+ * method). A curve that stays close to the diagonal, or that does not rise
+ * at all, has no knee.</p>
+ */
+
+public final class VLSweepKnees
+{
+  /**
+   * The minimum normalized distance below the diagonal for a point to be
+   * considered a knee.
+   */
+
+  public static final double MINIMUM_DISTANCE = 0.1;
+
+  private VLSweepKnees()
+  {
+
+  }
+
+  /**
+   * Find the knee of a curve.
+   *
+   * @param x           The workload values, strictly ascending
+   * @param y           The frame times at each workload value
+   * @param logarithmic {@code true} if the workload values should be
+   *                    compared on a logarithmic scale
+   *
+   * @return The index of the knee, if there is one
+   */
+
+  public static OptionalInt find(
+    final double[] x,
+    final double[] y,
+    final boolean logarithmic)
+  {
+    Objects.requireNonNull(x, "x");
+    Objects.requireNonNull(y, "y");
+
+    if (x.length != y.length) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Curve has %d workload values but %d frame times",
+          Integer.valueOf(x.length),
+          Integer.valueOf(y.length))
+      );
+    }
+
+    final var count = x.length;
+    if (count < 3) {
+      return OptionalInt.empty();
+    }
+
+    final var xs = new double[count];
+    for (var index = 0; index < count; ++index) {
+      xs[index] = logarithmic ? Math.log(x[index]) : x[index];
+    }
+
+    final var xMinimum = xs[0];
+    final var xRange = xs[count - 1] - xMinimum;
+    var yMinimum = y[0];
+    var yMaximum = y[0];
+    for (final var value : y) {
+      yMinimum = Math.min(yMinimum, value);
+      yMaximum = Math.max(yMaximum, value);
+    }
+    final var yRange = yMaximum - yMinimum;
+
+    if (!(xRange > 0.0) || !(yRange > 0.0) || !(y[count - 1] > y[0])) {
+      return OptionalInt.empty();
+    }
+
+    var bestIndex = -1;
+    var bestDistance = MINIMUM_DISTANCE;
+    for (var index = 1; index < count - 1; ++index) {
+      final var xn = (xs[index] - xMinimum) / xRange;
+      final var yn = (y[index] - yMinimum) / yRange;
+      final var distance = xn - yn;
+      if (distance > bestDistance) {
+        bestDistance = distance;
+        bestIndex = index;
+      }
+    }
+
+    return bestIndex < 0 ? OptionalInt.empty() : OptionalInt.of(bestIndex);
+  }
+}
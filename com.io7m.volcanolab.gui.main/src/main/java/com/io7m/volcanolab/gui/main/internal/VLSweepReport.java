@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The results of a parameter sweep.
+ *
+ * @param experiment The name of the experiment
+ * @param parameter  The name of the swept parameter
+ * @param baseline   The name of the baseline experiment
+ * @param device     The device
+ * @param started    The time the sweep started
+ * @param curves     The curves per resolution
+ */
+
+public record VLSweepReport(
+  String experiment,
+  String parameter,
+  String baseline,
+  VLBenchmarkDevice device,
+  OffsetDateTime started,
+  List<VLSweepCurve> curves)
+{
+  /**
+   * The results of a parameter sweep.
+   *
+   * @param experiment The name of the experiment
+   * @param parameter  The name of the swept parameter
+   * @param baseline   The name of the baseline experiment
+   * @param device     The device
+   * @param started    The time the sweep started
+   * @param curves     The curves per resolution
+   */
+
+  public VLSweepReport
+  {
+    Objects.requireNonNull(experiment, "experiment");
+    Objects.requireNonNull(parameter, "parameter");
+    Objects.requireNonNull(baseline, "baseline");
+    Objects.requireNonNull(device, "device");
+    Objects.requireNonNull(started, "started");
+    curves = List.copyOf(curves);
+  }
+}
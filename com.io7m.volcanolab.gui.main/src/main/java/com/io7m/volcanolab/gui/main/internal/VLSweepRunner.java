@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.main.internal;
+
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterType;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import jdk.incubator.foreign.ResourceScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader.Provider;
+import java.util.stream.Collectors;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+
+/**
+ * Sweep an experiment parameter over a range of values at a series of
+ * resolutions, measuring the frame time curve at each resolution.
+ */
+
+public final class VLSweepRunner
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLSweepRunner.class);
+
+  private final VLSweepConfiguration configuration;
+  private final VLBenchmarkRunner runner;
+
+  private VLSweepRunner(
+    final VLSweepConfiguration inConfiguration,
+    final VLBenchmarkRunner inRunner)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.runner =
+      Objects.requireNonNull(inRunner, "runner");
+  }
+
+  /**
+   * Create a runner for the experiments available from the service loader.
+   *
+   * @param configuration The configuration
+   *
+   * @return A runner
+   */
+
+  public static VLSweepRunner create(
+    final VLSweepConfiguration configuration)
+  {
+    return new VLSweepRunner(
+      configuration,
+      VLBenchmarkRunner.create(configuration.benchmark())
+    );
+  }
+
+  /**
+   * Run the sweep.
+   *
+   * @return The results
+   *
+   * @throws Exception On errors
+   */
+
+  public VLSweepReport run()
+    throws Exception
+  {
+    final var started = OffsetDateTime.now();
+    final var benchmark = this.configuration.benchmark();
+    final var experiment = this.runner.findExperiment(benchmark.experiment());
+    final var baseline =
+      this.runner.findExperiment(VLBenchmarkRunner.BASELINE);
+
+    /*
+     * Check the parameter and its range before any device work is done,
+     * so that a mistyped sweep fails immediately. As when the runner learns
+     * experiment names, the unstarted instance holds no resources and is
+     * simply discarded.
+     */
+
+    this.checkValues(
+      findParameter(experiment.get(), this.configuration.parameter()));
+
+    try (var instance = VLBenchmarkRunner.createInstance()) {
+      final var device =
+        VLBenchmarkRunner.findDevice(instance, benchmark.device());
+      final var deviceInfo = VLBenchmarkDevice.of(device);
+      LOG.info("device: {}", deviceInfo.name());
+
+      final var curves = new ArrayList<VLSweepCurve>();
+      for (final var resolution : benchmark.resolutions()) {
+        LOG.info("{}: {}", VLBenchmarkRunner.BASELINE, resolution);
+        final var baselineSeries =
+          this.runner.measure(baseline, device, resolution);
+        final var points = this.sweep(experiment, device, resolution);
+        curves.add(
+          new VLSweepCurve(
+            resolution,
+            baselineSeries,
+            points,
+            this.knee(points))
+        );
+      }
+
+      return new VLSweepReport(
+        benchmark.experiment(),
+        this.configuration.parameter(),
+        VLBenchmarkRunner.BASELINE,
+        deviceInfo,
+        started,
+        curves
+      );
+    }
+  }
+
+  /*
+   * The experiment is started once per resolution and the parameter is
+   * changed between points. Each point is warmed up again, so any work the
+   * experiment does in response to the change is not measured.
+   *
+   * Integer parameters round the values they are given, so geometrically
+   * spaced values at the low end of a range can collapse onto the same
+   * integer. The configured values are strictly ascending and rounding
+   * preserves their order, so a value that the parameter holds after being
+   * set is measured only if it differs from the last one measured. This
+   * keeps the points strictly ascending, as knee detection requires.
+   */
+
+  private List<VLSweepPoint> sweep(
+    final Provider<ExperimentType> provider,
+    final VulkanPhysicalDeviceType device,
+    final VLBenchmarkResolution resolution)
+    throws Exception
+  {
+    final var context = new VLBenchmarkContext(device, resolution);
+    final var name = this.configuration.parameter();
+
+    try (var scope = ResourceScope.newSharedScope();
+         var experiment = provider.get()) {
+      final var frame =
+        ExperimentFrame.allocate(
+          scope,
+          resolution.width(),
+          resolution.height(),
+          BGRA8_PRE);
+
+      final var parameter = findParameter(experiment, name);
+      experiment.start(context);
+      experiment.onSizeChanged(context);
+
+      final var points = new ArrayList<VLSweepPoint>();
+      for (final var value : this.configuration.values()) {
+        parameter.setNumeric(value.doubleValue());
+        final var actual = parameter.numericValue();
+        if (!points.isEmpty()
+          && points.get(points.size() - 1).value() == actual) {
+          LOG.info(
+            "{}: {}: {} = {} duplicates the previous point; skipping",
+            experiment.name(),
+            resolution,
+            name,
+            value);
+          continue;
+        }
+
+        LOG.info(
+          "{}: {}: {} = {}",
+          experiment.name(),
+          resolution,
+          name,
+          Double.valueOf(actual));
+        points.add(
+          new VLSweepPoint(
+            actual,
+            this.runner.measureRunning(experiment, context, frame))
+        );
+      }
+      return points;
+    }
+  }
+
+  private Optional<VLSweepPoint> knee(
+    final List<VLSweepPoint> points)
+  {
+    final var x = new double[points.size()];
+    final var y = new double[points.size()];
+    for (var index = 0; index < points.size(); ++index) {
+      final var point = points.get(index);
+      x[index] = point.value();
+      y[index] = (double) point.series().frameTimes().p50();
+    }
+
+    final var index =
+      VLSweepKnees.find(x, y, this.configuration.logarithmic());
+    if (index.isPresent()) {
+      return Optional.of(points.get(index.getAsInt()));
+    }
+    return Optional.empty();
+  }
+
+  private void checkValues(
+    final ExperimentParameterType parameter)
+  {
+    for (final var value : this.configuration.values()) {
+      final var v = value.doubleValue();
+      if (v < parameter.minimum() || v > parameter.maximum()) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Value %f for parameter %s must be in the range [%f, %f]",
+            value,
+            parameter.name(),
+            Double.valueOf(parameter.minimum()),
+            Double.valueOf(parameter.maximum()))
+        );
+      }
+    }
+  }
+
+  private static ExperimentParameterType findParameter(
+    final ExperimentType experiment,
+    final String name)
+  {
+    final var parameters = experiment.parameters();
+    return parameters.stream()
+      .filter(parameter -> Objects.equals(parameter.name(), name))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException(
+        String.format(
+          "Experiment '%s' has no parameter named '%s'. "
+            + "Available parameters: %s",
+          experiment.name(),
+          name,
+          parameters.stream()
+            .map(ExperimentParameterType::name)
+            .collect(Collectors.joining(", ")))
+      ));
+  }
+}
@@ -24,11 +24,16 @@ module com.io7m.volcanolab.gui.main
   requires static org.osgi.annotation.bundle;
 
   requires com.io7m.claypot.core;
+  requires com.io7m.jcoronado.api;
+  requires com.io7m.jcoronado.lwjgl;
+  requires com.io7m.volcanolab.experiment.api;
   requires com.io7m.volcanolab.gui;
   requires javafx.graphics;
   requires jcommander;
   requires org.slf4j;
 
+  uses com.io7m.volcanolab.experiment.api.ExperimentType;
+
   opens com.io7m.volcanolab.gui.main.internal to jcommander;
 
   exports com.io7m.volcanolab.gui.main;
@@ -18,6 +18,7 @@ package com.io7m.volcanolab.gui;
 
 import com.io7m.volcanolab.gui.internal.VLMainServices;
 import com.io7m.volcanolab.gui.internal.VLMainStrings;
+import com.io7m.volcanolab.gui.internal.VLStartup;
 import com.io7m.volcanolab.gui.internal.VLViewControllerMain;
 import com.io7m.volcanolab.gui.internal.VLViewControllers;
 import com.io7m.volcanolab.services.api.VLServiceDirectoryType;
@@ -59,8 +60,10 @@ public final class VLMainApplication extends Application
   {
     LOG.debug("starting application");
 
+    final var startup = VLStartup.create();
+
     this.mainServices =
-      VLMainServices.create();
+      VLMainServices.create(startup);
     final var strings =
       this.mainServices.requireService(VLMainStrings.class);
     final var mainXML =
@@ -80,13 +83,27 @@ public final class VLMainApplication extends Application
       clazz -> VLViewControllers.createController(
         clazz, stage, this.mainServices));
 
-    final AnchorPane pane = loader.load();
+    /*
+     * The FXML is loaded on the FX application thread while the Vulkan
+     * instance may still be under construction on a startup thread.
+     */
+
+    final AnchorPane pane = startup.run("fxml", loader::load);
     final var controller = (VLViewControllerMain) loader.getController();
 
     stage.setTitle(strings.format("programTitle"));
     stage.setMinWidth(1024.0);
     stage.setMinHeight(768.0);
     stage.setScene(new Scene(pane));
-    stage.show();
+    startup.run("show", () -> {
+      stage.show();
+      return null;
+    });
+
+    startup.completion()
+      .whenComplete((ignored, exception) -> {
+        LOG.info("{}", startup.report());
+        startup.close();
+      });
   }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A cache of suspended experiments. Suspended experiments keep their
+ * devices and resources, so switching back to one resumes it immediately
+ * rather than starting it again.</p>
+ *
+ * <p>The cache holds at most a fixed number of experiments, and at most a
+ * fixed amount of device memory. When either limit is exceeded, the least
+ * recently suspended experiments are closed. The memory held by an
+ * experiment is taken from its {@link ExperimentMetric#DEVICE_MEMORY_BYTES}
+ * metric at the time it is suspended. The bundled experiments publish the
+ * total of their tracked device allocations; an experiment that does not
+ * publish the metric is assumed to hold {@link #DEFAULT_MEMORY_ESTIMATE}
+ * bytes.</p>
+ *
+ * <p>The cache is not thread-safe, and is only used on the render
+ * thread.</p>
+ */
+
+public final class VLExperimentCache implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLExperimentCache.class);
+
+  /**
+   * The device memory assumed to be held by an experiment that does not
+   * publish a {@link ExperimentMetric#DEVICE_MEMORY_BYTES} metric.
+   */
+
+  public static final long DEFAULT_MEMORY_ESTIMATE = 64L * 1024L * 1024L;
+
+  private final int maximumEntries;
+  private final long memoryBudget;
+  private final LinkedHashMap<String, VLExperimentSuspended> entries;
+  private long memoryUsed;
+
+  private VLExperimentCache(
+    final int inMaximumEntries,
+    final long inMemoryBudget)
+  {
+    this.maximumEntries = inMaximumEntries;
+    this.memoryBudget = inMemoryBudget;
+    this.entries = new LinkedHashMap<>();
+    this.memoryUsed = 0L;
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param maximumEntries The maximum number of suspended experiments
+   * @param memoryBudget   The maximum device memory, in bytes, held by all
+   *                       suspended experiments together
+   *
+   * @return A cache
+   */
+
+  public static VLExperimentCache create(
+    final int maximumEntries,
+    final long memoryBudget)
+  {
+    if (maximumEntries < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum entries %d must be non-negative",
+          Integer.valueOf(maximumEntries))
+      );
+    }
+    if (memoryBudget < 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Memory budget %d must be non-negative",
+          Long.valueOf(memoryBudget))
+      );
+    }
+    return new VLExperimentCache(maximumEntries, memoryBudget);
+  }
+
+  /**
+   * @param experiment The experiment
+   *
+   * @return The device memory held by the experiment, as reported by the
+   * experiment or estimated
+   */
+
+  public static long memoryOf(
+    final ExperimentType experiment)
+  {
+    for (final var metric : experiment.metrics()) {
+      if (Objects.equals(metric.name(), ExperimentMetric.DEVICE_MEMORY_BYTES)) {
+        return Math.max(0L, (long) metric.value());
+      }
+    }
+    return DEFAULT_MEMORY_ESTIMATE;
+  }
+
+  /**
+   * Suspend an experiment. Any experiment already suspended under the same
+   * name is closed, and the least recently suspended experiments are
+   * closed until the cache is within its limits. An experiment that could
+   * never fit within the limits is closed immediately, without evicting
+   * anything.
+   *
+   * @param experiment The experiment
+   * @param width      The output width at the time of suspension
+   * @param height     The output height at the time of suspension
+   */
+
+  public void suspend(
+    final ExperimentType experiment,
+    final int width,
+    final int height)
+  {
+    Objects.requireNonNull(experiment, "experiment");
+
+    final var suspended =
+      new VLExperimentSuspended(
+        experiment, width, height, memoryOf(experiment));
+
+    final var existing = this.entries.remove(experiment.name());
+    if (existing != null) {
+      this.memoryUsed -= existing.memory();
+      closeExperiment(existing);
+    }
+
+    if (this.maximumEntries == 0 || suspended.memory() > this.memoryBudget) {
+      closeExperiment(suspended);
+      return;
+    }
+
+    this.entries.put(experiment.name(), suspended);
+    this.memoryUsed += suspended.memory();
+    this.evict();
+  }
+
+  private void evict()
+  {
+    final var iterator = this.entries.values().iterator();
+    while (iterator.hasNext()) {
+      if (this.entries.size() <= this.maximumEntries
+          && this.memoryUsed <= this.memoryBudget) {
+        return;
+      }
+
+      final var eldest = iterator.next();
+      iterator.remove();
+      this.memoryUsed -= eldest.memory();
+      LOG.debug(
+        "evicting {} ({} bytes)",
+        eldest.experiment().name(),
+        Long.valueOf(eldest.memory()));
+      closeExperiment(eldest);
+    }
+  }
+
+  /**
+   * Remove a suspended experiment from the cache so that it can be
+   * resumed.
+   *
+   * @param name The experiment name
+   *
+   * @return The suspended experiment, if one is cached
+   */
+
+  public Optional<VLExperimentSuspended> resume(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var suspended = this.entries.remove(name);
+    if (suspended == null) {
+      return Optional.empty();
+    }
+    this.memoryUsed -= suspended.memory();
+    return Optional.of(suspended);
+  }
+
+  /**
+   * @return The names of the suspended experiments, least recently
+   * suspended first
+   */
+
+  public List<String> names()
+  {
+    return List.copyOf(this.entries.keySet());
+  }
+
+  /**
+   * @return The device memory held by the suspended experiments
+   */
+
+  public long memoryUsed()
+  {
+    return this.memoryUsed;
+  }
+
+  /**
+   * Close all suspended experiments.
+   */
+
+  public void clear()
+  {
+    for (final var suspended : this.entries.values()) {
+      closeExperiment(suspended);
+    }
+    this.entries.clear();
+    this.memoryUsed = 0L;
+  }
+
+  private static void closeExperiment(
+    final VLExperimentSuspended suspended)
+  {
+    try {
+      suspended.experiment().close();
+    } catch (final Exception e) {
+      LOG.error("close: ", e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.clear();
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[VLExperimentCache 0x%08x]",
+      Integer.valueOf(this.hashCode())
+    );
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+
+import java.util.Objects;
+
+/**
+ * An experiment that has been started and then suspended, along with the
+ * size of the output at the time it was suspended.
+ *
+ * @param experiment The experiment
+ * @param width      The output width
+ * @param height     The output height
+ * @param memory     The estimated device memory held by the experiment
+ */
+
+public record VLExperimentSuspended(
+  ExperimentType experiment,
+  int width,
+  int height,
+  long memory)
+{
+  /**
+   * An experiment that has been started and then suspended, along with the
+   * size of the output at the time it was suspended.
+   *
+   * @param experiment The experiment
+   * @param width      The output width
+   * @param height     The output height
+   * @param memory     The estimated device memory held by the experiment
+   */
+
+  public VLExperimentSuspended
+  {
+    Objects.requireNonNull(experiment, "experiment");
+  }
+}
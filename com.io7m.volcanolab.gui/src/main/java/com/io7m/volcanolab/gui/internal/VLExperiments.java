@@ -16,30 +16,27 @@
 
 package com.io7m.volcanolab.gui.internal;
 
-import com.io7m.jcoronado.api.VulkanApplicationInfo;
 import com.io7m.jcoronado.api.VulkanException;
-import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
 import com.io7m.jcoronado.api.VulkanInstanceProviderType;
-import com.io7m.jcoronado.api.VulkanInstanceType;
 import com.io7m.jcoronado.api.VulkanPhysicalDeviceIDProperties;
 import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
 import com.io7m.jcoronado.api.VulkanUncheckedException;
-import com.io7m.jcoronado.api.VulkanVersions;
-import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessageSeverityFlag;
-import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessageTypeFlag;
-import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessengerCreateInfoEXT;
-import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsSLF4J;
-import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsType;
 import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentError;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
 import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentFrameDamage;
 import com.io7m.volcanolab.experiment.api.ExperimentMouseButtons;
+import com.io7m.volcanolab.experiment.api.ExperimentNames;
 import com.io7m.volcanolab.experiment.api.ExperimentType;
 import com.io7m.volcanolab.gui.internal.VLExperimentEventType.VLExperimentEvent;
 import com.io7m.volcanolab.gui.internal.VLExperimentEventType.VLExperimentSelected;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
 import com.io7m.volcanolab.preferences.api.VLPreferences;
 import com.io7m.volcanolab.preferences.api.VLPreferencesDeviceSelection;
 import com.io7m.volcanolab.preferences.api.VLPreferencesServiceType;
@@ -52,20 +49,21 @@ import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.image.PixelBuffer;
-import javafx.scene.image.PixelFormat;
 import javafx.scene.input.KeyCode;
+import jdk.incubator.foreign.ResourceScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
@@ -76,9 +74,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
 import static com.io7m.volcanolab.gui.internal.VLExperimentEventType.VLExperimentSizeChanged;
 
 public final class VLExperiments implements VLExperimentsServiceType
@@ -86,10 +83,35 @@ public final class VLExperiments implements VLExperimentsServiceType
   private static final Logger LOG =
     LoggerFactory.getLogger(VLExperiments.class);
 
+  /**
+   * The number of frames between samples of the metrics published by the
+   * running experiment.
+   */
+
+  private static final int EXPERIMENT_METRICS_INTERVAL = 60;
+
+  /**
+   * The system property giving the maximum number of suspended experiments
+   * kept for fast switching.
+   */
+
+  public static final String PROPERTY_CACHE_SIZE =
+    "com.io7m.volcanolab.experiments.cacheSize";
+
+  /**
+   * The system property giving the maximum device memory, in bytes, held
+   * by suspended experiments.
+   */
+
+  public static final String PROPERTY_CACHE_MEMORY =
+    "com.io7m.volcanolab.experiments.cacheMemoryBytes";
+
   private final ExecutorService executor;
   private final VulkanInstanceProviderType instances;
-  private final TreeMap<String, ExperimentType> experiments;
+  private final TreeMap<String, Provider<ExperimentType>> experiments;
+  private final VLExperimentCache experimentCache;
   private final VLPreferencesServiceType preferences;
+  private final VLMetrics metrics;
   private final LinkedBlockingQueue<WrappedCommand<?>> commands;
   private final AtomicBoolean stopped;
   private final AtomicReference<VulkanPhysicalDeviceType> device;
@@ -101,20 +123,29 @@ public final class VLExperiments implements VLExperimentsServiceType
   private final SimpleObjectProperty<VLDeviceSelection> deviceProperty;
   private final ConcurrentHashMap.KeySetView<KeyCode, Boolean> keyStates;
   private final AtomicReference<ExperimentMouseButtons> mouseButtons;
-  private VulkanInstanceType instance;
+  private final Optional<CompletableFuture<VLVulkan>> vulkanStartup;
+  private VLVulkan vulkan;
   private final DoubleProperty frameTime;
   private volatile Disposable experimentSubscription;
+  private int experimentMetricsFrames;
+  private volatile boolean experimentFailed;
 
   private VLExperiments(
     final ExecutorService inExecutor,
     final VulkanInstanceProviderType inInstances,
-    final TreeMap<String, ExperimentType> inExperiments,
-    final VLPreferencesServiceType inPreferences)
+    final TreeMap<String, Provider<ExperimentType>> inExperiments,
+    final VLExperimentCache inExperimentCache,
+    final VLPreferencesServiceType inPreferences,
+    final VLMetrics inMetrics,
+    final Optional<CompletableFuture<VLVulkan>> inVulkanStartup)
   {
     this.executor = inExecutor;
     this.instances = inInstances;
     this.experiments = inExperiments;
+    this.experimentCache = inExperimentCache;
     this.preferences = inPreferences;
+    this.metrics = inMetrics;
+    this.vulkanStartup = inVulkanStartup;
     this.commands = new LinkedBlockingQueue<>();
     this.stopped = new AtomicBoolean(false);
     this.device = new AtomicReference<>();
@@ -165,7 +196,38 @@ public final class VLExperiments implements VLExperimentsServiceType
     final VLPreferencesServiceType preferences)
   {
     Objects.requireNonNull(preferences, "preferences");
+    return createWith(
+      preferences, VLMetrics.createUnexported(), Optional.empty());
+  }
+
+  /**
+   * Create the experiments service. The Vulkan instance is created
+   * elsewhere, concurrently with the rest of startup; the render thread
+   * waits for it only when it first needs a device.
+   *
+   * @param preferences The preferences
+   * @param metrics     The metrics
+   * @param vulkan      The Vulkan instance, once created
+   *
+   * @return The service
+   */
+
+  public static VLExperimentsServiceType create(
+    final VLPreferencesServiceType preferences,
+    final VLMetrics metrics,
+    final CompletableFuture<VLVulkan> vulkan)
+  {
+    Objects.requireNonNull(preferences, "preferences");
+    Objects.requireNonNull(metrics, "metrics");
+    Objects.requireNonNull(vulkan, "vulkan");
+    return createWith(preferences, metrics, Optional.of(vulkan));
+  }
 
+  private static VLExperimentsServiceType createWith(
+    final VLPreferencesServiceType preferences,
+    final VLMetrics metrics,
+    final Optional<CompletableFuture<VLVulkan>> vulkan)
+  {
     final var executor =
       Executors.newSingleThreadExecutor(
         runnable -> {
@@ -180,18 +242,33 @@ public final class VLExperiments implements VLExperimentsServiceType
     final var instances =
       VulkanLWJGLInstanceProvider.create();
 
+    /*
+     * Providers are indexed by the name on their type, so no experiment is
+     * instantiated until it is selected.
+     */
+
     final var experiments =
-      new TreeMap<>(
-        ServiceLoader.load(ExperimentType.class)
-          .stream()
-          .map(ServiceLoader.Provider::get)
-          .collect(Collectors.toMap(ExperimentType::name, Function.identity()))
-      );
+      ExperimentNames.index(ServiceLoader.load(ExperimentType.class));
 
     LOG.debug("loaded {} experiments", experiments.size());
 
+    final var experimentCache =
+      VLExperimentCache.create(
+        Integer.getInteger(PROPERTY_CACHE_SIZE, 4).intValue(),
+        Long.getLong(PROPERTY_CACHE_MEMORY, 512L * 1024L * 1024L)
+          .longValue()
+      );
+
     final var controller =
-      new VLExperiments(executor, instances, experiments, preferences);
+      new VLExperiments(
+        executor,
+        instances,
+        experiments,
+        experimentCache,
+        preferences,
+        metrics,
+        vulkan
+      );
 
     executor.execute(controller::process);
 
@@ -204,27 +281,6 @@ public final class VLExperiments implements VLExperimentsServiceType
     return controller;
   }
 
-  private static PixelBuffer<ByteBuffer> initializeImageBuffer(
-    final int width,
-    final int height)
-  {
-    final var bufferSize =
-      width * height * 4;
-    final var byteBuffer =
-      ByteBuffer.allocateDirect(bufferSize);
-
-    for (var index = 0; index < bufferSize; index += 4) {
-      byteBuffer.put(index + 0, (byte) 0x00);
-      byteBuffer.put(index + 1, (byte) 0x00);
-      byteBuffer.put(index + 2, (byte) 0x00);
-      byteBuffer.put(index + 3, (byte) 0xff);
-    }
-
-    final PixelFormat<ByteBuffer> pixelFormat =
-      PixelFormat.getByteBgraPreInstance();
-    return new PixelBuffer<>(width, height, byteBuffer, pixelFormat);
-  }
-
   @Override
   public Observable<VLExperimentEventType> events()
   {
@@ -254,27 +310,33 @@ public final class VLExperiments implements VLExperimentsServiceType
     final int width,
     final int height)
   {
-    return this.submit(Void.class, () -> this.opSetSize(width, height));
+    return this.submit(
+      "setScreenSize", Void.class, () -> this.opSetSize(width, height));
   }
 
   @Override
   public CompletableFuture<Void> setPhysicalDevice(
     final VLDeviceSelection selection)
   {
-    return this.submit(Void.class, () -> this.opSetPhysicalDevice(selection));
+    return this.submit(
+      "setPhysicalDevice",
+      Void.class,
+      () -> this.opSetPhysicalDevice(selection));
   }
 
   @Override
   public CompletableFuture<Void> setExperiment(
     final String name)
   {
-    return this.submit(Void.class, () -> this.opSetExperiment(name));
+    return this.submit(
+      "setExperiment", Void.class, () -> this.opSetExperiment(name));
   }
 
   @Override
   public CompletableFuture<VLDevicePropertiesList> listDevices()
   {
-    return this.submit(VLDevicePropertiesList.class, this::opListDevices);
+    return this.submit(
+      "listDevices", VLDevicePropertiesList.class, this::opListDevices);
   }
 
   @Override
@@ -317,13 +379,15 @@ public final class VLExperiments implements VLExperimentsServiceType
   }
 
   private <T> CompletableFuture<T> submit(
+    final String name,
     final Class<T> resultClass,
     final Callable<T> command)
   {
     final var future =
       new CompletableFuture<T>();
     final var wrapped =
-      new WrappedCommand<T>(future, resultClass, command);
+      new WrappedCommand<T>(
+        name, System.nanoTime(), future, resultClass, command);
 
     this.commands.add(wrapped);
     return future;
@@ -337,13 +401,7 @@ public final class VLExperiments implements VLExperimentsServiceType
           (WrappedCommand<Object>) (Object) this.commands.poll();
 
         if (command != null) {
-          try {
-            final var result = command.command.call();
-            final var resultT = command.resultClass.cast(result);
-            command.future.complete(resultT);
-          } catch (final Exception e) {
-            command.future.completeExceptionally(e);
-          }
+          this.processCommand(command);
         }
 
         this.processRender();
@@ -352,6 +410,34 @@ public final class VLExperiments implements VLExperimentsServiceType
       }
     }
 
+    /*
+     * The current image may still be displayed, so its memory is left to be
+     * freed once JavaFX no longer refers to it.
+     */
+
+    this.imageContext.set(null);
+
+    /*
+     * Experiments hold devices created from the Vulkan instance, so they
+     * are closed before the instance.
+     */
+
+    final var experimentNow = this.experiment.getAndSet(null);
+    if (experimentNow != null) {
+      closeExperiment(experimentNow);
+    }
+    this.experimentCache.close();
+
+    /*
+     * A Vulkan instance created during startup is owned by this service
+     * even if the render thread never claimed it.
+     */
+
+    if (this.vulkan == null) {
+      this.vulkanStartup.ifPresent(
+        future -> future.thenAccept(VLExperiments::closeVulkan));
+    }
+
     try {
       this.resources.close();
     } catch (final ClosingResourceFailedException e) {
@@ -361,6 +447,34 @@ public final class VLExperiments implements VLExperimentsServiceType
     }
   }
 
+  private void processCommand(
+    final WrappedCommand<Object> command)
+  {
+    final var event = new VLJFRCommand();
+    final var timeStarted = System.nanoTime();
+    event.begin();
+
+    try {
+      final var result = command.command.call();
+      final var resultT = command.resultClass.cast(result);
+      command.future.complete(resultT);
+    } catch (final Exception e) {
+      event.failed = true;
+      command.future.completeExceptionally(e);
+    }
+
+    event.end();
+
+    final var queueLatency = timeStarted - command.submitted;
+    this.metrics.onCommand(queueLatency);
+
+    if (event.shouldCommit()) {
+      event.command = command.name;
+      event.queueLatency = queueLatency;
+      event.commit();
+    }
+  }
+
   private void processRender()
   {
     final var deviceNow = this.device.get();
@@ -379,11 +493,17 @@ public final class VLExperiments implements VLExperimentsServiceType
     }
 
     try {
+      final var event = new VLJFRFrame();
+      event.begin();
+
       final var timeThen = Instant.now();
-      final var byteBuffer = imageNow.imageBuffer.getBuffer();
-      experimentNow.render(this.execContext, byteBuffer);
+      experimentNow.render(this.execContext, imageNow.frame);
 
       final var timeNow = Instant.now();
+      final var damageThen = System.nanoTime();
+      final var damage = imageNow.damage.update(experimentNow.damage());
+      final var damageNow = System.nanoTime();
+
       final var timeNext = timeThen.plusMillis(16L);
       final var timeWait = Duration.between(timeNow, timeNext);
       final var timeWaitMs = timeWait.toMillis();
@@ -391,28 +511,120 @@ public final class VLExperiments implements VLExperimentsServiceType
         Thread.sleep(timeWaitMs);
       }
 
+      event.end();
+
+      final var renderTime = Duration.between(timeThen, timeNow).toNanos();
+      final var damageTime = damageNow - damageThen;
+      final var waitTime = System.nanoTime() - damageNow;
+      final var damagedBytes =
+        (long) damage.width() * (long) damage.height() * 4L;
+
+      this.metrics.onFrame(
+        experimentNow.name(),
+        renderTime,
+        damageTime,
+        waitTime,
+        damagedBytes
+      );
+      this.sampleExperimentMetrics(experimentNow);
+
+      if (event.shouldCommit()) {
+        event.experiment = experimentNow.name();
+        event.width = imageNow.width;
+        event.height = imageNow.height;
+        event.renderTime = renderTime;
+        event.damageTime = damageTime;
+        event.waitTime = waitTime;
+        event.damagedBytes = damagedBytes;
+        event.commit();
+      }
+
       Platform.runLater(() -> {
         this.frameTime.set(
           (double) Duration.between(timeThen, timeNow).toNanos() / 1000000.0
         );
-        imageNow.imageBuffer.updateBuffer(param -> null);
+
+        /*
+         * Only the damaged region is marked as changed, so JavaFX uploads
+         * no more of the image than necessary, and nothing at all for a
+         * frame that did not change.
+         */
+
+        if (!damage.isEmpty()) {
+          imageNow.imageBuffer.updateBuffer(param -> rectangleOf(damage));
+        }
       });
     } catch (final Exception e) {
       LOG.error("experiment error: ", e);
     }
   }
 
+  private void sampleExperimentMetrics(
+    final ExperimentType experimentNow)
+  {
+    if (this.experimentMetricsFrames == 0) {
+      this.metrics.onExperimentMetrics(experimentNow.metrics());
+      this.metrics.onExperimentMemory(experimentNow.memoryHeaps());
+    }
+    this.experimentMetricsFrames =
+      (this.experimentMetricsFrames + 1) % EXPERIMENT_METRICS_INTERVAL;
+  }
+
+  private static Rectangle2D rectangleOf(
+    final ExperimentFrameDamage damage)
+  {
+    return new Rectangle2D(
+      damage.x(),
+      damage.y(),
+      damage.width(),
+      damage.height()
+    );
+  }
+
   private Void opSetSize(
     final int width,
     final int height)
   {
+    final var event = new VLJFRResize();
+    event.begin();
+
+    /*
+     * Each image gets its own shared scope: the memory is written on this
+     * thread and read by JavaFX, and is freed when the image is retired.
+     */
+
+    final var scope =
+      VLImageScopes.create();
+    final var frame =
+      ExperimentFrame.allocate(scope, width, height, BGRA8_PRE);
     final var imageBuffer =
-      initializeImageBuffer(width, height);
-    this.imageContext.set(
-      new ImageContext(imageBuffer, width, height));
+      VLImageBuffers.initialize(frame);
+    final var damage =
+      VLFrameDamageTracker.create(VLPixelKernels.best(), frame);
+
+    final var imageThen =
+      this.imageContext.getAndSet(
+        new ImageContext(imageBuffer, frame, damage, scope, width, height));
+
     this.events.onNext(
       new VLExperimentSizeChanged(width, height, imageBuffer)
     );
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.width = width;
+      event.height = height;
+      event.commit();
+    }
+
+    /*
+     * The new image was handed to the FX thread above, after any pending
+     * updates to the old image, so the old image is retired behind both.
+     */
+
+    if (imageThen != null) {
+      VLImageScopes.retire(imageThen.scope);
+    }
     return null;
   }
 
@@ -420,20 +632,53 @@ public final class VLExperiments implements VLExperimentsServiceType
     final VLDeviceSelection selection)
     throws Exception
   {
+    final var event = new VLJFRDeviceSelected();
+    event.begin();
+
     final var foundDeviceOpt =
-      this.createOrGetInstance()
-        .enumeratePhysicalDevices()
+      this.createOrGetVulkan()
+        .devices()
+        .stream()
         .filter(candidate -> deviceMatches(
           selection.name(),
           selection.deviceId(),
           candidate))
         .findFirst();
 
+    event.end();
+    if (event.shouldCommit()) {
+      event.device = selection.name();
+      event.deviceUUID =
+        selection.deviceId()
+          .map(UUID::toString)
+          .orElse(null);
+      event.found = foundDeviceOpt.isPresent();
+      event.commit();
+    }
+
     if (foundDeviceOpt.isEmpty()) {
       return null;
     }
 
-    this.device.set(foundDeviceOpt.get());
+    /*
+     * Suspended experiments hold resources created on the previous device,
+     * and cannot be resumed on the new one. The same is true of the
+     * running experiment: it is closed rather than suspended, and a fresh
+     * instance is started on the new device.
+     */
+
+    final var deviceNext = foundDeviceOpt.get();
+    final var deviceThen = this.device.getAndSet(deviceNext);
+    if (deviceThen != deviceNext) {
+      this.experimentCache.clear();
+
+      final var running = this.detachExperiment();
+      if (running.isPresent()) {
+        final var experimentThen = running.get();
+        closeExperiment(experimentThen);
+        this.opSetExperiment(experimentThen.name());
+      }
+    }
 
     Platform.runLater(() -> {
       this.deviceProperty.set(selection);
@@ -455,64 +700,131 @@ public final class VLExperiments implements VLExperimentsServiceType
     final String name)
     throws Exception
   {
-    final var experimentNow =
-      this.experiment.getAndSet(null);
+    this.detachExperiment().ifPresent(this::suspendOrClose);
 
-    if (experimentNow != null) {
-      experimentNow.close();
-      final var sub = this.experimentSubscription;
-      if (sub != null) {
-        sub.dispose();
-      }
-    }
+    this.experimentMetricsFrames = 0;
+    this.experimentFailed = false;
 
-    final var experimentNext = this.experiments.get(name);
-    if (experimentNext == null) {
+    final var provider = this.experiments.get(name);
+    if (provider == null) {
       return null;
     }
 
-    this.resources.add(experimentNext);
+    final var suspendedOpt = this.experimentCache.resume(name);
+    final var experimentNext =
+      suspendedOpt.map(VLExperimentSuspended::experiment)
+        .orElseGet(provider::get);
+
     this.experimentSubscription =
       experimentNext.events()
-        .subscribe(this::onExperimentEvent);
+        .subscribe(e -> this.onExperimentEvent(name, e));
+
+    try {
+      if (suspendedOpt.isPresent()) {
+        this.resumeExperiment(suspendedOpt.get());
+      } else {
+        experimentNext.start(this.execContext);
+      }
+    } catch (final Exception e) {
+      this.experimentSubscription.dispose();
+      closeExperiment(experimentNext);
+      throw e;
+    }
 
-    experimentNext.start(this.execContext);
     this.experiment.set(experimentNext);
     this.events.onNext(new VLExperimentSelected(name));
     return null;
   }
 
-  private void onExperimentEvent(
-    final ExperimentEventType e)
+  /**
+   * Stop delivering events and metrics from the running experiment, and
+   * hand it to the caller to be suspended or closed.
+   */
+
+  private Optional<ExperimentType> detachExperiment()
   {
-    this.events.onNext(new VLExperimentEvent(e));
+    final var experimentNow = this.experiment.getAndSet(null);
+    if (experimentNow == null) {
+      return Optional.empty();
+    }
+
+    final var sub = this.experimentSubscription;
+    if (sub != null) {
+      sub.dispose();
+    }
+    this.metrics.onExperimentStopped();
+    return Optional.of(experimentNow);
   }
 
-  private VLDevicePropertiesList opListDevices()
-    throws VulkanException
+  /**
+   * A suspended experiment resumes with the resources it had, and only
+   * needs to be told if the output size changed while it was suspended.
+   */
+
+  private void resumeExperiment(
+    final VLExperimentSuspended suspended)
+    throws Exception
   {
-    return new VLDevicePropertiesList(
-      this.createOrGetInstance()
-        .enumeratePhysicalDevices()
-        .map(VLExperiments::devicePropertiesOf)
-        .collect(Collectors.toList())
-    );
+    final var imageNow = this.imageContext.get();
+    if (imageNow == null) {
+      return;
+    }
+
+    if (imageNow.width != suspended.width()
+        || imageNow.height != suspended.height()) {
+      suspended.experiment().onSizeChanged(this.execContext);
+    }
   }
 
-  private static VLDeviceProperties devicePropertiesOf(
-    final VulkanPhysicalDeviceType device)
+  private void suspendOrClose(
+    final ExperimentType experimentNow)
+  {
+    final var imageNow = this.imageContext.get();
+    if (this.experimentFailed || imageNow == null) {
+      closeExperiment(experimentNow);
+      return;
+    }
+
+    this.experimentCache.suspend(
+      experimentNow, imageNow.width, imageNow.height);
+  }
+
+  private static void closeExperiment(
+    final ExperimentType experimentNow)
   {
     try {
-      return new VLDeviceProperties(
-        device.properties(),
-        device.idProperties(),
-        device.driverProperties()
-      );
-    } catch (final VulkanException e) {
-      throw new VulkanUncheckedException(e);
+      experimentNow.close();
+    } catch (final Exception e) {
+      LOG.error("close: ", e);
     }
   }
 
+  private void onExperimentEvent(
+    final String name,
+    final ExperimentEventType e)
+  {
+    if (e instanceof ExperimentError) {
+      this.experimentFailed = true;
+    }
+    if (e instanceof ExperimentEventLifecycle lifecycle) {
+      final var event = new VLJFRExperimentLifecycle();
+      if (event.isEnabled()) {
+        event.experiment = name;
+        event.status = lifecycle.status().name();
+        event.progress = lifecycle.progress();
+        event.message = lifecycle.message();
+        event.commit();
+      }
+    }
+    this.events.onNext(new VLExperimentEvent(e));
+  }
+
+  private VLDevicePropertiesList opListDevices()
+    throws Exception
+  {
+    return this.createOrGetVulkan().deviceProperties();
+  }
+
   private static boolean deviceMatches(
     final String deviceName,
     final Optional<UUID> deviceUUID,
@@ -537,64 +849,36 @@ public final class VLExperiments implements VLExperimentsServiceType
     return Objects.equals(idProperties.deviceUUID(), uuid);
   }
 
-  private VulkanInstanceType createOrGetInstance()
-    throws VulkanException
+  private VLVulkan createOrGetVulkan()
+    throws Exception
   {
-    if (this.instance != null) {
-      return this.instance;
+    if (this.vulkan != null) {
+      return this.vulkan;
     }
 
-    final var vulkanVersion =
-      VulkanVersions.encode(this.instances.findSupportedInstanceVersion());
-
-    final var appInfo =
-      VulkanApplicationInfo.builder()
-        .setApplicationName("com.io7m.volcanolab")
-        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
-        .setVulkanAPIVersion(vulkanVersion)
-        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
-        .setEngineName("com.io7m.volcanolab")
-        .build();
-
-    final VulkanInstanceCreateInfo createInfo =
-      VulkanInstanceCreateInfo.builder()
-        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
-        .addEnabledExtensions("VK_EXT_debug_utils")
-        .setApplicationInfo(appInfo)
-        .build();
-
-    this.instance =
-      this.resources.add(
-        this.instances.createInstance(createInfo, Optional.empty()));
-
-    /*
-     * Enable debug messages.
-     */
-
-    final var debug =
-      this.instance.findEnabledExtension(
-        "VK_EXT_debug_utils",
-        VulkanDebugUtilsType.class
-      ).orElseThrow(() -> {
-        return new IllegalStateException(
-          "Missing VK_EXT_debug_utils extension");
-      });
+    if (this.vulkanStartup.isPresent()) {
+      this.vulkan = this.resources.add(this.vulkanStartup.get().get());
+    } else {
+      this.vulkan = this.resources.add(VLVulkan.create(this.instances));
+    }
+    return this.vulkan;
+  }
 
-    this.resources.add(
-      debug.createDebugUtilsMessenger(
-        this.instance,
-        VulkanDebugUtilsMessengerCreateInfoEXT.builder()
-          .setSeverity(EnumSet.allOf(VulkanDebugUtilsMessageSeverityFlag.class))
-          .setType(EnumSet.allOf(VulkanDebugUtilsMessageTypeFlag.class))
-          .setCallback(new VulkanDebugUtilsSLF4J(LOG))
-          .build()
-      )
-    );
-    return this.instance;
+  private static void closeVulkan(
+    final VLVulkan vulkan)
+  {
+    try {
+      vulkan.close();
+    } catch (final ClosingResourceFailedException e) {
+      LOG.error("close: ", e);
+    }
   }
 
   private record ImageContext(
     PixelBuffer<ByteBuffer> imageBuffer,
+    ExperimentFrame frame,
+    VLFrameDamageTracker damage,
+    ResourceScope scope,
     int width,
     int height)
   {
@@ -602,6 +886,8 @@ public final class VLExperiments implements VLExperimentsServiceType
   }
 
   private record WrappedCommand<T>(
+    String name,
+    long submitted,
     CompletableFuture<T> future,
     Class<T> resultClass,
     Callable<T> command)
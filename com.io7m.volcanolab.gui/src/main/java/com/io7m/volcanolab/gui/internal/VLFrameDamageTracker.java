@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentFrameDamage;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>Determine which region of a frame changed between renders, so that
+ * only that region need be uploaded to the display.</p>
+ *
+ * <p>Experiments that report their own damage are believed. For the rest,
+ * each row of the frame is divided into tiles of {@link #TILE_WIDTH} pixels
+ * and each tile is hashed; the damage is the bounding box of the tiles
+ * whose hashes differ from those of the previous frame.</p>
+ */
+
+public final class VLFrameDamageTracker
+{
+  /**
+   * The width in pixels of the tiles that are hashed.
+   */
+
+  public static final int TILE_WIDTH = 128;
+
+  private final VLPixelKernelsType kernels;
+  private final ExperimentFrame frame;
+  private final ByteBuffer buffer;
+  private final int tilesPerRow;
+  private final long[] hashes;
+  private boolean hashesValid;
+
+  private VLFrameDamageTracker(
+    final VLPixelKernelsType inKernels,
+    final ExperimentFrame inFrame)
+  {
+    this.kernels = Objects.requireNonNull(inKernels, "kernels");
+    this.frame = Objects.requireNonNull(inFrame, "frame");
+    this.buffer = inFrame.asByteBuffer();
+    this.tilesPerRow = (inFrame.width() + TILE_WIDTH - 1) / TILE_WIDTH;
+    this.hashes = new long[this.tilesPerRow * inFrame.height()];
+    this.hashesValid = false;
+  }
+
+  /**
+   * Create a tracker for a frame.
+   *
+   * @param kernels The kernels used to hash pixels
+   * @param frame   The frame
+   *
+   * @return A tracker
+   */
+
+  public static VLFrameDamageTracker create(
+    final VLPixelKernelsType kernels,
+    final ExperimentFrame frame)
+  {
+    return new VLFrameDamageTracker(kernels, frame);
+  }
+
+  /**
+   * Determine the damage caused by the most recent render.
+   *
+   * @param reported The damage reported by the experiment, if any
+   *
+   * @return The damaged region of the frame
+   */
+
+  public ExperimentFrameDamage update(
+    final Optional<ExperimentFrameDamage> reported)
+  {
+    Objects.requireNonNull(reported, "reported");
+
+    /*
+     * The hashes are not maintained while an experiment reports its own
+     * damage, so they must be rebuilt if the experiment ever stops.
+     */
+
+    if (reported.isPresent()) {
+      this.hashesValid = false;
+      return reported.get().clip(this.frame);
+    }
+
+    if (!this.hashesValid) {
+      this.hashAll();
+      this.hashesValid = true;
+      return ExperimentFrameDamage.all(this.frame);
+    }
+    return this.hashChanged();
+  }
+
+  private void hashAll()
+  {
+    for (var y = 0; y < this.frame.height(); ++y) {
+      for (var tile = 0; tile < this.tilesPerRow; ++tile) {
+        this.hashes[(y * this.tilesPerRow) + tile] = this.hashTile(y, tile);
+      }
+    }
+  }
+
+  private ExperimentFrameDamage hashChanged()
+  {
+    var tileMinimum = Integer.MAX_VALUE;
+    var tileMaximum = -1;
+    var yMinimum = Integer.MAX_VALUE;
+    var yMaximum = -1;
+
+    for (var y = 0; y < this.frame.height(); ++y) {
+      for (var tile = 0; tile < this.tilesPerRow; ++tile) {
+        final var index = (y * this.tilesPerRow) + tile;
+        final var hash = this.hashTile(y, tile);
+        if (hash != this.hashes[index]) {
+          this.hashes[index] = hash;
+          tileMinimum = Math.min(tileMinimum, tile);
+          tileMaximum = Math.max(tileMaximum, tile);
+          yMinimum = Math.min(yMinimum, y);
+          yMaximum = y;
+        }
+      }
+    }
+
+    if (yMaximum < 0) {
+      return ExperimentFrameDamage.NONE;
+    }
+
+    final var x0 = tileMinimum * TILE_WIDTH;
+    final var x1 = Math.min((tileMaximum + 1) * TILE_WIDTH, this.frame.width());
+    return new ExperimentFrameDamage(
+      x0,
+      yMinimum,
+      x1 - x0,
+      (yMaximum - yMinimum) + 1
+    );
+  }
+
+  private long hashTile(
+    final int y,
+    final int tile)
+  {
+    final var x = tile * TILE_WIDTH;
+    final var width = Math.min(TILE_WIDTH, this.frame.width() - x);
+    final var offset = (int) this.frame.rowOffset(y) + (x * 4);
+    return this.kernels.hash(this.buffer, offset, width);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Functions to expose experiment frames to JavaFX.
+ */
+
+public final class VLImageBuffers
+{
+  private VLImageBuffers()
+  {
+
+  }
+
+  /**
+   * Clear {@code frame} to opaque black and wrap it in a pixel buffer that
+   * JavaFX can display without copying.
+   *
+   * @param frame A tightly packed {@code BGRA8_PRE} frame
+   *
+   * @return A pixel buffer backed by the frame memory
+   */
+
+  public static PixelBuffer<ByteBuffer> initialize(
+    final ExperimentFrame frame)
+  {
+    Objects.requireNonNull(frame, "frame");
+
+    final var byteBuffer = frame.asByteBuffer();
+    VLPixelKernels.best().fillAll(byteBuffer, 0xff000000);
+
+    final PixelFormat<ByteBuffer> pixelFormat =
+      PixelFormat.getByteBgraPreInstance();
+    return new PixelBuffer<>(
+      frame.width(),
+      frame.height(),
+      byteBuffer,
+      pixelFormat
+    );
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import jdk.incubator.foreign.ResourceScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.Objects;
+
+/**
+ * Functions to manage the lifetime of the memory behind displayed images.
+ *
+ * <p>JavaFX reads image memory directly: queued buffer updates run on the FX
+ * thread, and the renderer uploads images on its own thread. Memory is
+ * therefore only freed once the FX side has let go of it: either on the FX
+ * thread after the image that replaced it has been installed and rendered,
+ * or by the garbage collector once the image itself is unreachable.</p>
+ */
+
+public final class VLImageScopes
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLImageScopes.class);
+
+  private static final Cleaner CLEANER =
+    Cleaner.create();
+
+  /*
+   * The renderer draws each pulse on its own thread, and the FX thread waits
+   * for the previous pulse to finish rendering before synchronizing the
+   * next one. A replaced image can still be drawn by the pulse in which it
+   * is replaced, so the memory is closed during the pulse after that one.
+   */
+
+  private static final int RETIREMENT_PULSES = 2;
+
+  private VLImageScopes()
+  {
+
+  }
+
+  /**
+   * Create a scope for image memory. The scope should be closed with
+   * {@link #retire(ResourceScope)}; if it never is, the memory is freed
+   * when the scope (and therefore any image backed by it) becomes
+   * unreachable.
+   *
+   * @return A new shared scope
+   */
+
+  public static ResourceScope create()
+  {
+    return ResourceScope.newSharedScope(CLEANER);
+  }
+
+  /**
+   * Retire the scope of an image that has been replaced. This must be called
+   * on the thread that published the replacement image, after the
+   * replacement has been handed to the FX thread, so that the replacement
+   * and any pending updates to the old image run on the FX thread before
+   * the retirement begins.
+   *
+   * @param scope The scope
+   */
+
+  public static void retire(
+    final ResourceScope scope)
+  {
+    Objects.requireNonNull(scope, "scope");
+
+    try {
+      Platform.runLater(() -> new Retirement(scope).start());
+    } catch (final IllegalStateException e) {
+      /*
+       * The toolkit has exited, and nothing can be reading the memory.
+       */
+
+      close(scope);
+    }
+  }
+
+  private static void close(
+    final ResourceScope scope)
+  {
+    try {
+      scope.close();
+    } catch (final IllegalStateException e) {
+      LOG.error("close image: ", e);
+    }
+  }
+
+  private static final class Retirement extends AnimationTimer
+  {
+    private final ResourceScope scope;
+    private int pulses;
+
+    Retirement(
+      final ResourceScope inScope)
+    {
+      this.scope = inScope;
+    }
+
+    @Override
+    public void handle(
+      final long now)
+    {
+      ++this.pulses;
+      if (this.pulses >= RETIREMENT_PULSES) {
+        this.stop();
+        close(this.scope);
+      }
+    }
+  }
+}
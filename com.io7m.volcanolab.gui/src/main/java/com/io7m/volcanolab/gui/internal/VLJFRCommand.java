@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A command executed on the render thread.
+ */
+
+@Name("com.io7m.volcanolab.Command")
+@Label("Command")
+@Category({"Volcanolab", "Rendering"})
+@Description("A command executed on the render thread")
+@StackTrace(false)
+public final class VLJFRCommand extends Event
+{
+  @Label("Command")
+  String command;
+
+  @Label("Queue Latency")
+  @Description("The time between submitting the command and executing it")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueLatency;
+
+  @Label("Failed")
+  boolean failed;
+
+  /**
+   * A command executed on the render thread.
+   */
+
+  public VLJFRCommand()
+  {
+
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lifecycle transition published by an experiment.
+ */
+
+@Name("com.io7m.volcanolab.ExperimentLifecycle")
+@Label("Experiment Lifecycle")
+@Category({"Volcanolab", "Experiments"})
+@Description("A lifecycle transition published by an experiment")
+@StackTrace(false)
+public final class VLJFRExperimentLifecycle extends Event
+{
+  @Label("Experiment")
+  String experiment;
+
+  @Label("Status")
+  String status;
+
+  @Label("Progress")
+  double progress;
+
+  @Label("Message")
+  String message;
+
+  /**
+   * A lifecycle transition published by an experiment.
+   */
+
+  public VLJFRExperimentLifecycle()
+  {
+
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A frame rendered by the render thread. The event spans the whole frame,
+ * including the time spent waiting for the next frame to begin.
+ */
+
+@Name("com.io7m.volcanolab.Frame")
+@Label("Frame")
+@Category({"Volcanolab", "Rendering"})
+@Description("A frame rendered by the render thread")
+@StackTrace(false)
+public final class VLJFRFrame extends Event
+{
+  @Label("Experiment")
+  String experiment;
+
+  @Label("Width")
+  int width;
+
+  @Label("Height")
+  int height;
+
+  @Label("Render Time")
+  @Description("The time spent in the experiment's render method")
+  @Timespan(Timespan.NANOSECONDS)
+  long renderTime;
+
+  @Label("Damage Time")
+  @Description("The time spent determining which pixels changed")
+  @Timespan(Timespan.NANOSECONDS)
+  long damageTime;
+
+  @Label("Wait Time")
+  @Description("The time spent waiting for the next frame to begin")
+  @Timespan(Timespan.NANOSECONDS)
+  long waitTime;
+
+  @Label("Damaged Bytes")
+  @Description("The number of bytes of the image marked for upload")
+  @DataAmount(DataAmount.BYTES)
+  long damagedBytes;
+
+  /**
+   * A frame rendered by the render thread.
+   */
+
+  public VLJFRFrame()
+  {
+
+  }
+}
@@ -19,6 +19,7 @@ package com.io7m.volcanolab.gui.internal;
 import com.io7m.jade.api.ApplicationDirectories;
 import com.io7m.jade.api.ApplicationDirectoriesType;
 import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
 import com.io7m.volcanolab.preferences.api.VLPreferences;
 import com.io7m.volcanolab.preferences.api.VLPreferencesServiceType;
 import com.io7m.volcanolab.preferences.vanilla.VLPreferencesService;
@@ -29,6 +30,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The main service directory.
@@ -45,33 +48,81 @@ public final class VLMainServices
   }
 
   /**
-   * Create a new service directory.
+   * Create a new service directory. The Vulkan instance, preferences,
+   * strings, and metrics are created concurrently. This method returns
+   * without waiting for the Vulkan instance; the render thread waits for it
+   * when it first needs a device.
+   *
+   * @param startup The startup on which to run and time each step
    *
    * @return A service directory
    *
    * @throws IOException On I/O errors
    */
 
-  public static VLServiceDirectoryType create()
+  public static VLServiceDirectoryType create(
+    final VLStartup startup)
     throws IOException
   {
-    final ApplicationDirectoriesType directories =
-      applicationDirectories();
-
     final var locale = Locale.getDefault();
     final var services = new VLServiceDirectory();
-    final var mainStrings = new VLMainStrings(locale);
-    final var preferences =
-      VLPreferencesService.openOrDefault(
-        directories.configurationDirectory()
-          .resolve("volcanolab.conf"));
+
+    final var vulkan =
+      startup.submit(
+        "vulkan",
+        () -> VLVulkan.create(VulkanLWJGLInstanceProvider.create()));
+
+    final var preferencesFuture =
+      startup.submit("preferences", () -> {
+        final ApplicationDirectoriesType directories =
+          applicationDirectories();
+        return VLPreferencesService.openOrDefault(
+          directories.configurationDirectory()
+            .resolve("volcanolab.conf"));
+      });
+
+    final var mainStringsFuture =
+      startup.submit("strings", () -> new VLMainStrings(locale));
+
+    final var metricsFuture =
+      startup.submit("metrics", () -> {
+        return VLMetrics.create(
+          VLMetricsConfiguration.fromProperties(System.getProperties()));
+      });
+
+    final var preferences = await(preferencesFuture);
+    final var mainStrings = await(mainStringsFuture);
+    final var metrics = await(metricsFuture);
 
     services.register(VLPreferencesServiceType.class, preferences);
     services.register(VLMainStrings.class, mainStrings);
-    services.register(VLExperimentsServiceType.class, VLExperiments.create(preferences));
+    services.register(VLMetricsServiceType.class, metrics);
+    services.register(
+      VLExperimentsServiceType.class,
+      await(startup.submit(
+        "experiments",
+        () -> VLExperiments.create(preferences, metrics, vulkan))));
     return services;
   }
 
+  private static <T> T await(
+    final CompletableFuture<T> future)
+    throws IOException
+  {
+    try {
+      return future.join();
+    } catch (final CompletionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof IOException io) {
+        throw io;
+      }
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IOException(cause);
+    }
+  }
+
   private static ApplicationDirectoriesType applicationDirectories()
   {
     final var configuration =
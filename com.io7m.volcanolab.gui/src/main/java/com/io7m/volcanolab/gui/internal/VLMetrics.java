@@ -0,0 +1,402 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The host metrics. Frame metrics are written by the render thread, and may
+ * be read from any thread.
+ */
+
+public final class VLMetrics implements VLMetricsServiceType, VLMetricsMXBean
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLMetrics.class);
+
+  /**
+   * The name under which the metrics are registered with JMX.
+   */
+
+  public static final String OBJECT_NAME =
+    "com.io7m.volcanolab:type=Metrics";
+
+  /**
+   * The upper bounds, in nanoseconds, of the frame time histogram buckets.
+   */
+
+  public static final List<Long> FRAME_TIME_BUCKETS =
+    List.of(
+      Long.valueOf(1_000_000L),
+      Long.valueOf(2_000_000L),
+      Long.valueOf(4_000_000L),
+      Long.valueOf(8_000_000L),
+      Long.valueOf(16_000_000L),
+      Long.valueOf(33_000_000L),
+      Long.valueOf(66_000_000L),
+      Long.valueOf(133_000_000L)
+    );
+
+  /**
+   * The frame period, in nanoseconds. A frame whose render and damage
+   * times together exceed the period is counted as dropped.
+   */
+
+  public static final long FRAME_PERIOD = 16_000_000L;
+
+  private final CloseableCollectionType<ClosingResourceFailedException> resources;
+  private final AtomicLong framesRendered;
+  private final AtomicLong framesDropped;
+  private final AtomicLong frameTimeLast;
+  private final AtomicLongArray frameTimeBuckets;
+  private final AtomicLong renderTimeTotal;
+  private final AtomicLong damageTimeTotal;
+  private final AtomicLong waitTimeTotal;
+  private final AtomicLong damagedBytes;
+  private final AtomicLong commandsExecuted;
+  private final AtomicLong commandLatencyTotal;
+  private final AtomicLong commandLatencyMaximum;
+  private volatile String experiment;
+  private volatile List<ExperimentMetric> experimentMetrics;
+  private volatile List<ExperimentMemoryHeap> experimentHeaps;
+
+  private VLMetrics()
+  {
+    this.resources = CloseableCollection.create();
+    this.framesRendered = new AtomicLong();
+    this.framesDropped = new AtomicLong();
+    this.frameTimeLast = new AtomicLong();
+    this.frameTimeBuckets = new AtomicLongArray(FRAME_TIME_BUCKETS.size());
+    this.renderTimeTotal = new AtomicLong();
+    this.damageTimeTotal = new AtomicLong();
+    this.waitTimeTotal = new AtomicLong();
+    this.damagedBytes = new AtomicLong();
+    this.commandsExecuted = new AtomicLong();
+    this.commandLatencyTotal = new AtomicLong();
+    this.commandLatencyMaximum = new AtomicLong();
+    this.experiment = "";
+    this.experimentMetrics = List.of();
+    this.experimentHeaps = List.of();
+  }
+
+  /**
+   * Create metrics that are not exported anywhere.
+   *
+   * @return The metrics
+   */
+
+  public static VLMetrics createUnexported()
+  {
+    return new VLMetrics();
+  }
+
+  /**
+   * Create metrics and start the configured exports.
+   *
+   * @param configuration The export configuration
+   *
+   * @return The metrics
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static VLMetrics create(
+    final VLMetricsConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var metrics = new VLMetrics();
+    if (configuration.jmx()) {
+      metrics.registerMBean();
+    }
+
+    final var port = configuration.httpPort();
+    if (port.isPresent()) {
+      metrics.resources.add(
+        VLMetricsExports.startHTTP(metrics, port.getAsInt()));
+    }
+
+    final var file = configuration.file();
+    if (file.isPresent()) {
+      metrics.resources.add(
+        VLMetricsExports.startFile(
+          metrics, file.get(), configuration.fileInterval()));
+    }
+    return metrics;
+  }
+
+  private void registerMBean()
+  {
+    try {
+      final var server = ManagementFactory.getPlatformMBeanServer();
+      final var name = new ObjectName(OBJECT_NAME);
+      server.registerMBean(this, name);
+      this.resources.add(() -> {
+        try {
+          server.unregisterMBean(name);
+        } catch (final JMException e) {
+          LOG.debug("unregister: ", e);
+        }
+      });
+    } catch (final InstanceAlreadyExistsException e) {
+      LOG.warn("metrics are already registered as {}", OBJECT_NAME);
+    } catch (final JMException e) {
+      LOG.error("register metrics: ", e);
+    }
+  }
+
+  /**
+   * Record a rendered frame.
+   *
+   * @param experimentName The name of the experiment that rendered the frame
+   * @param renderTime     The time spent rendering
+   * @param damageTime     The time spent determining damage
+   * @param waitTime       The time spent waiting for the next frame
+   * @param bytes          The number of image bytes marked for upload
+   */
+
+  public void onFrame(
+    final String experimentName,
+    final long renderTime,
+    final long damageTime,
+    final long waitTime,
+    final long bytes)
+  {
+    this.experiment = experimentName;
+    this.framesRendered.incrementAndGet();
+    this.frameTimeLast.set(renderTime);
+    this.renderTimeTotal.addAndGet(renderTime);
+    this.damageTimeTotal.addAndGet(damageTime);
+    this.waitTimeTotal.addAndGet(waitTime);
+    this.damagedBytes.addAndGet(bytes);
+
+    if (renderTime + damageTime > FRAME_PERIOD) {
+      this.framesDropped.incrementAndGet();
+    }
+
+    for (var index = 0; index < FRAME_TIME_BUCKETS.size(); ++index) {
+      if (renderTime <= FRAME_TIME_BUCKETS.get(index).longValue()) {
+        this.frameTimeBuckets.incrementAndGet(index);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Record an executed render thread command.
+   *
+   * @param latency The time the command spent queued
+   */
+
+  public void onCommand(
+    final long latency)
+  {
+    this.commandsExecuted.incrementAndGet();
+    this.commandLatencyTotal.addAndGet(latency);
+    this.commandLatencyMaximum.accumulateAndGet(latency, Math::max);
+  }
+
+  /**
+   * Record the metrics published by the running experiment.
+   *
+   * @param metrics The metrics
+   */
+
+  public void onExperimentMetrics(
+    final List<ExperimentMetric> metrics)
+  {
+    this.experimentMetrics = List.copyOf(metrics);
+  }
+
+  /**
+   * Record the device memory held by the running experiment.
+   *
+   * @param heaps The usage and budget of each memory heap
+   */
+
+  public void onExperimentMemory(
+    final List<ExperimentMemoryHeap> heaps)
+  {
+    this.experimentHeaps = List.copyOf(heaps);
+  }
+
+  /**
+   * Record that no experiment is running.
+   */
+
+  public void onExperimentStopped()
+  {
+    this.experiment = "";
+    this.experimentMetrics = List.of();
+    this.experimentHeaps = List.of();
+  }
+
+  @Override
+  public VLMetricsSnapshot snapshot()
+  {
+    /*
+     * Bucket counts are stored per bucket and accumulated here, so that
+     * the render thread increments one counter per frame.
+     */
+
+    final var buckets = new ArrayList<Long>(FRAME_TIME_BUCKETS.size());
+    var sum = 0L;
+    for (var index = 0; index < FRAME_TIME_BUCKETS.size(); ++index) {
+      sum += this.frameTimeBuckets.get(index);
+      buckets.add(Long.valueOf(sum));
+    }
+
+    return new VLMetricsSnapshot(
+      this.experiment,
+      this.framesRendered.get(),
+      this.framesDropped.get(),
+      this.frameTimeLast.get(),
+      buckets,
+      this.renderTimeTotal.get(),
+      this.damageTimeTotal.get(),
+      this.waitTimeTotal.get(),
+      this.damagedBytes.get(),
+      this.commandsExecuted.get(),
+      this.commandLatencyTotal.get(),
+      this.commandLatencyMaximum.get(),
+      this.experimentMetrics,
+      this.experimentHeaps
+    );
+  }
+
+  @Override
+  public String getExperiment()
+  {
+    return this.experiment;
+  }
+
+  @Override
+  public long getFramesRendered()
+  {
+    return this.framesRendered.get();
+  }
+
+  @Override
+  public long getFramesDropped()
+  {
+    return this.framesDropped.get();
+  }
+
+  @Override
+  public long getFrameTimeLast()
+  {
+    return this.frameTimeLast.get();
+  }
+
+  @Override
+  public long getRenderTimeTotal()
+  {
+    return this.renderTimeTotal.get();
+  }
+
+  @Override
+  public long getDamageTimeTotal()
+  {
+    return this.damageTimeTotal.get();
+  }
+
+  @Override
+  public long getWaitTimeTotal()
+  {
+    return this.waitTimeTotal.get();
+  }
+
+  @Override
+  public long getDamagedBytes()
+  {
+    return this.damagedBytes.get();
+  }
+
+  @Override
+  public long getCommandsExecuted()
+  {
+    return this.commandsExecuted.get();
+  }
+
+  @Override
+  public long getCommandLatencyMaximum()
+  {
+    return this.commandLatencyMaximum.get();
+  }
+
+  @Override
+  public Map<String, Double> getExperimentMetrics()
+  {
+    final var values = new TreeMap<String, Double>();
+    for (final var metric : this.experimentMetrics) {
+      values.put(metric.name(), Double.valueOf(metric.value()));
+    }
+    return values;
+  }
+
+  @Override
+  public long[] getDeviceHeapUsage()
+  {
+    return this.experimentHeaps.stream()
+      .mapToLong(ExperimentMemoryHeap::usage)
+      .toArray();
+  }
+
+  @Override
+  public long[] getDeviceHeapBudget()
+  {
+    return this.experimentHeaps.stream()
+      .mapToLong(ExperimentMemoryHeap::budget)
+      .toArray();
+  }
+
+  @Override
+  public void close()
+    throws ClosingResourceFailedException
+  {
+    this.resources.close();
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[VLMetrics 0x%08x]",
+      Integer.valueOf(this.hashCode())
+    );
+  }
+}
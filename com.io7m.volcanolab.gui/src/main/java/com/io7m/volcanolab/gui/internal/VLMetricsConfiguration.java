@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+/**
+ * The configuration of metrics exports.
+ *
+ * @param jmx          {@code true} if metrics are registered as an MBean
+ * @param httpPort     The localhost port on which metrics are served in
+ *                     OpenMetrics text format, if any
+ * @param file         The file to which metrics are periodically written in
+ *                     OpenMetrics text format, if any
+ * @param fileInterval The interval between writes of {@code file}
+ */
+
+public record VLMetricsConfiguration(
+  boolean jmx,
+  OptionalInt httpPort,
+  Optional<Path> file,
+  Duration fileInterval)
+{
+  /**
+   * The system property naming the localhost port on which to serve
+   * metrics.
+   */
+
+  public static final String PROPERTY_HTTP_PORT =
+    "com.io7m.volcanolab.metrics.port";
+
+  /**
+   * The system property naming the file to which to write metrics.
+   */
+
+  public static final String PROPERTY_FILE =
+    "com.io7m.volcanolab.metrics.file";
+
+  /**
+   * The system property giving the number of seconds between writes of the
+   * metrics file.
+   */
+
+  public static final String PROPERTY_FILE_INTERVAL =
+    "com.io7m.volcanolab.metrics.fileIntervalSeconds";
+
+  /**
+   * The configuration of metrics exports.
+   *
+   * @param jmx          {@code true} if metrics are registered as an MBean
+   * @param httpPort     The localhost port on which metrics are served in
+   *                     OpenMetrics text format, if any
+   * @param file         The file to which metrics are periodically written
+   *                     in OpenMetrics text format, if any
+   * @param fileInterval The interval between writes of {@code file}
+   */
+
+  public VLMetricsConfiguration
+  {
+    Objects.requireNonNull(httpPort, "httpPort");
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(fileInterval, "fileInterval");
+
+    /*
+     * The file is written on a millisecond schedule, so an interval that
+     * rounds down to zero milliseconds is as unusable as a negative one.
+     */
+
+    if (fileInterval.toMillis() < 1L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "File interval %s must be at least one millisecond",
+          fileInterval));
+    }
+
+    if (httpPort.isPresent()) {
+      final var port = httpPort.getAsInt();
+      if (port < 0 || port > 65535) {
+        throw new IllegalArgumentException(
+          String.format(
+            "HTTP port %d must be in the range [0, 65535]",
+            Integer.valueOf(port)));
+      }
+    }
+  }
+
+  /**
+   * @return A configuration that exports nothing
+   */
+
+  public static VLMetricsConfiguration disabled()
+  {
+    return new VLMetricsConfiguration(
+      false,
+      OptionalInt.empty(),
+      Optional.empty(),
+      Duration.ofSeconds(10L)
+    );
+  }
+
+  /**
+   * Read the configuration from properties. Metrics are always registered
+   * with JMX; the HTTP endpoint and file are only enabled if the
+   * corresponding properties are set.
+   *
+   * @param properties The properties
+   *
+   * @return A configuration
+   */
+
+  public static VLMetricsConfiguration fromProperties(
+    final Properties properties)
+  {
+    Objects.requireNonNull(properties, "properties");
+
+    final var port = properties.getProperty(PROPERTY_HTTP_PORT);
+    final var file = properties.getProperty(PROPERTY_FILE);
+    final var interval = properties.getProperty(PROPERTY_FILE_INTERVAL);
+
+    return new VLMetricsConfiguration(
+      true,
+      port == null
+        ? OptionalInt.empty()
+        : OptionalInt.of(Integer.parseInt(port)),
+      Optional.ofNullable(file).map(Path::of),
+      Duration.ofSeconds(interval == null ? 10L : Long.parseLong(interval))
+    );
+  }
+}
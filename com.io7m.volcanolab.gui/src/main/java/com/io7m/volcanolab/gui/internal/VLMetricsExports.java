@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to export metrics in OpenMetrics text format.
+ */
+
+public final class VLMetricsExports
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLMetricsExports.class);
+
+  private VLMetricsExports()
+  {
+
+  }
+
+  /**
+   * Serve metrics over HTTP at {@code /metrics}. The server listens only on
+   * the loopback address.
+   *
+   * @param metrics The metrics
+   * @param port    The port
+   *
+   * @return A handle that stops the server when closed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static AutoCloseable startHTTP(
+    final VLMetricsServiceType metrics,
+    final int port)
+    throws IOException
+  {
+    Objects.requireNonNull(metrics, "metrics");
+
+    final var executor =
+      Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.volcanolab.metrics.http");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    final var server =
+      HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+        0);
+    server.setExecutor(executor);
+    server.createContext("/metrics", exchange -> serve(metrics, exchange));
+    server.start();
+
+    LOG.info("serving metrics on {}", server.getAddress());
+    return () -> {
+      server.stop(0);
+      executor.shutdown();
+    };
+  }
+
+  private static void serve(
+    final VLMetricsServiceType metrics,
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1L);
+        return;
+      }
+
+      final var data =
+        VLMetricsOpenMetrics.format(metrics.snapshot())
+          .getBytes(UTF_8);
+
+      exchange.getResponseHeaders()
+        .set("Content-Type", VLMetricsOpenMetrics.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, data.length);
+      exchange.getResponseBody().write(data);
+    }
+  }
+
+  /**
+   * Periodically rewrite a file with the current metrics. Each write
+   * replaces the file atomically, so readers never see a partial file.
+   *
+   * @param metrics  The metrics
+   * @param file     The file
+   * @param interval The interval between writes
+   *
+   * @return A handle that stops writing when closed
+   */
+
+  public static AutoCloseable startFile(
+    final VLMetricsServiceType metrics,
+    final Path file,
+    final Duration interval)
+  {
+    Objects.requireNonNull(metrics, "metrics");
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(interval, "interval");
+
+    final var millis = interval.toMillis();
+    if (millis < 1L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "File interval %s must be at least one millisecond",
+          interval));
+    }
+
+    final var executor =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.volcanolab.metrics.file");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    final var target = file.toAbsolutePath();
+    executor.scheduleAtFixedRate(
+      () -> write(metrics, target),
+      0L,
+      millis,
+      TimeUnit.MILLISECONDS
+    );
+
+    LOG.info("writing metrics to {} every {}", target, interval);
+    return () -> {
+      executor.shutdown();
+      executor.awaitTermination(millis, TimeUnit.MILLISECONDS);
+      write(metrics, target);
+    };
+  }
+
+  private static void write(
+    final VLMetricsServiceType metrics,
+    final Path target)
+  {
+    try {
+      final var temporary =
+        target.resolveSibling(target.getFileName() + ".tmp");
+      Files.writeString(
+        temporary,
+        VLMetricsOpenMetrics.format(metrics.snapshot()),
+        UTF_8);
+      Files.move(
+        temporary,
+        target,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+      );
+    } catch (final IOException e) {
+      LOG.error("write metrics: ", e);
+    }
+  }
+}
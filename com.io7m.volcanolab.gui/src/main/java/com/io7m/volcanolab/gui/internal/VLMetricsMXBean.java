@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import java.util.Map;
+
+/**
+ * The host metrics, as exposed over JMX. All times are in nanoseconds.
+ */
+
+public interface VLMetricsMXBean
+{
+  /**
+   * @return The name of the running experiment
+   */
+
+  String getExperiment();
+
+  /**
+   * @return The number of frames rendered
+   */
+
+  long getFramesRendered();
+
+  /**
+   * @return The number of frames that overran the frame period
+   */
+
+  long getFramesDropped();
+
+  /**
+   * @return The render time of the most recent frame
+   */
+
+  long getFrameTimeLast();
+
+  /**
+   * @return The total time spent rendering
+   */
+
+  long getRenderTimeTotal();
+
+  /**
+   * @return The total time spent determining damage
+   */
+
+  long getDamageTimeTotal();
+
+  /**
+   * @return The total time spent waiting between frames
+   */
+
+  long getWaitTimeTotal();
+
+  /**
+   * @return The total number of image bytes marked for upload
+   */
+
+  long getDamagedBytes();
+
+  /**
+   * @return The number of render thread commands executed
+   */
+
+  long getCommandsExecuted();
+
+  /**
+   * @return The longest time a command spent queued
+   */
+
+  long getCommandLatencyMaximum();
+
+  /**
+   * @return The metrics most recently published by the running experiment
+   */
+
+  Map<String, Double> getExperimentMetrics();
+
+  /**
+   * @return The number of bytes of each device memory heap allocated by the
+   * running experiment, indexed by heap
+   */
+
+  long[] getDeviceHeapUsage();
+
+  /**
+   * @return The number of bytes of each device memory heap the running
+   * experiment can expect to allocate, indexed by heap
+   */
+
+  long[] getDeviceHeapBudget();
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Functions to format metrics in the OpenMetrics text format, which
+ * Prometheus also accepts.
+ */
+
+public final class VLMetricsOpenMetrics
+{
+  /**
+   * The content type of the format.
+   */
+
+  public static final String CONTENT_TYPE =
+    "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private VLMetricsOpenMetrics()
+  {
+
+  }
+
+  /**
+   * Format a snapshot.
+   *
+   * @param snapshot The snapshot
+   *
+   * @return The snapshot in OpenMetrics text format
+   */
+
+  public static String format(
+    final VLMetricsSnapshot snapshot)
+  {
+    Objects.requireNonNull(snapshot, "snapshot");
+
+    final var out = new StringBuilder(2048);
+
+    header(out, "volcanolab_experiment", "info", "The running experiment.");
+    out.append("volcanolab_experiment_info{experiment=")
+      .append(label(snapshot.experiment()))
+      .append("} 1\n");
+
+    counter(
+      out,
+      "volcanolab_frames",
+      "Frames rendered.",
+      snapshot.framesRendered());
+    counter(
+      out,
+      "volcanolab_frames_dropped",
+      "Frames whose render and damage times overran the frame period.",
+      snapshot.framesDropped());
+
+    header(
+      out,
+      "volcanolab_frame_time_seconds",
+      "gauge",
+      "The render time of the most recent frame.");
+    out.append("volcanolab_frame_time_seconds ")
+      .append(seconds(snapshot.frameTimeLast()))
+      .append('\n');
+
+    header(
+      out,
+      "volcanolab_frame_render_seconds",
+      "histogram",
+      "Frame render times.");
+    final var buckets = snapshot.frameTimeBuckets();
+    for (var index = 0; index < buckets.size(); ++index) {
+      final var bound = VLMetrics.FRAME_TIME_BUCKETS.get(index).longValue();
+      out.append("volcanolab_frame_render_seconds_bucket{le=\"")
+        .append(seconds(bound))
+        .append("\"} ")
+        .append(buckets.get(index).longValue())
+        .append('\n');
+    }
+    out.append("volcanolab_frame_render_seconds_bucket{le=\"+Inf\"} ")
+      .append(snapshot.framesRendered())
+      .append('\n');
+    out.append("volcanolab_frame_render_seconds_count ")
+      .append(snapshot.framesRendered())
+      .append('\n');
+    out.append("volcanolab_frame_render_seconds_sum ")
+      .append(seconds(snapshot.renderTimeTotal()))
+      .append('\n');
+
+    header(
+      out,
+      "volcanolab_frame_phase_seconds",
+      "counter",
+      "The total time spent in each phase of the frame loop.");
+    phase(out, "render", snapshot.renderTimeTotal());
+    phase(out, "damage", snapshot.damageTimeTotal());
+    phase(out, "wait", snapshot.waitTimeTotal());
+
+    counter(
+      out,
+      "volcanolab_damaged_bytes",
+      "Image bytes marked for upload to the display.",
+      snapshot.damagedBytes());
+    counter(
+      out,
+      "volcanolab_commands",
+      "Render thread commands executed.",
+      snapshot.commandsExecuted());
+
+    header(
+      out,
+      "volcanolab_command_latency_seconds",
+      "counter",
+      "The total time render thread commands spent queued.");
+    out.append("volcanolab_command_latency_seconds_total ")
+      .append(seconds(snapshot.commandLatencyTotal()))
+      .append('\n');
+
+    header(
+      out,
+      "volcanolab_command_latency_maximum_seconds",
+      "gauge",
+      "The longest time a render thread command spent queued.");
+    out.append("volcanolab_command_latency_maximum_seconds ")
+      .append(seconds(snapshot.commandLatencyMaximum()))
+      .append('\n');
+
+    header(
+      out,
+      "volcanolab_experiment_metric",
+      "gauge",
+      "Metrics published by the running experiment.");
+    for (final var metric : snapshot.experimentMetrics()) {
+      out.append("volcanolab_experiment_metric{experiment=")
+        .append(label(snapshot.experiment()))
+        .append(",name=")
+        .append(label(metric.name()))
+        .append("} ")
+        .append(number(metric.value()))
+        .append('\n');
+    }
+
+    header(
+      out,
+      "volcanolab_device_heap_usage_bytes",
+      "gauge",
+      "Device memory allocated by the running experiment, per heap.");
+    for (final var heap : snapshot.experimentHeaps()) {
+      heapSample(
+        out,
+        "volcanolab_device_heap_usage_bytes",
+        heap.heap(),
+        heap.usage());
+    }
+
+    header(
+      out,
+      "volcanolab_device_heap_budget_bytes",
+      "gauge",
+      "Device memory the running experiment can expect to allocate, per heap.");
+    for (final var heap : snapshot.experimentHeaps()) {
+      heapSample(
+        out,
+        "volcanolab_device_heap_budget_bytes",
+        heap.heap(),
+        heap.budget());
+    }
+
+    out.append("# EOF\n");
+    return out.toString();
+  }
+
+  private static void heapSample(
+    final StringBuilder out,
+    final String name,
+    final int heap,
+    final long bytes)
+  {
+    out.append(name)
+      .append("{heap=\"")
+      .append(heap)
+      .append("\"} ")
+      .append(bytes)
+      .append('\n');
+  }
+
+  private static void phase(
+    final StringBuilder out,
+    final String phase,
+    final long nanoseconds)
+  {
+    out.append("volcanolab_frame_phase_seconds_total{phase=")
+      .append(label(phase))
+      .append("} ")
+      .append(seconds(nanoseconds))
+      .append('\n');
+  }
+
+  private static void counter(
+    final StringBuilder out,
+    final String name,
+    final String help,
+    final long value)
+  {
+    header(out, name, "counter", help);
+    out.append(name)
+      .append("_total ")
+      .append(value)
+      .append('\n');
+  }
+
+  private static void header(
+    final StringBuilder out,
+    final String name,
+    final String type,
+    final String help)
+  {
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+  }
+
+  private static String seconds(
+    final long nanoseconds)
+  {
+    return number((double) nanoseconds / 1.0e9);
+  }
+
+  private static String number(
+    final double value)
+  {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (Double.isInfinite(value)) {
+      return value > 0.0 ? "+Inf" : "-Inf";
+    }
+    return String.format(Locale.ROOT, "%.9g", Double.valueOf(value));
+  }
+
+  private static String label(
+    final String text)
+  {
+    final var out = new StringBuilder(text.length() + 2);
+    out.append('"');
+    for (var index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\n' -> out.append("\\n");
+        default -> out.append(c);
+      }
+    }
+    out.append('"');
+    return out.toString();
+  }
+}
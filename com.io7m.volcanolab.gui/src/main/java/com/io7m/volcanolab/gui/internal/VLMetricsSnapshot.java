@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The values of the host metrics at one point in time. All times are in
+ * nanoseconds, and all counts are totals since the metrics were created.
+ *
+ * @param experiment            The name of the running experiment, or the
+ *                              empty string if none is running
+ * @param framesRendered        The number of frames rendered
+ * @param framesDropped         The number of frames that overran the frame
+ *                              period
+ * @param frameTimeLast         The render time of the most recent frame
+ * @param frameTimeBuckets      The number of frames whose render times were
+ *                              at most each of
+ *                              {@link VLMetrics#FRAME_TIME_BUCKETS},
+ *                              cumulatively
+ * @param renderTimeTotal       The total time spent rendering
+ * @param damageTimeTotal       The total time spent determining damage
+ * @param waitTimeTotal         The total time spent waiting between frames
+ * @param damagedBytes          The total number of image bytes marked for
+ *                              upload to the display
+ * @param commandsExecuted      The number of render thread commands executed
+ * @param commandLatencyTotal   The total time commands spent queued
+ * @param commandLatencyMaximum The longest time a command spent queued
+ * @param experimentMetrics     The metrics most recently published by the
+ *                              running experiment
+ * @param experimentHeaps       The device memory most recently held by the
+ *                              running experiment, per memory heap
+ */
+
+public record VLMetricsSnapshot(
+  String experiment,
+  long framesRendered,
+  long framesDropped,
+  long frameTimeLast,
+  List<Long> frameTimeBuckets,
+  long renderTimeTotal,
+  long damageTimeTotal,
+  long waitTimeTotal,
+  long damagedBytes,
+  long commandsExecuted,
+  long commandLatencyTotal,
+  long commandLatencyMaximum,
+  List<ExperimentMetric> experimentMetrics,
+  List<ExperimentMemoryHeap> experimentHeaps)
+{
+  /**
+   * The values of the host metrics at one point in time.
+   *
+   * @param experiment            The name of the running experiment, or the
+   *                              empty string if none is running
+   * @param framesRendered        The number of frames rendered
+   * @param framesDropped         The number of frames that overran the
+   *                              frame period
+   * @param frameTimeLast         The render time of the most recent frame
+   * @param frameTimeBuckets      The number of frames whose render times
+   *                              were at most each of
+   *                              {@link VLMetrics#FRAME_TIME_BUCKETS},
+   *                              cumulatively
+   * @param renderTimeTotal       The total time spent rendering
+   * @param damageTimeTotal       The total time spent determining damage
+   * @param waitTimeTotal         The total time spent waiting between
+   *                              frames
+   * @param damagedBytes          The total number of image bytes marked for
+   *                              upload to the display
+   * @param commandsExecuted      The number of render thread commands
+   *                              executed
+   * @param commandLatencyTotal   The total time commands spent queued
+   * @param commandLatencyMaximum The longest time a command spent queued
+   * @param experimentMetrics     The metrics most recently published by the
+   *                              running experiment
+   * @param experimentHeaps       The device memory most recently held by
+   *                              the running experiment, per memory heap
+   */
+
+  public VLMetricsSnapshot
+  {
+    Objects.requireNonNull(experiment, "experiment");
+    frameTimeBuckets = List.copyOf(frameTimeBuckets);
+    experimentMetrics = List.copyOf(experimentMetrics);
+    experimentHeaps = List.copyOf(experimentHeaps);
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Timed application startup. Independent steps are submitted to a small
+ * pool and run concurrently; steps that must run on a particular thread
+ * are run in place. Every step is timed, and the timings are available as
+ * a report.
+ */
+
+public final class VLStartup implements AutoCloseable
+{
+  private static final int THREADS = 3;
+
+  private final ExecutorService executor;
+  private final ConcurrentLinkedQueue<VLStartupStep> steps;
+  private final ConcurrentLinkedQueue<CompletableFuture<?>> submitted;
+  private final long timeStarted;
+
+  private VLStartup(
+    final ExecutorService inExecutor)
+  {
+    this.executor = inExecutor;
+    this.steps = new ConcurrentLinkedQueue<>();
+    this.submitted = new ConcurrentLinkedQueue<>();
+    this.timeStarted = System.nanoTime();
+  }
+
+  /**
+   * Begin startup.
+   *
+   * @return A startup
+   */
+
+  public static VLStartup create()
+  {
+    final var executor =
+      Executors.newFixedThreadPool(THREADS, runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName(
+          String.format("com.io7m.volcanolab.startup[%d]", thread.getId())
+        );
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    return new VLStartup(executor);
+  }
+
+  /**
+   * Run a step concurrently with other steps.
+   *
+   * @param name The step name
+   * @param step The step
+   * @param <T>  The type of results
+   *
+   * @return The step in progress
+   */
+
+  public <T> CompletableFuture<T> submit(
+    final String name,
+    final Callable<T> step)
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(step, "step");
+
+    final var future =
+      CompletableFuture.supplyAsync(() -> {
+        try {
+          return this.run(name, step);
+        } catch (final Exception e) {
+          throw new CompletionException(e);
+        }
+      }, this.executor);
+
+    this.submitted.add(future);
+    return future;
+  }
+
+  /**
+   * @return A future that completes when every step submitted so far has
+   * completed, successfully or otherwise
+   */
+
+  public CompletableFuture<Void> completion()
+  {
+    return CompletableFuture.allOf(
+      this.submitted.stream()
+        .map(f -> f.handle((ignored, exception) -> null))
+        .toArray(CompletableFuture[]::new)
+    );
+  }
+
+  /**
+   * Run a step on the current thread.
+   *
+   * @param name The step name
+   * @param step The step
+   * @param <T>  The type of results
+   *
+   * @return The step result
+   *
+   * @throws Exception If the step raises an exception
+   */
+
+  public <T> T run(
+    final String name,
+    final Callable<T> step)
+    throws Exception
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(step, "step");
+
+    final var event = new VLJFRStartupStep();
+    final var then = System.nanoTime();
+    var failed = true;
+    event.begin();
+
+    try {
+      final var result = step.call();
+      failed = false;
+      return result;
+    } finally {
+      final var now = System.nanoTime();
+      event.end();
+      if (event.shouldCommit()) {
+        event.step = name;
+        event.failed = failed;
+        event.commit();
+      }
+
+      this.steps.add(new VLStartupStep(
+        name,
+        Thread.currentThread().getName(),
+        then - this.timeStarted,
+        now - then,
+        failed
+      ));
+    }
+  }
+
+  /**
+   * @return The completed steps, in the order they started
+   */
+
+  public List<VLStartupStep> steps()
+  {
+    final var sorted = new ArrayList<>(this.steps);
+    sorted.sort(Comparator.comparingLong(VLStartupStep::started));
+    return List.copyOf(sorted);
+  }
+
+  /**
+   * @return A human-readable report of the completed steps
+   */
+
+  public String report()
+  {
+    final var steps = this.steps();
+    final var out = new StringBuilder(256);
+    final var elapsed =
+      steps.stream()
+        .mapToLong(s -> s.started() + s.duration())
+        .max()
+        .orElse(0L);
+    final var serial =
+      steps.stream()
+        .mapToLong(VLStartupStep::duration)
+        .sum();
+
+    out.append(String.format(
+      Locale.ROOT,
+      "Startup completed after %.3f ms; steps took %.3f ms in total%n",
+      Double.valueOf(millis(elapsed)),
+      Double.valueOf(millis(serial))
+    ));
+
+    for (final var step : steps) {
+      out.append(String.format(
+        Locale.ROOT,
+        "  %-16s %10.3f ms  +%10.3f ms  %s%s%n",
+        step.name(),
+        Double.valueOf(millis(step.duration())),
+        Double.valueOf(millis(step.started())),
+        step.thread(),
+        step.failed() ? " (failed)" : ""
+      ));
+    }
+    return out.toString();
+  }
+
+  private static double millis(
+    final long nanoseconds)
+  {
+    return (double) nanoseconds / 1_000_000.0;
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdown();
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import java.util.Objects;
+
+/**
+ * A completed step of application startup.
+ *
+ * @param name     The step name
+ * @param thread   The name of the thread that executed the step
+ * @param started  The time the step started, in nanoseconds since startup
+ *                 began
+ * @param duration The duration of the step in nanoseconds
+ * @param failed   {@code true} if the step failed
+ */
+
+public record VLStartupStep(
+  String name,
+  String thread,
+  long started,
+  long duration,
+  boolean failed)
+{
+  /**
+   * A completed step of application startup.
+   *
+   * @param name     The step name
+   * @param thread   The name of the thread that executed the step
+   * @param started  The time the step started, in nanoseconds since startup
+   *                 began
+   * @param duration The duration of the step in nanoseconds
+   * @param failed   {@code true} if the step failed
+   */
+
+  public VLStartupStep
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(thread, "thread");
+  }
+}
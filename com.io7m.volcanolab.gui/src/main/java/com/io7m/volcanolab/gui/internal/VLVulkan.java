@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.gui.internal;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanInstanceProviderType;
+import com.io7m.jcoronado.api.VulkanInstanceType;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.api.VulkanUncheckedException;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessageSeverityFlag;
+import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessageTypeFlag;
+import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsMessengerCreateInfoEXT;
+import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsSLF4J;
+import com.io7m.jcoronado.extensions.ext_debug_utils.api.VulkanDebugUtilsType;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A Vulkan instance, with validation layers and debug messages enabled, and
+ * the physical devices it exposes. The set of physical devices is fixed for
+ * the lifetime of an instance, so the devices are enumerated exactly once.
+ */
+
+public final class VLVulkan implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(VLVulkan.class);
+
+  private final CloseableCollectionType<ClosingResourceFailedException> resources;
+  private final VulkanInstanceType instance;
+  private final List<VulkanPhysicalDeviceType> devices;
+  private final VLDevicePropertiesList deviceProperties;
+
+  private VLVulkan(
+    final CloseableCollectionType<ClosingResourceFailedException> inResources,
+    final VulkanInstanceType inInstance,
+    final List<VulkanPhysicalDeviceType> inDevices,
+    final VLDevicePropertiesList inDeviceProperties)
+  {
+    this.resources = inResources;
+    this.instance = inInstance;
+    this.devices = inDevices;
+    this.deviceProperties = inDeviceProperties;
+  }
+
+  /**
+   * Create an instance and enumerate its physical devices.
+   *
+   * @param instances The instance provider
+   *
+   * @return The instance
+   *
+   * @throws VulkanException On errors
+   */
+
+  public static VLVulkan create(
+    final VulkanInstanceProviderType instances)
+    throws VulkanException
+  {
+    Objects.requireNonNull(instances, "instances");
+
+    final var resources =
+      CloseableCollection.create();
+
+    try {
+      final var vulkanVersion =
+        VulkanVersions.encode(instances.findSupportedInstanceVersion());
+
+      final var appInfo =
+        VulkanApplicationInfo.builder()
+          .setApplicationName("com.io7m.volcanolab")
+          .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+          .setVulkanAPIVersion(vulkanVersion)
+          .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+          .setEngineName("com.io7m.volcanolab")
+          .build();
+
+      final VulkanInstanceCreateInfo createInfo =
+        VulkanInstanceCreateInfo.builder()
+          .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+          .addEnabledExtensions("VK_EXT_debug_utils")
+          .setApplicationInfo(appInfo)
+          .build();
+
+      final var instance =
+        resources.add(
+          instances.createInstance(createInfo, Optional.empty()));
+
+      /*
+       * Enable debug messages.
+       */
+
+      final var debug =
+        instance.findEnabledExtension(
+          "VK_EXT_debug_utils",
+          VulkanDebugUtilsType.class
+        ).orElseThrow(() -> {
+          return new IllegalStateException(
+            "Missing VK_EXT_debug_utils extension");
+        });
+
+      final var messengerInfo =
+        VulkanDebugUtilsMessengerCreateInfoEXT.builder()
+          .setSeverity(EnumSet.allOf(VulkanDebugUtilsMessageSeverityFlag.class))
+          .setType(EnumSet.allOf(VulkanDebugUtilsMessageTypeFlag.class))
+          .setCallback(new VulkanDebugUtilsSLF4J(LOG))
+          .build();
+
+      resources.add(
+        debug.createDebugUtilsMessenger(instance, messengerInfo));
+
+      final var devices =
+        instance.enumeratePhysicalDevices()
+          .collect(Collectors.toUnmodifiableList());
+
+      final var deviceProperties =
+        new VLDevicePropertiesList(
+          devices.stream()
+            .map(VLVulkan::devicePropertiesOf)
+            .collect(Collectors.toUnmodifiableList())
+        );
+
+      LOG.debug("enumerated {} physical devices", devices.size());
+      return new VLVulkan(resources, instance, devices, deviceProperties);
+    } catch (final VulkanException | RuntimeException e) {
+      try {
+        resources.close();
+      } catch (final ClosingResourceFailedException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
+    }
+  }
+
+  private static VLDeviceProperties devicePropertiesOf(
+    final VulkanPhysicalDeviceType device)
+  {
+    try {
+      return new VLDeviceProperties(
+        device.properties(),
+        device.idProperties(),
+        device.driverProperties()
+      );
+    } catch (final VulkanException e) {
+      throw new VulkanUncheckedException(e);
+    }
+  }
+
+  /**
+   * @return The instance
+   */
+
+  public VulkanInstanceType instance()
+  {
+    return this.instance;
+  }
+
+  /**
+   * @return The physical devices
+   */
+
+  public List<VulkanPhysicalDeviceType> devices()
+  {
+    return this.devices;
+  }
+
+  /**
+   * @return The properties of the physical devices
+   */
+
+  public VLDevicePropertiesList deviceProperties()
+  {
+    return this.deviceProperties;
+  }
+
+  @Override
+  public void close()
+    throws ClosingResourceFailedException
+  {
+    this.resources.close();
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[VLVulkan 0x%08x]",
+      Integer.valueOf(this.hashCode())
+    );
+  }
+}
@@ -30,18 +30,22 @@ module com.io7m.volcanolab.gui
   requires com.io7m.jmulticlose.core;
   requires com.io7m.jxtrand.vanilla;
   requires com.io7m.volcanolab.experiment.api;
+  requires com.io7m.volcanolab.pixels;
   requires com.io7m.volcanolab.preferences.api;
   requires com.io7m.volcanolab.preferences.vanilla;
   requires com.io7m.volcanolab.services.api;
   requires javafx.controls;
   requires javafx.fxml;
   requires javafx.graphics;
+  requires java.management;
+  requires jdk.httpserver;
+  requires jdk.jfr;
   requires org.slf4j;
 
   uses com.io7m.volcanolab.experiment.api.ExperimentType;
 
   opens com.io7m.volcanolab.gui.internal
-    to com.io7m.jxtrand.vanilla, javafx.fxml;
+    to com.io7m.jxtrand.vanilla, javafx.fxml, java.management;
 
   exports com.io7m.volcanolab.gui;
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels;
+
+import com.io7m.volcanolab.pixels.internal.VLPixelKernelsScalar;
+import com.io7m.volcanolab.pixels.internal.VLPixelKernelsVector;
+
+import java.util.Optional;
+
+/**
+ * Access to pixel kernel implementations.
+ */
+
+public final class VLPixelKernels
+{
+  private static final VLPixelKernelsType SCALAR =
+    new VLPixelKernelsScalar();
+
+  private VLPixelKernels()
+  {
+
+  }
+
+  /**
+   * @return {@code true} if the vector API is present in the boot layer
+   */
+
+  public static boolean isVectorAvailable()
+  {
+    return ModuleLayer.boot()
+      .findModule("jdk.incubator.vector")
+      .isPresent();
+  }
+
+  /**
+   * @return The plain Java kernels
+   */
+
+  public static VLPixelKernelsType scalar()
+  {
+    return SCALAR;
+  }
+
+  /**
+   * @return The vector kernels, if the vector API is available
+   */
+
+  public static Optional<VLPixelKernelsType> vector()
+  {
+    return Optional.ofNullable(VectorHolder.VECTOR);
+  }
+
+  /**
+   * Return the fastest available kernels. The vector API is an incubator
+   * module and so must be enabled explicitly with
+   * {@code --add-modules jdk.incubator.vector}; without it, the scalar
+   * kernels are returned.
+   *
+   * @return The fastest available kernels
+   */
+
+  public static VLPixelKernelsType best()
+  {
+    final var vector = VectorHolder.VECTOR;
+    return vector != null ? vector : SCALAR;
+  }
+
+  /*
+   * The vector kernels are created in a holder class so that nothing
+   * referencing jdk.incubator.vector is linked unless the module is present.
+   */
+
+  private static final class VectorHolder
+  {
+    private static final VLPixelKernelsType VECTOR =
+      isVectorAvailable() ? new VLPixelKernelsVector() : null;
+
+    private VectorHolder()
+    {
+
+    }
+  }
+}
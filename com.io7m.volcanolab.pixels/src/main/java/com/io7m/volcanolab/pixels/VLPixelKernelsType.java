@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A set of kernels that operate on 32-bit, four channel pixels.</p>
+ *
+ * <p>Kernels do not care about the meaning of the channels; a pixel is simply
+ * four consecutive bytes. Where a kernel accepts or treats a pixel as an
+ * {@code int}, byte {@code 0} of the pixel is the least significant byte of
+ * the integer. For a {@code BGRA} buffer (such as those used by JavaFX), a
+ * pixel value is therefore written as {@code 0xAARRGGBB}. The alpha channel,
+ * where relevant, is always byte {@code 3}.</p>
+ *
+ * <p>All offsets are absolute byte offsets, and no kernel modifies the
+ * position, limit, or byte order of any buffer it is given.</p>
+ */
+
+public interface VLPixelKernelsType
+{
+  /**
+   * @return A humanly-readable name for the kernel implementation
+   */
+
+  String name();
+
+  /**
+   * Set {@code pixelCount} pixels starting at {@code offset} to
+   * {@code pixel}.
+   *
+   * @param target     The target buffer
+   * @param offset     The byte offset of the first pixel
+   * @param pixelCount The number of pixels
+   * @param pixel      The pixel value
+   */
+
+  void fill(
+    ByteBuffer target,
+    int offset,
+    int pixelCount,
+    int pixel);
+
+  /**
+   * Swap bytes {@code 0} and {@code 2} of each of {@code pixelCount} pixels,
+   * converting between {@code RGBA} and {@code BGRA}. The source and target
+   * may be the same buffer, in which case the swizzle happens in place
+   * provided that the offsets are equal.
+   *
+   * @param source       The source buffer
+   * @param sourceOffset The byte offset of the first source pixel
+   * @param target       The target buffer
+   * @param targetOffset The byte offset of the first target pixel
+   * @param pixelCount   The number of pixels
+   */
+
+  void swizzleRB(
+    ByteBuffer source,
+    int sourceOffset,
+    ByteBuffer target,
+    int targetOffset,
+    int pixelCount);
+
+  /**
+   * Multiply the first three channels of each of {@code pixelCount} pixels
+   * by the pixel's alpha channel, in place. Results are rounded to the
+   * nearest integer.
+   *
+   * @param target     The target buffer
+   * @param offset     The byte offset of the first pixel
+   * @param pixelCount The number of pixels
+   */
+
+  void premultiply(
+    ByteBuffer target,
+    int offset,
+    int pixelCount);
+
+  /**
+   * Set the alpha channel of each of {@code pixelCount} pixels to
+   * {@code alpha}, leaving the other channels untouched.
+   *
+   * @param target     The target buffer
+   * @param offset     The byte offset of the first pixel
+   * @param pixelCount The number of pixels
+   * @param alpha      The alpha value (only the low eight bits are used)
+   */
+
+  void clearAlpha(
+    ByteBuffer target,
+    int offset,
+    int pixelCount,
+    int alpha);
+
+  /**
+   * Copy a {@code width × height} pixel rectangle from {@code source} to
+   * {@code target}. Strides are given in bytes and may be larger than
+   * {@code width * 4}. The regions must not overlap.
+   *
+   * @param source       The source buffer
+   * @param sourceOffset The byte offset of the first source pixel
+   * @param sourceStride The byte distance between source rows
+   * @param target       The target buffer
+   * @param targetOffset The byte offset of the first target pixel
+   * @param targetStride The byte distance between target rows
+   * @param width        The rectangle width in pixels
+   * @param height       The rectangle height in pixels
+   */
+
+  void blit(
+    ByteBuffer source,
+    int sourceOffset,
+    int sourceStride,
+    ByteBuffer target,
+    int targetOffset,
+    int targetStride,
+    int width,
+    int height);
+
+  /**
+   * Compute a 64-bit hash of {@code pixelCount} pixels starting at
+   * {@code offset}, for cheaply detecting whether pixels have changed. The
+   * hash is not cryptographic, but changing any single pixel of a span
+   * always changes its hash. Every implementation produces the same hash for
+   * the same pixels.
+   *
+   * @param source     The source buffer
+   * @param offset     The byte offset of the first pixel
+   * @param pixelCount The number of pixels
+   *
+   * @return The hash
+   */
+
+  long hash(
+    ByteBuffer source,
+    int offset,
+    int pixelCount);
+
+  /**
+   * Set every whole pixel in {@code target} to {@code pixel}.
+   *
+   * @param target The target buffer
+   * @param pixel  The pixel value
+   *
+   * @see #fill(ByteBuffer, int, int, int)
+   */
+
+  default void fillAll(
+    final ByteBuffer target,
+    final int pixel)
+  {
+    this.fill(target, 0, target.capacity() / 4, pixel);
+  }
+}
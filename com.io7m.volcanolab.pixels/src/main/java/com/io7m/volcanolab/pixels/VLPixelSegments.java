@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels;
+
+import jdk.incubator.foreign.MemorySegment;
+
+import java.util.Objects;
+
+/**
+ * <p>Adapters that apply pixel kernels to whole memory segments.</p>
+ *
+ * <p>Segments are viewed as byte buffers, and so must be no larger than
+ * {@link Integer#MAX_VALUE} bytes. Callers must be able to read
+ * {@code jdk.incubator.foreign}.</p>
+ */
+
+public final class VLPixelSegments
+{
+  private VLPixelSegments()
+  {
+
+  }
+
+  /**
+   * Set every whole pixel in {@code target} to {@code pixel}.
+   *
+   * @param kernels The kernels
+   * @param target  The target segment
+   * @param pixel   The pixel value
+   *
+   * @see VLPixelKernelsType#fill(java.nio.ByteBuffer, int, int, int)
+   */
+
+  public static void fill(
+    final VLPixelKernelsType kernels,
+    final MemorySegment target,
+    final int pixel)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    kernels.fillAll(target.asByteBuffer(), pixel);
+  }
+
+  /**
+   * Swizzle every whole pixel of {@code source} into {@code target}.
+   *
+   * @param kernels The kernels
+   * @param source  The source segment
+   * @param target  The target segment
+   *
+   * @see VLPixelKernelsType#swizzleRB(java.nio.ByteBuffer, int, java.nio.ByteBuffer, int, int)
+   */
+
+  public static void swizzleRB(
+    final VLPixelKernelsType kernels,
+    final MemorySegment source,
+    final MemorySegment target)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    kernels.swizzleRB(
+      source.asByteBuffer(),
+      0,
+      target.asByteBuffer(),
+      0,
+      (int) (source.byteSize() / 4L)
+    );
+  }
+
+  /**
+   * Premultiply every whole pixel of {@code target}.
+   *
+   * @param kernels The kernels
+   * @param target  The target segment
+   *
+   * @see VLPixelKernelsType#premultiply(java.nio.ByteBuffer, int, int)
+   */
+
+  public static void premultiply(
+    final VLPixelKernelsType kernels,
+    final MemorySegment target)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    kernels.premultiply(
+      target.asByteBuffer(),
+      0,
+      (int) (target.byteSize() / 4L)
+    );
+  }
+
+  /**
+   * Set the alpha channel of every whole pixel of {@code target}.
+   *
+   * @param kernels The kernels
+   * @param target  The target segment
+   * @param alpha   The alpha value
+   *
+   * @see VLPixelKernelsType#clearAlpha(java.nio.ByteBuffer, int, int, int)
+   */
+
+  public static void clearAlpha(
+    final VLPixelKernelsType kernels,
+    final MemorySegment target,
+    final int alpha)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    kernels.clearAlpha(
+      target.asByteBuffer(),
+      0,
+      (int) (target.byteSize() / 4L),
+      alpha
+    );
+  }
+
+  /**
+   * Copy a {@code width × height} rectangle from the start of
+   * {@code source} to the start of {@code target}.
+   *
+   * @param kernels      The kernels
+   * @param source       The source segment
+   * @param sourceStride The byte distance between source rows
+   * @param target       The target segment
+   * @param targetStride The byte distance between target rows
+   * @param width        The rectangle width in pixels
+   * @param height       The rectangle height in pixels
+   *
+   * @see VLPixelKernelsType#blit(java.nio.ByteBuffer, int, int, java.nio.ByteBuffer, int, int, int, int)
+   */
+
+  public static void blit(
+    final VLPixelKernelsType kernels,
+    final MemorySegment source,
+    final int sourceStride,
+    final MemorySegment target,
+    final int targetStride,
+    final int width,
+    final int height)
+  {
+    Objects.requireNonNull(kernels, "kernels");
+    kernels.blit(
+      source.asByteBuffer(),
+      0,
+      sourceStride,
+      target.asByteBuffer(),
+      0,
+      targetStride,
+      width,
+      height
+    );
+  }
+}
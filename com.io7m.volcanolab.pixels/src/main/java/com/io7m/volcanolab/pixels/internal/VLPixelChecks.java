@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Argument checks shared by kernel implementations.
+ */
+
+public final class VLPixelChecks
+{
+  private VLPixelChecks()
+  {
+
+  }
+
+  /**
+   * Check that {@code pixelCount} pixels starting at {@code offset} lie
+   * within {@code buffer}.
+   *
+   * @param buffer     The buffer
+   * @param offset     The byte offset
+   * @param pixelCount The number of pixels
+   */
+
+  public static void checkPixels(
+    final ByteBuffer buffer,
+    final int offset,
+    final int pixelCount)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+    if (pixelCount < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Pixel count %d must be non-negative",
+          Integer.valueOf(pixelCount))
+      );
+    }
+    Objects.checkFromIndexSize(
+      offset,
+      Math.multiplyExact(pixelCount, 4),
+      buffer.capacity()
+    );
+  }
+
+  /**
+   * Check that a {@code width × height} rectangle with the given stride
+   * lies within {@code buffer}.
+   *
+   * @param buffer The buffer
+   * @param offset The byte offset
+   * @param stride The row stride in bytes
+   * @param width  The width in pixels
+   * @param height The height in pixels
+   */
+
+  public static void checkRectangle(
+    final ByteBuffer buffer,
+    final int offset,
+    final int stride,
+    final int width,
+    final int height)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Rectangle size %dx%d must be non-negative",
+          Integer.valueOf(width),
+          Integer.valueOf(height))
+      );
+    }
+    final var rowBytes = Math.multiplyExact(width, 4);
+    if (stride < rowBytes) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Stride %d must be at least %d",
+          Integer.valueOf(stride),
+          Integer.valueOf(rowBytes))
+      );
+    }
+    if (height == 0) {
+      return;
+    }
+    Objects.checkFromIndexSize(
+      offset,
+      Math.addExact(Math.multiplyExact(stride, height - 1), rowBytes),
+      buffer.capacity()
+    );
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels.internal;
+
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Plain Java pixel kernels. These are used where the vector API is not
+ * available, and to process the tails of buffers that are too short to fill
+ * a vector.
+ */
+
+public final class VLPixelKernelsScalar implements VLPixelKernelsType
+{
+  /*
+   * A view handle is used rather than ByteBuffer.getInt() so that the byte
+   * order of the caller's buffer is neither consulted nor changed.
+   */
+
+  private static final VarHandle PIXEL =
+    MethodHandles.byteBufferViewVarHandle(int[].class, LITTLE_ENDIAN);
+
+  /*
+   * The hash is two wrapping 32-bit sums of mixed pixels. Each pixel is
+   * mixed with its index in the span, so the sum depends on pixel positions,
+   * but addition is order-independent, so vector kernels of any width can
+   * accumulate lanes separately and still produce exactly the scalar result.
+   * Every step of the mix is a bijection on the pixel, which is why any
+   * single changed pixel changes the sum.
+   */
+
+  static final int HASH_INDEX_A = 0x9e3779b9;
+  static final int HASH_MULTIPLY_A = 0x85ebca6b;
+  static final int HASH_INDEX_B = 0xc2b2ae35;
+  static final int HASH_MULTIPLY_B = 0x27d4eb2f;
+
+  /**
+   * Plain Java pixel kernels.
+   */
+
+  public VLPixelKernelsScalar()
+  {
+
+  }
+
+  /**
+   * Premultiply a single pixel.
+   *
+   * @param pixel The pixel
+   *
+   * @return The premultiplied pixel
+   */
+
+  static int premultiplyPixel(
+    final int pixel)
+  {
+    final var a = pixel >>> 24;
+    final var c0 = divide255((pixel & 0xff) * a);
+    final var c1 = divide255(((pixel >>> 8) & 0xff) * a);
+    final var c2 = divide255(((pixel >>> 16) & 0xff) * a);
+    return (a << 24) | (c2 << 16) | (c1 << 8) | c0;
+  }
+
+  /*
+   * Exact round(x / 255) for x in [0, 255 * 255], without a division.
+   * The vector kernels use the same expression so that both implementations
+   * produce identical results.
+   */
+
+  private static int divide255(
+    final int x)
+  {
+    final var y = x + 128;
+    return (y + (y >>> 8)) >>> 8;
+  }
+
+  static int swizzlePixel(
+    final int pixel)
+  {
+    return (pixel & 0xff00ff00)
+           | ((pixel >>> 16) & 0xff)
+           | ((pixel & 0xff) << 16);
+  }
+
+  @Override
+  public String name()
+  {
+    return "Scalar";
+  }
+
+  @Override
+  public void fill(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int pixel)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+    fillUnchecked(target, offset, pixelCount, pixel);
+  }
+
+  static void fillUnchecked(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int pixel)
+  {
+    final var end = offset + (pixelCount * 4);
+    for (var index = offset; index < end; index += 4) {
+      PIXEL.set(target, index, pixel);
+    }
+  }
+
+  @Override
+  public void swizzleRB(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(source, sourceOffset, pixelCount);
+    VLPixelChecks.checkPixels(target, targetOffset, pixelCount);
+    swizzleUnchecked(source, sourceOffset, target, targetOffset, pixelCount);
+  }
+
+  static void swizzleUnchecked(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int pixelCount)
+  {
+    for (var index = 0; index < pixelCount; ++index) {
+      final var byteIndex = index * 4;
+      final var pixel = (int) PIXEL.get(source, sourceOffset + byteIndex);
+      PIXEL.set(target, targetOffset + byteIndex, swizzlePixel(pixel));
+    }
+  }
+
+  @Override
+  public void premultiply(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+    premultiplyUnchecked(target, offset, pixelCount);
+  }
+
+  static void premultiplyUnchecked(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount)
+  {
+    final var end = offset + (pixelCount * 4);
+    for (var index = offset; index < end; index += 4) {
+      final var pixel = (int) PIXEL.get(target, index);
+      PIXEL.set(target, index, premultiplyPixel(pixel));
+    }
+  }
+
+  @Override
+  public void clearAlpha(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int alpha)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+    clearAlphaUnchecked(target, offset, pixelCount, alpha);
+  }
+
+  static void clearAlphaUnchecked(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int alpha)
+  {
+    final var alphaByte = (byte) alpha;
+    final var end = offset + (pixelCount * 4);
+    for (var index = offset + 3; index < end; index += 4) {
+      target.put(index, alphaByte);
+    }
+  }
+
+  @Override
+  public long hash(
+    final ByteBuffer source,
+    final int offset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(source, offset, pixelCount);
+    return hashFinish(
+      hashSum(source, offset, pixelCount, 0, HASH_INDEX_A, HASH_MULTIPLY_A),
+      hashSum(source, offset, pixelCount, 0, HASH_INDEX_B, HASH_MULTIPLY_B),
+      pixelCount
+    );
+  }
+
+  static int hashMix(
+    final int pixel,
+    final int index,
+    final int indexFactor,
+    final int multiplier)
+  {
+    final var m = (pixel ^ (index * indexFactor)) * multiplier;
+    return m ^ (m >>> 15);
+  }
+
+  static int hashSum(
+    final ByteBuffer source,
+    final int offset,
+    final int pixelCount,
+    final int firstIndex,
+    final int indexFactor,
+    final int multiplier)
+  {
+    var sum = 0;
+    for (var index = 0; index < pixelCount; ++index) {
+      final var pixel = (int) PIXEL.get(source, offset + (index * 4));
+      sum += hashMix(pixel, firstIndex + index, indexFactor, multiplier);
+    }
+    return sum;
+  }
+
+  static long hashFinish(
+    final int sumA,
+    final int sumB,
+    final int pixelCount)
+  {
+    var h = ((long) sumA << 32) | ((long) sumB & 0xffffffffL);
+    h ^= (long) pixelCount * 0x9e3779b97f4a7c15L;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @Override
+  public void blit(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final int sourceStride,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int targetStride,
+    final int width,
+    final int height)
+  {
+    VLPixelChecks.checkRectangle(
+      source, sourceOffset, sourceStride, width, height);
+    VLPixelChecks.checkRectangle(
+      target, targetOffset, targetStride, width, height);
+
+    blitUnchecked(
+      source,
+      sourceOffset,
+      sourceStride,
+      target,
+      targetOffset,
+      targetStride,
+      width,
+      height
+    );
+  }
+
+  /*
+   * Rows are copied with the bulk absolute put, which the JDK already
+   * implements as a memory copy; there is nothing for vectors to add.
+   */
+
+  static void blitUnchecked(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final int sourceStride,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int targetStride,
+    final int width,
+    final int height)
+  {
+    final var rowBytes = width * 4;
+    if (sourceStride == rowBytes && targetStride == rowBytes) {
+      target.put(targetOffset, source, sourceOffset, rowBytes * height);
+      return;
+    }
+
+    for (var y = 0; y < height; ++y) {
+      target.put(
+        targetOffset + (y * targetStride),
+        source,
+        sourceOffset + (y * sourceStride),
+        rowBytes
+      );
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.pixels.internal;
+
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+import static com.io7m.volcanolab.pixels.internal.VLPixelKernelsScalar.HASH_INDEX_A;
+import static com.io7m.volcanolab.pixels.internal.VLPixelKernelsScalar.HASH_INDEX_B;
+import static com.io7m.volcanolab.pixels.internal.VLPixelKernelsScalar.HASH_MULTIPLY_A;
+import static com.io7m.volcanolab.pixels.internal.VLPixelKernelsScalar.HASH_MULTIPLY_B;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static jdk.incubator.vector.VectorOperators.ADD;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+import static jdk.incubator.vector.VectorOperators.XOR;
+
+/**
+ * <p>Pixel kernels implemented with the incubating vector API. Each lane of an
+ * {@link IntVector} holds one pixel; any pixels left over at the end of a
+ * span are handed to the scalar kernels.</p>
+ *
+ * <p>This class must not be loaded unless {@code jdk.incubator.vector} is
+ * present in the boot layer.</p>
+ */
+
+public final class VLPixelKernelsVector implements VLPixelKernelsType
+{
+  private static final VectorSpecies<Integer> SPECIES =
+    IntVector.SPECIES_PREFERRED;
+  private static final int LANES =
+    SPECIES.length();
+  private static final int LANE_BYTES =
+    LANES * 4;
+  private static final IntVector LANE_INDICES =
+    IntVector.zero(SPECIES).addIndex(1);
+
+  /**
+   * Pixel kernels implemented with the incubating vector API.
+   */
+
+  public VLPixelKernelsVector()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return String.format("Vector (%d-bit)", Integer.valueOf(LANE_BYTES * 8));
+  }
+
+  @Override
+  public void fill(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int pixel)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+
+    final var vectors = SPECIES.loopBound(pixelCount);
+    final var value = IntVector.broadcast(SPECIES, pixel);
+    var index = offset;
+    for (var pixels = 0; pixels < vectors; pixels += LANES) {
+      value.intoByteBuffer(target, index, LITTLE_ENDIAN);
+      index += LANE_BYTES;
+    }
+
+    VLPixelKernelsScalar.fillUnchecked(
+      target, index, pixelCount - vectors, pixel);
+  }
+
+  @Override
+  public void swizzleRB(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(source, sourceOffset, pixelCount);
+    VLPixelChecks.checkPixels(target, targetOffset, pixelCount);
+
+    final var vectors = SPECIES.loopBound(pixelCount);
+    for (var pixels = 0; pixels < vectors; pixels += LANES) {
+      final var byteIndex = pixels * 4;
+      final var v =
+        IntVector.fromByteBuffer(
+          SPECIES, source, sourceOffset + byteIndex, LITTLE_ENDIAN);
+
+      final var ag = v.and(0xff00ff00);
+      final var c0 = v.lanewise(LSHR, 16).and(0xff);
+      final var c2 = v.and(0xff).lanewise(LSHL, 16);
+      ag.or(c0).or(c2)
+        .intoByteBuffer(target, targetOffset + byteIndex, LITTLE_ENDIAN);
+    }
+
+    final var done = vectors * 4;
+    VLPixelKernelsScalar.swizzleUnchecked(
+      source,
+      sourceOffset + done,
+      target,
+      targetOffset + done,
+      pixelCount - vectors
+    );
+  }
+
+  @Override
+  public void premultiply(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+
+    final var vectors = SPECIES.loopBound(pixelCount);
+    var index = offset;
+    for (var pixels = 0; pixels < vectors; pixels += LANES) {
+      final var v =
+        IntVector.fromByteBuffer(SPECIES, target, index, LITTLE_ENDIAN);
+
+      final var a = v.lanewise(LSHR, 24);
+      final var c0 = divide255(v.and(0xff).mul(a));
+      final var c1 = divide255(v.lanewise(LSHR, 8).and(0xff).mul(a));
+      final var c2 = divide255(v.lanewise(LSHR, 16).and(0xff).mul(a));
+
+      a.lanewise(LSHL, 24)
+        .or(c2.lanewise(LSHL, 16))
+        .or(c1.lanewise(LSHL, 8))
+        .or(c0)
+        .intoByteBuffer(target, index, LITTLE_ENDIAN);
+
+      index += LANE_BYTES;
+    }
+
+    VLPixelKernelsScalar.premultiplyUnchecked(
+      target, index, pixelCount - vectors);
+  }
+
+  /*
+   * See VLPixelKernelsScalar.divide255().
+   */
+
+  private static IntVector divide255(
+    final IntVector x)
+  {
+    final var y = x.add(128);
+    return y.add(y.lanewise(LSHR, 8)).lanewise(LSHR, 8);
+  }
+
+  @Override
+  public void clearAlpha(
+    final ByteBuffer target,
+    final int offset,
+    final int pixelCount,
+    final int alpha)
+  {
+    VLPixelChecks.checkPixels(target, offset, pixelCount);
+
+    final var vectors = SPECIES.loopBound(pixelCount);
+    final var alphaBits = (alpha & 0xff) << 24;
+    var index = offset;
+    for (var pixels = 0; pixels < vectors; pixels += LANES) {
+      IntVector.fromByteBuffer(SPECIES, target, index, LITTLE_ENDIAN)
+        .and(0x00ffffff)
+        .or(alphaBits)
+        .intoByteBuffer(target, index, LITTLE_ENDIAN);
+      index += LANE_BYTES;
+    }
+
+    VLPixelKernelsScalar.clearAlphaUnchecked(
+      target, index, pixelCount - vectors, alpha);
+  }
+
+  @Override
+  public long hash(
+    final ByteBuffer source,
+    final int offset,
+    final int pixelCount)
+  {
+    VLPixelChecks.checkPixels(source, offset, pixelCount);
+
+    final var vectors = SPECIES.loopBound(pixelCount);
+    var sumA = IntVector.zero(SPECIES);
+    var sumB = IntVector.zero(SPECIES);
+    var index = offset;
+    for (var pixels = 0; pixels < vectors; pixels += LANES) {
+      final var v =
+        IntVector.fromByteBuffer(SPECIES, source, index, LITTLE_ENDIAN);
+      final var indices = LANE_INDICES.add(pixels);
+      sumA = sumA.add(hashMix(v, indices, HASH_INDEX_A, HASH_MULTIPLY_A));
+      sumB = sumB.add(hashMix(v, indices, HASH_INDEX_B, HASH_MULTIPLY_B));
+      index += LANE_BYTES;
+    }
+
+    final var tail = pixelCount - vectors;
+    final var a =
+      sumA.reduceLanes(ADD) + VLPixelKernelsScalar.hashSum(
+        source, index, tail, vectors, HASH_INDEX_A, HASH_MULTIPLY_A);
+    final var b =
+      sumB.reduceLanes(ADD) + VLPixelKernelsScalar.hashSum(
+        source, index, tail, vectors, HASH_INDEX_B, HASH_MULTIPLY_B);
+    return VLPixelKernelsScalar.hashFinish(a, b, pixelCount);
+  }
+
+  /*
+   * See VLPixelKernelsScalar.hashMix().
+   */
+
+  private static IntVector hashMix(
+    final IntVector pixels,
+    final IntVector indices,
+    final int indexFactor,
+    final int multiplier)
+  {
+    final var m =
+      pixels.lanewise(XOR, indices.mul(indexFactor))
+        .mul(multiplier);
+    return m.lanewise(XOR, m.lanewise(LSHR, 15));
+  }
+
+  @Override
+  public void blit(
+    final ByteBuffer source,
+    final int sourceOffset,
+    final int sourceStride,
+    final ByteBuffer target,
+    final int targetOffset,
+    final int targetStride,
+    final int width,
+    final int height)
+  {
+    VLPixelChecks.checkRectangle(
+      source, sourceOffset, sourceStride, width, height);
+    VLPixelChecks.checkRectangle(
+      target, targetOffset, targetStride, width, height);
+
+    VLPixelKernelsScalar.blitUnchecked(
+      source,
+      sourceOffset,
+      sourceStride,
+      target,
+      targetOffset,
+      targetStride,
+      width,
+      height
+    );
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentBandwidth;
+import com.io7m.volcanolab.experiments.ExperimentBandwidthKind;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentBandwidthTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentBandwidthTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testSizesInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentBandwidth(List.of());
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentBandwidth(List.of(Long.valueOf(17L)));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentBandwidth(List.of(Long.valueOf(0L)));
+    });
+  }
+
+  @Test
+  public void testRun()
+    throws Exception
+  {
+    /*
+     * Small sizes keep this usable on software implementations.
+     */
+
+    final var sizes =
+      List.of(Long.valueOf(64L * 1024L), Long.valueOf(256L * 1024L));
+
+    try (var experiment = new ExperimentBandwidth(sizes)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      final var width = this.context.width();
+      final var height = this.context.height();
+      final var data = ByteBuffer.allocateDirect(width * height * 4);
+
+      final var expected =
+        sizes.size() * ExperimentBandwidthKind.values().length;
+
+      for (var index = 0; index < expected; ++index) {
+        assertFalse(experiment.isComplete());
+        experiment.render(this.context, data);
+      }
+
+      assertTrue(experiment.isComplete());
+      experiment.render(this.context, data);
+
+      final var results = experiment.results();
+      assertEquals(expected, results.size());
+      for (final var result : results) {
+        LOG.info("{}", result.describe());
+        assertTrue(result.nanoseconds() > 0L);
+        assertTrue(result.gigabytesPerSecond() > 0.0);
+      }
+
+      assertTrue(
+        this.events.stream()
+          .filter(e -> e instanceof ExperimentEventLifecycle)
+          .map(ExperimentEventLifecycle.class::cast)
+          .anyMatch(e -> e.status() == RUNNING)
+      );
+    }
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanException;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentError;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import io.reactivex.rxjava3.disposables.Disposable;
+import jdk.incubator.foreign.ResourceScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Run every experiment in the catalogue at several sizes and check that it
+ * stays within its budgets. The budgets are tuned for lavapipe, which is
+ * preferred when present so that the suite behaves the same on machines
+ * without a GPU.
+ */
+
+public final class ExperimentBudgetTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentBudgetTest.class);
+
+  private static final String THREAD_PREFIX = "com.io7m.volcanolab.";
+  private static final int WARMUP_FRAMES = 5;
+  private static final int MEASURED_FRAMES = 20;
+
+  private static final int[][] SIZES = {
+    {64, 64},
+    {320, 240},
+    {640, 480},
+  };
+
+  private CloseableCollectionType<?> resources;
+  private VulkanPhysicalDeviceType device;
+  private ExperimentBudgets budgets;
+  private Properties observed;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.resources = CloseableCollection.create();
+    this.budgets = ExperimentBudgets.load();
+    this.observed = new Properties();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    /*
+     * Validation layers are not enabled: they would dominate the frame
+     * times being budgeted.
+     */
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var devices = instance.physicalDevices();
+    this.device = devices.get(0);
+    for (final var candidate : devices) {
+      if (isLavapipe(candidate)) {
+        this.device = candidate;
+        break;
+      }
+    }
+
+    LOG.info("device: {}", this.device.properties().name());
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    try {
+      final var file =
+        Paths.get("target", "experiment-budgets-observed.properties");
+      Files.createDirectories(file.getParent());
+      try (var stream = Files.newOutputStream(file)) {
+        this.observed.store(stream, "Observed by ExperimentBudgetTest");
+      }
+    } catch (final IOException e) {
+      LOG.warn("could not save observed checksums: ", e);
+    } finally {
+      this.resources.close();
+    }
+  }
+
+  private static boolean isLavapipe(
+    final VulkanPhysicalDeviceType device)
+    throws VulkanException
+  {
+    return device.properties().name().contains("llvmpipe");
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testBudgets()
+  {
+    final var providers =
+      ServiceLoader.load(ExperimentType.class)
+        .stream()
+        .toList();
+
+    assertTrue(!providers.isEmpty(), "Experiments must be discoverable");
+
+    return providers.stream()
+      .flatMap(provider -> Arrays.stream(SIZES).map(size -> {
+        final var type = provider.type();
+        return DynamicTest.dynamicTest(
+          String.format(
+            "%s %dx%d",
+            type.getSimpleName(),
+            Integer.valueOf(size[0]),
+            Integer.valueOf(size[1])),
+          () -> this.runWithinBudget(provider, size[0], size[1])
+        );
+      }));
+  }
+
+  private void runWithinBudget(
+    final ServiceLoader.Provider<ExperimentType> provider,
+    final int width,
+    final int height)
+    throws Exception
+  {
+    final var type = provider.type();
+    final var threadsBefore = liveThreadIds();
+
+    final var context = new ExperimentTestContext(this.device);
+    context.setWidth(width);
+    context.setHeight(height);
+
+    final var events = new AtomicInteger();
+    final var errors = new ArrayList<Exception>();
+    final var frameTimes = new long[MEASURED_FRAMES];
+    final long allocated;
+    final long checksum;
+    var deviceMemory = 0L;
+
+    final var experiment = provider.get();
+    try (var scope = ResourceScope.newSharedScope(); experiment) {
+      final Disposable subscription =
+        experiment.events().subscribe(event -> {
+          events.incrementAndGet();
+          if (event instanceof ExperimentError error) {
+            errors.add(error.exception());
+          }
+        });
+
+      try {
+        final var frame =
+          ExperimentFrame.allocate(scope, width, height, BGRA8_PRE);
+
+        experiment.start(context);
+        experiment.onSizeChanged(context);
+
+        for (var index = 0; index < WARMUP_FRAMES; ++index) {
+          experiment.render(context, frame);
+        }
+
+        events.set(0);
+        final var allocatedThen = allocatedBytes();
+        for (var index = 0; index < MEASURED_FRAMES; ++index) {
+          final var timeThen = System.nanoTime();
+          experiment.render(context, frame);
+          frameTimes[index] = System.nanoTime() - timeThen;
+        }
+        allocated =
+          allocatedThen < 0L ? -1L : allocatedBytes() - allocatedThen;
+        deviceMemory = deviceMemoryOf(experiment);
+
+        /*
+         * The frame is copied out first: the CRC cannot read a byte buffer
+         * view of a segment in a shared scope directly.
+         */
+
+        final var frameBuffer = frame.asByteBuffer();
+        final var bytes = new byte[frameBuffer.capacity()];
+        frameBuffer.get(bytes);
+
+        final var crc = new CRC32();
+        crc.update(bytes);
+        checksum = crc.getValue();
+      } finally {
+        subscription.dispose();
+      }
+    }
+
+    assertEquals(List.of(), errors, "Experiment must not fail");
+    final var deviceMemoryRetained = deviceMemoryOf(experiment);
+
+    final var key =
+      String.format(
+        "%s.checksum.%dx%d",
+        type.getSimpleName(),
+        Integer.valueOf(width),
+        Integer.valueOf(height));
+    this.observed.setProperty(key, Long.toHexString(checksum));
+
+    Arrays.sort(frameTimes);
+    final var medianMillis =
+      (double) frameTimes[MEASURED_FRAMES / 2] / 1_000_000.0;
+    final var eventsPerFrame =
+      (double) events.get() / (double) MEASURED_FRAMES;
+
+    LOG.info(
+      "{} {}x{}: {} ms/frame, {} bytes/frame, {} events/frame, "
+        + "{} device bytes, crc {}",
+      type.getSimpleName(),
+      Integer.valueOf(width),
+      Integer.valueOf(height),
+      String.format("%.3f", Double.valueOf(medianMillis)),
+      allocated < 0L ? "?" : Long.valueOf(allocated / MEASURED_FRAMES),
+      String.format("%.2f", Double.valueOf(eventsPerFrame)),
+      Long.valueOf(deviceMemory),
+      Long.toHexString(checksum));
+
+    final var frameBudget = this.budgets.frameTimeMillis(type);
+    assertTrue(
+      medianMillis <= frameBudget,
+      String.format(
+        "Median frame time %.3f ms exceeds the budget of %.3f ms",
+        Double.valueOf(medianMillis),
+        Double.valueOf(frameBudget)));
+
+    if (allocated >= 0L) {
+      final var perFrame = allocated / MEASURED_FRAMES;
+      final var allocationBudget = this.budgets.allocatedBytesPerFrame(type);
+      assertTrue(
+        perFrame <= allocationBudget,
+        String.format(
+          "Allocation of %d bytes per frame exceeds the budget of %d bytes",
+          Long.valueOf(perFrame),
+          Long.valueOf(allocationBudget)));
+    }
+
+    final var eventBudget = this.budgets.eventsPerFrame(type);
+    assertTrue(
+      eventsPerFrame <= eventBudget,
+      String.format(
+        "%.2f events per frame exceeds the budget of %.2f",
+        Double.valueOf(eventsPerFrame),
+        Double.valueOf(eventBudget)));
+
+    final var memoryBudget = this.budgets.deviceMemoryBytes(type);
+    assertTrue(
+      deviceMemory <= memoryBudget,
+      String.format(
+        "Device memory of %d bytes exceeds the budget of %d bytes",
+        Long.valueOf(deviceMemory),
+        Long.valueOf(memoryBudget)));
+    assertEquals(
+      0L,
+      deviceMemoryRetained,
+      "Device memory must be released on close");
+
+    final var leaked = threadsLeakedSince(threadsBefore);
+    final var threadBudget = this.budgets.threadsLeaked(type);
+    assertTrue(
+      leaked.size() <= threadBudget,
+      String.format(
+        "%d threads were left running (budget %d): %s",
+        Integer.valueOf(leaked.size()),
+        Integer.valueOf(threadBudget),
+        leaked));
+
+    final var expected = this.budgets.checksum(type, width, height);
+    if (this.budgets.checksumRequired(type)) {
+      assertTrue(
+        expected.isPresent(),
+        String.format(
+          "An expected checksum must be listed for %s (observed %s)",
+          key,
+          Long.toHexString(checksum)));
+    }
+    if (expected.isPresent()) {
+      assertEquals(
+        Long.toHexString(expected.get().longValue()),
+        Long.toHexString(checksum),
+        "Output checksum");
+    }
+  }
+
+  private static long deviceMemoryOf(
+    final ExperimentType experiment)
+  {
+    return experiment.memoryHeaps()
+      .stream()
+      .mapToLong(ExperimentMemoryHeap::usage)
+      .sum();
+  }
+
+  private static Set<Long> liveThreadIds()
+  {
+    final var threads = ManagementFactory.getThreadMXBean();
+    return Arrays.stream(threads.getAllThreadIds())
+      .boxed()
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /*
+   * JIT, GC, common pool and logging threads come and go independently of
+   * the experiment, so only new threads carrying the application's name
+   * prefix are counted. Threads shut down by an experiment's close() may
+   * take a moment to terminate, so the threads are polled briefly before
+   * reporting a leak.
+   */
+
+  private static List<String> threadsLeakedSince(
+    final Set<Long> threadsBefore)
+    throws InterruptedException
+  {
+    var leaked = List.<String>of();
+    for (var attempt = 0; attempt < 100; ++attempt) {
+      leaked =
+        Thread.getAllStackTraces()
+          .keySet()
+          .stream()
+          .filter(Thread::isAlive)
+          .filter(thread -> {
+            return !threadsBefore.contains(Long.valueOf(thread.getId()));
+          })
+          .map(Thread::getName)
+          .filter(name -> name.startsWith(THREAD_PREFIX))
+          .sorted()
+          .toList();
+
+      if (leaked.isEmpty()) {
+        return leaked;
+      }
+      Thread.sleep(50L);
+    }
+    return leaked;
+  }
+
+  private static long allocatedBytes()
+  {
+    final var threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean sun
+      && sun.isThreadAllocatedMemorySupported()
+      && sun.isThreadAllocatedMemoryEnabled()) {
+      return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1L;
+  }
+}
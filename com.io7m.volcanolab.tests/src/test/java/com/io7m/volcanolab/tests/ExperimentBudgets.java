@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * The per-experiment budgets enforced by {@link ExperimentBudgetTest}.
+ */
+
+public final class ExperimentBudgets
+{
+  private final Properties properties;
+
+  private ExperimentBudgets(
+    final Properties inProperties)
+  {
+    this.properties = Objects.requireNonNull(inProperties, "properties");
+  }
+
+  public static ExperimentBudgets load()
+  {
+    final var properties = new Properties();
+    try (var stream = ExperimentBudgets.class.getResourceAsStream(
+      "/com/io7m/volcanolab/tests/experiment-budgets.properties")) {
+      properties.load(stream);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new ExperimentBudgets(properties);
+  }
+
+  private String value(
+    final Class<?> experiment,
+    final String budget)
+  {
+    final var specific =
+      this.properties.getProperty(experiment.getSimpleName() + "." + budget);
+    if (specific != null) {
+      return specific;
+    }
+    return Objects.requireNonNull(
+      this.properties.getProperty("default." + budget),
+      budget);
+  }
+
+  public double frameTimeMillis(
+    final Class<?> experiment)
+  {
+    return Double.parseDouble(this.value(experiment, "frameTimeMillis"));
+  }
+
+  public long allocatedBytesPerFrame(
+    final Class<?> experiment)
+  {
+    return Long.parseLong(this.value(experiment, "allocatedBytesPerFrame"));
+  }
+
+  public double eventsPerFrame(
+    final Class<?> experiment)
+  {
+    return Double.parseDouble(this.value(experiment, "eventsPerFrame"));
+  }
+
+  public int threadsLeaked(
+    final Class<?> experiment)
+  {
+    return Integer.parseInt(this.value(experiment, "threadsLeaked"));
+  }
+
+  public long deviceMemoryBytes(
+    final Class<?> experiment)
+  {
+    return Long.parseLong(this.value(experiment, "deviceMemoryBytes"));
+  }
+
+  public boolean checksumRequired(
+    final Class<?> experiment)
+  {
+    return Boolean.parseBoolean(this.value(experiment, "checksumRequired"));
+  }
+
+  public Optional<Long> checksum(
+    final Class<?> experiment,
+    final int width,
+    final int height)
+  {
+    final var key =
+      String.format(
+        "%s.checksum.%dx%d",
+        experiment.getSimpleName(),
+        Integer.valueOf(width),
+        Integer.valueOf(height));
+
+    return Optional.ofNullable(this.properties.getProperty(key))
+      .map(text -> Long.valueOf(Long.parseLong(text, 16)));
+  }
+}
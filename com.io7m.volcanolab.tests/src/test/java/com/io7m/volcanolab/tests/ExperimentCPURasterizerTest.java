@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiments.ExperimentCPURasterizer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentCPURasterizerTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentCPURasterizerTest.class);
+
+  private static final int WIDTH = 640;
+  private static final int HEIGHT = 480;
+
+  private static ByteBuffer renderFrames(
+    final int parallelism,
+    final int frames)
+    throws Exception
+  {
+    final var context = new CPUContext(WIDTH, HEIGHT);
+    final var data = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 4);
+
+    try (var experiment = new ExperimentCPURasterizer(2000, parallelism)) {
+      experiment.start(context);
+      for (var index = 0; index < frames; ++index) {
+        experiment.render(context, data);
+      }
+    }
+    return data;
+  }
+
+  /**
+   * Rendering is deterministic regardless of the number of threads.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallelMatchesSerial()
+    throws Exception
+  {
+    final var serial = renderFrames(1, 3);
+    final var parallel = renderFrames(4, 3);
+    assertEquals(serial, parallel);
+  }
+
+  /**
+   * Rendering actually produces triangles.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRendersTriangles()
+    throws Exception
+  {
+    final var data = renderFrames(2, 1);
+    final var background = data.getInt(0);
+
+    var covered = 0;
+    for (var index = 0; index < data.capacity(); index += 4) {
+      if (data.getInt(index) != background) {
+        ++covered;
+      }
+    }
+
+    LOG.debug("covered pixels: {}", Integer.valueOf(covered));
+    assertTrue(covered > 0);
+  }
+
+  private record CPUContext(
+    int width,
+    int height)
+    implements ExperimentContextType
+  {
+    @Override
+    public VulkanPhysicalDeviceType physicalDevice()
+    {
+      return null;
+    }
+  }
+}
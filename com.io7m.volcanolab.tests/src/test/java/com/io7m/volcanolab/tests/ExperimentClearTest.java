@@ -24,6 +24,7 @@ import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.volcanolab.experiment.api.ExperimentEventType;
 import com.io7m.volcanolab.experiments.ExperimentClear;
+import com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode;
 import io.reactivex.rxjava3.disposables.Disposable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,14 +34,21 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Optional;
 
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_COMPUTE_BIT;
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_GRAPHICS_BIT;
+import static com.io7m.jcoronado.api.VulkanQueueFamilyPropertyFlag.VK_QUEUE_TRANSFER_BIT;
+import static com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode.READBACK_ON_GRAPHICS_QUEUE;
+import static com.io7m.volcanolab.experiments.ExperimentReadbackQueueMode.READBACK_ON_TRANSFER_QUEUE;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public final class ExperimentClearTest
 {
@@ -121,6 +129,132 @@ public final class ExperimentClearTest
     }
   }
 
+  /**
+   * Both queue modes produce the clear color. The transfer queue mode is
+   * used only if the device has a transfer-only queue family, and falls
+   * back to the graphics queue otherwise.
+   */
+
+  @Test
+  public void testQueueModes()
+    throws Exception
+  {
+    final var single =
+      this.measureFrames(READBACK_ON_GRAPHICS_QUEUE);
+    final var transfer =
+      this.measureFrames(READBACK_ON_TRANSFER_QUEUE);
+
+    LOG.info(
+      "graphics queue readback: {} ms/frame",
+      String.format("%.3f", Double.valueOf(single)));
+    LOG.info(
+      "transfer queue readback: {} ms/frame",
+      String.format("%.3f", Double.valueOf(transfer)));
+  }
+
+  private boolean hasTransferOnlyFamily()
+    throws Exception
+  {
+    return this.context.physicalDevice()
+      .queueFamilies()
+      .stream()
+      .anyMatch(family -> {
+        final var flags = family.queueFlags();
+        return flags.contains(VK_QUEUE_TRANSFER_BIT)
+               && !flags.contains(VK_QUEUE_GRAPHICS_BIT)
+               && !flags.contains(VK_QUEUE_COMPUTE_BIT);
+      });
+  }
+
+  /**
+   * The clear pass clears to red, and then clears the whole attachment to
+   * opaque green, so every pixel of a BGRA output is (0, 255, 0, 255).
+   * The output is scanned for the first pixel that differs, so that a
+   * passing check costs one assertion rather than four per pixel.
+   */
+
+  private static void checkCleared(
+    final ExperimentReadbackQueueMode mode,
+    final ByteBuffer data)
+  {
+    final var expected = 0xff00ff00;
+    final var pixels = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+    var mismatch = -1;
+    for (var index = 0; index < pixels.capacity(); index += 4) {
+      if (pixels.getInt(index) != expected) {
+        mismatch = index / 4;
+        break;
+      }
+    }
+
+    final var first = mismatch;
+    assertEquals(-1, first, () -> String.format(
+      "%s: pixel %d is 0x%08x, expected 0x%08x",
+      mode,
+      Integer.valueOf(first),
+      Integer.valueOf(pixels.getInt(first * 4)),
+      Integer.valueOf(expected)));
+  }
+
+  private double measureFrames(
+    final ExperimentReadbackQueueMode mode)
+    throws Exception
+  {
+    final var warmupFrames = 30;
+    final var measuredFrames = 300;
+
+    try (var clear = new ExperimentClear(mode)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(clear.events().subscribe(this::onEvent))
+      );
+
+      this.context.setWidth(1200);
+      this.context.setHeight(800);
+      clear.start(this.context);
+
+      LOG.info("{}: using {}", mode, clear.queueMode());
+
+      final var expectedMode =
+        mode == READBACK_ON_TRANSFER_QUEUE && this.hasTransferOnlyFamily()
+          ? READBACK_ON_TRANSFER_QUEUE
+          : READBACK_ON_GRAPHICS_QUEUE;
+      assertEquals(expectedMode, clear.queueMode());
+
+      final var data = ByteBuffer.allocateDirect(1200 * 800 * 4);
+      for (var index = 0; index < warmupFrames; ++index) {
+        clear.render(this.context, data);
+      }
+
+      final var timeThen = System.nanoTime();
+      for (var index = 0; index < measuredFrames; ++index) {
+        clear.render(this.context, data);
+      }
+      final var timeNow = System.nanoTime();
+
+      /*
+       * In the transfer queue mode, each frame reads back the frame
+       * submitted before it, so the check covers the pipelined path.
+       */
+
+      for (var index = 0; index < data.capacity(); ++index) {
+        data.put(index, (byte) 0x7f);
+      }
+      clear.render(this.context, data);
+      checkCleared(mode, data);
+
+      LOG.info(
+        "{}: frame sync {}: {} ms waiting in total",
+        mode,
+        clear.frameSyncKind(),
+        String.format(
+          "%.3f",
+          Double.valueOf(clear.frameSyncWaitTimeNanoseconds() / 1_000_000.0))
+      );
+      return (double) (timeNow - timeThen) / 1_000_000.0 / measuredFrames;
+    }
+  }
+
   private static void saveImage(
     final int width,
     final int height,
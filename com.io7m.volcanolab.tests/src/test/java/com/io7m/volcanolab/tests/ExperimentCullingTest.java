@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentCulling;
+import com.io7m.volcanolab.experiments.ExperimentCullingResult;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiments.ExperimentCullingMode.CPU_DRAWS;
+import static com.io7m.volcanolab.experiments.ExperimentCullingMode.GPU_INDIRECT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentCullingTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentCullingTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testObjectCountsInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentCulling(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentCulling(ExperimentCulling.MAXIMUM_OBJECTS + 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentCulling().setObjectCount(-1);
+    });
+  }
+
+  @Test
+  public void testRun()
+    throws Exception
+  {
+    try (var experiment = new ExperimentCulling(10_000)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      final var data =
+        ByteBuffer.allocateDirect(
+          this.context.width() * this.context.height() * 4);
+
+      runUntilComplete(experiment, data);
+
+      final var results = experiment.results();
+      assertEquals(2, results.size());
+      assertEquals(CPU_DRAWS, results.get(0).mode());
+      assertEquals(GPU_INDIRECT, results.get(1).mode());
+      checkResults(results, 10_000);
+
+      assertTrue(
+        this.events.stream()
+          .filter(e -> e instanceof ExperimentEventLifecycle)
+          .map(ExperimentEventLifecycle.class::cast)
+          .anyMatch(e -> e.status() == RUNNING)
+      );
+    }
+  }
+
+  @Test
+  public void testObjectCountChanged()
+    throws Exception
+  {
+    try (var experiment = new ExperimentCulling(1_000)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      final var data =
+        ByteBuffer.allocateDirect(
+          this.context.width() * this.context.height() * 4);
+
+      runUntilComplete(experiment, data);
+
+      experiment.setObjectCount(20_000);
+      experiment.render(this.context, data);
+      assertFalse(experiment.isComplete());
+      assertEquals(20_000, experiment.objectCount());
+
+      runUntilComplete(experiment, data);
+
+      final var results = experiment.results();
+      assertEquals(4, results.size());
+      checkResults(results.subList(0, 2), 1_000);
+      checkResults(results.subList(2, 4), 20_000);
+    }
+  }
+
+  /*
+   * Bound the number of frames so that a broken experiment can't hang
+   * the test suite.
+   */
+
+  private void runUntilComplete(
+    final ExperimentCulling experiment,
+    final ByteBuffer data)
+    throws Exception
+  {
+    for (var frame = 0; frame < 1000 && !experiment.isComplete(); ++frame) {
+      experiment.render(this.context, data);
+    }
+    assertTrue(experiment.isComplete());
+  }
+
+  /*
+   * Objects are scattered over an area larger than the view, so some, but
+   * not all, of them must be visible.
+   */
+
+  private static void checkResults(
+    final List<ExperimentCullingResult> results,
+    final int objects)
+  {
+    for (final var result : results) {
+      LOG.info("{}", result.describe());
+      assertEquals(objects, result.objects());
+      assertTrue(result.visible() > 0);
+      assertTrue(result.visible() < objects);
+      assertTrue(result.gpuNanoseconds() > 0L);
+    }
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentBindingMode;
+import com.io7m.volcanolab.experiments.ExperimentDescriptorBinding;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiments.ExperimentBindingMode.DESCRIPTOR_INDEXING;
+import static com.io7m.volcanolab.experiments.ExperimentBindingMode.PER_DRAW_SETS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentDescriptorBindingTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentDescriptorBindingTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testArgumentsInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentDescriptorBinding(
+        0, EnumSet.allOf(ExperimentBindingMode.class));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentDescriptorBinding(
+        ExperimentDescriptorBinding.MAXIMUM_MATERIALS + 1,
+        EnumSet.allOf(ExperimentBindingMode.class));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentDescriptorBinding(1, Set.of());
+    });
+  }
+
+  @Test
+  public void testRun()
+    throws Exception
+  {
+    final var modes = EnumSet.allOf(ExperimentBindingMode.class);
+    try (var experiment = new ExperimentDescriptorBinding(1024, modes)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      /*
+       * Devices without descriptor indexing must still run, measuring only
+       * the per-draw descriptor sets.
+       */
+
+      if (experiment.isDescriptorIndexing()) {
+        assertEquals(
+          List.of(PER_DRAW_SETS, DESCRIPTOR_INDEXING),
+          experiment.plan());
+      } else {
+        assertEquals(List.of(PER_DRAW_SETS), experiment.plan());
+      }
+
+      this.runUntilComplete(experiment);
+
+      final var results = experiment.results();
+      assertEquals(experiment.plan().size(), results.size());
+      for (final var result : results) {
+        LOG.info("{}", result.describe());
+        assertEquals(1024, result.materials());
+        assertTrue(result.textures() >= 16);
+        assertTrue(result.cpuNanoseconds() > 0L);
+        assertTrue(result.gpuNanoseconds() > 0L);
+      }
+
+      assertTrue(
+        this.events.stream()
+          .filter(e -> e instanceof ExperimentEventLifecycle)
+          .map(ExperimentEventLifecycle.class::cast)
+          .anyMatch(e -> e.status() == RUNNING)
+      );
+    }
+  }
+
+  @Test
+  public void testPerDrawSetsOnly()
+    throws Exception
+  {
+    try (var experiment =
+           new ExperimentDescriptorBinding(100, Set.of(PER_DRAW_SETS))) {
+      experiment.start(this.context);
+      assertEquals(List.of(PER_DRAW_SETS), experiment.plan());
+
+      this.runUntilComplete(experiment);
+      assertEquals(1, experiment.results().size());
+    }
+  }
+
+  /*
+   * Bound the number of frames so that a broken experiment can't hang
+   * the test suite.
+   */
+
+  private void runUntilComplete(
+    final ExperimentDescriptorBinding experiment)
+    throws Exception
+  {
+    final var data =
+      ByteBuffer.allocateDirect(
+        this.context.width() * this.context.height() * 4);
+
+    for (var frame = 0; frame < 1000 && !experiment.isComplete(); ++frame) {
+      experiment.render(this.context, data);
+    }
+    assertTrue(experiment.isComplete());
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
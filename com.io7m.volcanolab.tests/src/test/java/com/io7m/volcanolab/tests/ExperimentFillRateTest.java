@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentFillRate;
+import com.io7m.volcanolab.experiments.ExperimentFillRateBlend;
+import com.io7m.volcanolab.experiments.ExperimentFillRateFormat;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.io7m.volcanolab.experiments.ExperimentFillRateBlend.ALPHA;
+import static com.io7m.volcanolab.experiments.ExperimentFillRateFormat.RGBA8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentFillRateTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentFillRateTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testLayersInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentFillRate(0, ALPHA, RGBA8);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentFillRate(
+        ExperimentFillRate.MAXIMUM_LAYERS + 1, ALPHA, RGBA8);
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testBlendFormats()
+  {
+    return Stream.of(ExperimentFillRateBlend.values())
+      .flatMap(blend -> {
+        return Stream.of(ExperimentFillRateFormat.values())
+          .map(format -> {
+            return DynamicTest.dynamicTest(
+              "testBlendFormat_" + blend + "_" + format,
+              () -> this.runBlendFormat(blend, format)
+            );
+          });
+      });
+  }
+
+  private void runBlendFormat(
+    final ExperimentFillRateBlend blend,
+    final ExperimentFillRateFormat format)
+    throws Exception
+  {
+    try (var experiment = new ExperimentFillRate(16, blend, format)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      final var width = this.context.width();
+      final var height = this.context.height();
+      final var data =
+        ByteBuffer.allocateDirect(width * height * 4)
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      for (var index = 0; index < 4; ++index) {
+        experiment.render(this.context, data);
+      }
+
+      LOG.info(
+        "{} {}: {} pixels/s (gpu timed: {})",
+        blend,
+        format,
+        String.format("%.0f", Double.valueOf(experiment.pixelsPerSecond())),
+        Boolean.valueOf(experiment.isGPUTimed())
+      );
+      assertTrue(experiment.pixelsPerSecond() > 0.0);
+
+      /*
+       * Every blend state converges on the same color, so the center pixel
+       * should be close to (0.2, 0.6, 0.9) regardless of configuration.
+       */
+
+      final var center = ((height / 2) * width + (width / 2)) * 4;
+      assertNear(0.9 * 255.0, data.get(center) & 0xff);
+      assertNear(0.6 * 255.0, data.get(center + 1) & 0xff);
+      assertNear(0.2 * 255.0, data.get(center + 2) & 0xff);
+      assertNear(255.0, data.get(center + 3) & 0xff);
+    }
+  }
+
+  private static void assertNear(
+    final double expected,
+    final int received)
+  {
+    assertTrue(
+      Math.abs(expected - received) <= 8.0,
+      String.format(
+        "Expected about %.1f, received %d",
+        Double.valueOf(expected),
+        Integer.valueOf(received))
+    );
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
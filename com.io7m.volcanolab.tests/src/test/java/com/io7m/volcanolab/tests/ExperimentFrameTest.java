@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanPhysicalDeviceType;
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiments.ExperimentCPURasterizer;
+import com.io7m.volcanolab.experiments.internal.ExperimentFrameCopy;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.RGBA8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentFrameTest
+{
+  /**
+   * Frames must fit in their memory.
+   */
+
+  @Test
+  public void testValidation()
+  {
+    final var memory = MemorySegment.ofArray(new byte[64]);
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentFrame(memory, 0, 1, 4L, RGBA8);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentFrame(memory, 4, 1, 15L, RGBA8);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentFrame(memory, 4, 5, 16L, RGBA8);
+    });
+
+    final var frame = new ExperimentFrame(memory, 2, 3, 24L, RGBA8);
+    assertFalse(frame.isTightlyPacked());
+    assertEquals(56L, frame.byteSize());
+    assertEquals(8L, frame.rowBytes());
+    assertEquals(48L, frame.rowOffset(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> frame.rowOffset(3));
+  }
+
+  /**
+   * Allocated frames are freed when their scope is closed.
+   */
+
+  @Test
+  public void testAllocateScope()
+  {
+    final ExperimentFrame frame;
+    try (var scope = ResourceScope.newConfinedScope()) {
+      frame = ExperimentFrame.allocate(scope, 640, 480, BGRA8_PRE);
+      assertTrue(frame.isTightlyPacked());
+      assertEquals(640L * 480L * 4L, frame.byteSize());
+      assertEquals(640 * 480 * 4, frame.asByteBuffer().capacity());
+    }
+
+    assertFalse(frame.memory().scope().isAlive());
+  }
+
+  /**
+   * Experiments that only implement the byte buffer path render identically
+   * into tightly packed frames, and reject padded frames.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testByteBufferBridge()
+    throws Exception
+  {
+    final var context = new FrameContext(320, 240);
+    final var buffer = ByteBuffer.allocateDirect(320 * 240 * 4);
+
+    /*
+     * The rasterizer writes from pool threads, so the scope must be shared.
+     */
+
+    try (var scope = ResourceScope.newSharedScope()) {
+      final var frame = ExperimentFrame.allocate(scope, 320, 240, BGRA8_PRE);
+
+      try (var experiment = new ExperimentCPURasterizer(500, 1)) {
+        experiment.start(context);
+        experiment.render(context, buffer);
+      }
+      try (var experiment = new ExperimentCPURasterizer(500, 1)) {
+        experiment.start(context);
+        experiment.render(context, frame);
+      }
+      assertEquals(buffer, frame.asByteBuffer());
+
+      final var padded =
+        new ExperimentFrame(
+          MemorySegment.allocateNative(328L * 4L * 240L, scope),
+          320,
+          240,
+          328L * 4L,
+          BGRA8_PRE
+        );
+
+      try (var experiment = new ExperimentCPURasterizer(500, 1)) {
+        experiment.start(context);
+        assertThrows(UnsupportedOperationException.class, () -> {
+          experiment.render(context, padded);
+        });
+      }
+    }
+  }
+
+  /**
+   * Copying RGBA readback images honours the target format and stride.
+   */
+
+  @Test
+  public void testCopyFromRGBA8()
+  {
+    final var source = MemorySegment.ofArray(new byte[3 * 2 * 4]);
+    for (var index = 0; index < 6; ++index) {
+      source.asByteBuffer().put(index * 4, (byte) 0x10);
+      source.asByteBuffer().put(index * 4 + 1, (byte) 0x20);
+      source.asByteBuffer().put(index * 4 + 2, (byte) 0x30);
+      source.asByteBuffer().put(index * 4 + 3, (byte) 0x80);
+    }
+
+    final var kernels = VLPixelKernels.best();
+    final var padded =
+      new ExperimentFrame(
+        MemorySegment.ofArray(new byte[2 * 16]), 3, 2, 16L, BGRA8_PRE);
+
+    ExperimentFrameCopy.copyFromRGBA8(kernels, source, padded, false);
+
+    final var bytes = padded.memory().asByteBuffer();
+    for (var y = 0; y < 2; ++y) {
+      for (var x = 0; x < 3; ++x) {
+        final var index = (y * 16) + (x * 4);
+        assertEquals((byte) 0x18, bytes.get(index));
+        assertEquals((byte) 0x10, bytes.get(index + 1));
+        assertEquals((byte) 0x08, bytes.get(index + 2));
+        assertEquals((byte) 0x80, bytes.get(index + 3));
+      }
+      assertEquals(0, bytes.getInt((y * 16) + 12));
+    }
+
+    final var tight =
+      new ExperimentFrame(
+        MemorySegment.ofArray(new byte[3 * 2 * 4]), 3, 2, 12L, RGBA8);
+
+    ExperimentFrameCopy.copyFromRGBA8(kernels, source, tight, false);
+    assertEquals(source.asByteBuffer(), tight.memory().asByteBuffer());
+  }
+
+  private record FrameContext(
+    int width,
+    int height)
+    implements ExperimentContextType
+  {
+    @Override
+    public VulkanPhysicalDeviceType physicalDevice()
+    {
+      return null;
+    }
+  }
+}
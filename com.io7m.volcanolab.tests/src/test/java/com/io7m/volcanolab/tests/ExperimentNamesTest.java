@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.experiment.api.ExperimentNames;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import com.io7m.volcanolab.experiments.ExperimentClear;
+import com.io7m.volcanolab.experiments.ExperimentClearTransferQueue;
+import com.io7m.volcanolab.experiments.ExperimentNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentNamesTest
+{
+  /**
+   * The name declared on each provider type is the name of the experiment
+   * the provider creates.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNamesMatchInstances()
+    throws Exception
+  {
+    final var experiments =
+      ExperimentNames.index(ServiceLoader.load(ExperimentType.class));
+
+    assertTrue(experiments.containsKey(ExperimentClear.NAME));
+    assertTrue(experiments.containsKey(ExperimentClear.NAME_TRANSFER_QUEUE));
+
+    for (final var entry : experiments.entrySet()) {
+      try (var experiment = entry.getValue().get()) {
+        assertEquals(entry.getKey(), experiment.name());
+      }
+    }
+  }
+
+  /**
+   * Provider types are named without being instantiated.
+   */
+
+  @Test
+  public void testNameOf()
+  {
+    assertEquals(
+      ExperimentNull.NAME,
+      ExperimentNames.nameOf(ExperimentNull.class));
+    assertEquals(
+      ExperimentClear.NAME_TRANSFER_QUEUE,
+      ExperimentNames.nameOf(ExperimentClearTransferQueue.class));
+  }
+
+  /**
+   * A provider type without a name is rejected.
+   */
+
+  @Test
+  public void testNameOfUnannotated()
+  {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ExperimentNames.nameOf(Object.class));
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentParallelRecording;
+import com.io7m.volcanolab.experiments.ExperimentParallelRecordingThreads;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static com.io7m.volcanolab.experiments.ExperimentParallelRecordingThreads.PLATFORM;
+import static com.io7m.volcanolab.experiments.ExperimentParallelRecordingThreads.VIRTUAL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentParallelRecordingTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentParallelRecordingTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testArgumentsInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentParallelRecording(0, List.of(Integer.valueOf(1)), PLATFORM);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentParallelRecording(100, List.of(), PLATFORM);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentParallelRecording(100, List.of(Integer.valueOf(0)), PLATFORM);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentParallelRecording(100, List.of(Integer.valueOf(101)), PLATFORM);
+    });
+  }
+
+  @Test
+  public void testDefaultThreadCounts()
+  {
+    final var counts = ExperimentParallelRecording.defaultThreadCounts();
+    assertEquals(1, counts.get(0).intValue());
+    assertEquals(
+      Runtime.getRuntime().availableProcessors(),
+      counts.get(counts.size() - 1).intValue());
+  }
+
+  @Test
+  public void testRunPlatform()
+    throws Exception
+  {
+    this.run(PLATFORM);
+  }
+
+  @Test
+  public void testRunVirtual()
+    throws Exception
+  {
+    this.run(VIRTUAL);
+  }
+
+  private void run(
+    final ExperimentParallelRecordingThreads threads)
+    throws Exception
+  {
+    final var threadCounts =
+      List.of(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(4));
+
+    try (var experiment =
+           new ExperimentParallelRecording(1000, threadCounts, threads)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+      LOG.info("threads: {}", experiment.threads());
+
+      final var width = this.context.width();
+      final var height = this.context.height();
+      final var data = ByteBuffer.allocateDirect(width * height * 4);
+
+      /*
+       * Bound the number of frames so that a broken experiment can't hang
+       * the test suite.
+       */
+
+      for (var frame = 0; frame < 1000 && !experiment.isComplete(); ++frame) {
+        experiment.render(this.context, data);
+      }
+
+      assertTrue(experiment.isComplete());
+
+      final var results = experiment.results();
+      assertEquals(threadCounts.size(), results.size());
+      assertEquals(1.0, results.get(0).speedup());
+
+      for (var index = 0; index < results.size(); ++index) {
+        final var result = results.get(index);
+        LOG.info("{}", result.describe());
+        assertEquals(threadCounts.get(index).intValue(), result.threads());
+        assertTrue(result.recordNanoseconds() > 0L);
+        assertTrue(result.speedup() > 0.0);
+      }
+
+      /*
+       * However the draws are divided between threads, the same grid of
+       * triangles is drawn.
+       */
+
+      var drawn = 0;
+      for (var index = 0; index < width * height; ++index) {
+        if ((data.get(index * 4) & 0xff) > 64) {
+          ++drawn;
+        }
+      }
+      assertTrue(drawn > (width * height) / 3, "Drawn pixels " + drawn);
+
+      assertTrue(
+        this.events.stream()
+          .filter(e -> e instanceof ExperimentEventLifecycle)
+          .map(ExperimentEventLifecycle.class::cast)
+          .anyMatch(e -> e.status() == RUNNING)
+      );
+    }
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
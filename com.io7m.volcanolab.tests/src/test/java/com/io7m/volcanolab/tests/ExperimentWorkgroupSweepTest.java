@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.jcoronado.api.VulkanApplicationInfo;
+import com.io7m.jcoronado.api.VulkanInstanceCreateInfo;
+import com.io7m.jcoronado.api.VulkanVersions;
+import com.io7m.jcoronado.lwjgl.VulkanLWJGLInstanceProvider;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventLifecycle;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiments.ExperimentWorkgroupConfiguration;
+import com.io7m.volcanolab.experiments.ExperimentWorkgroupSweep;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentLifecycleStatus.RUNNING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ExperimentWorkgroupSweepTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ExperimentWorkgroupSweepTest.class);
+
+  private CloseableCollectionType<?> resources;
+  private ExperimentTestContext context;
+  private ArrayList<ExperimentEventType> events;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.events = new ArrayList<ExperimentEventType>();
+    this.resources = CloseableCollection.create();
+
+    final var instances =
+      VulkanLWJGLInstanceProvider.create();
+
+    final var applicationInfo =
+      VulkanApplicationInfo.builder()
+        .setVulkanAPIVersion(
+          VulkanVersions.encode(instances.findSupportedInstanceVersion()))
+        .setEngineName("com.io7m.volcanolab.tests")
+        .setEngineVersion(VulkanVersions.encode(0, 0, 1))
+        .setApplicationName("com.io7m.volcanolab.tests")
+        .setApplicationVersion(VulkanVersions.encode(0, 0, 1))
+        .build();
+
+    final var createInfo =
+      VulkanInstanceCreateInfo.builder()
+        .setApplicationInfo(applicationInfo)
+        .addEnabledLayers("VK_LAYER_KHRONOS_validation")
+        .build();
+
+    final var instance =
+      this.resources.add(
+        instances.createInstance(createInfo, Optional.empty())
+      );
+
+    final var physicalDevice =
+      instance.physicalDevices()
+        .get(0);
+
+    this.context =
+      new ExperimentTestContext(physicalDevice);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.resources.close();
+  }
+
+  @Test
+  public void testConfigurationsInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupConfiguration(0, 1, 4);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupConfiguration(1, 0, 4);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupConfiguration(8, 8, 255);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupConfiguration(8, 8, 258);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupSweep(List.of(), 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ExperimentWorkgroupSweep(
+        List.of(ExperimentWorkgroupConfiguration.of(8, 8)), 0);
+    });
+  }
+
+  @Test
+  public void testDefaults()
+  {
+    final var defaults = ExperimentWorkgroupConfiguration.defaults();
+    assertTrue(defaults.size() > 1);
+    assertEquals(defaults.size(), Set.copyOf(defaults).size());
+  }
+
+  @Test
+  public void testRun()
+    throws Exception
+  {
+    final var configurations =
+      List.of(
+        ExperimentWorkgroupConfiguration.of(8, 8),
+        new ExperimentWorkgroupConfiguration(8, 8, 8192),
+        ExperimentWorkgroupConfiguration.of(64, 1)
+      );
+
+    try (var experiment = new ExperimentWorkgroupSweep(configurations, 64)) {
+      this.resources.add(
+        Disposable.toAutoCloseable(
+          experiment.events().subscribe(this::onEvent))
+      );
+      experiment.start(this.context);
+
+      final var width = this.context.width();
+      final var height = this.context.height();
+      final var data = ByteBuffer.allocateDirect(width * height * 4);
+
+      /*
+       * Bound the number of frames so that a broken experiment can't hang
+       * the test suite.
+       */
+
+      for (var frame = 0; frame < 1000 && !experiment.isComplete(); ++frame) {
+        experiment.render(this.context, data);
+      }
+
+      assertTrue(experiment.isComplete());
+
+      final var results = experiment.results();
+      assertEquals(experiment.plan().size(), results.size());
+      for (final var result : results) {
+        LOG.info("{}", result.describe());
+        assertEquals((long) width * (long) height, result.pixels());
+        assertTrue(result.nanoseconds() > 0L);
+      }
+
+      /*
+       * The center of the output lies inside the set, and so is black. The
+       * top left corner escapes immediately, and so has a blue channel of
+       * at least 0x80. The output is BGRA.
+       */
+
+      final var center = ((height / 2) * width + (width / 2)) * 4;
+      assertEquals(0, data.get(center) & 0xff);
+      assertEquals(0, data.get(center + 1) & 0xff);
+      assertEquals(0, data.get(center + 2) & 0xff);
+      assertEquals(0xff, data.get(center + 3) & 0xff);
+      assertTrue((data.get(0) & 0xff) >= 0x80);
+
+      assertTrue(
+        this.events.stream()
+          .filter(e -> e instanceof ExperimentEventLifecycle)
+          .map(ExperimentEventLifecycle.class::cast)
+          .anyMatch(e -> e.status() == RUNNING)
+      );
+    }
+  }
+
+  private void onEvent(
+    final ExperimentEventType event)
+  {
+    LOG.debug("event: {}", event);
+    this.events.add(event);
+  }
+}
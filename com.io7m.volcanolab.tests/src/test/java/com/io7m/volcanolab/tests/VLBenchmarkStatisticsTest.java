@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.gui.main.internal.VLBenchmarkResolution;
+import com.io7m.volcanolab.gui.main.internal.VLBenchmarkStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class VLBenchmarkStatisticsTest
+{
+  @Test
+  public void testPercentiles()
+  {
+    final var times = LongStream.rangeClosed(1L, 100L).toArray();
+    final var statistics = VLBenchmarkStatistics.of(times);
+
+    assertEquals(100, statistics.samples());
+    assertEquals(1L, statistics.minimum());
+    assertEquals(50.5, statistics.mean(), 0.000001);
+    assertEquals(50L, statistics.p50());
+    assertEquals(90L, statistics.p90());
+    assertEquals(95L, statistics.p95());
+    assertEquals(99L, statistics.p99());
+    assertEquals(100L, statistics.maximum());
+  }
+
+  @Test
+  public void testPercentilesUnordered()
+  {
+    final var statistics =
+      VLBenchmarkStatistics.of(new long[]{9L, 1L, 5L});
+
+    assertEquals(1L, statistics.minimum());
+    assertEquals(5L, statistics.p50());
+    assertEquals(9L, statistics.p99());
+    assertEquals(9L, statistics.maximum());
+  }
+
+  @Test
+  public void testSubtractClamps()
+  {
+    final var statistics =
+      VLBenchmarkStatistics.of(new long[]{10L, 20L, 30L})
+        .subtract(15L);
+
+    assertEquals(0L, statistics.minimum());
+    assertEquals(5L, statistics.p50());
+    assertEquals(15L, statistics.maximum());
+    assertEquals(5.0, statistics.mean(), 0.000001);
+  }
+
+  @Test
+  public void testSteadyConstant()
+  {
+    final var times = new long[60];
+    Arrays.fill(times, 1000L);
+
+    assertFalse(VLBenchmarkStatistics.isSteady(times, 59, 30, 0.05));
+    assertTrue(VLBenchmarkStatistics.isSteady(times, 60, 30, 0.05));
+  }
+
+  @Test
+  public void testSteadyRamp()
+  {
+    final var times = new long[60];
+    for (var index = 0; index < times.length; ++index) {
+      times[index] = index < 30 ? 2000L : 1000L;
+    }
+
+    assertFalse(VLBenchmarkStatistics.isSteady(times, 60, 30, 0.05));
+    assertTrue(VLBenchmarkStatistics.isSteady(times, 60, 30, 0.5));
+  }
+
+  @Test
+  public void testResolutionParse()
+  {
+    final var resolution = VLBenchmarkResolution.parse("1920x1080");
+    assertEquals(1920, resolution.width());
+    assertEquals(1080, resolution.height());
+    assertEquals("1920x1080", resolution.toString());
+  }
+
+  @Test
+  public void testResolutionParseInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      VLBenchmarkResolution.parse("1920by1080");
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      VLBenchmarkResolution.parse("0x1080");
+    });
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.experiment.api.ExperimentContextType;
+import com.io7m.volcanolab.experiment.api.ExperimentEventType;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+import com.io7m.volcanolab.experiment.api.ExperimentType;
+import com.io7m.volcanolab.experiments.ExperimentNull;
+import com.io7m.volcanolab.gui.internal.VLExperimentCache;
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.volcanolab.gui.internal.VLExperimentCache.DEFAULT_MEMORY_ESTIMATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class VLExperimentCacheTest
+{
+  /**
+   * Resuming an experiment returns the same instance, with the size at
+   * which it was suspended, and removes it from the cache.
+   */
+
+  @Test
+  public void testSuspendResume()
+  {
+    final var cache = VLExperimentCache.create(4, Long.MAX_VALUE);
+    final var a = new FakeExperiment("a", Optional.empty());
+    cache.suspend(a, 640, 480);
+
+    assertEquals(List.of("a"), cache.names());
+    assertEquals(DEFAULT_MEMORY_ESTIMATE, cache.memoryUsed());
+
+    final var suspended = cache.resume("a").orElseThrow();
+    assertSame(a, suspended.experiment());
+    assertEquals(640, suspended.width());
+    assertEquals(480, suspended.height());
+    assertFalse(a.closed);
+
+    assertEquals(List.of(), cache.names());
+    assertEquals(0L, cache.memoryUsed());
+    assertEquals(Optional.empty(), cache.resume("a"));
+  }
+
+  /**
+   * The least recently suspended experiments are closed when the cache is
+   * full.
+   */
+
+  @Test
+  public void testEvictEntries()
+  {
+    final var cache = VLExperimentCache.create(2, Long.MAX_VALUE);
+    final var a = new FakeExperiment("a", Optional.empty());
+    final var b = new FakeExperiment("b", Optional.empty());
+    final var c = new FakeExperiment("c", Optional.empty());
+
+    cache.suspend(a, 1, 1);
+    cache.suspend(b, 1, 1);
+    cache.suspend(c, 1, 1);
+
+    assertEquals(List.of("b", "c"), cache.names());
+    assertTrue(a.closed);
+    assertFalse(b.closed);
+    assertFalse(c.closed);
+  }
+
+  /**
+   * Experiments are evicted by the device memory they report, and an
+   * experiment that alone exceeds the budget is closed without evicting
+   * anything.
+   */
+
+  @Test
+  public void testEvictMemory()
+  {
+    final var cache = VLExperimentCache.create(8, 100L);
+    final var a = new FakeExperiment("a", Optional.of(60.0));
+    final var b = new FakeExperiment("b", Optional.of(30.0));
+    final var c = new FakeExperiment("c", Optional.of(20.0));
+    final var d = new FakeExperiment("d", Optional.of(200.0));
+
+    cache.suspend(a, 1, 1);
+    cache.suspend(b, 1, 1);
+    assertEquals(90L, cache.memoryUsed());
+
+    cache.suspend(c, 1, 1);
+    assertEquals(List.of("b", "c"), cache.names());
+    assertEquals(50L, cache.memoryUsed());
+    assertTrue(a.closed);
+
+    cache.suspend(d, 1, 1);
+    assertTrue(d.closed);
+    assertFalse(b.closed);
+    assertFalse(c.closed);
+    assertEquals(List.of("b", "c"), cache.names());
+    assertEquals(50L, cache.memoryUsed());
+  }
+
+  /**
+   * An experiment that fits within the budget on its own, but not
+   * alongside the experiments already suspended, evicts as many of them
+   * as necessary.
+   */
+
+  @Test
+  public void testEvictLargeEntry()
+  {
+    final var cache = VLExperimentCache.create(8, 100L);
+    final var a = new FakeExperiment("a", Optional.of(30.0));
+    final var b = new FakeExperiment("b", Optional.of(30.0));
+    final var c = new FakeExperiment("c", Optional.of(30.0));
+    final var d = new FakeExperiment("d", Optional.of(80.0));
+
+    cache.suspend(a, 1, 1);
+    cache.suspend(b, 1, 1);
+    cache.suspend(c, 1, 1);
+    assertEquals(90L, cache.memoryUsed());
+
+    cache.suspend(d, 1, 1);
+    assertEquals(List.of("d"), cache.names());
+    assertEquals(80L, cache.memoryUsed());
+    assertTrue(a.closed);
+    assertTrue(b.closed);
+    assertTrue(c.closed);
+    assertFalse(d.closed);
+  }
+
+  /**
+   * The bundled experiments publish their device memory, so the cache
+   * does not fall back to the estimate for them.
+   */
+
+  @Test
+  public void testMemoryOfBundledExperiment()
+    throws Exception
+  {
+    try (var experiment = new ExperimentNull()) {
+      assertEquals(0L, VLExperimentCache.memoryOf(experiment));
+    }
+  }
+
+  /**
+   * Clearing the cache closes every suspended experiment.
+   */
+
+  @Test
+  public void testClear()
+  {
+    final var cache = VLExperimentCache.create(4, Long.MAX_VALUE);
+    final var a = new FakeExperiment("a", Optional.empty());
+    final var b = new FakeExperiment("b", Optional.empty());
+
+    cache.suspend(a, 1, 1);
+    cache.suspend(b, 1, 1);
+    cache.close();
+
+    assertTrue(a.closed);
+    assertTrue(b.closed);
+    assertEquals(List.of(), cache.names());
+  }
+
+  private static final class FakeExperiment implements ExperimentType
+  {
+    private final String name;
+    private final Optional<Double> memory;
+    private boolean closed;
+
+    FakeExperiment(
+      final String inName,
+      final Optional<Double> inMemory)
+    {
+      this.name = inName;
+      this.memory = inMemory;
+    }
+
+    @Override
+    public String name()
+    {
+      return this.name;
+    }
+
+    @Override
+    public Observable<ExperimentEventType> events()
+    {
+      return Observable.never();
+    }
+
+    @Override
+    public List<ExperimentMetric> metrics()
+    {
+      return this.memory.map(value -> List.of(
+        new ExperimentMetric(
+          ExperimentMetric.DEVICE_MEMORY_BYTES,
+          "Device memory.",
+          value.doubleValue())
+      )).orElse(List.of());
+    }
+
+    @Override
+    public void start(
+      final ExperimentContextType context)
+    {
+
+    }
+
+    @Override
+    public void onSizeChanged(
+      final ExperimentContextType context)
+    {
+
+    }
+
+    @Override
+    public void render(
+      final ExperimentContextType context,
+      final ByteBuffer output)
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closed = true;
+    }
+  }
+}
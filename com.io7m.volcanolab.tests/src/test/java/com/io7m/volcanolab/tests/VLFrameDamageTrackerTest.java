@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.experiment.api.ExperimentFrame;
+import com.io7m.volcanolab.experiment.api.ExperimentFrameDamage;
+import com.io7m.volcanolab.gui.internal.VLFrameDamageTracker;
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import jdk.incubator.foreign.ResourceScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static com.io7m.volcanolab.experiment.api.ExperimentPixelFormat.BGRA8_PRE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class VLFrameDamageTrackerTest
+{
+  private ResourceScope scope;
+  private ExperimentFrame frame;
+  private VLFrameDamageTracker tracker;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.scope = ResourceScope.newConfinedScope();
+    this.frame = ExperimentFrame.allocate(this.scope, 300, 100, BGRA8_PRE);
+    this.tracker =
+      VLFrameDamageTracker.create(VLPixelKernels.best(), this.frame);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.scope.close();
+  }
+
+  private void setPixel(
+    final int x,
+    final int y,
+    final int pixel)
+  {
+    this.frame.asByteBuffer()
+      .putInt((int) this.frame.rowOffset(y) + (x * 4), pixel);
+  }
+
+  /**
+   * The first frame is entirely damaged, and an unchanged frame is not
+   * damaged at all.
+   */
+
+  @Test
+  public void testFirstFrameThenUnchanged()
+  {
+    assertEquals(
+      new ExperimentFrameDamage(0, 0, 300, 100),
+      this.tracker.update(Optional.empty()));
+    assertEquals(
+      ExperimentFrameDamage.NONE,
+      this.tracker.update(Optional.empty()));
+  }
+
+  /**
+   * Damage is the bounding box of the changed tiles.
+   */
+
+  @Test
+  public void testChangedTiles()
+  {
+    this.tracker.update(Optional.empty());
+
+    this.setPixel(5, 10, 0xffffffff);
+    this.setPixel(260, 40, 0xffffffff);
+
+    assertEquals(
+      new ExperimentFrameDamage(0, 10, 300, 31),
+      this.tracker.update(Optional.empty()));
+
+    this.setPixel(130, 50, 0xff00ff00);
+
+    assertEquals(
+      new ExperimentFrameDamage(128, 50, 128, 1),
+      this.tracker.update(Optional.empty()));
+  }
+
+  /**
+   * Reported damage is clipped and trusted, and the hashes are rebuilt when
+   * an experiment stops reporting damage.
+   */
+
+  @Test
+  public void testReported()
+  {
+    assertEquals(
+      new ExperimentFrameDamage(290, 90, 10, 10),
+      this.tracker.update(
+        Optional.of(new ExperimentFrameDamage(290, 90, 50, 50))));
+    assertEquals(
+      new ExperimentFrameDamage(0, 0, 300, 100),
+      this.tracker.update(Optional.empty()));
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.experiment.api.ExperimentMemoryHeap;
+import com.io7m.volcanolab.experiment.api.ExperimentMetric;
+import com.io7m.volcanolab.gui.internal.VLMetrics;
+import com.io7m.volcanolab.gui.internal.VLMetricsConfiguration;
+import com.io7m.volcanolab.gui.internal.VLMetricsOpenMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class VLMetricsTest
+{
+  private VLMetrics metrics;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.metrics = VLMetrics.createUnexported();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.metrics.close();
+  }
+
+  /**
+   * Frames are counted, binned, and dropped frames are detected.
+   */
+
+  @Test
+  public void testFrames()
+  {
+    this.metrics.onFrame("x", 1_500_000L, 100L, 14_000_000L, 400L);
+    this.metrics.onFrame("x", 20_000_000L, 100L, 0L, 400L);
+    this.metrics.onFrame("x", 200_000_000L, 100L, 0L, 400L);
+
+    final var snapshot = this.metrics.snapshot();
+    assertEquals("x", snapshot.experiment());
+    assertEquals(3L, snapshot.framesRendered());
+    assertEquals(2L, snapshot.framesDropped());
+    assertEquals(200_000_000L, snapshot.frameTimeLast());
+    assertEquals(221_500_000L, snapshot.renderTimeTotal());
+    assertEquals(1200L, snapshot.damagedBytes());
+    assertEquals(
+      List.of(0L, 1L, 1L, 1L, 1L, 2L, 2L, 2L),
+      snapshot.frameTimeBuckets());
+  }
+
+  /**
+   * Command latency totals and maxima are tracked.
+   */
+
+  @Test
+  public void testCommands()
+  {
+    this.metrics.onCommand(10L);
+    this.metrics.onCommand(30L);
+    this.metrics.onCommand(20L);
+
+    final var snapshot = this.metrics.snapshot();
+    assertEquals(3L, snapshot.commandsExecuted());
+    assertEquals(60L, snapshot.commandLatencyTotal());
+    assertEquals(30L, snapshot.commandLatencyMaximum());
+  }
+
+  /**
+   * Experiment metrics are cleared when the experiment stops.
+   */
+
+  @Test
+  public void testExperimentMetrics()
+  {
+    this.metrics.onFrame("x", 1L, 1L, 1L, 1L);
+    this.metrics.onExperimentMetrics(
+      List.of(new ExperimentMetric("pixels_per_second", "Pixels.", 2.0)));
+
+    assertEquals(
+      Map.of("pixels_per_second", Double.valueOf(2.0)),
+      this.metrics.getExperimentMetrics());
+
+    this.metrics.onExperimentStopped();
+    assertEquals("", this.metrics.getExperiment());
+    assertEquals(Map.of(), this.metrics.getExperimentMetrics());
+  }
+
+  /**
+   * The OpenMetrics text contains the expected samples and is terminated.
+   */
+
+  @Test
+  public void testOpenMetrics()
+  {
+    this.metrics.onFrame("fill \"rate\"", 1_500_000L, 0L, 0L, 4L);
+    this.metrics.onExperimentMetrics(
+      List.of(new ExperimentMetric("pixels_per_second", "Pixels.", 2.5)));
+
+    final var text =
+      VLMetricsOpenMetrics.format(this.metrics.snapshot());
+
+    assertTrue(text.endsWith("# EOF\n"), text);
+    assertTrue(text.contains("volcanolab_frames_total 1\n"), text);
+    assertTrue(
+      text.contains(
+        "volcanolab_frame_render_seconds_bucket{le=\"0.00200000000\"} 1\n"),
+      text);
+    assertTrue(
+      text.contains(
+        "volcanolab_frame_render_seconds_bucket{le=\"+Inf\"} 1\n"),
+      text);
+    assertTrue(
+      text.contains(
+        "volcanolab_experiment_info{experiment=\"fill \\\"rate\\\"\"} 1\n"),
+      text);
+    assertTrue(
+      text.contains(
+        "volcanolab_experiment_metric{experiment=\"fill \\\"rate\\\"\","
+        + "name=\"pixels_per_second\"} 2.50000000\n"),
+      text);
+  }
+
+  /**
+   * Device memory heaps are exported over JMX and in OpenMetrics text, and
+   * are cleared when the experiment stops.
+   */
+
+  @Test
+  public void testExperimentMemory()
+  {
+    this.metrics.onFrame("x", 1L, 1L, 1L, 1L);
+    this.metrics.onExperimentMemory(
+      List.of(
+        new ExperimentMemoryHeap(0, 1024L, 8192L),
+        new ExperimentMemoryHeap(1, 0L, 4096L)));
+
+    assertArrayEquals(
+      new long[]{1024L, 0L},
+      this.metrics.getDeviceHeapUsage());
+    assertArrayEquals(
+      new long[]{8192L, 4096L},
+      this.metrics.getDeviceHeapBudget());
+
+    final var text =
+      VLMetricsOpenMetrics.format(this.metrics.snapshot());
+
+    assertTrue(
+      text.contains("volcanolab_device_heap_usage_bytes{heap=\"0\"} 1024\n"),
+      text);
+    assertTrue(
+      text.contains("volcanolab_device_heap_budget_bytes{heap=\"1\"} 4096\n"),
+      text);
+
+    this.metrics.onExperimentStopped();
+    assertArrayEquals(new long[0], this.metrics.getDeviceHeapUsage());
+  }
+
+  /**
+   * File intervals that cannot be scheduled are rejected when the
+   * configuration is built.
+   */
+
+  @Test
+  public void testConfigurationInterval()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new VLMetricsConfiguration(
+        true,
+        OptionalInt.empty(),
+        Optional.empty(),
+        Duration.ofNanos(10L));
+    });
+
+    final var properties = new Properties();
+    properties.setProperty(VLMetricsConfiguration.PROPERTY_FILE_INTERVAL, "0");
+    assertThrows(IllegalArgumentException.class, () -> {
+      VLMetricsConfiguration.fromProperties(properties);
+    });
+
+    properties.setProperty(VLMetricsConfiguration.PROPERTY_FILE_INTERVAL, "1");
+    assertEquals(
+      Duration.ofSeconds(1L),
+      VLMetricsConfiguration.fromProperties(properties).fileInterval());
+  }
+
+  /**
+   * Ports outside the valid range are rejected when the configuration is
+   * built.
+   */
+
+  @Test
+  public void testConfigurationPort()
+  {
+    final var properties = new Properties();
+    properties.setProperty(VLMetricsConfiguration.PROPERTY_HTTP_PORT, "70000");
+    assertThrows(IllegalArgumentException.class, () -> {
+      VLMetricsConfiguration.fromProperties(properties);
+    });
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.pixels.VLPixelKernels;
+import com.io7m.volcanolab.pixels.VLPixelKernelsType;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public final class VLPixelKernelsTest
+{
+  /*
+   * Pixel counts chosen to exercise empty spans, spans shorter than any
+   * vector, and spans with a scalar tail.
+   */
+
+  private static final int[] PIXEL_COUNTS = {
+    0, 1, 3, 7, 8, 15, 16, 17, 31, 33, 1000, 1003,
+  };
+
+  private static ByteBuffer randomBuffer(
+    final SplittableRandom random,
+    final int size)
+  {
+    final var buffer = ByteBuffer.allocateDirect(size);
+    for (var index = 0; index < size; ++index) {
+      buffer.put(index, (byte) random.nextInt());
+    }
+    return buffer;
+  }
+
+  private static ByteBuffer copyOf(
+    final ByteBuffer buffer)
+  {
+    final var copy = ByteBuffer.allocateDirect(buffer.capacity());
+    copy.put(0, buffer, 0, buffer.capacity());
+    return copy;
+  }
+
+  private static Stream<VLPixelKernelsType> kernels()
+  {
+    return Stream.concat(
+      Stream.of(VLPixelKernels.scalar()),
+      VLPixelKernels.vector().stream()
+    );
+  }
+
+  /**
+   * Fill writes pixels in little-endian order.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testFill()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var buffer = ByteBuffer.allocateDirect(4 * 37);
+      k.fill(buffer, 4, 35, 0xff102030);
+
+      assertEquals(0, buffer.getInt(0));
+      for (var index = 4; index < 4 * 36; index += 4) {
+        assertEquals((byte) 0x30, buffer.get(index));
+        assertEquals((byte) 0x20, buffer.get(index + 1));
+        assertEquals((byte) 0x10, buffer.get(index + 2));
+        assertEquals((byte) 0xff, buffer.get(index + 3));
+      }
+      assertEquals(0, buffer.getInt(4 * 36));
+    }));
+  }
+
+  /**
+   * Swizzling swaps bytes 0 and 2.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testSwizzle()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var random = new SplittableRandom(1L);
+      final var source = randomBuffer(random, 4 * 41);
+      final var target = ByteBuffer.allocateDirect(4 * 41);
+      k.swizzleRB(source, 0, target, 0, 41);
+
+      for (var index = 0; index < 4 * 41; index += 4) {
+        assertEquals(source.get(index + 2), target.get(index));
+        assertEquals(source.get(index + 1), target.get(index + 1));
+        assertEquals(source.get(index), target.get(index + 2));
+        assertEquals(source.get(index + 3), target.get(index + 3));
+      }
+
+      k.swizzleRB(target, 0, target, 0, 41);
+      assertEquals(source, target);
+    }));
+  }
+
+  /**
+   * Premultiplication rounds to the nearest integer for every channel and
+   * alpha combination.
+   */
+
+  @Test
+  public void testPremultiplyExhaustive()
+  {
+    final var buffer = ByteBuffer.allocateDirect(256 * 256 * 4);
+    for (var c = 0; c < 256; ++c) {
+      for (var a = 0; a < 256; ++a) {
+        final var index = ((c * 256) + a) * 4;
+        buffer.put(index, (byte) c);
+        buffer.put(index + 1, (byte) c);
+        buffer.put(index + 2, (byte) c);
+        buffer.put(index + 3, (byte) a);
+      }
+    }
+
+    kernels().forEach(k -> {
+      final var copy = copyOf(buffer);
+      k.premultiply(copy, 0, 256 * 256);
+
+      for (var c = 0; c < 256; ++c) {
+        for (var a = 0; a < 256; ++a) {
+          final var index = ((c * 256) + a) * 4;
+          final var expected = (int) Math.round((c * a) / 255.0);
+          assertEquals(expected, copy.get(index) & 0xff);
+          assertEquals(expected, copy.get(index + 1) & 0xff);
+          assertEquals(expected, copy.get(index + 2) & 0xff);
+          assertEquals(a, copy.get(index + 3) & 0xff);
+        }
+      }
+    });
+  }
+
+  /**
+   * Clearing alpha leaves the other channels untouched.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testClearAlpha()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var random = new SplittableRandom(2L);
+      final var source = randomBuffer(random, 4 * 45);
+      final var target = copyOf(source);
+      k.clearAlpha(target, 0, 45, 0x80);
+
+      for (var index = 0; index < 4 * 45; index += 4) {
+        assertEquals(source.get(index), target.get(index));
+        assertEquals(source.get(index + 1), target.get(index + 1));
+        assertEquals(source.get(index + 2), target.get(index + 2));
+        assertEquals((byte) 0x80, target.get(index + 3));
+      }
+    }));
+  }
+
+  /**
+   * Blitting copies only the requested rectangle.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testBlit()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var random = new SplittableRandom(3L);
+      final var source = randomBuffer(random, 16 * 4 * 10);
+      final var target = ByteBuffer.allocateDirect(8 * 4 * 6);
+
+      k.blit(source, (16 * 4 * 2) + (4 * 3), 16 * 4, target, 0, 8 * 4, 5, 6);
+
+      for (var y = 0; y < 6; ++y) {
+        for (var x = 0; x < 8; ++x) {
+          final var targetPixel = target.getInt((y * 8 * 4) + (x * 4));
+          if (x < 5) {
+            final var sourcePixel =
+              source.getInt(((y + 2) * 16 * 4) + ((x + 3) * 4));
+            assertEquals(sourcePixel, targetPixel);
+          } else {
+            assertEquals(0, targetPixel);
+          }
+        }
+      }
+    }));
+  }
+
+  /**
+   * Changing any single pixel changes the hash of a span, and the hash does
+   * not depend on the position of the span in the buffer.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testHash()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var random = new SplittableRandom(4L);
+      final var source = randomBuffer(random, 4 * 70);
+      final var moved = ByteBuffer.allocateDirect(4 * 71);
+      moved.put(4, source, 0, 4 * 70);
+
+      final var hash = k.hash(source, 0, 70);
+      assertEquals(hash, k.hash(moved, 4, 70));
+      assertNotEquals(hash, k.hash(source, 0, 69));
+
+      for (var pixel = 0; pixel < 70; ++pixel) {
+        final var index = (pixel * 4) + (pixel % 4);
+        final var original = source.get(index);
+        source.put(index, (byte) (original ^ 1));
+        assertNotEquals(hash, k.hash(source, 0, 70));
+        source.put(index, original);
+      }
+      assertEquals(hash, k.hash(source, 0, 70));
+    }));
+  }
+
+  /**
+   * Out of range spans are rejected.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testBounds()
+  {
+    return kernels().map(k -> DynamicTest.dynamicTest(k.name(), () -> {
+      final var buffer = ByteBuffer.allocateDirect(64);
+      assertThrows(IndexOutOfBoundsException.class, () -> {
+        k.fill(buffer, 4, 16, 0);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        k.premultiply(buffer, 0, -1);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        k.blit(buffer, 0, 4, buffer, 0, 4, 2, 2);
+      });
+    }));
+  }
+
+  /**
+   * The vector kernels agree with the scalar kernels for every span length.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testVectorMatchesScalar()
+  {
+    assumeTrue(VLPixelKernels.isVectorAvailable());
+
+    final var scalar = VLPixelKernels.scalar();
+    final var vector = VLPixelKernels.vector().orElseThrow();
+
+    return IntStream.of(PIXEL_COUNTS)
+      .mapToObj(count -> DynamicTest.dynamicTest("pixels " + count, () -> {
+        final var random = new SplittableRandom(count);
+        final var source = randomBuffer(random, (count + 2) * 4);
+
+        final var s0 = copyOf(source);
+        final var v0 = copyOf(source);
+        scalar.swizzleRB(source, 4, s0, 4, count);
+        vector.swizzleRB(source, 4, v0, 4, count);
+        assertEquals(s0, v0);
+
+        scalar.premultiply(s0, 4, count);
+        vector.premultiply(v0, 4, count);
+        assertEquals(s0, v0);
+
+        scalar.clearAlpha(s0, 4, count, 0x7f);
+        vector.clearAlpha(v0, 4, count, 0x7f);
+        assertEquals(s0, v0);
+
+        assertEquals(scalar.hash(s0, 4, count), vector.hash(v0, 4, count));
+
+        scalar.fill(s0, 4, count, 0x11223344);
+        vector.fill(v0, 4, count, 0x11223344);
+        assertEquals(s0, v0);
+      }));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.gui.main.internal.VLBenchmarkResolution;
+import com.io7m.volcanolab.gui.main.internal.VLBenchmarkSeries;
+import com.io7m.volcanolab.gui.main.internal.VLBenchmarkStatistics;
+import com.io7m.volcanolab.gui.main.internal.VLResultComparison;
+import com.io7m.volcanolab.gui.main.internal.VLResultKey;
+import com.io7m.volcanolab.gui.main.internal.VLResultRecord;
+import com.io7m.volcanolab.gui.main.internal.VLResultStore;
+import com.io7m.volcanolab.gui.main.internal.VLResultThresholds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.stream.LongStream;
+
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.IMPROVEMENT;
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.REGRESSION;
+import static com.io7m.volcanolab.gui.main.internal.VLResultVerdict.UNCHANGED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class VLResultStoreTest
+{
+  private static final VLResultKey KEY =
+    new VLResultKey(
+      "Clear, \"quoted\"",
+      "9ac3a8d2-4c50-4f02-9d2b-2e7a3e0f3b11",
+      0x80000000L,
+      new VLBenchmarkResolution(640, 480),
+      "r1"
+    );
+
+  private static VLResultRecord record(
+    final VLResultKey key,
+    final long first)
+  {
+    final var times = LongStream.range(first, first + 600L).toArray();
+    return new VLResultRecord(
+      key,
+      OffsetDateTime.parse("2021-01-01T00:00:00Z"),
+      "llvmpipe",
+      new VLBenchmarkSeries(60, true, VLBenchmarkStatistics.of(times)),
+      100L
+    );
+  }
+
+  @Test
+  public void testRoundTrip(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var r1 = record(KEY, 1000L);
+    final var r2 = record(KEY.withRevision("r2"), 1200L);
+
+    try (var store = VLResultStore.open(directory)) {
+      store.append(r1);
+      store.append(r2);
+    }
+
+    try (var store = VLResultStore.open(directory)) {
+      assertEquals(1, store.find(KEY).size());
+      assertEquals(r1, store.find(KEY).get(0));
+      assertEquals(r2, store.findRevision("r2").get(0));
+      assertEquals(0, store.findRevision("r3").size());
+    }
+  }
+
+  @Test
+  public void testRecoverUnindexedRows(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = VLResultStore.open(directory)) {
+      store.append(record(KEY, 1000L));
+    }
+
+    /*
+     * Simulate a crash after a complete row was written but before it was
+     * indexed, followed by a crash part of the way through a row.
+     */
+
+    final var data = directory.resolve("results.csv");
+    final var lines = Files.readAllLines(data, UTF_8);
+    Files.writeString(data, lines.get(1) + "\n2021-01-01", UTF_8, APPEND);
+
+    try (var store = VLResultStore.open(directory)) {
+      assertEquals(2, store.find(KEY).size());
+    }
+    assertEquals(3, Files.readAllLines(data, UTF_8).size());
+  }
+
+  @Test
+  public void testCompare()
+  {
+    final var thresholds = new VLResultThresholds(0.05, 3.0);
+    final var base = record(KEY, 1000L);
+
+    assertEquals(
+      REGRESSION,
+      VLResultComparison.compare(
+        base, record(KEY.withRevision("r2"), 1200L), thresholds).verdict());
+    assertEquals(
+      IMPROVEMENT,
+      VLResultComparison.compare(
+        base, record(KEY.withRevision("r2"), 800L), thresholds).verdict());
+    assertEquals(
+      UNCHANGED,
+      VLResultComparison.compare(
+        base, record(KEY.withRevision("r2"), 1010L), thresholds).verdict());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.gui.internal.VLStartup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class VLStartupTest
+{
+  private VLStartup startup;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.startup = VLStartup.create();
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.startup.close();
+  }
+
+  /**
+   * Submitted steps run concurrently. Each step waits for the other, so
+   * the test can only complete if both run at the same time.
+   */
+
+  @Test
+  public void testConcurrent()
+  {
+    final var latch = new CountDownLatch(2);
+    final var a =
+      this.startup.submit("a", () -> {
+        latch.countDown();
+        return Boolean.valueOf(latch.await(10L, TimeUnit.SECONDS));
+      });
+    final var b =
+      this.startup.submit("b", () -> {
+        latch.countDown();
+        return Boolean.valueOf(latch.await(10L, TimeUnit.SECONDS));
+      });
+
+    assertTrue(a.join().booleanValue());
+    assertTrue(b.join().booleanValue());
+    this.startup.completion().join();
+
+    final var steps = this.startup.steps();
+    assertEquals(2, steps.size());
+    assertFalse(steps.get(0).failed());
+    assertFalse(steps.get(1).failed());
+    assertTrue(steps.get(0).started() <= steps.get(1).started());
+  }
+
+  /**
+   * Failed steps are recorded, and completion does not fail with them.
+   */
+
+  @Test
+  public void testFailed()
+  {
+    final var failing =
+      this.startup.submit("failing", () -> {
+        throw new IOException("Failed!");
+      });
+
+    final var ex = assertThrows(CompletionException.class, failing::join);
+    assertEquals(IOException.class, ex.getCause().getClass());
+
+    this.startup.completion().join();
+
+    final var steps = this.startup.steps();
+    assertEquals(1, steps.size());
+    assertTrue(steps.get(0).failed());
+    assertTrue(this.startup.report().contains("(failed)"));
+  }
+
+  /**
+   * Steps run in place are timed on the calling thread.
+   */
+
+  @Test
+  public void testRun()
+    throws Exception
+  {
+    assertEquals(
+      List.of(),
+      this.startup.run("inline", () -> List.of()));
+
+    final var step = this.startup.steps().get(0);
+    assertEquals("inline", step.name());
+    assertEquals(Thread.currentThread().getName(), step.thread());
+    assertTrue(this.startup.report().contains("inline"));
+  }
+}
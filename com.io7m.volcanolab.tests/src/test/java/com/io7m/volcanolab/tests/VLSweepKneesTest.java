@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.volcanolab.tests;
+
+import com.io7m.volcanolab.experiment.api.ExperimentParameterInteger;
+import com.io7m.volcanolab.experiment.api.ExperimentParameterReal;
+import com.io7m.volcanolab.gui.main.internal.VLSweepConfiguration;
+import com.io7m.volcanolab.gui.main.internal.VLSweepKnees;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class VLSweepKneesTest
+{
+  @Test
+  public void testKneeFlatThenSteep()
+  {
+    final var knee =
+      VLSweepKnees.find(
+        new double[]{1.0, 2.0, 3.0, 4.0, 5.0, 6.0},
+        new double[]{10.0, 10.0, 11.0, 12.0, 40.0, 80.0},
+        false);
+
+    assertEquals(3, knee.getAsInt());
+  }
+
+  @Test
+  public void testKneeLogarithmic()
+  {
+    final var knee =
+      VLSweepKnees.find(
+        new double[]{1.0, 10.0, 100.0, 1000.0, 10000.0},
+        new double[]{5.0, 5.0, 6.0, 50.0, 500.0},
+        true);
+
+    assertEquals(3, knee.getAsInt());
+  }
+
+  @Test
+  public void testNoKneeLinear()
+  {
+    final var knee =
+      VLSweepKnees.find(
+        new double[]{1.0, 2.0, 3.0, 4.0},
+        new double[]{10.0, 20.0, 30.0, 40.0},
+        false);
+
+    assertFalse(knee.isPresent());
+  }
+
+  @Test
+  public void testNoKneeFlat()
+  {
+    final var knee =
+      VLSweepKnees.find(
+        new double[]{1.0, 2.0, 3.0, 4.0},
+        new double[]{10.0, 10.0, 10.0, 10.0},
+        false);
+
+    assertFalse(knee.isPresent());
+  }
+
+  @Test
+  public void testNoKneeTooFewPoints()
+  {
+    final var knee =
+      VLSweepKnees.find(
+        new double[]{1.0, 2.0},
+        new double[]{10.0, 100.0},
+        false);
+
+    assertFalse(knee.isPresent());
+  }
+
+  @Test
+  public void testRangeGeometric()
+  {
+    final var values = VLSweepConfiguration.range(1.0, 100.0, 3, true);
+
+    assertEquals(3, values.size());
+    assertEquals(1.0, values.get(0).doubleValue(), 0.0);
+    assertEquals(10.0, values.get(1).doubleValue(), 0.000001);
+    assertEquals(100.0, values.get(2).doubleValue(), 0.0);
+  }
+
+  @Test
+  public void testParameterIntegerRounds()
+  {
+    final var parameter =
+      ExperimentParameterInteger.create("x", "X", 1L, 10L, 5L);
+
+    parameter.setNumeric(2.6);
+    assertEquals(3L, parameter.get());
+    assertThrows(IllegalArgumentException.class, () -> parameter.set(11L));
+    parameter.reset();
+    assertEquals(5L, parameter.get());
+  }
+
+  @Test
+  public void testParameterRealRange()
+  {
+    final var parameter =
+      ExperimentParameterReal.create("x", "X", 0.0, 1.0, 0.5);
+
+    parameter.set(0.25);
+    assertEquals(0.25, parameter.get(), 0.0);
+    assertThrows(IllegalArgumentException.class, () -> parameter.set(2.0));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> parameter.setNumeric(Double.NaN));
+  }
+}